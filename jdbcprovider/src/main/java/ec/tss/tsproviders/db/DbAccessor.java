@@ -92,6 +92,41 @@ public abstract class DbAccessor<BEAN extends DbBean> {
     @NonNull
     abstract protected DbSeries getSeriesWithData(@NonNull DbSetId ref) throws Exception;
 
+    /**
+     * Gets several series with their data. Depending on the implementation,
+     * the series are retrieved by a few bulk requests instead of one request
+     * by series.
+     *
+     * @param dimValues the dimension values of each series
+     * @return the series, in the order of the given dimension values
+     * @throws Exception
+     */
+    @NonNull
+    public final List<DbSeries> getSeriesWithData(@NonNull List<String[]> dimValues) throws Exception {
+        List<DbSetId> refs = new ArrayList<>(dimValues.size());
+        for (String[] o : dimValues) {
+            refs.add(check(getRoot().child(o), DbSetId.SERIES_CONSTRAINT));
+        }
+        return getManySeriesWithData(refs);
+    }
+
+    /**
+     * Gets several series with their data. The default implementation gets
+     * the series one by one.
+     *
+     * @param refs non-null objects that identify series.
+     * @return the series, in the order of the references
+     * @throws Exception
+     */
+    @NonNull
+    protected List<DbSeries> getManySeriesWithData(@NonNull List<DbSetId> refs) throws Exception {
+        List<DbSeries> result = new ArrayList<>(refs.size());
+        for (DbSetId o : refs) {
+            result.add(getSeriesWithData(o));
+        }
+        return result;
+    }
+
     @NonNull
     public final List<String> getChildren(String... dimValues) throws Exception {
         return getChildren(check(getRoot().child(dimValues), DbSetId.COLLECTION_CONSTRAINT));
@@ -179,6 +214,30 @@ public abstract class DbAccessor<BEAN extends DbBean> {
         @NonNull
         abstract protected Callable<DbSeries> getSeriesWithDataQuery(@NonNull DbSetId ref);
 
+        @Override
+        protected List<DbSeries> getManySeriesWithData(List<DbSetId> refs) throws Exception {
+            return getManySeriesWithDataQuery(refs).call();
+        }
+
+        /**
+         * Returns a callable that creates several series with their data. The
+         * default implementation executes the queries of the series one by
+         * one.
+         *
+         * @param refs non-null objects that identify series.
+         * @return
+         */
+        @NonNull
+        protected Callable<List<DbSeries>> getManySeriesWithDataQuery(@NonNull List<DbSetId> refs) {
+            return () -> {
+                List<DbSeries> result = new ArrayList<>(refs.size());
+                for (DbSetId o : refs) {
+                    result.add(getSeriesWithDataQuery(o).call());
+                }
+                return result;
+            };
+        }
+
         @Override
         protected List<String> getChildren(DbSetId ref) throws Exception {
             return getChildrenQuery(ref).call();
@@ -228,6 +287,11 @@ public abstract class DbAccessor<BEAN extends DbBean> {
             return getDelegate().getSeriesWithData(ref);
         }
 
+        @Override
+        protected List<DbSeries> getManySeriesWithData(List<DbSetId> refs) throws Exception {
+            return getDelegate().getManySeriesWithData(refs);
+        }
+
         @Override
         protected List<String> getChildren(DbSetId ref) throws Exception {
             return getDelegate().getChildren(ref);
@@ -313,5 +377,47 @@ public abstract class DbAccessor<BEAN extends DbBean> {
             }
             return getDelegate().getSeriesWithData(ref);
         }
+
+        @Override
+        protected List<DbSeries> getManySeriesWithData(List<DbSetId> refs) throws Exception {
+            if (!isCacheEnabled()) {
+                return getDelegate().getManySeriesWithData(refs);
+            }
+            // the series with a cached ancestor are taken from the cache, the
+            // other ones (including the unknown ones) are requested together
+            DbSeries[] result = new DbSeries[refs.size()];
+            List<DbSetId> missing = new ArrayList<>();
+            // series of the cached ancestors, indexed by id
+            Map<DbSetId, Map<DbSetId, DbSeries>> ancestors = new HashMap<>();
+            for (int i = 0; i < result.length; ++i) {
+                DbSetId ref = refs.get(i);
+                Optional<DbSetId> ancestor = ref.isSeries() ? getAncestorForCache(ref) : Optional.absent();
+                if (ancestor.isPresent()) {
+                    Map<DbSetId, DbSeries> series = ancestors.get(ancestor.get());
+                    if (series == null) {
+                        series = new HashMap<>();
+                        for (DbSeries o : getAllSeriesWithData(ancestor.get())) {
+                            if (o != null) {
+                                series.putIfAbsent(o.getId(), o);
+                            }
+                        }
+                        ancestors.put(ancestor.get(), series);
+                    }
+                    result[i] = series.get(ref);
+                }
+                if (result[i] == null) {
+                    missing.add(ref);
+                }
+            }
+            if (!missing.isEmpty()) {
+                Iterator<DbSeries> iter = getDelegate().getManySeriesWithData(missing).iterator();
+                for (int i = 0; i < result.length; ++i) {
+                    if (result[i] == null) {
+                        result[i] = iter.next();
+                    }
+                }
+            }
+            return Arrays.asList(result);
+        }
     }
 }
@@ -29,9 +29,12 @@ import ec.tss.tsproviders.utils.OptionalTsData;
 import ec.tstoolkit.timeseries.simplets.TsFrequency;
 import ec.tstoolkit.utilities.Arrays2;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
 
@@ -171,6 +174,62 @@ public abstract class DbProvider<BEAN extends DbBean> extends AbstractDataSource
         }
     }
 
+    /**
+     * Processes several series requests. The data of the series of the same
+     * DataSource are retrieved together (see
+     * {@link DbAccessor#getSeriesWithData(java.util.List)}).
+     *
+     * @param infos
+     * @return
+     */
+    @Override
+    protected boolean process(List<TsInformation> infos) {
+        boolean result = true;
+        Map<DataSource, List<TsInformation>> bulk = new LinkedHashMap<>();
+        for (TsInformation info : infos) {
+            DataSet dataSet = info.type.intValue() >= TsInformationType.Data.intValue() ? toDataSet(info.moniker) : null;
+            if (support.checkQuietly(dataSet, DataSet.Kind.SERIES)) {
+                bulk.computeIfAbsent(dataSet.getDataSource(), o -> new ArrayList<>()).add(info);
+            } else if (!process(info)) {
+                result = false;
+            }
+        }
+        for (Map.Entry<DataSource, List<TsInformation>> o : bulk.entrySet()) {
+            try {
+                fillSeries(o.getValue(), o.getKey());
+            } catch (Exception ex) {
+                for (TsInformation info : o.getValue()) {
+                    support.reportException(info, ex, this::getDisplayName);
+                }
+                result = false;
+            }
+        }
+        return result;
+    }
+
+    private void fillSeries(@NonNull List<TsInformation> infos, @NonNull DataSource dataSource) throws IOException {
+        DbAccessor<BEAN> acc = getAccessor(dataSource);
+        List<DataSet> dataSets = new ArrayList<>(infos.size());
+        List<String[]> dimValues = new ArrayList<>(infos.size());
+        for (TsInformation info : infos) {
+            DataSet dataSet = toDataSet(info.moniker);
+            dataSets.add(dataSet);
+            dimValues.add(DIM_MAP.get(dataSet).dimValues);
+        }
+        List<DbSeries> series;
+        try {
+            series = acc.getSeriesWithData(dimValues);
+        } catch (Exception ex) {
+            throw new IOException("Cannot retrieve DataSet data", ex);
+        }
+        for (int i = 0; i < infos.size(); i++) {
+            TsInformation info = infos.get(i);
+            info.name = getDisplayName(dataSets.get(i));
+            info.type = TsInformationType.All;
+            support.fillSeries(info, series.get(i).getData(), true);
+        }
+    }
+
     @NonNull
     private List<TsInformation> getAll(@NonNull DataSource dataSource, @NonNull List<DbSetId> list, @NonNull TsInformationType type) {
         if (list.isEmpty()) {
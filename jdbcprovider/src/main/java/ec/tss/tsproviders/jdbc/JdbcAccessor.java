@@ -39,8 +39,28 @@ import org.slf4j.Logger;
  */
 public class JdbcAccessor<BEAN extends JdbcBean> extends DbAccessor.Commander<BEAN> {
 
+    /**
+     * Default number of rows fetched in one round-trip to the database. Some
+     * drivers use very small values by default (10 rows for Oracle).
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+    /**
+     * Maximum number of series requested in one query by
+     * {@link #getManySeriesWithDataQuery(java.util.List)}. Each series adds a
+     * group of conditions (one parameter by dimension) to the WHERE clause of
+     * the query: (c1=? AND c2=?) OR (c1=? AND c2=?) OR ...
+     */
+    public static final int DEFAULT_BATCH_SIZE = 50;
+    /**
+     * Maximum number of parameters of a query. Some databases limit it (2100
+     * for SQL Server); the batches are reduced accordingly.
+     */
+    public static final int MAX_PARAMETER_COUNT = 2000;
+
     protected final Logger logger;
     protected final ConnectionSupplier supplier;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
 
     public JdbcAccessor(@NonNull Logger logger, @NonNull BEAN dbBean, @NonNull ConnectionSupplier supplier) {
         super(dbBean);
@@ -48,6 +68,35 @@ public class JdbcAccessor<BEAN extends JdbcBean> extends DbAccessor.Commander<BE
         this.supplier = supplier;
     }
 
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets the number of rows that should be fetched from the database when
+     * more rows are needed (hint given to the driver).
+     *
+     * @param fetchSize a positive number or 0 to use the default of the driver
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize >= 0 ? fetchSize : 0;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of series that are requested in one query when
+     * several series are retrieved together. The actual batches never exceed
+     * {@link #MAX_PARAMETER_COUNT} parameters.
+     *
+     * @param batchSize a positive number
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize > 0 ? batchSize : 1;
+    }
+
     @Override
     public Exception testDbBean() {
         Exception result = super.testDbBean();
@@ -241,6 +290,110 @@ public class JdbcAccessor<BEAN extends JdbcBean> extends DbAccessor.Commander<BE
         };
     }
 
+    @Override
+    protected Callable<List<DbSeries>> getManySeriesWithDataQuery(List<DbSetId> refs) {
+        return () -> {
+            // one query by batch of (distinct) series
+            List<DbSetId> ids = new ArrayList<>(new LinkedHashSet<>(refs));
+            Map<DbSetId, DbSeries> series = new HashMap<>();
+            int size = getBatchSize(batchSize, getRoot().getMaxLevel());
+            for (int i = 0; i < ids.size(); i += size) {
+                for (DbSeries o : getSeriesBatchQuery(ids.subList(i, Math.min(ids.size(), i + size))).call()) {
+                    series.put(o.getId(), o);
+                }
+            }
+            List<DbSeries> result = new ArrayList<>(refs.size());
+            for (DbSetId o : refs) {
+                DbSeries s = series.get(o);
+                result.add(s != null ? s : newEmptySeries(o));
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Gets the number of series of a batch, so that the query doesn't exceed
+     * {@link #MAX_PARAMETER_COUNT} parameters.
+     *
+     * @param batchSize the requested batch size
+     * @param dimCount the number of dimensions (parameters by series)
+     * @return
+     */
+    static int getBatchSize(int batchSize, int dimCount) {
+        return dimCount == 0 ? batchSize : Math.max(1, Math.min(batchSize, MAX_PARAMETER_COUNT / dimCount));
+    }
+
+    private DbSeries newEmptySeries(DbSetId ref) {
+        JdbcBean dbBean = getDbBean();
+        DbUtil.SeriesWithDataCursor<RuntimeException> cursor = new DbUtil.SeriesWithDataCursor<RuntimeException>() {
+            @Override
+            public boolean next() {
+                return false;
+            }
+        };
+        return DbUtil.getSeriesWithData(cursor, ref, dbBean.getFrequency(), dbBean.getAggregationType());
+    }
+
+    /**
+     * Creates a query that retrieves several series (with their data) at
+     * once. The series that have no data are not included in the result.
+     *
+     * @param refs non-null objects that identify series.
+     * @return
+     */
+    @NonNull
+    protected Callable<List<DbSeries>> getSeriesBatchQuery(@NonNull List<DbSetId> refs) {
+        DbSetId root = getRoot();
+        return new JdbcQuery<List<DbSeries>>(root) {
+            @Override
+            protected String getQueryString(DatabaseMetaData metaData) throws SQLException {
+                JdbcBean dbBean = getDbBean();
+                return SelectBuilder.from(dbBean.getTableName())
+                        .select(root.selectColumns()).select(dbBean.getPeriodColumn(), dbBean.getValueColumn())
+                        .filter(root.selectColumns())
+                        .filterAnyOf(refs.size())
+                        .orderBy(root.selectColumns()).orderBy(dbBean.getPeriodColumn(), dbBean.getVersionColumn())
+                        .withQuoter(SqlIdentifierQuoter.of(metaData))
+                        .build();
+            }
+
+            @Override
+            protected void setParameters(PreparedStatement statement) throws SQLException {
+                int pos = 1;
+                for (DbSetId o : refs) {
+                    for (int i = 0; i < o.getLevel(); i++) {
+                        statement.setString(pos++, o.getValue(i));
+                    }
+                }
+            }
+
+            @Override
+            protected List<DbSeries> process(final ResultSet rs) throws SQLException {
+                // same columns as getAllSeriesWithDataQuery(root)
+                ResultSetMetaData metaData = rs.getMetaData();
+                final ResultSetFunc<String[]> toDimValues = getDimValuesFunc(metaData, 1, root.getDepth());
+                final ResultSetFunc<java.util.Date> toPeriod = getPeriodFunc(metaData, root.getDepth() + 1);
+                final ResultSetFunc<Number> toValue = getValueFunc(metaData, root.getDepth() + 2);
+
+                DbUtil.AllSeriesWithDataCursor<SQLException> cursor = new DbUtil.AllSeriesWithDataCursor<SQLException>() {
+                    @Override
+                    public boolean next() throws SQLException {
+                        boolean result = rs.next();
+                        if (result) {
+                            dimValues = toDimValues.apply(rs);
+                            period = toPeriod.apply(rs);
+                            value = period != null ? toValue.apply(rs) : null;
+                        }
+                        return result;
+                    }
+                };
+
+                JdbcBean dbBean = getDbBean();
+                return DbUtil.getAllSeriesWithData(cursor, root, dbBean.getFrequency(), dbBean.getAggregationType());
+            }
+        };
+    }
+
     @Override
     protected Callable<List<String>> getChildrenQuery(DbSetId ref) {
         return new JdbcQuery<List<String>>(ref) {
@@ -337,6 +490,9 @@ public class JdbcAccessor<BEAN extends JdbcBean> extends DbAccessor.Commander<BE
                     String queryString = getQueryString(conn.getMetaData());
                     logger.debug(queryString);
                     try (PreparedStatement cmd = conn.prepareStatement(queryString)) {
+                        if (fetchSize > 0) {
+                            cmd.setFetchSize(fetchSize);
+                        }
                         setParameters(cmd);
                         try (ResultSet rs = cmd.executeQuery()) {
                             return process(rs);
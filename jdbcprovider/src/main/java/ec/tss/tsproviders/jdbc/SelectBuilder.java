@@ -43,6 +43,7 @@ final class SelectBuilder implements IBuilder<String> {
     private final List<String> filter;
     private final List<String> order;
     private boolean distinct;
+    private int filterCount;
     private SqlIdentifierQuoter identifierQuoter;
 
     private SelectBuilder(@NonNull String table) {
@@ -51,6 +52,7 @@ final class SelectBuilder implements IBuilder<String> {
         this.filter = new ArrayList<>();
         this.order = new ArrayList<>();
         this.distinct = false;
+        this.filterCount = 1;
         this.identifierQuoter = null;
     }
 
@@ -80,6 +82,19 @@ final class SelectBuilder implements IBuilder<String> {
         return addIfNotNullOrEmpty(this.filter, filter);
     }
 
+    /**
+     * Repeats the filter several times, the repetitions being combined by OR:
+     * (c1=? AND c2=?) OR (c1=? AND c2=?) OR ...
+     *
+     * @param filterCount the number of repetitions
+     * @return
+     */
+    @NonNull
+    SelectBuilder filterAnyOf(int filterCount) {
+        this.filterCount = filterCount;
+        return this;
+    }
+
     @NonNull
     SelectBuilder orderBy(@NonNull String... order) {
         return addIfNotNullOrEmpty(this.order, order);
@@ -106,12 +121,23 @@ final class SelectBuilder implements IBuilder<String> {
         // FROM
         result.append(" FROM ").append(toQuotedIdentifier.apply(table));
         // WHERE
-        if (!filter.isEmpty()) {
+        if (!filter.isEmpty() && filterCount > 0) {
             result.append(" WHERE ");
+            StringBuilder conjunction = new StringBuilder();
             Iterator<String> iter = filter.stream().map(toQuotedIdentifier).iterator();
-            result.append(iter.next()).append("=?");
+            conjunction.append(iter.next()).append("=?");
             while (iter.hasNext()) {
-                result.append(" AND ").append(iter.next()).append("=?");
+                conjunction.append(" AND ").append(iter.next()).append("=?");
+            }
+            if (filterCount == 1) {
+                result.append(conjunction);
+            } else {
+                for (int i = 0; i < filterCount; ++i) {
+                    if (i > 0) {
+                        result.append(" OR ");
+                    }
+                    result.append('(').append(conjunction).append(')');
+                }
             }
         }
         // ORDER BY
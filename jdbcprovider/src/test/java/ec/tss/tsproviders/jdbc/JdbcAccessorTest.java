@@ -20,6 +20,7 @@ import ec.tss.tsproviders.db.DbAccessor;
 import ec.tss.tsproviders.db.DbSeries;
 import ec.tss.tsproviders.db.DbSetId;
 import static ec.tss.tsproviders.jdbc.JdbcSamples.mydbConnectionSupplier;
+import java.util.Arrays;
 import java.util.List;
 import static org.junit.Assert.*;
 
@@ -153,6 +154,48 @@ public class JdbcAccessorTest {
         assertArrayEquals(D2[0], data.getData().get().internalStorage(), 0);
     }
 
+    @Test
+    public void testSeriesWithData_Many() throws Exception {
+        List<String[]> keys = Arrays.asList(
+                new String[]{"Other", "Europe"},
+                new String[]{"Industry", "Belgium"},
+                new String[]{"Industry", "Unknown"},
+                new String[]{"Other", "Europe"});
+        JdbcAccessor a2 = new JdbcAccessor(NOP_LOGGER, mydbTwoDimsBean(), mydbConnectionSupplier());
+        a2.setBatchSize(2);
+        List<DbSeries> data = a2.getSeriesWithData(keys);
+        assertEquals(keys.size(), data.size());
+        for (int i = 0; i < keys.size(); ++i) {
+            assertEquals(A2.getSeriesWithData(keys.get(i)), data.get(i));
+        }
+        assertArrayEquals(D2[3], data.get(0).getData().get().internalStorage(), 0);
+        assertArrayEquals(D2[0], data.get(1).getData().get().internalStorage(), 0);
+        assertFalse(data.get(2).getData().isPresent());
+    }
+
+    @Test
+    public void testBatchSize() {
+        assertEquals(JdbcAccessor.DEFAULT_BATCH_SIZE, JdbcAccessor.getBatchSize(JdbcAccessor.DEFAULT_BATCH_SIZE, 2));
+        assertEquals(1000, JdbcAccessor.getBatchSize(5000, 2));
+        assertEquals(JdbcAccessor.MAX_PARAMETER_COUNT, JdbcAccessor.getBatchSize(5000, 1));
+        assertEquals(1, JdbcAccessor.getBatchSize(10, JdbcAccessor.MAX_PARAMETER_COUNT + 1));
+        assertEquals(5000, JdbcAccessor.getBatchSize(5000, 0));
+    }
+
+    @Test
+    public void testSeriesWithData_ManyCached() throws Exception {
+        List<String[]> keys = Arrays.asList(
+                new String[]{"Industry", "Europe"},
+                new String[]{"Other", "Belgium"},
+                new String[]{"Industry", "Unknown"});
+        JdbcBean b2c1 = mydbTwoDimsBean();
+        b2c1.setCacheDepth(1);
+        DbAccessor a2c1 = new JdbcAccessor(NOP_LOGGER, b2c1, mydbConnectionSupplier()).memoize();
+        List<DbSeries> data = a2c1.getSeriesWithData(keys);
+        assertEquals(A2.getSeriesWithData(keys), data);
+        assertSame(a2c1.getSeriesWithData("Industry", "Europe"), data.get(0));
+    }
+
     @Test
     public void testCache() throws Exception {
         JdbcBean b2c1 = mydbTwoDimsBean();
@@ -16,9 +16,16 @@
  */
 package ec.tss.tsproviders.jdbc.jndi;
 
+import ec.tss.TsInformation;
+import ec.tss.TsInformationType;
+import ec.tss.tsproviders.DataSet;
+import ec.tss.tsproviders.DataSource;
 import ec.tss.tsproviders.IDataSourceLoaderAssert;
 import static ec.tss.tsproviders.jdbc.JdbcSamples.mydbConnectionSupplier;
 import static ec.tss.tsproviders.jdbc.JdbcSamples.mydbTwoDimsBean;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
 import org.junit.Test;
 
 /**
@@ -32,6 +39,30 @@ public class JndiJdbcProviderTest {
         IDataSourceLoaderAssert.assertCompliance(JndiJdbcProviderTest::newProvider, o -> mydbTwoDimsBean());
     }
 
+    @Test
+    public void testGetMany() {
+        String[][] keys = {{"Other", "Europe"}, {"Industry", "Belgium"}, {"Industry", "Unknown"}};
+        try (JndiJdbcProvider p1 = newProvider(); JndiJdbcProvider p2 = newProvider()) {
+            DataSource dataSource = p1.encodeBean(mydbTwoDimsBean());
+            List<TsInformation> many = new ArrayList<>();
+            for (String[] o : keys) {
+                DataSet dataSet = DataSet.builder(dataSource, DataSet.Kind.SERIES).put("Sector", o[0]).put("Region", o[1]).build();
+                many.add(new TsInformation(null, p1.toMoniker(dataSet), TsInformationType.Data));
+            }
+            p1.get(many);
+            for (TsInformation o : many.subList(0, 2)) {
+                TsInformation single = new TsInformation(null, o.moniker, TsInformationType.Data);
+                assertTrue(p2.get(single));
+                assertEquals(single.name, o.name);
+                assertEquals(single.type, o.type);
+                assertEquals(single.data, o.data);
+                assertEquals(single.invalidDataCause, o.invalidDataCause);
+            }
+            assertNotNull(many.get(0).data);
+            assertNull(many.get(2).data);
+        }
+    }
+
     private static JndiJdbcProvider newProvider() {
         JndiJdbcProvider result = new JndiJdbcProvider();
         result.setConnectionSupplier(mydbConnectionSupplier());
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.jmh;
+
+import ec.tstoolkit.arima.IArimaModel;
+import ec.tstoolkit.arima.estimation.FastArimaML;
+import ec.tstoolkit.arima.estimation.KalmanFilter;
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.sarima.SarimaModel;
+import ec.tstoolkit.sarima.SarimaModelBuilder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluation of the likelihood of an airline model; this is the inner loop of
+ * the estimation of Sarima models.
+ *
+ * @author Jean Palate
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ArimaLikelihoodBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ModelState {
+
+        @Param({"10", "25"})
+        public int years;
+
+        public SarimaModel airline;
+        public IArimaModel stationaryModel;
+        public DataBlock data, differencedData;
+
+        @Setup
+        public void setup() {
+            data = new DataBlock(SyntheticSeries.monthly(years).log().internalStorage());
+            airline = new SarimaModelBuilder().createAirlineModel(12, -.6, -.4);
+            stationaryModel = (IArimaModel) airline.stationaryTransformation().stationaryModel;
+            differencedData = new DataBlock(data.getLength() - airline.getNonStationaryARCount());
+            airline.getNonStationaryAR().filter(data, differencedData);
+        }
+    }
+
+    @Benchmark
+    public double fastArimaML(ModelState state) {
+        FastArimaML ml = new FastArimaML();
+        ml.setModel(state.airline);
+        ml.process(state.data);
+        return ml.getObjective();
+    }
+
+    @Benchmark
+    public double kalmanFilter(ModelState state) {
+        KalmanFilter kf = new KalmanFilter(false);
+        int n = kf.initialize(state.stationaryModel, state.differencedData.getLength());
+        DataBlock e = new DataBlock(n);
+        kf.filter(state.differencedData, e);
+        return e.ssq() + kf.getLogDeterminant();
+    }
+
+    @Benchmark
+    public double kalmanFilterMultiUse(ModelState state) {
+        KalmanFilter kf = new KalmanFilter(true);
+        int n = kf.initialize(state.stationaryModel, state.differencedData.getLength());
+        DataBlock e = new DataBlock(n);
+        kf.filter(state.differencedData, e);
+        return e.ssq() + kf.getLogDeterminant();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.jmh;
+
+import ec.satoolkit.seats.SeatsKernel;
+import ec.satoolkit.seats.SeatsResults;
+import ec.satoolkit.seats.SeatsSpecification;
+import ec.satoolkit.seats.SeatsToolkit;
+import ec.satoolkit.x11.X11Kernel;
+import ec.satoolkit.x11.X11Results;
+import ec.satoolkit.x11.X11Specification;
+import ec.satoolkit.x11.X11Toolkit;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decomposition kernels (X11 and Seats) applied to the raw synthetic series,
+ * without pre-processing.
+ *
+ * @author Jean Palate
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DecompositionBenchmark {
+
+    @Benchmark
+    public X11Results x11Kernel(SeriesState state) {
+        X11Kernel kernel = new X11Kernel();
+        kernel.setToolkit(X11Toolkit.create(new X11Specification()));
+        return kernel.process(state.series);
+    }
+
+    @Benchmark
+    public SeatsResults seatsKernel(SeriesState state) {
+        SeatsSpecification spec = new SeatsSpecification();
+        spec.setLog(true);
+        SeatsKernel kernel = new SeatsKernel();
+        kernel.setToolkit(SeatsToolkit.create(spec));
+        return kernel.process(state.series);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.jmh;
+
+import ec.tstoolkit.arima.IArimaModel;
+import ec.tstoolkit.arima.estimation.ArmaFunction;
+import ec.tstoolkit.arima.estimation.KalmanFilter;
+import ec.tstoolkit.arima.estimation.RegArimaModel;
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.maths.realfunctions.ISsqFunctionInstance;
+import ec.tstoolkit.sarima.SarimaModel;
+import ec.tstoolkit.sarima.SarimaModelBuilder;
+import ec.tstoolkit.sarima.estimation.SarimaMapping;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocations of the repeated evaluations of the likelihood of an airline
+ * model, by several threads (concurrent processing of a batch of series).
+ * <br>
+ * The benchmark should be run with the gc profiler
+ * (<code>-prof gc</code>); the "gc.alloc.rate.norm" metric gives the number
+ * of bytes allocated by evaluation.
+ *
+ * @author Jean Palate
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class LikelihoodAllocationBenchmark {
+
+    @State(Scope.Thread)
+    public static class FilterState {
+
+        @Param({"10", "25"})
+        public int years;
+
+        public IArimaModel stationaryModel;
+        public DataBlock differencedData, residuals;
+        public KalmanFilter filter;
+        public ArmaFunction<SarimaModel> fn;
+        public DataBlock p0;
+        int iter;
+
+        @Setup
+        public void setup() {
+            DataBlock data = new DataBlock(SyntheticSeries.monthly(years).log().internalStorage());
+            SarimaModel airline = new SarimaModelBuilder().createAirlineModel(12, -.6, -.4);
+            stationaryModel = (IArimaModel) airline.stationaryTransformation().stationaryModel;
+            differencedData = new DataBlock(data.getLength() - airline.getNonStationaryARCount());
+            airline.getNonStationaryAR().filter(data, differencedData);
+            residuals = new DataBlock(differencedData.getLength());
+            filter = new KalmanFilter(false);
+            RegArimaModel<SarimaModel> regarima = new RegArimaModel<>(airline, data);
+            regarima.setMeanCorrection(true);
+            fn = new ArmaFunction<>(regarima.getDModel(), airline.getNonStationaryARCount(), null,
+                    new SarimaMapping(airline.getSpecification(), false));
+            p0 = new DataBlock(airline.getParameters());
+        }
+    }
+
+    /**
+     * The filter is re-used: its working buffers are allocated once
+     *
+     * @param state
+     * @return
+     */
+    @Benchmark
+    public double reusedFilter(FilterState state) {
+        KalmanFilter kf = state.filter;
+        kf.initialize(state.stationaryModel, state.differencedData.getLength());
+        kf.filter(state.differencedData, state.residuals);
+        return state.residuals.ssq() + kf.getLogDeterminant();
+    }
+
+    /**
+     * A new filter is created for each evaluation
+     *
+     * @param state
+     * @return
+     */
+    @Benchmark
+    public double newFilter(FilterState state) {
+        KalmanFilter kf = new KalmanFilter(false);
+        kf.initialize(state.stationaryModel, state.differencedData.getLength());
+        kf.filter(state.differencedData, state.residuals);
+        return state.residuals.ssq() + kf.getLogDeterminant();
+    }
+
+    /**
+     * Evaluation of the concentrated likelihood (with a mean correction) in
+     * slightly different points, as in the optimization procedure. The
+     * function re-uses the same likelihood estimation (and filter) for all
+     * its evaluations
+     *
+     * @param state
+     * @return
+     */
+    @Benchmark
+    public double armaFunction(FilterState state) {
+        DataBlock p = state.p0.deepClone();
+        p.add(0, 1e-3 * (state.iter++ % 10));
+        ISsqFunctionInstance instance = state.fn.ssqEvaluate(p);
+        return instance.getSsqE();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.jmh;
+
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.maths.matrices.Householder;
+import ec.tstoolkit.maths.matrices.Matrix;
+import ec.tstoolkit.maths.matrices.SymmetricMatrix;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Low-level kernels of DataBlock and Matrix. The dimensions correspond to a
+ * regression model with n observations and k regression variables.
+ *
+ * @author Jean Palate
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MatrixBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MatrixState {
+
+        @Param({"120", "300", "600"})
+        public int n;
+
+        @Param({"10", "40"})
+        public int k;
+
+        public Matrix x, a, b;
+        public DataBlock y, z;
+
+        @Setup
+        public void setup() {
+            x = new Matrix(n, k);
+            x.randomize(1);
+            a = new Matrix(k, n);
+            a.randomize(2);
+            b = new Matrix(n, k);
+            b.randomize(3);
+            y = new DataBlock(n);
+            y.randomize(4);
+            z = new DataBlock(n);
+            z.randomize(5);
+        }
+    }
+
+    @Benchmark
+    public double dataBlockDot(MatrixState state) {
+        return state.y.dot(state.z);
+    }
+
+    @Benchmark
+    public DataBlock dataBlockAddAY(MatrixState state) {
+        DataBlock w = state.y.deepClone();
+        w.addAY(.5, state.z);
+        return w;
+    }
+
+    @Benchmark
+    public DataBlock matrixVectorProduct(MatrixState state) {
+        DataBlock r = new DataBlock(state.k);
+        r.product(state.x.columns(), state.y);
+        return r;
+    }
+
+    @Benchmark
+    public Matrix matrixProduct(MatrixState state) {
+        return state.a.times(state.b);
+    }
+
+    @Benchmark
+    public Matrix xtx(MatrixState state) {
+        return SymmetricMatrix.XtX(state.x);
+    }
+
+    @Benchmark
+    public Matrix cholesky(MatrixState state) {
+        Matrix s = SymmetricMatrix.XtX(state.x);
+        SymmetricMatrix.lcholesky(s);
+        return s;
+    }
+
+    @Benchmark
+    public double[] householderSolve(MatrixState state) {
+        Householder qr = new Householder(false);
+        qr.decompose(state.x);
+        return qr.solve(state.y.getData());
+    }
+}
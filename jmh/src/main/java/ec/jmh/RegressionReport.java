@@ -0,0 +1,236 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.jmh;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files (csv format, "-rf csv") and reports the
+ * benchmarks whose score changed by more than a given threshold.
+ * <br>
+ * Usage: RegressionReport baseline.csv current.csv [threshold in %, default 10]
+ * <br>
+ * The process exits with status 1 when at least one regression is detected,
+ * so that it can be used in a nightly job.
+ *
+ * @author Jean Palate
+ */
+public final class RegressionReport {
+
+    public static final double DEFAULT_THRESHOLD = 10;
+
+    public static enum Status {
+        OK, IMPROVEMENT, REGRESSION, NEW, MISSING
+    }
+
+    public static final class Result {
+
+        public final String key, mode, unit;
+        public final double score, error;
+
+        Result(String key, String mode, double score, double error, String unit) {
+            this.key = key;
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+
+        boolean isHigherBetter() {
+            return mode.equalsIgnoreCase("thrpt");
+        }
+    }
+
+    public static final class Line {
+
+        public final String key;
+        public final Result baseline, current;
+        public final double change;
+        public final Status status;
+
+        Line(String key, Result baseline, Result current, double threshold) {
+            this.key = key;
+            this.baseline = baseline;
+            this.current = current;
+            if (baseline == null) {
+                change = Double.NaN;
+                status = Status.NEW;
+            } else if (current == null) {
+                change = Double.NaN;
+                status = Status.MISSING;
+            } else {
+                change = 100 * (current.score - baseline.score) / baseline.score;
+                double delta = Math.abs(current.score - baseline.score);
+                double noise = (Double.isNaN(baseline.error) ? 0 : baseline.error)
+                        + (Double.isNaN(current.error) ? 0 : current.error);
+                if (Math.abs(change) <= threshold || delta <= noise) {
+                    status = Status.OK;
+                } else if ((change > 0) == current.isHigherBetter()) {
+                    status = Status.IMPROVEMENT;
+                } else {
+                    status = Status.REGRESSION;
+                }
+            }
+        }
+    }
+
+    private final List<Line> lines = new ArrayList<>();
+
+    public RegressionReport(Map<String, Result> baseline, Map<String, Result> current, double threshold) {
+        for (Map.Entry<String, Result> entry : baseline.entrySet()) {
+            lines.add(new Line(entry.getKey(), entry.getValue(), current.get(entry.getKey()), threshold));
+        }
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            if (!baseline.containsKey(entry.getKey())) {
+                lines.add(new Line(entry.getKey(), null, entry.getValue(), threshold));
+            }
+        }
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    public int count(Status status) {
+        int n = 0;
+        for (Line line : lines) {
+            if (line.status == status) {
+                ++n;
+            }
+        }
+        return n;
+    }
+
+    public void print(PrintStream out) {
+        out.println(String.format(Locale.ROOT, "%-80s %14s %14s %9s  %s", "Benchmark", "Baseline", "Current", "Change", "Status"));
+        for (Line line : lines) {
+            out.println(String.format(Locale.ROOT, "%-80s %14s %14s %9s  %s", line.key,
+                    format(line.baseline), format(line.current),
+                    Double.isNaN(line.change) ? "" : String.format(Locale.ROOT, "%+.1f%%", line.change),
+                    line.status));
+        }
+        out.println();
+        out.println(String.format(Locale.ROOT, "%d regression(s), %d improvement(s), %d new, %d missing",
+                count(Status.REGRESSION), count(Status.IMPROVEMENT), count(Status.NEW), count(Status.MISSING)));
+    }
+
+    private static String format(Result r) {
+        return r == null ? "" : String.format(Locale.ROOT, "%.3f %s", r.score, r.unit);
+    }
+
+    /**
+     * Reads a JMH result file in csv format. The key of a result is made of
+     * the name of the benchmark and of the values of its parameters.
+     *
+     * @param file The csv file
+     * @return The results, in the order of the file
+     * @throws IOException
+     */
+    public static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null) {
+                return results;
+            }
+            List<String> header = split(line);
+            int ibench = header.indexOf("Benchmark"), imode = header.indexOf("Mode"),
+                    iscore = header.indexOf("Score"), iunit = header.indexOf("Unit"), ierror = -1;
+            for (int i = 0; i < header.size(); ++i) {
+                if (header.get(i).startsWith("Score Error")) {
+                    ierror = i;
+                }
+            }
+            if (ibench < 0 || imode < 0 || iscore < 0) {
+                throw new IOException("Invalid JMH csv file: " + file);
+            }
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                List<String> items = split(line);
+                StringBuilder key = new StringBuilder(items.get(ibench));
+                for (int i = 0; i < header.size(); ++i) {
+                    if (header.get(i).startsWith("Param: ") && i < items.size() && !items.get(i).isEmpty()) {
+                        key.append(':').append(header.get(i).substring(7)).append('=').append(items.get(i));
+                    }
+                }
+                String skey = key.toString();
+                results.put(skey, new Result(skey, items.get(imode), number(items.get(iscore)),
+                        ierror < 0 ? Double.NaN : number(items.get(ierror)),
+                        iunit < 0 ? "" : items.get(iunit)));
+            }
+        }
+        return results;
+    }
+
+    private static double number(String s) {
+        if (s.isEmpty() || s.equalsIgnoreCase("NaN")) {
+            return Double.NaN;
+        }
+        return Double.parseDouble(s.replace(',', '.'));
+    }
+
+    private static List<String> split(String line) {
+        List<String> items = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); ++i) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append(c);
+                    ++i;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                items.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        items.add(cur.toString());
+        return items;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionReport baseline.csv current.csv [threshold(%)]");
+            System.exit(2);
+        }
+        Path baseline = Paths.get(args[0]), current = Paths.get(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        RegressionReport report = new RegressionReport(read(baseline), read(current), threshold);
+        report.print(System.out);
+        if (report.count(Status.REGRESSION) > 0) {
+            System.exit(1);
+        }
+    }
+}
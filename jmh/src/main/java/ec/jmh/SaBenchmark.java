@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.jmh;
+
+import ec.satoolkit.algorithm.implementation.TramoSeatsProcessingFactory;
+import ec.satoolkit.algorithm.implementation.X13ProcessingFactory;
+import ec.satoolkit.tramoseats.TramoSeatsSpecification;
+import ec.satoolkit.x13.X13Specification;
+import ec.tstoolkit.algorithm.CompositeResults;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Complete seasonal adjustments (pre-processing + decomposition + diagnostics).
+ * TramoSeatsProcessor and X13Processor (jtss) delegate to the processing
+ * factories benchmarked here.
+ *
+ * @author Jean Palate
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class SaBenchmark {
+
+    @Benchmark
+    public CompositeResults tramoSeatsRSA5(SeriesState state) {
+        return TramoSeatsProcessingFactory.process(state.series, TramoSeatsSpecification.RSA5);
+    }
+
+    @Benchmark
+    public CompositeResults tramoSeatsRSA1(SeriesState state) {
+        return TramoSeatsProcessingFactory.process(state.series, TramoSeatsSpecification.RSA1);
+    }
+
+    @Benchmark
+    public CompositeResults x13RSA5(SeriesState state) {
+        return X13ProcessingFactory.process(state.series, X13Specification.RSA5);
+    }
+
+    @Benchmark
+    public CompositeResults x13RSA1(SeriesState state) {
+        return X13ProcessingFactory.process(state.series, X13Specification.RSA1);
+    }
+}
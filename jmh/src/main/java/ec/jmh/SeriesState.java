@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.jmh;
+
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsFrequency;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state holding one synthetic series. The frequency and the length
+ * of the series are parameters of the benchmarks.
+ *
+ * @author Jean Palate
+ */
+@State(Scope.Benchmark)
+public class SeriesState {
+
+    @Param({"12", "4"})
+    public int frequency;
+
+    @Param({"10", "25"})
+    public int years;
+
+    public TsData series;
+
+    @Setup
+    public void setup() {
+        series = SyntheticSeries.airline(TsFrequency.valueOf(frequency), years);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.jmh;
+
+import ec.tstoolkit.arima.ArimaModelBuilder;
+import ec.tstoolkit.random.XorshiftRNG;
+import ec.tstoolkit.sarima.SarimaModel;
+import ec.tstoolkit.sarima.SarimaModelBuilder;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsFrequency;
+
+/**
+ * Reproducible synthetic series used by the benchmarks. The series are
+ * generated by an airline model with a fixed seed, so that two runs of the
+ * same benchmark always process exactly the same data.
+ *
+ * @author Jean Palate
+ */
+public final class SyntheticSeries {
+
+    public static final int DEFAULT_SEED = 20130101;
+
+    private SyntheticSeries() {
+    }
+
+    /**
+     * Creates a positive series following (in logs) an airline model
+     *
+     * @param freq The frequency of the series
+     * @param nyears The number of years
+     * @param seed The seed of the random number generator
+     * @return A new series, starting in January 1990
+     */
+    public static TsData airline(TsFrequency freq, int nyears, int seed) {
+        int ifreq = freq.intValue();
+        SarimaModelBuilder mbuilder = new SarimaModelBuilder();
+        SarimaModel airline = mbuilder.createAirlineModel(ifreq, -.6, -.4);
+        ArimaModelBuilder gbuilder = new ArimaModelBuilder();
+        gbuilder.setRandomNumberGenerator(new XorshiftRNG(seed));
+        gbuilder.setStartMean(0);
+        gbuilder.setStartStdev(0);
+        gbuilder.setDropCount(ifreq);
+        double[] w = gbuilder.generate(airline, ifreq * nyears);
+        for (int i = 0; i < w.length; ++i) {
+            w[i] = 100 * Math.exp(.02 * w[i] + .05 * Math.sin(2 * Math.PI * i / ifreq));
+        }
+        return new TsData(freq, 1990, 0, w, false);
+    }
+
+    public static TsData airline(TsFrequency freq, int nyears) {
+        return airline(freq, nyears, DEFAULT_SEED);
+    }
+
+    public static TsData monthly(int nyears) {
+        return airline(TsFrequency.Monthly, nyears);
+    }
+
+    public static TsData quarterly(int nyears) {
+        return airline(TsFrequency.Quarterly, nyears);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.jmh;
+
+import ec.tstoolkit.timeseries.TsAggregationType;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsFrequency;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Arithmetic on TsData, as used everywhere in the decomposition and in the
+ * diagnostics.
+ *
+ * @author Jean Palate
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TsDataBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class PairState {
+
+        public TsData s, t;
+
+        @Setup
+        public void setup() {
+            s = SyntheticSeries.airline(TsFrequency.Monthly, 20, 1);
+            // partially overlapping domains
+            t = SyntheticSeries.airline(TsFrequency.Monthly, 20, 2).lead(12);
+        }
+    }
+
+    @Benchmark
+    public TsData plus(PairState state) {
+        return TsData.add(state.s, state.t);
+    }
+
+    @Benchmark
+    public TsData times(PairState state) {
+        return TsData.multiply(state.s, state.t);
+    }
+
+    @Benchmark
+    public TsData div(PairState state) {
+        return state.s.div(state.t);
+    }
+
+    @Benchmark
+    public TsData log(PairState state) {
+        return state.s.log();
+    }
+
+    @Benchmark
+    public TsData delta12(PairState state) {
+        return state.s.delta(12);
+    }
+
+    @Benchmark
+    public TsData toQuarterly(PairState state) {
+        return state.s.changeFrequency(TsFrequency.Quarterly, TsAggregationType.Sum, true);
+    }
+}
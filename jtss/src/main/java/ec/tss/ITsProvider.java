@@ -17,6 +17,7 @@
 package ec.tss;
 
 import ec.tstoolkit.design.Development;
+import java.util.List;
 import nbbrd.service.Quantifier;
 import nbbrd.service.ServiceDefinition;
 import net.jcip.annotations.ThreadSafe;
@@ -74,6 +75,25 @@ public interface ITsProvider extends AutoCloseable {
      */
     boolean get(@NonNull TsInformation info);
 
+    /**
+     * Synchronous query of the information about several ts of this provider.
+     * The provider may retrieve them together. The default implementation
+     * queries them one by one.
+     *
+     * @param infos The requested information
+     * @return true if all the queries run without exception, false otherwise
+     * @since 2.2.7
+     */
+    default boolean get(@NonNull List<TsInformation> infos) {
+        boolean result = true;
+        for (TsInformation info : infos) {
+            if (!get(info)) {
+                result = false;
+            }
+        }
+        return result;
+    }
+
     /**
      * Gets the asynchronous mode of the provider.
      *
@@ -30,6 +30,7 @@ import ec.tstoolkit.design.Development;
 import ec.tstoolkit.design.Internal;
 import ec.tstoolkit.design.NewObject;
 import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsDataBatch;
 import ec.tstoolkit.timeseries.simplets.TsDataTable;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -49,6 +50,8 @@ public final class TsCollection implements ITsIdentified, IDocumented, Iterable<
 
         boolean load(@NonNull TsCollection c, @NonNull TsInformationType type);
 
+        boolean load(@NonNull Iterable<Ts> list, @NonNull TsInformationType type);
+
         boolean query(@NonNull TsCollection c, @NonNull TsInformationType type);
 
         void notify(TsCollection s, TsInformationType type, Object sender);
@@ -394,6 +397,24 @@ public final class TsCollection implements ITsIdentified, IDocumented, Iterable<
         return data;
     }
 
+    /**
+     * Gets all the data of the collection in a columnar batch.
+     *
+     * @return A new batch, with one entry by item of the collection. Missing
+     * series correspond to missing entries of the batch
+     */
+    public TsDataBatch getDataBatch() {
+        Ts[] all = this.toArray();
+        TsDataBatch.Builder builder = new TsDataBatch.Builder(all.length, 0);
+        for (int i = 0; i < all.length; ++i) {
+            if (all[i].hasData() == TsStatus.Undefined) {
+                all[i].load(TsInformationType.Data);
+            }
+            builder.add(all[i].hasData() == TsStatus.Valid ? all[i].getTsData() : null);
+        }
+        return builder.build();
+    }
+
     /**
      *
      * @return
@@ -498,9 +519,12 @@ public final class TsCollection implements ITsIdentified, IDocumented, Iterable<
             return true;
         }
         if (m_moniker.isAnonymous()) {
-            return m_ts.stream()
-                    .map(o -> o.load(type))
-                    .reduce(Boolean.TRUE, (l, r) -> r && l);
+            // the missing information is requested at once, so that the
+            // providers can group the requests
+            List<Ts> missing = m_ts.stream()
+                    .filter(o -> !o.getInformationType().encompass(type))
+                    .collect(Collectors.toList());
+            return missing.isEmpty() || factory.load(missing, type);
         }
         return factory.load(this, type);
     }
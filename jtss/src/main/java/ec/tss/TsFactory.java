@@ -388,6 +388,21 @@ public class TsFactory {
         return true;
     }
 
+    private boolean fill(List<TsInformation> infos) {
+        ITsProvider provider = getProvider(infos.get(0).moniker.getSource());
+        if (provider == null) {
+            infos.forEach(o -> o.invalidDataCause = "Missing provider");
+            return false;
+        }
+        if (!provider.get(infos)) {
+            infos.stream()
+                    .filter(o -> o.invalidDataCause == null && o.data == null)
+                    .forEach(o -> o.invalidDataCause = "Unknown error");
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Creates a new collection with the specified name.
      *
@@ -684,6 +699,8 @@ public class TsFactory {
     }
 
     /**
+     * Loads information for several time series. The series of the same
+     * provider are requested together (see ITsProvider.get(List)).
      *
      * @param list
      * @param type
@@ -691,14 +708,58 @@ public class TsFactory {
      */
     public boolean load(Ts[] list, TsInformationType type) {
         boolean ok = false;
-        for (Ts s : list) {
-            if (load(s, type)) {
+        for (List<Ts.Master> masters : groupBySource(Arrays.asList(list))) {
+            if (doLoad(masters, type)) {
                 ok = true;
             }
         }
         return ok;
     }
 
+    private boolean loadAll(Iterable<Ts> list, TsInformationType type) {
+        boolean ok = true;
+        for (List<Ts.Master> masters : groupBySource(list)) {
+            if (!doLoad(masters, type)) {
+                ok = false;
+            }
+        }
+        return ok;
+    }
+
+    private static Collection<List<Ts.Master>> groupBySource(Iterable<Ts> list) {
+        Map<String, List<Ts.Master>> result = new LinkedHashMap<>();
+        for (Ts s : list) {
+            Ts.Master master = s.getMaster();
+            String source = master.getMoniker().isAnonymous() ? null : master.getMoniker().getSource();
+            result.computeIfAbsent(source, o -> new ArrayList<>()).add(master);
+        }
+        return result.values();
+    }
+
+    private boolean doLoad(@NonNull List<Ts.Master> list, @NonNull TsInformationType type) {
+        if (list.size() == 1 || list.get(0).getMoniker().isAnonymous()) {
+            boolean result = true;
+            for (Ts.Master o : list) {
+                if (!doLoad(o, type)) {
+                    result = false;
+                }
+            }
+            return result;
+        }
+        List<TsInformation> infos = new ArrayList<>(list.size());
+        for (Ts.Master o : list) {
+            infos.add(new TsInformation(o.getName(), o.getMoniker(), type));
+        }
+        boolean result = fill(infos);
+        for (int i = 0; i < infos.size(); ++i) {
+            TsInformation info = infos.get(i);
+            Ts.Master ts = list.get(i);
+            ts.update(info);
+            notify(ts, info.type, this);
+        }
+        return result;
+    }
+
     /**
      * Loads information for the corresponding object (it is not checked that
      * that information has already been loaded). If a corresponding
@@ -1019,6 +1080,11 @@ public class TsFactory {
             return TsFactory.this.load(c, type);
         }
 
+        @Override
+        public boolean load(Iterable<Ts> list, TsInformationType type) {
+            return TsFactory.this.loadAll(list, type);
+        }
+
         @Override
         public boolean query(TsCollection c, TsInformationType type) {
             return TsFactory.this.query(c, type);
@@ -21,18 +21,25 @@ import ec.tstoolkit.algorithm.*;
 import ec.tstoolkit.timeseries.analysis.ITsProcessing;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import ec.tstoolkit.timeseries.simplets.TsDomain;
+import java.util.function.Supplier;
 
 /**
+ * Processing of a document on different time spans. A new processing is
+ * generated from the specification for each time span, so that the time spans
+ * can be processed concurrently.
  *
  * @author Jean Palate
  */
 public class TsDocumentProcessing<R extends IProcResults> implements ITsProcessing<R> {
 
-    private final IProcessing<TsData, R> processing_;
+    private final Supplier<IProcessing<TsData, R>> generator_;
     private final TsData data_;
 
     public <S extends IProcSpecification> TsDocumentProcessing(TsDocument<S, R> doc) {
-        processing_ = doc.getProcessor().generateProcessing(doc.getSpecification(), doc.getContext());
+        IProcessingFactory<S, TsData, R> factory = doc.getProcessor();
+        S spec = doc.getSpecification();
+        ProcessingContext context = doc.getContext();
+        generator_ = () -> factory.generateProcessing(spec, context);
         data_ = doc.getInput().getTsData();
     }
 
@@ -41,6 +48,6 @@ public class TsDocumentProcessing<R extends IProcResults> implements ITsProcessi
         if (data_ == null) {
             return null;
         }
-        return processing_.process(data_.fittoDomain(domain));
+        return generator_.get().process(data_.fittoDomain(domain));
     }
 }
@@ -31,9 +31,17 @@ import ec.tstoolkit.maths.Complex;
 import ec.tstoolkit.sarima.SarimaModel;
 import ec.tstoolkit.timeseries.simplets.TsPeriod;
 import ec.tstoolkit.utilities.NamedObject;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -390,6 +398,199 @@ public class CsvInformationFormatter {
         format(writer, items, names.size(), rowheaders);
     }
 
+    /**
+     * Creates a spool of results. The results are formatted as soon as they
+     * are added to the spool and stored in a temporary file, so that they can
+     * be released by the caller. The columns of the final output are the same
+     * as in formatResults.
+     *
+     * @param names The requested items
+     * @param shortname
+     * @return
+     * @throws IOException
+     */
+    public ResultsSpool spoolResults(List<String> names, boolean shortname) throws IOException {
+        return new ResultsSpool(names, shortname);
+    }
+
+    public final class ResultsSpool implements Closeable {
+
+        private final List<String> names;
+        private final boolean shortname;
+        private final List<LinkedHashMap<String, Integer>> wnames = new ArrayList<>();
+        private final Path file;
+        private DataOutputStream out;
+        private int n;
+
+        private ResultsSpool(List<String> names, boolean shortname) throws IOException {
+            this.names = new ArrayList<>(names);
+            this.shortname = shortname;
+            for (int i = 0; i < names.size(); ++i) {
+                wnames.add(new LinkedHashMap<>());
+            }
+            file = Files.createTempFile("jd", ".spool");
+            file.toFile().deleteOnExit();
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        }
+
+        /**
+         * Formats and stores the requested items of the given results
+         *
+         * @param name The row header
+         * @param results The results (may be null)
+         * @throws IOException
+         */
+        public void add(String name, IProcResults results) throws IOException {
+            if (out == null) {
+                throw new IOException("Closed spool");
+            }
+            writeString(name);
+            for (int k = 0; k < names.size(); ++k) {
+                MatrixItem m = new MatrixItem();
+                m.fill(names.get(k), results, shortname);
+                LinkedHashMap<String, Integer> map = wnames.get(k);
+                out.writeInt(m.items.length);
+                for (int j = 0; j < m.items.length; ++j) {
+                    Integer l = map.get(m.items[j]);
+                    if (l == null || l < m.length) {
+                        map.put(m.items[j], m.length);
+                    }
+                    writeString(m.items[j]);
+                    Object obj = m.results[j];
+                    if (obj == null) {
+                        out.writeInt(-1);
+                    } else {
+                        out.writeInt(m.length);
+                        for (int c = 0; c <= m.length; ++c) {
+                            writeString(format(obj, c));
+                        }
+                    }
+                }
+            }
+            ++n;
+        }
+
+        /**
+         * Writes the stored results
+         *
+         * @param writer
+         * @throws IOException
+         */
+        public void write(Writer writer) throws IOException {
+            if (out == null) {
+                throw new IOException("Closed spool");
+            }
+            out.flush();
+            writer.write(comma);
+            writeColumnsHeaders(writer, wnames, names.size());
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                List<Map<String, String[]>> record = new ArrayList<>();
+                for (int i = 0; i < names.size(); ++i) {
+                    record.add(new HashMap<>());
+                }
+                for (int r = 0; r < n; ++r) {
+                    String rh = readString(in);
+                    for (Map<String, String[]> cur : record) {
+                        cur.clear();
+                        int nitems = in.readInt();
+                        for (int j = 0; j < nitems; ++j) {
+                            String item = readString(in);
+                            int length = in.readInt();
+                            String[] cells = null;
+                            if (length >= 0) {
+                                cells = new String[length + 1];
+                                for (int c = 0; c <= length; ++c) {
+                                    cells[c] = readString(in);
+                                }
+                            }
+                            if (!cur.containsKey(item)) {
+                                cur.put(item, cells);
+                            }
+                        }
+                    }
+                    if (rh != null) {
+                        writeHeader(writer, rh);
+                    }
+                    writer.write(comma);
+                    writeLine(writer, record);
+                }
+            }
+        }
+
+        private void writeLine(Writer writer, List<Map<String, String[]>> record) throws IOException {
+            for (int k = 0; k < record.size();) {
+                Map<String, String[]> citem = record.get(k);
+                LinkedHashMap<String, Integer> map = wnames.get(k);
+                int nmax = map.size();
+                int i = 0;
+                for (Entry<String, Integer> ccur : map.entrySet()) {
+                    int nc = ccur.getValue();
+                    String[] cells = citem.get(ccur.getKey());
+                    if (cells != null) {
+                        if (nc == 1) {
+                            CsvInformationFormatter.this.write(writer, cells[0]);
+                        } else {
+                            for (int j = 1; j <= nc; ++j) {
+                                if (j < cells.length) {
+                                    CsvInformationFormatter.this.write(writer, cells[j]);
+                                }
+                                if (j < nc) {
+                                    writer.write(comma);
+                                }
+                            }
+                        }
+                    } else {
+                        for (int j = 1; j < nc; ++j) {
+                            writer.write(comma);
+                        }
+                    }
+                    if (++i < nmax) {
+                        writer.write(comma);
+                    }
+                }
+                if (++k < record.size()) {
+                    writer.write(comma);
+                } else {
+                    writer.write(NEWLINE);
+                }
+            }
+        }
+
+        /**
+         * Closes the spool and removes the underlying file
+         *
+         * @throws IOException
+         */
+        @Override
+        public void close() throws IOException {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            Files.deleteIfExists(file);
+        }
+
+        private void writeString(String s) throws IOException {
+            if (s == null) {
+                out.writeInt(-1);
+            } else {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        private String readString(DataInputStream in) throws IOException {
+            int l = in.readInt();
+            if (l < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[l];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
     private String format(Object obj, int item) {
 
         try {
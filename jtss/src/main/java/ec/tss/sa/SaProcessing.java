@@ -35,6 +35,7 @@ import ec.tstoolkit.utilities.NameManager;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -258,6 +259,56 @@ public final class SaProcessing extends ForwardingList<SaItem> implements IDocum
         }
     }
 
+    /**
+     * Refreshes all the items (see refresh(EstimationPolicyType, boolean)) and
+     * estimates them through the given monitor, which may process the items
+     * in parallel.
+     *
+     * @param policy
+     * @param nospan
+     * @param monitor
+     * @return The results, in the order of the items of this processing
+     */
+    public List<CompositeResults> refresh(EstimationPolicyType policy, boolean nospan, SaProcessingMonitor monitor) {
+        refresh(policy, nospan);
+        return monitor.process(items_);
+    }
+
+    /**
+     * Refreshes the given items (see refresh(List, EstimationPolicyType,
+     * boolean)) and estimates them through the given monitor, which may
+     * process the items in parallel.
+     *
+     * @param items
+     * @param policy
+     * @param nospan
+     * @param monitor
+     * @return The refreshed items, in the order of the given items (null for
+     * the locked items and for the items that don't belong to this
+     * processing). Their results are available through SaItem.process()
+     */
+    public List<SaItem> refresh(List<SaItem> items, EstimationPolicyType policy, boolean nospan, SaProcessingMonitor monitor) {
+        List<SaItem> unlocked = new ArrayList<>(items.size());
+        for (SaItem item : items) {
+            if (!item.isLocked()) {
+                unlocked.add(item);
+            }
+        }
+        // one refreshed item (possibly null) by unlocked item
+        Iterator<SaItem> refreshed = refresh(unlocked, policy, nospan).iterator();
+        List<SaItem> nitems = new ArrayList<>(items.size());
+        List<SaItem> valid = new ArrayList<>(unlocked.size());
+        for (SaItem item : items) {
+            SaItem nitem = item.isLocked() ? null : refreshed.next();
+            nitems.add(nitem);
+            if (nitem != null) {
+                valid.add(nitem);
+            }
+        }
+        monitor.process(valid);
+        return nitems;
+    }
+
     // 17/9/2010. Jean Palate. New refreshing policy:
     // The period selector defines the period that is frozen in the new outlier detection procedure.
     // Outliers that belong to that period will be maintained.
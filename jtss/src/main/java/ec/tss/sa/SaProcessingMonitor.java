@@ -18,17 +18,45 @@
 
 package ec.tss.sa;
 
+import ec.tstoolkit.algorithm.CompositeResults;
+import ec.tstoolkit.algorithm.ProcessingExecutors;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.event.EventListenerList;
 
 /**
+ * Processes the items of a SaProcessing, possibly in parallel.
+ * <br>
+ * The items are estimated concurrently on the shared executor (see
+ * ProcessingExecutors), at most "parallelism" items at the same time, by
+ * decreasing priority. The results are returned in the order
+ * of the items, whatever the order of their estimation. The listeners are
+ * notified after the estimation of each item (Processed) and at the end of
+ * the processing (Completed); the notifications of the items are sent from
+ * the working threads.
  *
  * @author Kristof Bayens
  */
 public class SaProcessingMonitor {
+
+    public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
     private SaProcessing processing_;
-    private SaItem[] items_;
-    private boolean closing_, stop_;
-    private Thread hRun_;
+    private volatile int itemsCount_;
+    private volatile boolean closing_, stop_;
+    private volatile Thread hRun_;
+    private int parallelism_ = DEFAULT_PARALLELISM;
+    private final AtomicInteger processed_ = new AtomicInteger();
+    private volatile List<CompositeResults> results_;
 
     protected EventListenerList list = new EventListenerList();
 
@@ -48,27 +76,260 @@ public class SaProcessingMonitor {
         return processing_;
     }
     public void setProcessing(SaProcessing value) {
-        if (processing_ != null)
+        if (processing_ != null && isRunning())
             stop();
         processing_ = value;
     }
 
+    /**
+     * Gets the maximum number of items that are estimated at the same time
+     *
+     * @return
+     */
+    public int getParallelism() {
+        return parallelism_;
+    }
+
+    /**
+     * Sets the maximum number of items that are estimated at the same time.
+     * 1 corresponds to a sequential processing.
+     *
+     * @param value
+     */
+    public void setParallelism(int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("Parallelism should be positive");
+        }
+        parallelism_ = value;
+    }
+
     public boolean isRunning() {
         return hRun_ != null;
     }
 
-    public void start() {
+    /**
+     * Number of items processed by the current (or last) run
+     *
+     * @return
+     */
+    public int getProcessedCount() {
+        return processed_.get();
+    }
 
+    /**
+     * Number of items of the current (or last) run
+     *
+     * @return
+     */
+    public int getItemsCount() {
+        return itemsCount_;
     }
 
-    public void stop() {
+    /**
+     * Results of the last asynchronous run (see start), in the order of the
+     * items. Null if the processing is not completed.
+     *
+     * @return
+     */
+    public List<CompositeResults> getResults() {
+        return results_;
+    }
+
+    /**
+     * True if the current (or next) run has been stopped. The flag is reset
+     * at the end of each run.
+     *
+     * @return
+     */
+    public boolean isStopped() {
+        return stop_;
+    }
+
+    /**
+     * Starts the processing of all the items of the current SaProcessing in a
+     * background thread.
+     */
+    public synchronized void start() {
+        if (processing_ == null || hRun_ != null) {
+            return;
+        }
+        final List<SaItem> items = new ArrayList<>(processing_);
+        results_ = null;
+        Thread thread = new Thread(() -> {
+            try {
+                results_ = process(items);
+            } finally {
+                hRun_ = null;
+            }
+        }, "SaProcessingMonitor");
+        thread.setDaemon(true);
+        hRun_ = thread;
+        thread.start();
+    }
+
+    /**
+     * Processes all the items of the current SaProcessing and waits for the
+     * end of the processing
+     *
+     * @return The results, in the order of the items
+     */
+    public List<CompositeResults> process() {
+        if (processing_ == null) {
+            return Collections.emptyList();
+        }
+        return process(processing_);
+    }
+
+    /**
+     * Processes the given items and waits for the end of the processing.
+     *
+     * @param items The items
+     * @return The results, in the order of the items. The results of the items
+     * that could not be processed (or that were not processed because the
+     * monitor has been stopped) are null.
+     */
+    public List<CompositeResults> process(List<SaItem> items) {
+        processed_.set(0);
+        final SaItem[] all = items.toArray(new SaItem[items.size()]);
+        itemsCount_ = all.length;
+        final CompositeResults[] rslts = new CompositeResults[all.length];
+        int[] order = order(all);
+        try {
+            if (parallelism_ == 1 || all.length <= 1 || ProcessingExecutors.isInParallelTask()) {
+                for (int pos : order) {
+                    rslts[pos] = process(all[pos]);
+                }
+            } else {
+                processParallel(all, order, rslts);
+            }
+        } finally {
+            try {
+                fireCompleted();
+            } finally {
+                // the stop request only concerns the current run
+                stop_ = false;
+            }
+        }
+        return Arrays.asList(rslts);
+    }
 
+    /**
+     * The tasks are submitted to the shared executor when a permit is
+     * available, so that at most "parallelism" items are queued or running at
+     * the same time and that the items keep their priority.
+     */
+    private void processParallel(final SaItem[] items, int[] order, CompositeResults[] rslts) {
+        ExecutorService executor = ProcessingExecutors.getDefault();
+        final Semaphore permits = new Semaphore(parallelism_);
+        List<Future<CompositeResults>> futures = new ArrayList<>(order.length);
+        try {
+            for (final int pos : order) {
+                permits.acquire();
+                if (stop_ || closing_) {
+                    permits.release();
+                    break;
+                }
+                Callable<CompositeResults> task = ProcessingExecutors.asParallelTask(() -> process(items[pos]));
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return task.call();
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                } catch (RuntimeException err) {
+                    permits.release();
+                    throw err;
+                }
+            }
+            for (int i = 0; i < futures.size(); ++i) {
+                try {
+                    rslts[order[i]] = futures.get(i).get();
+                } catch (ExecutionException ex) {
+                    rslts[order[i]] = null;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            stop_ = true;
+            ProcessingExecutors.cancelAll(futures);
+        }
+    }
+
+    private CompositeResults process(SaItem item) {
+        if (stop_ || closing_) {
+            return null;
+        }
+        CompositeResults rslt;
+        try {
+            rslt = item.process();
+        } catch (RuntimeException err) {
+            item.setStatus(SaItem.Status.Invalid);
+            rslt = null;
+        }
+        processed_.incrementAndGet();
+        fireProcessed(item);
+        return rslt;
+    }
+
+    /**
+     * Positions of the items, by decreasing priority. Items with the same
+     * priority keep their relative order.
+     *
+     * @param items
+     * @return
+     */
+    private static int[] order(final SaItem[] items) {
+        Integer[] pos = new Integer[items.length];
+        for (int i = 0; i < pos.length; ++i) {
+            pos[i] = i;
+        }
+        Arrays.sort(pos, Comparator.comparingInt((Integer i) -> -items[i].getPriority()));
+        int[] rslt = new int[pos.length];
+        for (int i = 0; i < rslt.length; ++i) {
+            rslt[i] = pos[i];
+        }
+        return rslt;
+    }
+
+    private void fireProcessed(SaItem item) {
+        SaEventListener[] listeners = list.getListeners(SaEventListener.class);
+        if (listeners.length == 0) {
+            return;
+        }
+        SaItemEvent evt = new SaItemEvent(item);
+        for (SaEventListener listener : listeners) {
+            listener.Processed(evt);
+        }
+    }
+
+    private void fireCompleted() {
+        SaEventListener[] listeners = list.getListeners(SaEventListener.class);
+        if (listeners.length == 0 || processing_ == null) {
+            return;
+        }
+        SaProcessingEvent evt = new SaProcessingEvent(processing_);
+        for (SaEventListener listener : listeners) {
+            listener.Completed(evt);
+        }
+    }
+
+    /**
+     * Cancels the current processing. The items that are being estimated are
+     * completed; the other ones are skipped. When no processing is running,
+     * the next one is cancelled.
+     */
+    public void stop() {
+        stop_ = true;
     }
 
     public void close() {
         closing_ = true;
-        if (hRun_ != null && hRun_.isAlive()) {
-            hRun_.interrupt();
+        stop_ = true;
+        Thread thread = hRun_;
+        if (thread != null && thread.isAlive()) {
+            thread.interrupt();
         }
     }
 }
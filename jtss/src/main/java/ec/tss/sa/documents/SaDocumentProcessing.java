@@ -17,35 +17,65 @@
 
 package ec.tss.sa.documents;
 
+import ec.satoolkit.GenericSaProcessingFactory;
 import ec.satoolkit.ISaSpecification;
+import ec.satoolkit.algorithm.implementation.TramoSeatsProcessingFactory;
+import ec.satoolkit.algorithm.implementation.X13ProcessingFactory;
+import ec.satoolkit.tramoseats.TramoSeatsSpecification;
+import ec.satoolkit.x13.X13Specification;
 import ec.tss.documents.TsDocument;
 import ec.tss.sa.EstimationPolicyType;
 import ec.tss.sa.ISaProcessingFactory;
 import ec.tss.sa.SaItem;
+import ec.tstoolkit.ParameterType;
 import ec.tstoolkit.algorithm.CompositeResults;
 import ec.tstoolkit.algorithm.IProcResults;
 import ec.tstoolkit.algorithm.IProcSpecification;
 import ec.tstoolkit.algorithm.IProcessing;
-import ec.tstoolkit.timeseries.analysis.ITsProcessing;
+import ec.tstoolkit.modelling.arima.DefaultArimaSpec;
+import ec.tstoolkit.modelling.arima.PreprocessingModel;
+import ec.tstoolkit.timeseries.analysis.IIncrementalTsProcessing;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import ec.tstoolkit.timeseries.simplets.TsDomain;
 
 /**
+ * Processing of a SA document on different time spans. The specification
+ * (derived from the document following the estimation policy) is re-used for
+ * all the time spans; a new processing is generated from it for each time span,
+ * so that the time spans can be processed concurrently.
+ * <br>
+ * When the warm start is enabled (default), the estimation of the ARIMA model
+ * on a time span (a vintage of a revision history) starts from the parameters
+ * estimated on the previous time span, if they are available. This is only
+ * done for models that are not automatically identified and that don't
+ * contain fixed parameters (see {@link DefaultArimaSpec#isWarmStartable}).
  *
  * @author Jean Palate
  */
-public class SaDocumentProcessing<S extends ISaSpecification> implements ITsProcessing<CompositeResults> {
-    private final IProcessing<TsData, CompositeResults> processing_;
+public class SaDocumentProcessing<S extends ISaSpecification> implements IIncrementalTsProcessing<CompositeResults> {
+    private final ISaProcessingFactory<S> factory_;
+    private final S spec_;
     private final TsData data_;
+    private final boolean warmStart_;
 
     public SaDocumentProcessing(SaDocument<S> doc, EstimationPolicyType policy) {
+        this(doc, policy, true);
+    }
+
+    public SaDocumentProcessing(SaDocument<S> doc, EstimationPolicyType policy, boolean warmStart) {
         ISaProcessingFactory<S> factory=(ISaProcessingFactory<S>) doc.getProcessor();
         SaItem item=new SaItem(doc.getSpecification(), doc.getInput());
         item.unsafeFill(doc.getResults());
         factory.updatePointSpecification(item);
         S spec = (S)factory.createSpecification(item, null, policy, true);
-        processing_=factory.generateProcessing(spec, null);
+        factory_ = factory;
+        spec_ = spec;
         data_ = doc.getInput().getTsData();
+        warmStart_ = warmStart;
+    }
+
+    public boolean isWarmStart() {
+        return warmStart_;
     }
 
     @Override
@@ -53,7 +83,79 @@ public class SaDocumentProcessing<S extends ISaSpecification> implements ITsProc
         if (data_ == null) {
             return null;
         }
-        return processing_.process(data_.fittoDomain(domain));
+        return factory_.generateProcessing(spec_, null).process(data_.fittoDomain(domain));
+    }
+
+    @Override
+    public CompositeResults process(TsDomain domain, CompositeResults previous) {
+        if (data_ == null) {
+            return null;
+        }
+        S spec = warmStartSpecification(previous);
+        if (spec == null) {
+            return process(domain);
+        }
+        IProcessing<TsData, CompositeResults> processing;
+        // the estimation only starts from the provided parameters on demand
+        if (spec instanceof X13Specification) {
+            processing = X13ProcessingFactory.instance.generateProcessing((X13Specification) spec, null, true);
+        } else {
+            processing = TramoSeatsProcessingFactory.instance.generateProcessing((TramoSeatsSpecification) spec, null, true);
+        }
+        return processing.process(data_.fittoDomain(domain));
+    }
+
+    /**
+     * Creates the specification used on a time span that follows the time
+     * span of the given results: the ARIMA parameters estimated in the
+     * previous results are used as initial values.
+     *
+     * @param previous The results on the previous time span (may be null)
+     * @return The new specification, or null if the warm start is disabled or
+     * not possible
+     */
+    protected S warmStartSpecification(CompositeResults previous) {
+        if (!warmStart_ || previous == null) {
+            return null;
+        }
+        DefaultArimaSpec reference = arimaSpec(spec_);
+        if (reference == null) {
+            return null;
+        }
+        PreprocessingModel model = previous.get(GenericSaProcessingFactory.PREPROCESSING, PreprocessingModel.class);
+        if (model == null) {
+            return null;
+        }
+        S spec = (S) spec_.clone();
+        DefaultArimaSpec arima = arimaSpec(spec);
+        arima.setArima(model.estimation.getArima());
+        arima.setParameterType(ParameterType.Initial);
+        return arima.isWarmStartable(reference) ? spec : null;
+    }
+
+    /**
+     * Gets the specification of the ARIMA model
+     *
+     * @param spec
+     * @return The ARIMA specification or null if the model is automatically
+     * identified
+     */
+    private static DefaultArimaSpec arimaSpec(ISaSpecification spec) {
+        if (spec instanceof TramoSeatsSpecification) {
+            TramoSeatsSpecification tsspec = (TramoSeatsSpecification) spec;
+            if (tsspec.getTramoSpecification() == null || tsspec.getTramoSpecification().isUsingAutoModel()) {
+                return null;
+            }
+            return tsspec.getTramoSpecification().getArima();
+        } else if (spec instanceof X13Specification) {
+            X13Specification xspec = (X13Specification) spec;
+            if (xspec.getRegArimaSpecification() == null || xspec.getRegArimaSpecification().isUsingAutoModel()) {
+                return null;
+            }
+            return xspec.getRegArimaSpecification().getArima();
+        } else {
+            return null;
+        }
     }
    
 }
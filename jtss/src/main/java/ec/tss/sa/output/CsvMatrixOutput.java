@@ -42,6 +42,8 @@ public class CsvMatrixOutput implements IOutput<SaDocument<ISaSpecification>> {
     List<NamedObject<IProcResults>> infos_;
     private File folder_;
     private boolean fullName;
+    // streaming mode
+    private CsvInformationFormatter.ResultsSpool spool_;
 
     public CsvMatrixOutput(CsvMatrixOutputConfiguration config) {
         config_ = (CsvMatrixOutputConfiguration) config.clone();
@@ -59,17 +61,32 @@ public class CsvMatrixOutput implements IOutput<SaDocument<ISaSpecification>> {
     }
 
     @Override
-    public void start(Object context) {
-        infos_ = new ArrayList<>();
+    public void start(Object context) throws Exception {
+        if (config_.isStreaming()) {
+            CsvInformationFormatter fmt = new CsvInformationFormatter();
+            fmt.setFullName(fullName);
+            spool_ = fmt.spoolResults(config_.getItems(), true);
+        } else {
+            infos_ = new ArrayList<>();
+        }
         folder_ = BasicConfiguration.folderFromContext(config_.getFolder(), context);
     }
 
     @Override
     public void end(Object context) throws Exception {
-        CsvInformationFormatter fmt = new CsvInformationFormatter();
-        fmt.setFullName(fullName);
         String file = Paths.concatenate(folder_.getAbsolutePath(), config_.getFileName());
         file = Paths.changeExtension(file, "csv");
+        if (spool_ != null) {
+            try (Writer writer = Files.newBufferedWriter(java.nio.file.Paths.get(file), StandardCharsets.ISO_8859_1)) {
+                spool_.write(writer);
+            } finally {
+                spool_.close();
+                spool_ = null;
+            }
+            return;
+        }
+        CsvInformationFormatter fmt = new CsvInformationFormatter();
+        fmt.setFullName(fullName);
         try (Writer writer = Files.newBufferedWriter(java.nio.file.Paths.get(file), StandardCharsets.ISO_8859_1)) {
             fmt.formatResults(writer, infos_, config_.getItems(), true);
         }
@@ -77,7 +94,11 @@ public class CsvMatrixOutput implements IOutput<SaDocument<ISaSpecification>> {
     }
 
     @Override
-    public void process(SaDocument<ISaSpecification> document) {
-        infos_.add(new NamedObject<>(document.getInput().getRawName(), document.getResults()));
+    public void process(SaDocument<ISaSpecification> document) throws Exception {
+        if (spool_ != null) {
+            spool_.add(document.getInput().getRawName(), document.getResults());
+        } else {
+            infos_.add(new NamedObject<>(document.getInput().getRawName(), document.getResults()));
+        }
     }
 }
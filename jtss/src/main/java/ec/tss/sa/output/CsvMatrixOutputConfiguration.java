@@ -34,6 +34,7 @@ public class CsvMatrixOutputConfiguration extends BasicConfiguration implements
     private File folder_;
     private String name_ = NAME;
     private boolean fullName_;
+    private boolean streaming_;
 
     public CsvMatrixOutputConfiguration() {
         List<String> details = allDetails(true, SaManager.instance.getProcessors(), SaManager.instance.getDiagnostics());
@@ -73,6 +74,22 @@ public class CsvMatrixOutputConfiguration extends BasicConfiguration implements
         this.fullName_ = fullName;
     }
 
+    /**
+     * The streaming mode formats the requested items of each document as soon
+     * as the document is processed and stores them in a temporary file
+     * (instead of keeping all the results in memory till the end of the
+     * processing)
+     *
+     * @return
+     */
+    public boolean isStreaming() {
+        return streaming_;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming_ = streaming;
+    }
+
     @Override
     public CsvMatrixOutputConfiguration clone() {
         try {
@@ -31,7 +31,12 @@ import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  *
@@ -43,29 +48,76 @@ public class CsvOutput implements IOutput<SaDocument<ISaSpecification>> {
     CsvOutputConfiguration config_;
     DefaultCollectionSummary summary_;
     private File folder_;
+    // streaming mode
+    private LinkedHashMap<String, TsCollectionSpool> spools_;
+    private List<String> names_;
 
     public CsvOutput(CsvOutputConfiguration config) {
         config_ = (CsvOutputConfiguration) config.clone();
     }
 
     @Override
-    public void process(SaDocument<ISaSpecification> document) {
-        summary_.add(Jdk6.Collections.toArray(config_.getSeries(), String.class), document);
+    public void process(SaDocument<ISaSpecification> document) throws Exception {
+        if (spools_ != null) {
+            spool(document);
+        } else {
+            summary_.add(Jdk6.Collections.toArray(config_.getSeries(), String.class), document);
+        }
+    }
+
+    private void spool(SaDocument<ISaSpecification> document) throws Exception {
+        String name = document.getInput().getRawName();
+        if (name == null) {
+            name = "series" + Integer.toString(names_.size() + 1);
+        }
+        SeriesSummary summary = new SeriesSummary(Jdk6.Collections.toArray(config_.getSeries(), String.class), name, document);
+        Set<String> items = new LinkedHashSet<>();
+        summary.fill(items);
+        for (String item : items) {
+            if (!spools_.containsKey(item)) {
+                // new item (wild cards): the previous series are empty
+                TsCollectionSpool spool = new TsCollectionSpool();
+                for (String prev : names_) {
+                    spool.add(prev, null);
+                }
+                spools_.put(item, spool);
+            }
+        }
+        for (Map.Entry<String, TsCollectionSpool> entry : spools_.entrySet()) {
+            entry.getValue().add(name, summary.getSeries(entry.getKey()));
+        }
+        names_.add(name);
     }
 
     @Override
     public void start(Object context) {
-        summary_ = new DefaultCollectionSummary();
+        if (config_.isStreaming()) {
+            spools_ = new LinkedHashMap<>();
+            names_ = new ArrayList<>();
+        } else {
+            summary_ = new DefaultCollectionSummary();
+        }
         folder_ = BasicConfiguration.folderFromContext(config_.getFolder(), context);
     }
 
     @Override
     public void end(Object context) throws Exception {
+        if (spools_ != null) {
+            try {
+                for (Map.Entry<String, TsCollectionSpool> entry : spools_.entrySet()) {
+                    write(file(entry.getKey()), entry.getValue());
+                }
+            } finally {
+                for (TsCollectionSpool spool : spools_.values()) {
+                    spool.close();
+                }
+                spools_ = null;
+                names_ = null;
+            }
+            return;
+        }
         for (String item : summary_.getItems()) {
-            String nfile = config_.getFilePrefix();
-            nfile += "_" + StringFormatter.cleanup(item.replace('.', '_'));
-            nfile = Paths.changeExtension(nfile, "csv");
-            write(BasicConfiguration.folder(folder_).toPath().resolve(nfile), summary_.getNames(), summary_.getSeries(item));
+            write(file(item), summary_.getNames(), summary_.getSeries(item));
         }
         summary_ = null;
     }
@@ -80,6 +132,22 @@ public class CsvOutput implements IOutput<SaDocument<ISaSpecification>> {
         return true;
     }
 
+    private Path file(String item) {
+        String nfile = config_.getFilePrefix();
+        nfile += "_" + StringFormatter.cleanup(item.replace('.', '_'));
+        nfile = Paths.changeExtension(nfile, "csv");
+        return BasicConfiguration.folder(folder_).toPath().resolve(nfile);
+    }
+
+    private void write(Path file, TsCollectionSpool spool) throws Exception {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
+            TsCollectionCsvFormatter fmt = new TsCollectionCsvFormatter();
+            fmt.setFullName(config_.isFullName());
+            fmt.setPresentation(config_.getPresentation());
+            fmt.write(spool, writer);
+        }
+    }
+
     private void write(Path file, List<String> names, List<TsData> s) throws Exception {
         try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
             TsCollectionCsvFormatter fmt = new TsCollectionCsvFormatter();
@@ -36,6 +36,7 @@ public class CsvOutputConfiguration extends BasicConfiguration implements Clonea
     private String name_=NAME;
     private String[] series_;
     private boolean fullName_;
+    private boolean streaming_;
 
     public CsvOutputConfiguration() {
         series_ = defOutput;
@@ -81,6 +82,21 @@ public class CsvOutputConfiguration extends BasicConfiguration implements Clonea
         this.fullName_ = fullName;
     }
 
+    /**
+     * The streaming mode writes the selected series of each document in
+     * temporary files, as soon as the document is processed (instead of
+     * keeping them in memory till the end of the processing)
+     *
+     * @return
+     */
+    public boolean isStreaming() {
+        return streaming_;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming_ = streaming;
+    }
+
     @Override
     public CsvOutputConfiguration clone() {
         try {
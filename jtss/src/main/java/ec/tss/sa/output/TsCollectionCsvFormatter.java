@@ -127,33 +127,111 @@ public class TsCollectionCsvFormatter {
         return true;
     }
 
+    /**
+     * Writes the series of a spool. The output is identical to the output of
+     * write(List, List, Writer) with the same series, but the series are never
+     * loaded together in memory.
+     *
+     * @param spool
+     * @param writer
+     * @return
+     * @throws IOException
+     */
+    public boolean write(TsCollectionSpool spool, Writer writer) throws IOException {
+        if (spool.getCount() == 0) {
+            return false;
+        }
+        if (layout_ == CsvLayout.List) {
+            spool.forEach((j, name, s) -> writeList(name, s, writer));
+            return true;
+        }
+        TsDomain domain = spool.getDomain();
+        if (domain == null) {
+            return false;
+        }
+        int ndata = domain.getLength();
+        int nseries = spool.getCount();
+
+        if (layout_ == CsvLayout.VTable) {
+            writer.write(comma);
+            spool.forEach((i, name, s) -> {
+                write(name, writer);
+                if (i != nseries - 1) {
+                    writer.write(comma);
+                } else {
+                    writer.write(newLine);
+                }
+            });
+            spool.forEachPeriod(TsCollectionSpool.DEFAULT_BUFFER_SIZE, (j, data) -> {
+                writer.write(domain.get(j).lastday().toString());
+                for (int i = 0; i < nseries; ++i) {
+                    writer.write(comma);
+                    if (isValid(data[i])) {
+                        write(fmt.format(data[i]), writer);
+                    }
+                }
+                writer.write(newLine);
+            });
+        } else {
+            writer.write(comma);
+            for (int i = 0; i < ndata; ++i) {
+                writer.write(domain.get(i).lastday().toString());
+                if (i != ndata - 1) {
+                    writer.write(comma);
+                } else {
+                    writer.write(newLine);
+                }
+            }
+            spool.forEach((j, name, s) -> {
+                write(name, writer);
+                double[] data = spool.align(s);
+                for (int i = 0; i < ndata; ++i) {
+                    writer.write(comma);
+                    if (isValid(data[i])) {
+                        write(fmt.format(data[i]), writer);
+                    }
+                }
+                writer.write(newLine);
+            });
+        }
+        return true;
+    }
+
     private boolean writeList(List<TsData> coll, List<String> names, Writer writer) throws IOException {
         int nseries = names.size();
         for (int j = 0; j < nseries; ++j) {
-            write(names.get(j), writer);
+            writeList(names.get(j), coll.get(j), writer);
+        }
+        return true;
+    }
+
+    private void writeList(String name, TsData cur, Writer writer) throws IOException {
+        write(name, writer);
+        writer.write(comma);
+        if (cur != null) {
+            // header: freq, start, pos, length
+            TsPeriod start = cur.getStart();
+            writer.write(ifmt.format(start.getFrequency().intValue()));
             writer.write(comma);
-            TsData cur = coll.get(j);
-            if (cur != null) {
-                // header: freq, start, pos, length
-                TsPeriod start = cur.getStart();
-                writer.write(ifmt.format(start.getFrequency().intValue()));
-                writer.write(comma);
-                writer.write(ifmt.format(start.getYear()));
-                writer.write(comma);
-                writer.write(ifmt.format(start.getPosition() + 1));
+            writer.write(ifmt.format(start.getYear()));
+            writer.write(comma);
+            writer.write(ifmt.format(start.getPosition() + 1));
+            writer.write(comma);
+            writer.write(ifmt.format(cur.getLength()));
+            for (int i = 0; i < cur.getLength(); ++i) {
                 writer.write(comma);
-                writer.write(ifmt.format(cur.getLength()));
-                for (int i = 0; i < cur.getLength(); ++i) {
-                    writer.write(comma);
-                    double val = cur.get(i);
-                    if (!Double.isNaN(val)) {
-                        write(fmt.format(val), writer);
-                    }
+                double val = cur.get(i);
+                if (!Double.isNaN(val)) {
+                    write(fmt.format(val), writer);
                 }
             }
-            writer.write(newLine);
         }
-        return true;
+        writer.write(newLine);
+    }
+
+    // tables: same rule as TsDataTable (TsDataTableInfo.Valid)
+    private static boolean isValid(double val) {
+        return Double.isFinite(val);
     }
 
     private void write(String txt, Writer writer) throws IOException {
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tss.sa.output;
+
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsDomain;
+import ec.tstoolkit.timeseries.simplets.TsFrequency;
+import ec.tstoolkit.timeseries.simplets.TsPeriod;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Temporary storage of a (possibly large) collection of named time series.
+ * The series are appended to a binary file; only their domains are kept in
+ * memory. The series can be read back sequentially (by series) or by blocks
+ * of periods, with the same alignment rules as TsDataTable. In both cases, the
+ * file is read only once.
+ *
+ * @author Jean Palate
+ */
+public final class TsCollectionSpool implements Closeable {
+
+    /**
+     * Default number of observations buffered when the data are read by
+     * periods
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    @FunctionalInterface
+    public static interface SeriesConsumer {
+
+        void accept(int pos, String name, TsData s) throws IOException;
+    }
+
+    @FunctionalInterface
+    public static interface PeriodConsumer {
+
+        /**
+         *
+         * @param pos Position of the period in the common domain
+         * @param data The data of the different series for that period (NaN
+         * if the data are missing or unavailable)
+         * @throws IOException
+         */
+        void accept(int pos, double[] data) throws IOException;
+    }
+
+    private final Path file_;
+    private CountingOutputStream counter_;
+    private DataOutputStream out_;
+    private int n_;
+    private int[] freqs_ = new int[64], ids_ = new int[64], ns_ = new int[64];
+    // position of the data of each series in the file
+    private long[] pos_ = new long[64];
+    private int curfreq_, firstid_, count_;
+
+    public TsCollectionSpool() throws IOException {
+        file_ = Files.createTempFile("jd", ".spool");
+        file_.toFile().deleteOnExit();
+        counter_ = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file_)));
+        out_ = new DataOutputStream(counter_);
+    }
+
+    /**
+     * Appends a series to the spool
+     *
+     * @param name The name of the series (may be null)
+     * @param s The series (may be null)
+     * @throws IOException
+     */
+    public void add(String name, TsData s) throws IOException {
+        if (out_ == null) {
+            throw new IOException("Closed spool");
+        }
+        if (n_ == freqs_.length) {
+            int nsize = n_ << 1;
+            freqs_ = Arrays.copyOf(freqs_, nsize);
+            ids_ = Arrays.copyOf(ids_, nsize);
+            ns_ = Arrays.copyOf(ns_, nsize);
+            pos_ = Arrays.copyOf(pos_, nsize);
+        }
+        out_.writeBoolean(name != null);
+        if (name != null) {
+            out_.writeUTF(name);
+        }
+        if (s != null) {
+            TsDomain dom = s.getDomain();
+            freqs_[n_] = dom.getFrequency().intValue();
+            ids_[n_] = dom.getStart().id();
+            ns_[n_] = dom.getLength();
+            pos_[n_] = counter_.count;
+            for (int i = 0; i < ns_[n_]; ++i) {
+                out_.writeDouble(s.get(i));
+            }
+        }
+        ++n_;
+        curfreq_ = 0;
+    }
+
+    /**
+     * @return The number of series in the spool
+     */
+    public int getCount() {
+        return n_;
+    }
+
+    /**
+     * @return The common domain of the series (see TsDataTable). Null if the
+     * spool doesn't contain any series
+     */
+    public TsDomain getDomain() {
+        recalc();
+        if (curfreq_ == 0) {
+            return null;
+        }
+        return new TsDomain(period(curfreq_, firstid_), count_);
+    }
+
+    /**
+     * Projects a series on the common domain of the spool
+     *
+     * @param s The series
+     * @return The data of the series for each period of the common domain
+     * (NaN if the data are missing or unavailable)
+     */
+    public double[] align(TsData s) {
+        recalc();
+        if (curfreq_ == 0) {
+            return new double[0];
+        }
+        double[] data = new double[count_];
+        Arrays.fill(data, Double.NaN);
+        if (s != null) {
+            int freq = s.getFrequency().intValue(), start = s.getStart().id();
+            for (int j = 0; j < count_; ++j) {
+                int id = getid(j + firstid_, curfreq_, freq);
+                if (id != Integer.MIN_VALUE) {
+                    int k = id - start;
+                    if (k >= 0 && k < s.getLength()) {
+                        data[j] = s.get(k);
+                    }
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Reads sequentially the series of the spool
+     *
+     * @param consumer
+     * @throws IOException
+     */
+    public void forEach(SeriesConsumer consumer) throws IOException {
+        try (DataInputStream in = open()) {
+            for (int i = 0; i < n_; ++i) {
+                String name = in.readBoolean() ? in.readUTF() : null;
+                TsData s = null;
+                if (freqs_[i] != 0) {
+                    double[] data = new double[ns_[i]];
+                    for (int j = 0; j < data.length; ++j) {
+                        data[j] = in.readDouble();
+                    }
+                    s = new TsData(period(freqs_[i], ids_[i]), data, false);
+                }
+                consumer.accept(i, name, s);
+            }
+        }
+    }
+
+    /**
+     * Reads the data period by period, on the common domain of the series.
+     * The spool is read by blocks of periods, so that at most bufferSize
+     * observations are kept in memory (at least one period). For each block,
+     * only the needed observations of each series are read (positional reads),
+     * so that the file is read only once.
+     *
+     * @param bufferSize The maximum number of buffered observations
+     * @param consumer
+     * @throws IOException
+     */
+    public void forEachPeriod(int bufferSize, PeriodConsumer consumer) throws IOException {
+        recalc();
+        if (curfreq_ == 0) {
+            return;
+        }
+        int nrows = Math.max(1, Math.min(count_, bufferSize / Math.max(1, n_)));
+        double[][] block = new double[nrows][n_];
+        ByteBuffer buffer = ByteBuffer.allocate(8 * nrows);
+        try (FileChannel channel = openChannel()) {
+            for (int start = 0; start < count_; start += nrows) {
+                int end = Math.min(count_, start + nrows);
+                for (int j = start; j < end; ++j) {
+                    Arrays.fill(block[j - start], Double.NaN);
+                }
+                for (int i = 0; i < n_; ++i) {
+                    if (freqs_[i] == 0) {
+                        continue;
+                    }
+                    // observations of the series in the current block
+                    int k0 = -1, k1 = -1;
+                    for (int j = start; j < end; ++j) {
+                        int k = index(i, j);
+                        if (k >= 0) {
+                            if (k0 < 0) {
+                                k0 = k;
+                            }
+                            k1 = k;
+                        }
+                    }
+                    if (k0 < 0) {
+                        continue;
+                    }
+                    buffer.clear();
+                    buffer.limit(8 * (k1 - k0 + 1));
+                    long pos = pos_[i] + 8L * k0;
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, pos + buffer.position()) < 0) {
+                            throw new IOException("Corrupted spool");
+                        }
+                    }
+                    for (int j = start; j < end; ++j) {
+                        int k = index(i, j);
+                        if (k >= 0) {
+                            block[j - start][i] = buffer.getDouble(8 * (k - k0));
+                        }
+                    }
+                }
+                for (int j = start; j < end; ++j) {
+                    consumer.accept(j, block[j - start]);
+                }
+            }
+        }
+    }
+
+    // position in series i of the period j of the common domain (-1 if none)
+    private int index(int i, int j) {
+        int id = getid(j + firstid_, curfreq_, freqs_[i]);
+        if (id == Integer.MIN_VALUE) {
+            return -1;
+        }
+        int k = id - ids_[i];
+        return k >= 0 && k < ns_[i] ? k : -1;
+    }
+
+    /**
+     * Closes the spool and removes the underlying file
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (out_ != null) {
+            out_.close();
+            out_ = null;
+            counter_ = null;
+        }
+        Files.deleteIfExists(file_);
+    }
+
+    private DataInputStream open() throws IOException {
+        if (out_ == null) {
+            throw new IOException("Closed spool");
+        }
+        out_.flush();
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file_)));
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (out_ == null) {
+            throw new IOException("Closed spool");
+        }
+        out_.flush();
+        return FileChannel.open(file_, StandardOpenOption.READ);
+    }
+
+    // same rules as TsDataTable
+    private void recalc() {
+        if (curfreq_ != 0) {
+            return;
+        }
+        int ifirst = 0;
+        while (ifirst < n_ && freqs_[ifirst] == 0) {
+            ++ifirst;
+        }
+        if (ifirst == n_) {
+            return;
+        }
+        int curfreq = freqs_[ifirst];
+        for (int i = ifirst + 1; i < n_; ++i) {
+            if (freqs_[i] != 0 && curfreq % freqs_[i] != 0) {
+                curfreq *= freqs_[i];
+                if (curfreq > 12) {
+                    curfreq = 12;
+                }
+            }
+        }
+        int c = curfreq / freqs_[ifirst];
+        int firstid = (ids_[ifirst] + 1) * c - 1, lastid = firstid + (ns_[ifirst] - 1) * c;
+        for (int i = ifirst + 1; i < n_; ++i) {
+            if (freqs_[i] != 0) {
+                c = curfreq / freqs_[i];
+                int f = (ids_[i] + 1) * c - 1, l = f + (ns_[i] - 1) * c;
+                if (f < firstid) {
+                    firstid = f;
+                }
+                if (l > lastid) {
+                    lastid = l;
+                }
+            }
+        }
+        if (lastid >= firstid) {
+            curfreq_ = curfreq;
+            firstid_ = firstid;
+            count_ = lastid - firstid + 1;
+        }
+    }
+
+    private static TsPeriod period(int freq, int id) {
+        TsPeriod p = new TsPeriod(TsFrequency.valueOf(freq));
+        p.move(id - p.id());
+        return p;
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            ++count;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    private static int getid(int curid, final int freq, final int newfreq) {
+        if (freq == newfreq) {
+            return curid;
+        }
+        int c = freq / newfreq;
+        curid -= c - 1;
+        if (curid % c != 0) {
+            return Integer.MIN_VALUE;
+        } else {
+            return curid / c;
+        }
+    }
+}
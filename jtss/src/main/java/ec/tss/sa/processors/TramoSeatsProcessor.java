@@ -73,9 +73,28 @@ public class TramoSeatsProcessor implements ISaProcessingFactory<TramoSeatsSpeci
 
     public static final AlgorithmDescriptor DESCRIPTOR = TramoSeatsProcessingFactory.DESCRIPTOR;
 
+    private volatile boolean warmStart_;
+
     public TramoSeatsProcessor() {
     }
 
+    /**
+     * When the warm start is enabled, the refreshed specifications that
+     * re-estimate the ARIMA parameters without changing the orders of the model
+     * (policies FreeParameters, Outliers and LastOutliers) keep the previous
+     * estimates as initial values, so that the estimation starts from them
+     * (see TramoProcessor.setWarmStart).
+     *
+     * @return
+     */
+    public boolean isWarmStart() {
+        return warmStart_;
+    }
+
+    public void setWarmStart(boolean warmStart) {
+        warmStart_ = warmStart;
+    }
+
     @Override
     public ISaSpecification createSpecification(InformationSet info) {
         TramoSeatsSpecification spec = new TramoSeatsSpecification();
@@ -165,8 +184,11 @@ public class TramoSeatsProcessor implements ISaProcessingFactory<TramoSeatsSpeci
             case FreeParameters:
             case LastOutliers:
             case Outliers:
-                // clear only free parameters !
-                if (defarima != null) {
+                if (warmStart_ && arima.isWarmStartable(defarima)) {
+                    // the previous estimates are used as starting values
+                    arima.setParameterType(ParameterType.Initial);
+                } else if (defarima != null) {
+                    // clear only free parameters !
                     spec.setArima(defarima.clone());
                 } else {
                     arima.clearParameters();
@@ -354,7 +376,7 @@ public class TramoSeatsProcessor implements ISaProcessingFactory<TramoSeatsSpeci
 
     @Override
     public IProcessing<TsData, CompositeResults> generateProcessing(TramoSeatsSpecification specification, ProcessingContext context) {
-        return TramoSeatsProcessingFactory.instance.generateProcessing(specification, context);
+        return TramoSeatsProcessingFactory.instance.generateProcessing(specification, context, warmStart_);
     }
 
     @Override
@@ -60,9 +60,29 @@ public class X13Processor implements ISaProcessingFactory<X13Specification> {
 
     public static final AlgorithmDescriptor DESCRIPTOR = X13ProcessingFactory.DESCRIPTOR;
 
+    private volatile boolean warmStart_;
+
     public X13Processor() {
     }
 
+    /**
+     * When the warm start is enabled, the refreshed specifications that
+     * re-estimate the ARIMA parameters without changing the orders of the model
+     * (policies FreeParameters, Outliers and LastOutliers) keep the previous
+     * estimates as initial values, and the processings generated by this
+     * factory start the estimation of the ARIMA model from the provided
+     * parameters. When it is disabled (default), the processing is unchanged.
+     *
+     * @return
+     */
+    public boolean isWarmStart() {
+        return warmStart_;
+    }
+
+    public void setWarmStart(boolean warmStart) {
+        warmStart_ = warmStart;
+    }
+
     @Override
     public ISaSpecification createSpecification(InformationSet info) {
         X13Specification spec = new X13Specification();
@@ -260,8 +280,11 @@ public class X13Processor implements ISaProcessingFactory<X13Specification> {
             case FreeParameters:
             case LastOutliers:
             case Outliers:
-                // clear only free parameters !
-                if (defarima != null) {
+                if (warmStart_ && arima.isWarmStartable(defarima)) {
+                    // the previous estimates are used as starting values
+                    arima.setParameterType(ParameterType.Initial);
+                } else if (defarima != null) {
+                    // clear only free parameters !
                     spec.setArima(defarima.clone());
                 } else {
                     arima.clearParameters();
@@ -351,7 +374,7 @@ public class X13Processor implements ISaProcessingFactory<X13Specification> {
 
     @Override
     public IProcessing<TsData, CompositeResults> generateProcessing(X13Specification specification, ProcessingContext context) {
-        return X13ProcessingFactory.instance.generateProcessing(specification, context);
+        return X13ProcessingFactory.instance.generateProcessing(specification, context, warmStart_);
     }
 
     @Override
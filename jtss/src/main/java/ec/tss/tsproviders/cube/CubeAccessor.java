@@ -65,4 +65,19 @@ public interface CubeAccessor {
     default CubeAccessor bulk(@NonNegative int depth, @NonNull ConcurrentMap<CubeId, Object> cache) {
         return new CubeAccessors.BulkCubeAccessor(this, depth, Objects.requireNonNull(cache));
     }
+
+    /**
+     * Creates an accessor that retrieves all the series of the nodes at the
+     * given depth (from the bottom of the cube) and keeps them in a bounded
+     * cache.
+     *
+     * @param depth the depth of the cached nodes; 0 to disable the cache
+     * @param cache the cache
+     * @return a new accessor
+     * @since 2.2.7
+     */
+    @NonNull
+    default CubeAccessor bulkBounded(@NonNegative int depth, @NonNull CubeCache cache) {
+        return new CubeAccessors.BulkCubeAccessor(this, depth, Objects.requireNonNull(cache));
+    }
 }
@@ -93,19 +93,34 @@ final class CubeAccessors {
         public CubeAccessor bulk(int depth, ConcurrentMap<CubeId, Object> cache) {
             return delegate.bulk(depth, cache);
         }
+
+        @Override
+        public CubeAccessor bulkBounded(int depth, CubeCache cache) {
+            return delegate.bulkBounded(depth, cache);
+        }
     }
 
     @ThreadSafe
     static final class BulkCubeAccessor extends ForwardingAccessor {
 
         private final ConcurrentMap<CubeId, Object> cache;
+        private final CubeCache boundedCache;
         private final int cacheLevel;
         private final boolean cacheEnabled;
 
         BulkCubeAccessor(@NonNull CubeAccessor delegate, @NonNegative int depth, @NonNull ConcurrentMap<CubeId, Object> cache) {
+            this(delegate, depth, cache, null);
+        }
+
+        BulkCubeAccessor(@NonNull CubeAccessor delegate, @NonNegative int depth, @NonNull CubeCache cache) {
+            this(delegate, depth, null, cache);
+        }
+
+        private BulkCubeAccessor(CubeAccessor delegate, int depth, ConcurrentMap<CubeId, Object> cache, CubeCache boundedCache) {
             super(delegate);
             this.cacheLevel = Math.max(0, delegate.getRoot().getMaxLevel() - depth);
             this.cache = cache;
+            this.boundedCache = boundedCache;
             this.cacheEnabled = depth > 0;
         }
 
@@ -113,7 +128,9 @@ final class CubeAccessors {
         public TsCursor<CubeId> getAllSeriesWithData(CubeId ref) throws IOException {
             if (cacheEnabled && !ref.isSeries()) {
                 if (ref.getLevel() == cacheLevel) {
-                    return TsCursor.withCache(cache, ref, super::getAllSeriesWithData);
+                    return boundedCache != null
+                            ? boundedCache.get(ref, super::getAllSeriesWithData)
+                            : TsCursor.withCache(cache, ref, super::getAllSeriesWithData);
                 } else {
                     CubeId ancestor = ref.getAncestor(cacheLevel);
                     if (ancestor != null) {
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2018 National Bank of Belgium
+ * 
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved 
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ * 
+ * http://ec.europa.eu/idabc/eupl
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and 
+ * limitations under the Licence.
+ */
+package ec.tss.tsproviders.cube;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import ec.tss.tsproviders.cursor.TsCursor;
+import ec.tss.tsproviders.utils.FunctionWithIO;
+import ec.tss.tsproviders.utils.OptionalTsData;
+import ec.tstoolkit.utilities.GuavaCaches;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import net.jcip.annotations.NotThreadSafe;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Cache of the nodes of a cube (series with their data) used by the bulk
+ * accessors.
+ * <br>
+ * The size of the cache is bounded by its weight, which is the number of
+ * observations of the cached series (plus one by series). The entries may also
+ * expire after a given time. The concurrent requests of the same node are
+ * loaded only once: the other threads wait for the result of the first load.
+ * <br>
+ * A cache should be used by a single accessor, since the ids of the nodes don't
+ * identify the cube.
+ *
+ * @author Philippe Charles
+ * @since 2.2.7
+ */
+@ThreadSafe
+public final class CubeCache {
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final Cache<CubeId, Node> cache;
+    private final AtomicLong weight;
+
+    private CubeCache(Builder builder) {
+        this.weight = new AtomicLong();
+        CacheBuilder<Object, Object> cb = CacheBuilder.newBuilder()
+                .recordStats()
+                .removalListener(this::onRemoval);
+        if (builder.concurrencyLevel > 0) {
+            cb.concurrencyLevel(builder.concurrencyLevel);
+        }
+        if (builder.maximumWeight >= 0) {
+            cb.maximumWeight(builder.maximumWeight).weigher((CubeId k, Node v) -> v.weight);
+        }
+        if (builder.ttl != null) {
+            cb.expireAfterWrite(builder.ttl.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (builder.idle != null) {
+            cb.expireAfterAccess(builder.idle.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        this.cache = cb.build();
+    }
+
+    /**
+     * Gets the series of a node, loading them if necessary. The cursor
+     * returned by the loader is entirely read and closed before this method
+     * returns.
+     *
+     * @param id the id of the node
+     * @param loader the function that retrieves the series of the node
+     * @return a new cursor on the cached series
+     * @throws IOException if the loading failed
+     */
+    @NonNull
+    public TsCursor<CubeId> get(@NonNull CubeId id, @NonNull FunctionWithIO<? super CubeId, ? extends TsCursor<CubeId>> loader) throws IOException {
+        Objects.requireNonNull(id);
+        Objects.requireNonNull(loader);
+        return GuavaCaches.getOrThrowIOException(cache, id, () -> load(id, loader)).toCursor();
+    }
+
+    /**
+     * Gets the statistics of the cache (hits, misses, loads, evictions).
+     *
+     * @return a non-null snapshot of the statistics
+     */
+    @NonNull
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Gets the number of cached nodes.
+     *
+     * @return
+     */
+    @NonNegative
+    public long getSize() {
+        cache.cleanUp();
+        return cache.size();
+    }
+
+    /**
+     * Gets the total weight of the cached nodes.
+     *
+     * @return the number of cached observations and series
+     */
+    @NonNegative
+    public long getWeight() {
+        cache.cleanUp();
+        return weight.get();
+    }
+
+    public void invalidate(@NonNull CubeId id) {
+        cache.invalidate(Objects.requireNonNull(id));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private Node load(CubeId id, FunctionWithIO<? super CubeId, ? extends TsCursor<CubeId>> loader) throws IOException {
+        try (TsCursor<CubeId> cursor = loader.apply(id)) {
+            List<Item> items = new ArrayList<>();
+            while (cursor.nextSeries()) {
+                items.add(new Item(cursor.getSeriesId(), cursor.getSeriesLabel(), cursor.getSeriesMetaData(), cursor.getSeriesData()));
+            }
+            Node result = new Node(cursor.getMetaData(), items);
+            weight.addAndGet(result.weight);
+            return result;
+        }
+    }
+
+    private void onRemoval(RemovalNotification<Object, Object> notification) {
+        Node node = (Node) notification.getValue();
+        if (node != null) {
+            weight.addAndGet(-node.weight);
+        }
+    }
+
+    private static final class Node {
+
+        final Map<String, String> meta;
+        final List<Item> items;
+        final int weight;
+
+        Node(Map<String, String> meta, List<Item> items) {
+            this.meta = Collections.unmodifiableMap(meta);
+            this.items = Collections.unmodifiableList(items);
+            long n = items.size();
+            for (Item o : items) {
+                if (o.data.isPresent()) {
+                    n += o.data.get().getLength();
+                }
+            }
+            this.weight = (int) Math.min(n, Integer.MAX_VALUE);
+        }
+
+        TsCursor<CubeId> toCursor() {
+            return TsCursor.from(items.iterator(), o -> o.data, o -> o.meta, o -> o.label)
+                    .transform(o -> o.id)
+                    .withMetaData(meta);
+        }
+    }
+
+    private static final class Item {
+
+        final CubeId id;
+        final String label;
+        final Map<String, String> meta;
+        final OptionalTsData data;
+
+        Item(CubeId id, String label, Map<String, String> meta, OptionalTsData data) {
+            this.id = id;
+            this.label = label;
+            this.meta = meta;
+            this.data = data;
+        }
+    }
+
+    @NotThreadSafe
+    public static final class Builder {
+
+        private long maximumWeight = -1;
+        private int concurrencyLevel = 0;
+        private Duration ttl = null;
+        private Duration idle = null;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum weight of the cache (number of observations and
+         * series). The least recently used nodes are evicted first. The cache
+         * is not bounded by default.
+         *
+         * @param maximumWeight
+         * @return this builder
+         */
+        @NonNull
+        public Builder maximumWeight(@NonNegative long maximumWeight) {
+            if (maximumWeight < 0) {
+                throw new IllegalArgumentException("maximumWeight");
+            }
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /**
+         * Sets the expected number of threads that concurrently update the
+         * cache. The maximum weight is shared between the corresponding
+         * segments of the cache, so that a small cache may be evicted before
+         * its maximum weight is reached when this level is high.
+         *
+         * @param concurrencyLevel
+         * @return this builder
+         */
+        @NonNull
+        public Builder concurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel <= 0) {
+                throw new IllegalArgumentException("concurrencyLevel");
+            }
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a node is removed from the cache, once it
+         * has been loaded.
+         *
+         * @param ttl
+         * @return this builder
+         */
+        @NonNull
+        public Builder expireAfterWrite(@NonNull Duration ttl) {
+            this.ttl = checkDuration(ttl);
+            return this;
+        }
+
+        /**
+         * Sets the time after which a node is removed from the cache, once it
+         * has been last requested.
+         *
+         * @param idle
+         * @return this builder
+         */
+        @NonNull
+        public Builder expireAfterAccess(@NonNull Duration idle) {
+            this.idle = checkDuration(idle);
+            return this;
+        }
+
+        @NonNull
+        public CubeCache build() {
+            return new CubeCache(this);
+        }
+
+        private static Duration checkDuration(Duration duration) {
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException("duration");
+            }
+            return duration;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import ec.tss.TsFactory;
 import ec.tss.TsInformation;
 import ec.tss.TsInformationType;
 import ec.tss.TsMoniker;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.LockSupport;
 import org.slf4j.Logger;
@@ -133,10 +134,36 @@ public abstract class AbstractTsProvider implements ITsProvider {
         return process(info);
     }
 
+    @Override
+    final public boolean get(List<TsInformation> infos) {
+        if (asyncMode != TsAsyncMode.None) {
+            // remove request that are encompassed by this one
+            infos.forEach(o -> asyncRequests.removeTs(o.moniker, o.type));
+        }
+        return process(infos);
+    }
+
     abstract protected boolean process(TsCollectionInformation info);
 
     abstract protected boolean process(TsInformation info);
 
+    /**
+     * Processes several series requests. The default implementation processes
+     * them one by one.
+     *
+     * @param infos
+     * @return true if all the requests were processed without exception
+     */
+    protected boolean process(List<TsInformation> infos) {
+        boolean result = true;
+        for (TsInformation info : infos) {
+            if (!process(info)) {
+                result = false;
+            }
+        }
+        return result;
+    }
+
 //    protected class RequestsHandler extends AbstractExecutionThreadService {
 //
 //        @Override
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tss.formatters;
+
+import data.Data;
+import ec.satoolkit.algorithm.implementation.TramoSeatsProcessingFactory;
+import ec.satoolkit.tramoseats.TramoSeatsSpecification;
+import ec.tstoolkit.algorithm.CompositeResults;
+import ec.tstoolkit.algorithm.IProcResults;
+import ec.tstoolkit.utilities.NamedObject;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class CsvInformationFormatterTest {
+
+    public CsvInformationFormatterTest() {
+    }
+
+    @Test
+    public void testSpoolResults() throws IOException {
+        List<NamedObject<IProcResults>> records = new ArrayList<>();
+        CompositeResults rslt = TramoSeatsProcessingFactory.process(Data.P, TramoSeatsSpecification.RSA5);
+        records.add(new NamedObject<>("p", rslt));
+        records.add(new NamedObject<>("null", null));
+        rslt = TramoSeatsProcessingFactory.process(Data.X, TramoSeatsSpecification.RSA4);
+        records.add(new NamedObject<>("x", rslt));
+        List<String> items = Arrays.asList("span.start", "span.n", "arima", "likelihood.*", "regression.out(*)", "residuals.lb:3");
+
+        CsvInformationFormatter fmt = new CsvInformationFormatter();
+        StringWriter w = new StringWriter(), sw = new StringWriter();
+        fmt.formatResults(w, records, items, true);
+        try (CsvInformationFormatter.ResultsSpool spool = fmt.spoolResults(items, true)) {
+            for (NamedObject<IProcResults> record : records) {
+                spool.add(record.name, record.object);
+            }
+            spool.write(sw);
+        }
+        assertEquals(w.toString(), sw.toString());
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tss.sa;
+
+import data.Data;
+import ec.satoolkit.tramoseats.TramoSeatsSpecification;
+import ec.tss.TsFactory;
+import ec.tss.sa.processors.TramoSeatsProcessor;
+import ec.tstoolkit.algorithm.CompositeResults;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class SaProcessingMonitorTest {
+
+    static {
+        SaManager.instance.add(new TramoSeatsProcessor());
+    }
+
+    public SaProcessingMonitorTest() {
+    }
+
+    private static SaProcessing createProcessing() {
+        SaProcessing processing = new SaProcessing();
+        TsData[] all = new TsData[]{Data.P, Data.X, Data.M1, Data.M2, Data.M3};
+        for (int i = 0; i < 10; ++i) {
+            SaItem item = new SaItem(TramoSeatsSpecification.RSA4, TsFactory.instance.createTs("s" + i, null, all[i % all.length]));
+            item.setPriority(i % 3);
+            processing.add(item);
+        }
+        return processing;
+    }
+
+    @Test
+    public void testParallel() {
+        SaProcessing processing = createProcessing();
+        final AtomicInteger nprocessed = new AtomicInteger(), ncompleted = new AtomicInteger();
+        SaProcessingMonitor monitor = new SaProcessingMonitor();
+        monitor.setProcessing(processing);
+        monitor.setParallelism(4);
+        monitor.addSaEventListener(new SaEventListener() {
+            @Override
+            public void Processed(SaItemEvent evt) {
+                nprocessed.incrementAndGet();
+            }
+
+            @Override
+            public void Completed(SaProcessingEvent evt) {
+                ncompleted.incrementAndGet();
+            }
+        });
+        List<CompositeResults> prslts = monitor.process();
+        assertEquals(processing.size(), prslts.size());
+        assertEquals(processing.size(), nprocessed.get());
+        assertEquals(processing.size(), monitor.getProcessedCount());
+        assertEquals(1, ncompleted.get());
+
+        SaProcessing sprocessing = createProcessing();
+        SaProcessingMonitor smonitor = new SaProcessingMonitor();
+        smonitor.setProcessing(sprocessing);
+        smonitor.setParallelism(1);
+        List<CompositeResults> srslts = smonitor.process();
+        for (int i = 0; i < prslts.size(); ++i) {
+            TsData psa = prslts.get(i).getData("sa", TsData.class);
+            TsData ssa = srslts.get(i).getData("sa", TsData.class);
+            assertEquals(ssa, psa);
+            assertTrue(processing.get(i).isProcessed());
+        }
+    }
+
+    @Test
+    public void testStop() {
+        SaProcessing processing = createProcessing();
+        final SaProcessingMonitor monitor = new SaProcessingMonitor();
+        monitor.setProcessing(processing);
+        monitor.setParallelism(1);
+        monitor.addSaEventListener(new SaEventListener() {
+            @Override
+            public void Processed(SaItemEvent evt) {
+                monitor.stop();
+            }
+
+            @Override
+            public void Completed(SaProcessingEvent evt) {
+            }
+        });
+        List<CompositeResults> rslts = monitor.process();
+        assertEquals(1, monitor.getProcessedCount());
+        int n = 0;
+        for (CompositeResults rslt : rslts) {
+            if (rslt != null) {
+                ++n;
+            }
+        }
+        assertEquals(1, n);
+    }
+
+    @Test
+    public void testStopBeforeStart() {
+        SaProcessing processing = createProcessing();
+        SaProcessingMonitor monitor = new SaProcessingMonitor();
+        monitor.setProcessing(processing);
+        monitor.setParallelism(4);
+        monitor.stop();
+        assertTrue(monitor.isStopped());
+        List<CompositeResults> rslts = monitor.process();
+        assertEquals(processing.size(), rslts.size());
+        assertEquals(0, monitor.getProcessedCount());
+        for (CompositeResults rslt : rslts) {
+            assertNull(rslt);
+        }
+        // the next run is not affected
+        assertFalse(monitor.isStopped());
+        rslts = monitor.process();
+        assertEquals(processing.size(), monitor.getProcessedCount());
+        for (CompositeResults rslt : rslts) {
+            assertNotNull(rslt);
+        }
+    }
+
+    @Test
+    public void testRefreshLocked() {
+        SaProcessing processing = createProcessing();
+        processing.get(1).setLocked(true);
+        processing.get(4).setLocked(true);
+        List<SaItem> items = new ArrayList<>(processing);
+        SaProcessingMonitor monitor = new SaProcessingMonitor();
+        monitor.setParallelism(4);
+        List<SaItem> nitems = processing.refresh(items, EstimationPolicyType.Complete, false, monitor);
+        assertEquals(items.size(), nitems.size());
+        assertEquals(items.size() - 2, monitor.getProcessedCount());
+        for (int i = 0; i < items.size(); ++i) {
+            if (i == 1 || i == 4) {
+                assertNull(nitems.get(i));
+                assertSame(items.get(i), processing.get(i));
+            } else {
+                assertSame(nitems.get(i), processing.get(i));
+                assertTrue(nitems.get(i).isProcessed());
+            }
+        }
+    }
+}
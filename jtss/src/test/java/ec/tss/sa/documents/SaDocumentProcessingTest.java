@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ * 
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved 
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ * 
+ * http://ec.europa.eu/idabc/eupl
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and 
+ * limitations under the Licence.
+ */
+package ec.tss.sa.documents;
+
+import data.Data;
+import ec.satoolkit.ISaSpecification;
+import ec.satoolkit.tramoseats.TramoSeatsSpecification;
+import ec.satoolkit.x13.X13Specification;
+import ec.tss.TsFactory;
+import ec.tss.sa.EstimationPolicyType;
+import ec.tss.sa.SaManager;
+import ec.tss.sa.processors.TramoSeatsProcessor;
+import ec.tss.sa.processors.X13Processor;
+import ec.tstoolkit.algorithm.CompositeResults;
+import ec.tstoolkit.timeseries.analysis.RevisionHistory;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsDomain;
+import ec.tstoolkit.timeseries.simplets.TsPeriod;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class SaDocumentProcessingTest {
+
+    static {
+        SaManager.instance.add(new TramoSeatsProcessor());
+        SaManager.instance.add(new X13Processor());
+    }
+
+    public SaDocumentProcessingTest() {
+    }
+
+    private static class CountingProcessing<S extends ISaSpecification> extends SaDocumentProcessing<S> {
+
+        private final AtomicInteger warmStarts = new AtomicInteger();
+
+        private CountingProcessing(SaDocument<S> doc, boolean warmStart) {
+            super(doc, EstimationPolicyType.FreeParameters, warmStart);
+        }
+
+        @Override
+        protected S warmStartSpecification(CompositeResults previous) {
+            S spec = super.warmStartSpecification(previous);
+            if (spec != null) {
+                warmStarts.incrementAndGet();
+            }
+            return spec;
+        }
+    }
+
+    private static <S extends ISaSpecification> void testRevisions(SaDocument<S> doc) {
+        doc.setInput(TsFactory.instance.createTs("P", null, Data.P));
+        assertNotNull(doc.getResults());
+        TsDomain domain = Data.P.getDomain();
+        TsPeriod start = domain.getLast().minus(24), period = start.minus(12);
+
+        CountingProcessing<S> warm = new CountingProcessing<>(doc, true);
+        RevisionHistory<CompositeResults> whistory = new RevisionHistory<>(warm, domain);
+        TsData wrev = whistory.tsRevision("sa", period, start);
+        // each vintage is started from the previous one (except the first one
+        // and the last one, which is the reference domain)
+        assertEquals(wrev.getLength() - 2, warm.warmStarts.get());
+
+        CountingProcessing<S> cold = new CountingProcessing<>(doc, false);
+        RevisionHistory<CompositeResults> chistory = new RevisionHistory<>(cold, domain);
+        TsData crev = chistory.tsRevision("sa", period, start);
+        assertEquals(0, cold.warmStarts.get());
+        for (int i = 0; i < wrev.getLength(); ++i) {
+            assertEquals(crev.get(i), wrev.get(i), 1e-3 * Math.abs(crev.get(i)));
+        }
+    }
+
+    @Test
+    public void testTramoSeats() {
+        TramoSeatsDocument doc = new TramoSeatsDocument();
+        doc.setSpecification(TramoSeatsSpecification.RSA1.clone());
+        testRevisions(doc);
+    }
+
+    @Test
+    public void testX13() {
+        X13Document doc = new X13Document();
+        doc.setSpecification(X13Specification.RSA1.clone());
+        testRevisions(doc);
+    }
+}
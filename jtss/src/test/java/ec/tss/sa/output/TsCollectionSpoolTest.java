@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tss.sa.output;
+
+import data.Data;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsDataTable;
+import ec.tstoolkit.timeseries.simplets.TsDataTableInfo;
+import ec.tstoolkit.timeseries.simplets.TsFrequency;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class TsCollectionSpoolTest {
+
+    public TsCollectionSpoolTest() {
+    }
+
+    private static List<TsData> series() {
+        List<TsData> s = new ArrayList<>();
+        TsData x = Data.X.clone();
+        x.set(3, Double.POSITIVE_INFINITY);
+        s.add(x);
+        s.add(null);
+        s.add(Data.P.changeFrequency(TsFrequency.Quarterly, ec.tstoolkit.timeseries.TsAggregationType.Sum, true));
+        TsData m = Data.M1.clone();
+        m.set(5, Double.NaN);
+        s.add(m);
+        s.add(Data.M2.drop(10, 20).changeFrequency(TsFrequency.Yearly, ec.tstoolkit.timeseries.TsAggregationType.Average, true));
+        return s;
+    }
+
+    private static TsCollectionSpool spool(List<TsData> s, List<String> names) throws IOException {
+        TsCollectionSpool spool = new TsCollectionSpool();
+        for (int i = 0; i < s.size(); ++i) {
+            spool.add(names.get(i), s.get(i));
+        }
+        return spool;
+    }
+
+    @Test
+    public void testPeriods() throws IOException {
+        List<TsData> s = series();
+        List<String> names = Arrays.asList("x", "null", "p", "m1", "m2");
+        TsDataTable table = new TsDataTable();
+        table.add(s);
+        try (TsCollectionSpool spool = spool(s, names)) {
+            assertEquals(table.getDomain(), spool.getDomain());
+            // small buffer: several blocks of periods
+            spool.forEachPeriod(20, (j, data) -> {
+                for (int i = 0; i < data.length; ++i) {
+                    if (table.getDataInfo(j, i) == TsDataTableInfo.Valid) {
+                        assertEquals(table.getData(j, i), data[i], 0);
+                    } else {
+                        assertFalse(Double.isFinite(data[i]));
+                    }
+                }
+            });
+            spool.forEach((i, name, cur) -> {
+                assertEquals(names.get(i), name);
+                assertEquals(s.get(i), cur);
+            });
+        }
+    }
+
+    @Test
+    public void testCsv() throws IOException {
+        List<TsData> s = series();
+        List<String> names = Arrays.asList("x", "null", "p", "m,1", "m2");
+        for (CsvLayout layout : CsvLayout.values()) {
+            TsCollectionCsvFormatter fmt = new TsCollectionCsvFormatter();
+            fmt.setPresentation(layout);
+            StringWriter w = new StringWriter(), sw = new StringWriter();
+            assertTrue(fmt.write(s, names, w));
+            try (TsCollectionSpool spool = spool(s, names)) {
+                assertTrue(fmt.write(spool, sw));
+            }
+            assertEquals(w.toString(), sw.toString());
+            // infinite values are missing in the tables (see TsDataTable),
+            // written in the list layout
+            assertEquals(layout == CsvLayout.List, w.toString().contains("\u221e"));
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018 National Bank of Belgium
+ * 
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved 
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ * 
+ * http://ec.europa.eu/idabc/eupl
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and 
+ * limitations under the Licence.
+ */
+package ec.tss.tsproviders.cube;
+
+import static ec.tss.tsproviders.cube.CubeIdTest.INDUSTRY;
+import static ec.tss.tsproviders.cube.CubeIdTest.INDUSTRY_BE;
+import static ec.tss.tsproviders.cube.CubeIdTest.SECTOR_REGION;
+import ec.tss.tsproviders.cursor.TsCursor;
+import ec.tss.tsproviders.utils.IteratorWithIO;
+import ec.tss.tsproviders.utils.OptionalTsData;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsFrequency;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Philippe Charles
+ */
+public class CubeCacheTest {
+
+    private static final CubeId OTHER = SECTOR_REGION.child("other");
+    private static final List<CubeId> SERIES = Arrays.asList(INDUSTRY_BE, INDUSTRY.child("eu"), OTHER.child("be"));
+    private static final TsData DATA = new TsData(TsFrequency.Monthly, 2010, 0, 24);
+
+    private static final class CountingAccessor implements CubeAccessor {
+
+        final AtomicInteger loads = new AtomicInteger();
+        volatile CountDownLatch gate;
+        volatile boolean failing;
+
+        @Override
+        public IOException testConnection() {
+            return null;
+        }
+
+        @Override
+        public CubeId getRoot() {
+            return SECTOR_REGION;
+        }
+
+        @Override
+        public TsCursor<CubeId> getAllSeries(CubeId id) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TsCursor<CubeId> getSeriesWithData(CubeId id) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public IteratorWithIO<CubeId> getChildren(CubeId id) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getDisplayName() throws IOException {
+            return SECTOR_REGION.toString();
+        }
+
+        @Override
+        public String getDisplayName(CubeId id) throws IOException {
+            return id.toString();
+        }
+
+        @Override
+        public String getDisplayNodeName(CubeId id) throws IOException {
+            return id.toString();
+        }
+
+        @Override
+        public TsCursor<CubeId> getAllSeriesWithData(CubeId id) throws IOException {
+            loads.incrementAndGet();
+            if (failing) {
+                throw new IOException();
+            }
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+            }
+            List<CubeId> list = new ArrayList<>();
+            for (CubeId o : SERIES) {
+                if (id.isAncestorOf(o)) {
+                    list.add(o);
+                }
+            }
+            return TsCursor.from(list.iterator(), o -> OptionalTsData.present(DATA));
+        }
+    }
+
+    private static int count(TsCursor<CubeId> cursor) throws IOException {
+        try (TsCursor<CubeId> c = cursor) {
+            int n = 0;
+            while (c.nextSeries()) {
+                assertEquals(DATA, c.getSeriesData().get());
+                ++n;
+            }
+            return n;
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullCache() {
+        new CountingAccessor().bulkBounded(0, null);
+    }
+
+    @Test
+    public void testStats() throws IOException {
+        CountingAccessor delegate = new CountingAccessor();
+        CubeCache cache = CubeCache.builder().build();
+        CubeAccessor accessor = delegate.bulkBounded(1, cache);
+
+        assertEquals(1, count(accessor.getSeriesWithData(INDUSTRY_BE)));
+        assertEquals(2, count(accessor.getAllSeriesWithData(INDUSTRY)));
+        assertEquals(1, count(accessor.getAllSeriesWithData(OTHER)));
+        assertEquals(2, delegate.loads.get());
+
+        assertEquals(2, cache.getSize());
+        assertEquals(3 * (DATA.getLength() + 1), cache.getWeight());
+        assertEquals(2, cache.getStats().missCount());
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(2, cache.getStats().loadSuccessCount());
+
+        cache.invalidate(INDUSTRY);
+        assertEquals(1, cache.getSize());
+        assertEquals(DATA.getLength() + 1, cache.getWeight());
+        cache.invalidateAll();
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void testMaximumWeight() throws IOException {
+        CountingAccessor delegate = new CountingAccessor();
+        CubeCache cache = CubeCache.builder()
+                .maximumWeight(2 * (DATA.getLength() + 1))
+                .concurrencyLevel(1)
+                .build();
+        CubeAccessor accessor = delegate.bulkBounded(1, cache);
+
+        count(accessor.getAllSeriesWithData(INDUSTRY));
+        assertEquals(1, cache.getSize());
+        count(accessor.getAllSeriesWithData(OTHER));
+        assertEquals(1, cache.getSize());
+        assertEquals(DATA.getLength() + 1, cache.getWeight());
+        assertEquals(1, cache.getStats().evictionCount());
+
+        count(accessor.getAllSeriesWithData(OTHER));
+        assertEquals(2, delegate.loads.get());
+    }
+
+    @Test
+    public void testExpiration() throws IOException {
+        CountingAccessor delegate = new CountingAccessor();
+        CubeCache cache = CubeCache.builder().expireAfterWrite(Duration.ZERO).build();
+        CubeAccessor accessor = delegate.bulkBounded(1, cache);
+
+        count(accessor.getAllSeriesWithData(INDUSTRY));
+        count(accessor.getAllSeriesWithData(INDUSTRY));
+        assertEquals(2, delegate.loads.get());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void testFailure() throws IOException {
+        CountingAccessor delegate = new CountingAccessor();
+        CubeCache cache = CubeCache.builder().build();
+        CubeAccessor accessor = delegate.bulkBounded(1, cache);
+
+        delegate.failing = true;
+        try {
+            accessor.getAllSeriesWithData(INDUSTRY);
+            fail();
+        } catch (IOException ex) {
+        }
+        delegate.failing = false;
+        assertEquals(2, count(accessor.getAllSeriesWithData(INDUSTRY)));
+        assertEquals(1, cache.getStats().loadExceptionCount());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        CountingAccessor delegate = new CountingAccessor();
+        delegate.gate = new CountDownLatch(1);
+        CubeAccessor accessor = delegate.bulkBounded(1, CubeCache.builder().build());
+
+        int n = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(n);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < n; ++i) {
+                Callable<Integer> task = () -> count(accessor.getSeriesWithData(INDUSTRY_BE));
+                futures.add(executor.submit(task));
+            }
+            Thread.sleep(50);
+            delegate.gate.countDown();
+            for (Future<Integer> future : futures) {
+                assertEquals(1, (int) future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, delegate.loads.get());
+    }
+}
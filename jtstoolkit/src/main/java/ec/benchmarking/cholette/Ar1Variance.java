@@ -55,6 +55,14 @@ public class Ar1Variance implements IVariance {
 
     }
 
+    /**
+     * 
+     * @return
+     */
+    public double getRo() {
+        return ro_;
+    }
+
     private double rop(int p) {
         if (p >= powRo_.size()) {
             extendtop(p);
@@ -71,4 +79,28 @@ public class Ar1Variance implements IVariance {
     public double var(int i, int j) {
         return rop(Math.abs(i - j));
     }
+
+    /**
+     * V * x, computed by means of a forward and a backward recursion (linear
+     * in the length of x)
+     *
+     * @param x
+     * @param vx
+     */
+    @Override
+    public void product(double[] x, double[] vx) {
+        int n = x.length;
+        // forward: f(i) = x(i) + ro * f(i-1)
+        double f = 0;
+        for (int i = 0; i < n; ++i) {
+            f = x[i] + ro_ * f;
+            vx[i] = f;
+        }
+        // backward: b(i) = x(i) + ro * b(i+1)
+        double b = 0;
+        for (int i = n - 1; i >= 0; --i) {
+            b = x[i] + ro_ * b;
+            vx[i] += b - x[i];
+        }
+    }
 }
@@ -0,0 +1,133 @@
+/*
+* Copyright 2013 National Bank of Belgium
+*
+* Licensed under the EUPL, Version 1.1 or – as soon they will be approved 
+* by the European Commission - subsequent versions of the EUPL (the "Licence");
+* You may not use this work except in compliance with the Licence.
+* You may obtain a copy of the Licence at:
+*
+* http://ec.europa.eu/idabc/eupl
+*
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the Licence is distributed on an "AS IS" basis,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the Licence for the specific language governing permissions and 
+* limitations under the Licence.
+*/
+
+package ec.benchmarking.cholette;
+
+import ec.tstoolkit.design.Development;
+import ec.tstoolkit.maths.matrices.BandMatrix;
+import ec.tstoolkit.maths.matrices.Matrix;
+import ec.tstoolkit.maths.matrices.SymmetricMatrix;
+
+/**
+ * Solver of the systems (S V S') u = r, where S is the summation matrix and V
+ * the variance of the (high-frequency) errors.
+ *
+ * When V is the variance of a stationary AR(1) (|ro| < 1) and S the sum of
+ * consecutive blocks of the same length, S V S' is the variance of an
+ * aggregated AR(1): S V S' = e I + c K, where K(i, j) = g^|i-j|, g = ro^conv.
+ * If T is the tridiagonal matrix such that T K = (1-g^2) I, T S V S' is
+ * tridiagonal and the systems are solved in a time linear in the number of
+ * aggregated observations.
+ *
+ * In the other cases (random walk, ro = 1...), S V S' is computed and inverted,
+ * which is cubic in the number of aggregated observations.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+abstract class BabSolver {
+
+    static BabSolver of(ISummation sum, IVariance var) {
+        if (sum instanceof Summation && var instanceof Ar1Variance) {
+            double ro = ((Ar1Variance) var).getRo();
+            if (Math.abs(ro) < 1) {
+                return new Ar1Solver(sum.sdim(), ((Summation) sum).getConversion(), ro);
+            }
+        }
+        return new DenseSolver(SymmetricMatrix.inverse(sum.BAB(var)));
+    }
+
+    /**
+     * Solves in place (S V S') u = r
+     *
+     * @param r On entry, the right-hand side of the system. On exit, the
+     * solution.
+     */
+    abstract void solve(double[] r);
+
+    private static class DenseSolver extends BabSolver {
+
+        private final Matrix svs;
+
+        private DenseSolver(Matrix svs) {
+            this.svs = svs;
+        }
+
+        @Override
+        void solve(double[] r) {
+            double[] u = new double[r.length];
+            for (int i = 0; i < u.length; ++i) {
+                u[i] = svs.row(i).dot(r);
+            }
+            System.arraycopy(u, 0, r, 0, u.length);
+        }
+    }
+
+    private static class Ar1Solver extends BabSolver {
+
+        private final double g;
+        private final BandMatrix A;
+
+        private Ar1Solver(int m, int conv, double ro) {
+            // a = sum(ro^k, k < conv), d = sum(ro^|i-j|, i,j < conv)
+            double a = 0, d = 0, rk = 1;
+            for (int k = 0; k < conv; ++k) {
+                a += rk;
+                d += (k == 0 ? conv : 2 * (conv - k)) * rk;
+                rk *= ro;
+            }
+            g = rk;
+            // off-diagonal elements of S V S': c*g^|i-j| = a*a*ro*g^(|i-j|-1)
+            double cg = a * a * ro;
+            A = new BandMatrix(m, 1, 1);
+            if (m == 1) {
+                A.set(0, 0, d);
+            } else if (m > 1) {
+                // T (e I + c K) = e T + c(1-g^2) I, with e = d-c
+                double dend = d - cg * g, dmid = d * (1 + g * g) - 2 * cg * g;
+                double off = cg - d * g;
+                for (int i = 0; i < m; ++i) {
+                    A.set(i, i, i == 0 || i == m - 1 ? dend : dmid);
+                    if (i > 0) {
+                        A.set(i, i - 1, off);
+                        A.set(i - 1, i, off);
+                    }
+                }
+            }
+        }
+
+        @Override
+        void solve(double[] r) {
+            int m = r.length;
+            if (m > 1) {
+                // r = T r
+                double prev = 0;
+                for (int i = 0; i < m; ++i) {
+                    double cur = r[i];
+                    double s = i == 0 || i == m - 1 ? cur : (1 + g * g) * cur;
+                    s -= g * prev;
+                    if (i < m - 1) {
+                        s -= g * r[i + 1];
+                    }
+                    r[i] = s;
+                    prev = cur;
+                }
+            }
+            A.solve(r);
+        }
+    }
+}
@@ -32,4 +32,22 @@ public interface IVariance {
      * @return
      */
     double var(int i, int j);
+
+    /**
+     * Computes vx = V * x. The default implementation is quadratic in the
+     * length of x; it should be overridden by variances that allow faster
+     * computations.
+     *
+     * @param x
+     * @param vx
+     */
+    default void product(double[] x, double[] vx) {
+        for (int i = 0; i < vx.length; ++i) {
+            double s = 0;
+            for (int j = 0; j < x.length; ++j) {
+                s += x[j] * var(i, j);
+            }
+            vx[i] = s;
+        }
+    }
 }
@@ -20,7 +20,6 @@ package ec.benchmarking.cholette;
 import ec.tstoolkit.data.DataBlock;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.maths.matrices.Matrix;
-import ec.tstoolkit.maths.matrices.SymmetricMatrix;
 
 /**
  *
@@ -68,8 +67,8 @@ public class MultiplicativeCholetteMethod {
      */
     public boolean process(DataBlock y, DataBlock z) {
         try {
-            // (S V S' + W)^-1
-            Matrix svs = SymmetricMatrix.inverse(sum_.BAB(var_));
+            // (S V S')^-1
+            BabSolver svs = BabSolver.of(sum_, var_);
             // S 1
             double[] One = new double[sum_.dim()];
             DataBlock C = new DataBlock(One);
@@ -78,7 +77,9 @@ public class MultiplicativeCholetteMethod {
             for (int i = 0; i < sone.length; ++i) {
                 sone[i] = sum_.Btz(i, C);
             }
-            double h = SymmetricMatrix.quadraticForm(svs, sone);
+            double[] svsone = sone.clone();
+            svs.solve(svsone);
+            double h = new DataBlock(sone).dot(svsone);
 
             // Y - Sq (aggregated discrepancies...)
             double[] r = new double[y.getLength()];
@@ -90,8 +91,8 @@ public class MultiplicativeCholetteMethod {
                     r[i] -= sum_.Btz(i, z);
                 }
             }
-            DataBlock tmp = new DataBlock(sum_.sdim());
-            tmp.product(svs.rows(), new DataBlock(r));
+            svs.solve(r);
+            DataBlock tmp = new DataBlock(r.clone());
 
             double s = 0;
             for (int i = 0; i < sum_.dim(); ++i) {
@@ -117,18 +118,17 @@ public class MultiplicativeCholetteMethod {
                     r[i] += sum_.Btz(i, C);
                 }
             }
-            tmp.product(svs.rows(), new DataBlock(r));
+            svs.solve(r);
+            tmp.copyFrom(r, 0);
 
             double[] xtmp = new double[x_.length];
             for (int i = 0; i < xtmp.length; ++i) {
                 xtmp[i] = sum_.Bx(i, tmp);
             }
+            double[] vs = new double[xtmp.length];
+            var_.product(xtmp, vs);
             for (int i = 0; i < xtmp.length; ++i) {
-                double vs = 0;
-                for (int j = 0; j < xtmp.length; ++j) {
-                    vs += xtmp[j] * var_.var(i, j);
-                }
-                x_[i] += vs;
+                x_[i] += vs[i];
             }
             return true;
         } catch (Exception ex) {
@@ -38,4 +38,29 @@ public class RwVariance implements IVariance {
     public double var(int i, int j) {
         return Math.abs(i - j) + 1;
     }
+
+    /**
+     * V * x, computed by means of cumulative sums (linear in the length of x)
+     *
+     * @param x
+     * @param vx
+     */
+    @Override
+    public void product(double[] x, double[] vx) {
+        int n = x.length;
+        // sum(j<i, (i-j)*x(j))
+        double s = 0, l = 0;
+        for (int i = 0; i < n; ++i) {
+            vx[i] = l;
+            s += x[i];
+            l += s;
+        }
+        // s + sum(j>i, (j-i)*x(j))
+        double r = 0, q = 0;
+        for (int i = n - 1; i >= 0; --i) {
+            vx[i] += s + r;
+            q += x[i];
+            r += q;
+        }
+    }
 }
@@ -21,6 +21,7 @@ import ec.tstoolkit.data.DataBlock;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.maths.matrices.Matrix;
 import ec.tstoolkit.maths.matrices.SymmetricMatrix;
+import java.util.Arrays;
 
 /**
  *
@@ -51,15 +52,19 @@ public class Summation implements ISummation {
     public Matrix BAB(IVariance var) {
         int m = sdim();
         Matrix M = new Matrix(m, m);
-        for (int r = 0; r < m; ++r) {
-            for (int c = 0; c <= r; ++c) {
+        // column c = S * V * (S' e(c)), where the product by V is (if possible)
+        // linear in the length of the series
+        double[] e = new double[n_], ve = new double[n_];
+        for (int c = 0; c < m; ++c) {
+            int C0 = beg_ + conv_ * c;
+            Arrays.fill(e, 0);
+            Arrays.fill(e, C0, C0 + conv_, 1);
+            var.product(e, ve);
+            for (int r = c; r < m; ++r) {
                 double s = 0;
                 int R0 = beg_ + conv_ * r;
-                int C0 = beg_ + conv_ * c;
                 for (int i = R0; i < R0 + conv_; ++i) {
-                    for (int j = C0; j < C0 + conv_; ++j) {
-                        s += var.var(i, j);
-                    }
+                    s += ve[i];
                 }
                 M.set(r, c, s);
             }
@@ -93,6 +98,14 @@ public class Summation implements ISummation {
         return x.get((i - beg_) / conv_);
     }
 
+    /**
+     * 
+     * @return
+     */
+    public int getConversion() {
+        return conv_;
+    }
+
     /**
      * 
      * @return
@@ -16,14 +16,11 @@
  */
 package ec.benchmarking.denton;
 
+import ec.benchmarking.BenchmarkingException;
 import ec.tstoolkit.data.DataBlock;
-import ec.tstoolkit.data.DataBlockIterator;
 import ec.tstoolkit.data.IReadDataBlock;
 import ec.tstoolkit.design.Development;
-import ec.tstoolkit.maths.matrices.Householder;
-import ec.tstoolkit.maths.matrices.Matrix;
-import ec.tstoolkit.maths.matrices.SubMatrix;
-import ec.tstoolkit.maths.matrices.SymmetricMatrix;
+import ec.tstoolkit.maths.matrices.BandMatrix;
 import ec.tstoolkit.maths.polynomials.Polynomial;
 import ec.tstoolkit.maths.polynomials.UnitRoots;
 import ec.tstoolkit.timeseries.TsAggregationType;
@@ -39,57 +36,114 @@ public class DentonMethod {
     public int diff_ = 1, conv_ = 12, offset_ = 0;
     public TsAggregationType type_ = TsAggregationType.Sum;
 
-    private void J(SubMatrix M) {
-        int j = offset_;
-        DataBlockIterator rows = M.rows();
-        DataBlock data = rows.getData();
-        do {
-            switch (type_) {
-                case Sum:
-                case Average:
-                    data.range(j, j + conv_).set(1);
-                    break;
-                case First:
-                    data.set(j, 1);
-                    break;
-                case Last:
-                    data.set(j + conv_ - 1, 1);
-                    break;
-            }
-            j += conv_;
-        } while (rows.next());
+    // first and last positions (in the high-frequency series) of the
+    // aggregation constraint k
+    private int jfirst(int k) {
+        int j = offset_ + k * conv_;
+        return type_ == TsAggregationType.Last ? j + conv_ - 1 : j;
+    }
+
+    private int jlast(int k) {
+        int j = offset_ + k * conv_;
+        return type_ == TsAggregationType.First ? j : j + conv_ - 1;
     }
 
-    private Matrix D(DataBlock x) {
+    /**
+     * Solves the Denton system
+     * | D'D J'| |u|   |D'D x0|
+     * | J   0 | |l| = |y     |
+     * where D is the (weighted) differencing operator and J the aggregation
+     * matrix. The Lagrange multiplier of each constraint is put just after the
+     * last observation of its aggregation period, so that the system is banded
+     * (bandwidth ~ conversion factor + differencing order) and can be solved
+     * in a time linear in the length of the series.
+     *
+     * @param x The (normalized) preliminary series, which defines the weights
+     * of the multiplicative method
+     * @param x0 The right-hand side of the constraints on the preliminary
+     * series. May be null (0)
+     * @param y The aggregation constraints
+     * @return The benchmarked series
+     */
+    private double[] solve(DataBlock x, DataBlock x0, DataBlock y) {
         Polynomial pd = UnitRoots.D(1, diff_);
         int d = pd.getDegree();
-        int n = x.getLength();
+        int n = x.getLength(), ny = y.getLength();
+        if (ny > 0 && (jfirst(0) < 0 || jlast(ny - 1) >= n)) {
+            throw new BenchmarkingException("Incompatible aggregation constraints");
+        }
+        double[] w = new double[n];
         if (mul_) {
-            x = x.deepClone();
-            x.inv();
+            for (int i = 0; i < n; ++i) {
+                w[i] = 1 / x.get(i);
+            }
+        } else {
+            for (int i = 0; i < n; ++i) {
+                w[i] = 1;
+            }
         }
-
-        if (mod_) {
-            Matrix D = new Matrix(n - d, n);
+        // positions of the unknowns
+        int[] pu = new int[n], pl = new int[ny];
+        for (int i = 0, k = 0, pos = 0; i < n; ++i) {
+            pu[i] = pos++;
+            while (k < ny && jlast(k) == i) {
+                pl[k++] = pos++;
+            }
+        }
+        int bw = 1;
+        for (int i = 0; i < n; ++i) {
+            int j = Math.min(n - 1, i + d);
+            bw = Math.max(bw, pu[j] - pu[i]);
+        }
+        for (int k = 0; k < ny; ++k) {
+            bw = Math.max(bw, pl[k] - pu[jfirst(k)]);
+        }
+        int m = n + ny;
+        BandMatrix A = new BandMatrix(m, bw, bw);
+        double[] q = new double[m];
+        // D'D
+        int nd = mod_ ? n - d : n;
+        int[] c = new int[d + 1];
+        double[] a = new double[d + 1];
+        for (int r = 0; r < nd; ++r) {
+            int nc = 0;
             for (int i = 0; i <= d; ++i) {
-                if (mul_) {
-                    D.subDiagonal(i).setAY(pd.get(d - i), x.drop(i, d - i));
-                } else {
-                    D.subDiagonal(i).set(pd.get(d - i));
+                int col = mod_ ? r + i : r - i;
+                if (col >= 0) {
+                    c[nc] = col;
+                    a[nc++] = (mod_ ? pd.get(d - i) : pd.get(i)) * w[col];
                 }
             }
-            return D;
-        } else {
-            Matrix D = new Matrix(n, n);
-            for (int i = 0; i <= d; ++i) {
-                if (mul_) {
-                    D.subDiagonal(-i).setAY(pd.get(i), x.drop(0, i));
-                } else {
-                    D.subDiagonal(-i).set(pd.get(i));
+            for (int i = 0; i < nc; ++i) {
+                for (int j = 0; j < nc; ++j) {
+                    A.add(pu[c[i]], pu[c[j]], a[i] * a[j]);
+                }
+            }
+            if (x0 != null) {
+                double s = 0;
+                for (int i = 0; i < nc; ++i) {
+                    s += a[i] * x0.get(c[i]);
                 }
+                for (int i = 0; i < nc; ++i) {
+                    q[pu[c[i]]] += a[i] * s;
+                }
+            }
+        }
+        // J
+        for (int k = 0; k < ny; ++k) {
+            int l = pl[k];
+            for (int j = jfirst(k); j <= jlast(k); ++j) {
+                A.set(l, pu[j], 1);
+                A.set(pu[j], l, 1);
             }
-            return D;
+            q[l] = y.get(k);
         }
+        A.solve(q);
+        double[] rslt = new double[n];
+        for (int i = 0; i < n; ++i) {
+            rslt[i] = q[pu[i]];
+        }
+        return rslt;
     }
 
     /**
@@ -106,36 +160,11 @@ public class DentonMethod {
         if (type_ == TsAggregationType.Average) {
             y.mul(conv_);
         }
-        int n = x.getLength();
-        int ny = y.getLength();
-
         double xm = x.sum() / x.getLength();
         x.mul(1 / xm);
+        y.mul(1 / xm);
 
-        Matrix D = D(x);
-
-        Matrix A = new Matrix(n + ny, n + ny);
-
-        SymmetricMatrix.XtX(D.subMatrix(), A.subMatrix(0, n, 0, n));
-        J(A.subMatrix(n, n + ny, 0, n));
-        Matrix B = A.clone();
-        J(A.subMatrix(0, n, n, n + ny).transpose());
-        B.diagonal().drop(n, 0).set(1);
-
-        DataBlock q = new DataBlock(n + ny);
-        DataBlock q0 = q.range(0, n);
-        q0.copy(x);
-        DataBlock q1 = q.range(n, n + ny);
-        q1.product(A.subMatrix(n, n + ny, 0, n).rows(), q0);
-        q1.chs();
-        q1.addAY(1.0 / xm, y);
-
-        DataBlock z = new DataBlock(n + ny);
-        z.product(B.rows(), q);
-        Householder qr = new Householder(true);
-        qr.decompose(A);
-        qr.solve(z, q);
-        DataBlock rslt = q.range(0, n).deepClone();
+        DataBlock rslt = new DataBlock(solve(x, x, y));
         rslt.mul(xm);
         return rslt.getData();
     }
@@ -151,25 +180,7 @@ public class DentonMethod {
         if (mul_) {
             x.set(1);
         }
-        Matrix D = D(x);
-        Matrix A = new Matrix(n + ny, n + ny);
-
-        SymmetricMatrix.XtX(D.subMatrix(), A.subMatrix(0, n, 0, n));
-        J(A.subMatrix(n, n + ny, 0, n));
-        Matrix B = A.clone();
-        J(A.subMatrix(0, n, n, n + ny).transpose());
-        B.diagonal().drop(n, 0).set(1);
-
-        DataBlock q = new DataBlock(n + ny);
-        DataBlock q1 = q.range(n, n + ny);
-        q1.copy(y);
-        DataBlock z = new DataBlock(n + ny);
-        z.product(B.rows(), q);
-        Householder qr = new Householder(true);
-        qr.decompose(A);
-        qr.solve(z, q);
-        DataBlock rslt = q.range(0, n).deepClone();
-        return rslt.getData();
+        return solve(x, null, y);
     }
 
     public boolean isMultiplicative() {
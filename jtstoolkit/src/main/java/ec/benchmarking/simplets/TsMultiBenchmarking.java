@@ -17,6 +17,7 @@
 package ec.benchmarking.simplets;
 
 import ec.benchmarking.ssf.multivariate.*;
+import ec.tstoolkit.algorithm.ProcessingExecutors;
 import ec.tstoolkit.data.DataBlock;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.maths.matrices.Matrix;
@@ -30,6 +31,10 @@ import ec.tstoolkit.utilities.WeightedItem;
 import ec.tstoolkit.utilities.WildCards;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Multi-variate benchmarking by means of an generalization of the Cholette's
@@ -47,11 +52,38 @@ import java.util.Map.Entry;
  * Retrieval of the endogenous (benchmarked) series: bench.endogenous(); 6.
  * Retrieval of the benchmarked series: bench.getResult(name);
  *
+ * When the splitting of the constraints is enabled (setSplitting), the series
+ * are partitioned in independent groups (connected components of the graph of
+ * the constraints) and each group is benchmarked by a separate (smaller)
+ * state space model. The groups are processed in parallel on the executor
+ * given by setExecutor (sequential processing by default).
+ *
  * @author Jean Palate
  */
 @Development(status = Development.Status.Beta)
 public class TsMultiBenchmarking {
 
+    private static volatile ExecutorService defaultExecutor;
+
+    /**
+     * Gets the executor used by default by the new benchmarking objects
+     *
+     * @return The default executor. Null for a sequential processing (default)
+     */
+    public static ExecutorService getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    /**
+     * Sets the executor used by default by the new benchmarking objects (for
+     * instance ProcessingExecutors.getDefault())
+     *
+     * @param executor The executor. Null for a sequential processing
+     */
+    public static void setDefaultExecutor(ExecutorService executor) {
+        defaultExecutor = executor;
+    }
+
     /**
      * Description of a contemporaneous constraint. The constraint may be
      * binding y = w1*x1+...+wn*xn or free constant = w1*x1+...+wn*xn
@@ -324,6 +356,9 @@ public class TsMultiBenchmarking {
     private TsDomain idomain_;
     private TsFrequency tfreq_ = TsFrequency.Undefined;
     private final HashMap<String, TsData> bench_=new HashMap();
+    private boolean splitting_;
+    private ExecutorService executor_;
+    private boolean hasExecutor_;
 
     public boolean addInput(String name, TsData s) {
         if (inputs.containsKey(name)) {
@@ -389,6 +424,42 @@ public class TsMultiBenchmarking {
         lambda_ = lambda;
     }
 
+    public boolean isSplitting() {
+        return splitting_;
+    }
+
+    /**
+     * Enables the splitting of the constraints in independent groups. Each
+     * group is benchmarked separately, on the common domain of its own series
+     * (the results are identical to the global processing when all the
+     * endogenous series share the same domain).
+     *
+     * @param splitting
+     */
+    public void setSplitting(boolean splitting) {
+        splitting_ = splitting;
+    }
+
+    /**
+     * @return The executor used for the processing of the independent groups.
+     * When no executor has been set, the default executor (read at the time
+     * of the processing)
+     */
+    public ExecutorService getExecutor() {
+        return hasExecutor_ ? executor_ : defaultExecutor;
+    }
+
+    /**
+     * Sets the executor used for the processing of the independent groups
+     * (only used when the splitting is enabled).
+     *
+     * @param executor The executor. Null for a sequential processing
+     */
+    public void setExecutor(ExecutorService executor) {
+        executor_ = executor;
+        hasExecutor_ = true;
+    }
+
     public boolean contains(String s) {
         return inputs.containsKey(s);
     }
@@ -436,13 +507,12 @@ public class TsMultiBenchmarking {
         if (cConstraints.isEmpty() && tConstraints.isEmpty()) {
             return false;
         }
+        reset();
         TsData[] bench;
-        if (cConstraints.isEmpty()) {
-            bench = computeUnivariate();
-        } else if (tConstraints.isEmpty()) {
-            bench = computeMultivariate();
+        if (splitting_) {
+            bench = computeGroups();
         } else {
-            bench = compute();
+            bench = compute(!cConstraints.isEmpty(), !tConstraints.isEmpty());
         }
         if (bench == null) {
             return false;
@@ -453,6 +523,146 @@ public class TsMultiBenchmarking {
         return true;
     }
 
+    private TsData[] compute(boolean contemporaneous, boolean temporal) {
+        if (!contemporaneous) {
+            return computeUnivariate(TsFrequency.Yearly);
+        } else if (!temporal) {
+            return computeMultivariate();
+        } else {
+            return compute();
+        }
+    }
+
+    /**
+     * Benchmarks separately the independent groups of series. The model used
+     * for each group is the one that would be used in the global processing
+     *
+     * @return
+     */
+    private TsData[] computeGroups() {
+        List<TsMultiBenchmarking> groups = split();
+        if (groups == null || groups.size() < 2) {
+            return compute(!cConstraints.isEmpty(), !tConstraints.isEmpty());
+        }
+        final boolean contemporaneous = !cConstraints.isEmpty(), temporal = !tConstraints.isEmpty();
+        final TsFrequency afreq = contemporaneous && tfreq_ != TsFrequency.Undefined ? tfreq_ : TsFrequency.Yearly;
+        List<Callable<TsData[]>> tasks = new ArrayList<>(groups.size());
+        for (final TsMultiBenchmarking group : groups) {
+            if (group.cConstraints.isEmpty()) {
+                tasks.add(() -> group.computeUnivariate(afreq));
+            } else {
+                tasks.add(() -> group.compute(true, temporal));
+            }
+        }
+        List<TsData[]> rslts = new ArrayList<>(groups.size());
+        try {
+            // inline execution when the executor is null
+            for (Future<TsData[]> future : ProcessingExecutors.invokeAll(getExecutor(), tasks)) {
+                rslts.add(future.get());
+            }
+        } catch (ExecutionException err) {
+            Throwable cause = err.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        ArrayList<TsData> bench = new ArrayList<>();
+        for (int i = 0; i < groups.size(); ++i) {
+            TsData[] cur = rslts.get(i);
+            if (cur == null) {
+                return null;
+            }
+            TsMultiBenchmarking group = groups.get(i);
+            bench_.putAll(group.bench_);
+            bench.addAll(Arrays.asList(cur));
+            rcnt.addAll(group.rcnt);
+        }
+        return bench.toArray(new TsData[bench.size()]);
+    }
+
+    /**
+     * Partitions the constraints in independent groups. Two series belong to
+     * the same group if they are linked (directly or not) by some constraints.
+     *
+     * @return The benchmarking objects corresponding to the different groups,
+     * or null if the constraints can't be split
+     */
+    private List<TsMultiBenchmarking> split() {
+        HashMap<String, String> parents = new HashMap<>();
+        for (ContemporaneousConstraintDescriptor desc : cConstraints) {
+            String first = Jdk6.isNullOrEmpty(desc.constraint) ? null : desc.constraint;
+            for (WeightedItem<String> ws : desc.components) {
+                if (first == null) {
+                    first = ws.item;
+                } else {
+                    union(parents, first, ws.item);
+                }
+            }
+            if (first == null) {
+                return null;
+            }
+            union(parents, first, first);
+        }
+        for (Entry<String, String> cur : tConstraints.entrySet()) {
+            union(parents, cur.getKey(), cur.getValue());
+        }
+        LinkedHashMap<String, TsMultiBenchmarking> groups = new LinkedHashMap<>();
+        for (ContemporaneousConstraintDescriptor desc : cConstraints) {
+            String item = Jdk6.isNullOrEmpty(desc.constraint) ? desc.components.get(0).item : desc.constraint;
+            group(groups, find(parents, item)).cConstraints.add(desc);
+        }
+        for (Entry<String, String> cur : tConstraints.entrySet()) {
+            group(groups, find(parents, cur.getKey())).tConstraints.put(cur.getKey(), cur.getValue());
+        }
+        for (Entry<String, TsData> cur : inputs.entrySet()) {
+            if (parents.containsKey(cur.getKey())) {
+                groups.get(find(parents, cur.getKey())).inputs.put(cur.getKey(), cur.getValue());
+            }
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private TsMultiBenchmarking group(Map<String, TsMultiBenchmarking> groups, String root) {
+        TsMultiBenchmarking group = groups.get(root);
+        if (group == null) {
+            group = new TsMultiBenchmarking();
+            group.rho_ = rho_;
+            group.lambda_ = lambda_;
+            group.tfreq_ = tfreq_;
+            groups.put(root, group);
+        }
+        return group;
+    }
+
+    private static String find(Map<String, String> parents, String s) {
+        String root = s;
+        String p;
+        while ((p = parents.get(root)) != null && !p.equals(root)) {
+            root = p;
+        }
+        // path compression
+        while (!s.equals(root)) {
+            p = parents.put(s, root);
+            s = p;
+        }
+        return root;
+    }
+
+    private static void union(Map<String, String> parents, String a, String b) {
+        parents.putIfAbsent(a, a);
+        parents.putIfAbsent(b, b);
+        String ra = find(parents, a), rb = find(parents, b);
+        if (!ra.equals(rb)) {
+            parents.put(rb, ra);
+        }
+    }
+
     private TsData[] compute() {
         if (!buildMaps()) {
             return null;
@@ -561,6 +771,21 @@ public class TsMultiBenchmarking {
         
     }
 
+    /**
+     * Removes the intermediate results of a previous processing
+     */
+    private void reset() {
+        lcnt.clear();
+        rcnt.clear();
+        lcntData = null;
+        rcntData = null;
+        weights = null;
+        tcntData.clear();
+        cs.clear();
+        idomain_ = null;
+        bench_.clear();
+    }
+
     private boolean hasTemporalConstraint(ContemporaneousConstraintDescriptor cnt) {
         for (WeightedItem<String> ws : cnt.components) {
             if (!tConstraints.containsKey(ws.item)) {
@@ -570,7 +795,7 @@ public class TsMultiBenchmarking {
         return true;
     }
 
-    private TsData[] computeUnivariate() {
+    private TsData[] computeUnivariate(TsFrequency afreq) {
         ArrayList<TsData> bench = new ArrayList<>();
         TsCholette cholette = new TsCholette();
         cholette.setRho(rho_);
@@ -580,7 +805,7 @@ public class TsMultiBenchmarking {
             TsData a = getInput(cur.getValue());
             if (a != null && q != null) {
                 if (a.getFrequency() == q.getFrequency()) {
-                    a = a.changeFrequency(TsFrequency.Yearly, TsAggregationType.Sum, true);
+                    a = a.changeFrequency(afreq, TsAggregationType.Sum, true);
                 }
                 TsData b = cholette.process(q, a);
                 if (b != null) {
@@ -28,15 +28,33 @@ import ec.tstoolkit.ssf.SmoothingResults;
 import ec.tstoolkit.ssf.SsfRefData;
 import ec.tstoolkit.ssf.ucarima.SsfUcarima;
 import ec.tstoolkit.ucarima.UcarimaModel;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
+ * Hodrick-Prescott filter. The trend is the solution of the pentadiagonal
+ * system (I + lambda D'D) s = x, where D is the second differences operator.
+ * For series without missing values, that system is solved by a banded
+ * Cholesky (LDL') decomposition, which is cached for the last (length, lambda)
+ * couples. Series with missing values are handled by the Kalman smoother of
+ * the corresponding UCARIMA model.
  *
  * @author Jean Palate
  */
 public class HodrickPrescott {
 
+    private static final int CACHE_SIZE = 32;
+    private static final Map<Factorization, Factorization> CACHE
+            = new LinkedHashMap<Factorization, Factorization>(16, .75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Factorization, Factorization> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     private double lambda_ = 1600;
     private UcarimaModel ucm_;
+    private Factorization factor_;
     private double[] s_, n_;
 
     public HodrickPrescott() {
@@ -48,6 +66,18 @@ public class HodrickPrescott {
     }
          
       public boolean process(IReadDataBlock x) {
+        if (!hasMissingValues(x)) {
+            double[] s = new double[x.getLength()];
+            x.copyTo(s, 0);
+            factorization(s.length).solve(s);
+            double[] n = new double[s.length];
+            for (int i = 0; i < n.length; ++i) {
+                n[i] = x.get(i) - s[i];
+            }
+            s_ = s;
+            n_ = n;
+            return true;
+        }
         if (ucm_ == null) {
             initModel();
         }
@@ -68,6 +98,34 @@ public class HodrickPrescott {
         return true;
     }
 
+    /**
+     * Computes the trends of a set of series of the same length, without
+     * missing values. The factorization of the system is shared by all the
+     * series. The results of the object (getSignal, getNoise) are not modified.
+     *
+     * @param x The series
+     * @return The trends of the series, or null if the series don't have the
+     * same length or contain missing values
+     */
+    public double[][] signals(double[][] x) {
+        if (x.length == 0) {
+            return new double[0][];
+        }
+        int n = x[0].length;
+        for (int i = 0; i < x.length; ++i) {
+            if (x[i].length != n || hasMissingValues(new ReadDataBlock(x[i]))) {
+                return null;
+            }
+        }
+        Factorization f = factorization(n);
+        double[][] s = new double[x.length][];
+        for (int i = 0; i < x.length; ++i) {
+            s[i] = x[i].clone();
+            f.solve(s[i]);
+        }
+        return s;
+    }
+
     public double[] getSignal() {
         return s_;
     }
@@ -84,6 +142,7 @@ public class HodrickPrescott {
         if (lambda_ != value) {
             lambda_ = value;
             ucm_ = null;
+            factor_ = null;
         }
 
     }
@@ -97,4 +156,129 @@ public class HodrickPrescott {
         ucm_.addComponent(i2);
         ucm_.addComponent(wn);
     }
+
+    private static boolean hasMissingValues(IReadDataBlock x) {
+        for (int i = 0; i < x.getLength(); ++i) {
+            if (!Double.isFinite(x.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Factorization factorization(int n) {
+        Factorization f = factor_;
+        if (f != null && f.n == n) {
+            return f;
+        }
+        Factorization key = new Factorization(n, lambda_);
+        synchronized (CACHE) {
+            f = CACHE.get(key);
+            if (f == null) {
+                key.decompose();
+                CACHE.put(key, key);
+                f = key;
+            }
+        }
+        factor_ = f;
+        return f;
+    }
+
+    /**
+     * LDL' decomposition of the pentadiagonal matrix I + lambda D'D
+     */
+    private static final class Factorization {
+
+        final int n;
+        final double lambda;
+        // d: diagonal of D, l1, l2: sub-diagonals of L (l1[i]=L(i,i-1), l2[i]=L(i,i-2))
+        private double[] d, l1, l2;
+
+        Factorization(int n, double lambda) {
+            this.n = n;
+            this.lambda = lambda;
+        }
+
+        void decompose() {
+            // I + lambda D'D
+            double[] a0 = new double[n], a1 = new double[n], a2 = new double[n];
+            for (int i = 0; i < n; ++i) {
+                a0[i] = 1;
+            }
+            for (int k = 0; k < n - 2; ++k) {
+                a0[k] += lambda;
+                a0[k + 1] += 4 * lambda;
+                a0[k + 2] += lambda;
+                a1[k] -= 2 * lambda;
+                a1[k + 1] -= 2 * lambda;
+                a2[k] += lambda;
+            }
+            // a1[i]=A(i+1,i), a2[i]=A(i+2,i)
+            double[] dd = new double[n], ll1 = new double[n], ll2 = new double[n];
+            for (int i = 0; i < n; ++i) {
+                double di = a0[i];
+                if (i > 0) {
+                    di -= ll1[i] * ll1[i] * dd[i - 1];
+                }
+                if (i > 1) {
+                    di -= ll2[i] * ll2[i] * dd[i - 2];
+                }
+                dd[i] = di;
+                if (i + 2 < n) {
+                    ll2[i + 2] = a2[i] / di;
+                }
+                if (i + 1 < n) {
+                    double l = a1[i];
+                    if (i > 0) {
+                        l -= ll2[i + 1] * ll1[i] * dd[i - 1];
+                    }
+                    ll1[i + 1] = l / di;
+                }
+            }
+            d = dd;
+            l1 = ll1;
+            l2 = ll2;
+        }
+
+        /**
+         * Solves in place (I + lambda D'D) s = x
+         *
+         * @param x On entry, the data. On exit, the trend
+         */
+        void solve(double[] x) {
+            // L z = x
+            for (int i = 1; i < n; ++i) {
+                double z = x[i] - l1[i] * x[i - 1];
+                if (i > 1) {
+                    z -= l2[i] * x[i - 2];
+                }
+                x[i] = z;
+            }
+            // D L' s = z
+            for (int i = n - 1; i >= 0; --i) {
+                double s = x[i] / d[i];
+                if (i + 1 < n) {
+                    s -= l1[i + 1] * x[i + 1];
+                }
+                if (i + 2 < n) {
+                    s -= l2[i + 2] * x[i + 2];
+                }
+                x[i] = s;
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Factorization)) {
+                return false;
+            }
+            Factorization f = (Factorization) obj;
+            return n == f.n && Double.doubleToLongBits(lambda) == Double.doubleToLongBits(f.lambda);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * n + Double.hashCode(lambda);
+        }
+    }
 }
@@ -28,7 +28,9 @@ import ec.satoolkit.tramoseats.TramoSeatsSpecification;
 import ec.tstoolkit.algorithm.*;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.design.Singleton;
+import ec.tstoolkit.modelling.arima.IPreprocessor;
 import ec.tstoolkit.modelling.arima.PreprocessingModel;
+import ec.tstoolkit.modelling.arima.tramo.TramoProcessor;
 import ec.tstoolkit.modelling.arima.tramo.TransformSpec;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import java.util.HashMap;
@@ -47,12 +49,16 @@ public class TramoSeatsProcessingFactory extends GenericSaProcessingFactory impl
     public static final String VERSION = "0.1.0.0";
     public static final AlgorithmDescriptor DESCRIPTOR = new AlgorithmDescriptor(FAMILY, METHOD, VERSION);
 
-    private static SequentialProcessing<TsData> create(TramoSeatsSpecification xspec, ProcessingContext context) {
+    private static SequentialProcessing<TsData> create(TramoSeatsSpecification xspec, ProcessingContext context, boolean warmStart) {
         SequentialProcessing processing = new SequentialProcessing();
         DefaultPreprocessingFilter filter = new DefaultPreprocessingFilter();
         TransformSpec transform = xspec.getTramoSpecification().getTransform();
         addInitialStep(transform.getSpan(), transform.isPreliminaryCheck(), processing);
-        addPreprocessingStep(xspec.getTramoSpecification().build(context), xspec.getSeatsSpecification().getPredictionLength(), processing);
+        IPreprocessor preprocessor = xspec.getTramoSpecification().build(context);
+        if (warmStart && preprocessor instanceof TramoProcessor) {
+            ((TramoProcessor) preprocessor).setWarmStart(true);
+        }
+        addPreprocessingStep(preprocessor, xspec.getSeatsSpecification().getPredictionLength(), processing);
         addDecompositionStep(new SeatsDecomposer(xspec.getSeatsSpecification()), filter, processing);
         addFinalStep(filter, processing);
         addBenchmarkingStep(xspec.getBenchmarkingSpecification(), processing);
@@ -66,7 +72,7 @@ public class TramoSeatsProcessingFactory extends GenericSaProcessingFactory impl
     }
 
     public static CompositeResults process(TsData s, TramoSeatsSpecification xspec, ProcessingContext context) {
-        SequentialProcessing<TsData> processing = create(xspec, context);
+        SequentialProcessing<TsData> processing = create(xspec, context, false);
         return processing.process(s);
     }
 
@@ -76,11 +82,25 @@ public class TramoSeatsProcessingFactory extends GenericSaProcessingFactory impl
 
     @Override
     public SequentialProcessing<TsData> generateProcessing(TramoSeatsSpecification xspec, ProcessingContext context) {
-        return create(xspec, context);
+        return create(xspec, context, false);
+    }
+
+    /**
+     * Generates the processing corresponding to a specification
+     *
+     * @param xspec The specification
+     * @param context The context
+     * @param warmStart True if the estimation of the ARIMA model should start
+     * from the parameters of the specification, when they are provided
+     * (typically previous estimates; see TramoProcessor.setWarmStart)
+     * @return
+     */
+    public SequentialProcessing<TsData> generateProcessing(TramoSeatsSpecification xspec, ProcessingContext context, boolean warmStart) {
+        return create(xspec, context, warmStart);
     }
 
     public SequentialProcessing<TsData> generateProcessing(TramoSeatsSpecification xspec) {
-        return create(xspec, null);
+        return create(xspec, null, false);
     }
 
     @Override
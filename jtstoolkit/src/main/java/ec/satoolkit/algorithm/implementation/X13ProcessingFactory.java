@@ -31,8 +31,10 @@ import ec.satoolkit.x13.X11Decomposer;
 import ec.satoolkit.x13.X13Specification;
 import ec.tstoolkit.algorithm.*;
 import ec.tstoolkit.design.Development;
+import ec.tstoolkit.modelling.arima.IPreprocessor;
 import ec.tstoolkit.modelling.arima.PreprocessingModel;
 import ec.tstoolkit.modelling.arima.x13.BasicSpec;
+import ec.tstoolkit.modelling.arima.x13.X13Preprocessor;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -55,12 +57,16 @@ public class X13ProcessingFactory extends GenericSaProcessingFactory implements
     protected X13ProcessingFactory() {
     }
 
-    private static SequentialProcessing<TsData> create(X13Specification xspec, ProcessingContext context) {
+    private static SequentialProcessing<TsData> create(X13Specification xspec, ProcessingContext context, boolean warmStart) {
         SequentialProcessing processing = new SequentialProcessing();
         BasicSpec basic = xspec.getRegArimaSpecification().getBasic();
         addInitialStep(basic.getSpan(), basic.isPreliminaryCheck(), processing);
         if (xspec.getRegArimaSpecification().getBasic().isPreprocessing()) {
-            addPreprocessingStep(xspec.getRegArimaSpecification().build(context), xspec.getX11Specification().getForecastHorizon(), processing);
+            IPreprocessor preprocessor = xspec.getRegArimaSpecification().build(context);
+            if (warmStart && preprocessor instanceof X13Preprocessor) {
+                ((X13Preprocessor) preprocessor).setWarmStart(true);
+            }
+            addPreprocessingStep(preprocessor, xspec.getX11Specification().getForecastHorizon(), processing);
         }
         DecompositionMode mode = xspec.getX11Specification().getMode();
         boolean noapply = mode == DecompositionMode.PseudoAdditive;
@@ -105,15 +111,29 @@ public class X13ProcessingFactory extends GenericSaProcessingFactory implements
 
     @Override
     public SequentialProcessing<TsData> generateProcessing(X13Specification xspec, ProcessingContext context) {
-        return create(xspec, context);
+        return create(xspec, context, false);
+    }
+
+    /**
+     * Generates the processing corresponding to a specification
+     *
+     * @param xspec The specification
+     * @param context The context
+     * @param warmStart True if the estimation of the ARIMA model should start
+     * from the parameters of the specification, when they are provided
+     * (typically previous estimates; see X13Preprocessor.setWarmStart)
+     * @return
+     */
+    public SequentialProcessing<TsData> generateProcessing(X13Specification xspec, ProcessingContext context, boolean warmStart) {
+        return create(xspec, context, warmStart);
     }
 
     public SequentialProcessing<TsData> generateProcessing(X13Specification xspec) {
-        return create(xspec, null);
+        return create(xspec, null, false);
     }
 
     public static CompositeResults process(TsData s, X13Specification xspec, ProcessingContext context) {
-        SequentialProcessing<TsData> processing = create(xspec, context);
+        SequentialProcessing<TsData> processing = create(xspec, context, false);
         return processing.process(s);
     }
 
@@ -35,12 +35,41 @@ import ec.tstoolkit.utilities.Ref;
 import java.util.ArrayList;
 
 /**
+ * Estimation of the components by means of the Wiener-Kolmogorov filters
+ * (Burman's algorithm). All the components, their forecasts and (optionally)
+ * their standard deviations are computed in one pass.
+ *
  * @author Jean Palate
  */
 @Development(status = Development.Status.Alpha)
 public class WienerKolmogorovEstimator implements IComponentsEstimator {
 
+    private static volatile boolean defaultStdev = true;
+
+    /**
+     * Checks that the new estimators compute by default the standard
+     * deviations of the components
+     *
+     * @return True by default
+     */
+    public static boolean isDefaultStdevEnabled() {
+        return defaultStdev;
+    }
+
+    /**
+     * Specifies if the new estimators compute by default the standard
+     * deviations of the components. The standard deviations may be skipped
+     * when they are not requested by the outputs (they represent the main
+     * part of the cost of the estimation)
+     *
+     * @param stdev
+     */
+    public static void setDefaultStdevEnabled(boolean stdev) {
+        defaultStdev = stdev;
+    }
+
     private final int npred;
+    private final boolean stdev;
     
     private int nf(TsFrequency freq){
         if (npred>=0)
@@ -50,7 +79,22 @@ public class WienerKolmogorovEstimator implements IComponentsEstimator {
     }
     
     public WienerKolmogorovEstimator(int npred){
+        this(npred, defaultStdev);
+    }
+
+    /**
+     *
+     * @param npred The number of forecasts (in years if negative)
+     * @param stdev True if the standard deviations of the components are
+     * computed
+     */
+    public WienerKolmogorovEstimator(int npred, boolean stdev){
         this.npred=npred;
+        this.stdev=stdev;
+    }
+
+    public boolean isStdevEnabled() {
+        return stdev;
     }
     /**
      *
@@ -84,6 +128,7 @@ public class WienerKolmogorovEstimator implements IComponentsEstimator {
         }
         burman.setData(s);
         burman.setSer(model.getSer());
+        burman.computeAll(stdev);
         int ncmps = ucmc.getComponentsCount();
 
         TsData[] cmps = new TsData[ncmps];
@@ -95,14 +140,16 @@ public class WienerKolmogorovEstimator implements IComponentsEstimator {
             if (i == 0 || !ucmc.getComponent(i).isNull()) {
                 double[] tmp = burman.estimates(i, true);
                 cmps[i] = new TsData(s.getStart(), tmp, false);
-                ecmps[i] = new TsData(s.getStart(), burman.stdevEstimates(i), false);
                 tmp = burman.forecasts(i, true);
                 if (tmp != null) {
                     fcmps[i] = new TsData(s.getEnd(), tmp, false);
                 }
-                tmp = burman.stdevForecasts(i, true);
-                if (tmp != null) {
-                    efcmps[i] = new TsData(s.getEnd(), tmp, false);
+                if (stdev) {
+                    ecmps[i] = new TsData(s.getStart(), burman.stdevEstimates(i), false);
+                    tmp = burman.stdevForecasts(i, true);
+                    if (tmp != null) {
+                        efcmps[i] = new TsData(s.getEnd(), tmp, false);
+                    }
                 }
             }
         }
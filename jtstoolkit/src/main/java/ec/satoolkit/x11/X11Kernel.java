@@ -18,6 +18,7 @@ package ec.satoolkit.x11;
 
 import ec.satoolkit.DecompositionMode;
 import ec.satoolkit.ISeriesDecomposer;
+import ec.tstoolkit.algorithm.ProcessingInstrumentation;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.information.InformationSet;
 import ec.tstoolkit.timeseries.simplets.TsData;
@@ -69,6 +70,11 @@ public class X11Kernel implements ISeriesDecomposer {
         D10, D10a, D10b, D11, D11a, D12, D12a, D13, D14, D15, D16, D16a, D16b, D18, D19, D20};
     public static final String E1 = "e1", E2 = "e2", E3 = "e3", E11 = "e11";
     public static final String[] ALL_E = {E1, E2, E3, E11};
+    /**
+     * Names of the instrumented stages (see ProcessingInstrumentation)
+     */
+    public static final String STAGE_A = "x11.a", STAGE_B = "x11.b", STAGE_C = "x11.c",
+            STAGE_D = "x11.d", STAGE_E = "x11.e", STAGE_F = "x11.f";
     private IX11Toolkit toolkit;
     private TsData refSeries, refCorrection;
     //private TsData correctionFactors;
@@ -93,12 +99,12 @@ public class X11Kernel implements ISeriesDecomposer {
         // build the modules
         info.subSet(A).set(A1, s);
 
-        stepA(info);
-        stepB(info);
-        stepC(info);
-        stepD(info);
-        stepE(info);
-        stepF(info);
+        ProcessingInstrumentation.time(STAGE_A, () -> stepA(info));
+        ProcessingInstrumentation.time(STAGE_B, () -> stepB(info));
+        ProcessingInstrumentation.time(STAGE_C, () -> stepC(info));
+        ProcessingInstrumentation.time(STAGE_D, () -> stepD(info));
+        ProcessingInstrumentation.time(STAGE_E, () -> stepE(info));
+        ProcessingInstrumentation.time(STAGE_F, () -> stepF(info));
 
         X11Results results = new X11Results(mode, info);
         return results;
@@ -23,21 +23,38 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 /**
+ * Processing node that executes its sub-nodes in parallel. By default, the
+ * shared executor of {@link ProcessingExecutors} is used. The sub-nodes are
+ * executed sequentially when the node itself is executed inside a parallel
+ * task.
  *
  * @author Jean Palate
  */
 public class ParallelProcessingNode<I> implements IProcessingNode<I> {
 
-    private final int NBR_EXECUTORS = Runtime.getRuntime().availableProcessors();
     private final String name, prefix;
+    private final ExecutorService executor;
 
     public ParallelProcessingNode(final String name, final String prefix) {
+        this(name, prefix, null);
+    }
+
+    /**
+     *
+     * @param name
+     * @param prefix
+     * @param executor The executor used by this node. If null, the shared
+     * executor is used.
+     */
+    public ParallelProcessingNode(final String name, final String prefix, final ExecutorService executor) {
         this.name = name;
         this.prefix = prefix;
+        this.executor = executor;
     }
     private ArrayList<IProcessingNode<I>> nodes_ = new ArrayList<>();
 
@@ -78,18 +95,16 @@ public class ParallelProcessingNode<I> implements IProcessingNode<I> {
     public Status process(I input, Map<String, IProcResults> results) {
         CompositeResults cresults = new CompositeResults();
         final ConcurrentHashMap<String, IProcResults> map = new ConcurrentHashMap<>();
-        ExecutorService executorService = Executors.newFixedThreadPool(NBR_EXECUTORS, CustomThreadFactory.INSTANCE);
 
         Map<String, String> errors=new ConcurrentHashMap<>();
         List<Callable<IProcessing.Status>> tasks = createTasks(input, map, errors);
         try {
-            executorService.invokeAll(tasks);
+            ProcessingExecutors.invokeAll(executor != null ? executor : ProcessingExecutors.getDefault(), tasks);
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
             return Status.Invalid;
         }
 
-        executorService.shutdown();
         for (IProcessingNode<I> cur : nodes_) {
 
             String cname = cur.getName();
@@ -104,27 +119,4 @@ public class ParallelProcessingNode<I> implements IProcessingNode<I> {
         results.put(name, cresults);
         return Status.Valid;
     }
-
-    private enum CustomThreadFactory implements ThreadFactory {
-
-        INSTANCE;
-        //
-        final ThreadGroup group;
-        final AtomicInteger threadNumber = new AtomicInteger(1);
-        final String namePrefix;
-
-        private CustomThreadFactory() {
-            SecurityManager s = System.getSecurityManager();
-            group = (s != null) ? s.getThreadGroup() : Thread.currentThread().getThreadGroup();
-            namePrefix = "pool-" + CustomThreadFactory.class.getSimpleName() + "-thread-";
-        }
-
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread t = new Thread(group, r, namePrefix + threadNumber.getAndIncrement(), 0);
-            t.setDaemon(true);
-            t.setPriority(Thread.MIN_PRIORITY);
-            return t;
-        }
-    }
 }
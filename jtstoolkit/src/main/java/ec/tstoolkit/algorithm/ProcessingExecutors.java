@@ -0,0 +1,422 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.algorithm;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of the executors used by the parallel processing nodes.
+ * <br>
+ * A single shared executor is used by default, instead of a new pool for each
+ * parallel step. Tasks submitted through this class are marked as parallel
+ * tasks: a parallel step that is started from such a task (for instance a
+ * parallel node inside a batch that is already processed in parallel) is
+ * executed inline in the current thread, which avoids the over-subscription
+ * of the cores (and dead-locks on bounded pools).
+ *
+ * @author Jean Palate
+ */
+public final class ProcessingExecutors {
+
+    public static enum ExecutorType {
+
+        /**
+         * Bounded pool of daemon threads (one by available processor). The
+         * idle threads are released after a while.
+         */
+        FixedThreadPool,
+        /**
+         * Work-stealing pool (ForkJoinPool)
+         */
+        WorkStealing,
+        /**
+         * One virtual thread by task. Only available on Java 21+; the
+         * work-stealing pool is used otherwise.
+         */
+        VirtualThreads
+    }
+
+    private static final int NBR_EXECUTORS = Runtime.getRuntime().availableProcessors();
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<ExecutorService> OWNER = new ThreadLocal<>();
+    private static final Object LOCK = new Object();
+    private static ExecutorService def_;
+
+    private ProcessingExecutors() {
+    }
+
+    /**
+     * Gets the shared executor. It is created on the first call (bounded pool
+     * of daemon threads), unless another executor has been set.
+     *
+     * @return The shared executor. Never null
+     */
+    public static ExecutorService getDefault() {
+        synchronized (LOCK) {
+            if (def_ == null) {
+                def_ = create(ExecutorType.FixedThreadPool, NBR_EXECUTORS);
+            }
+            return def_;
+        }
+    }
+
+    /**
+     * Replaces the shared executor. The previous executor is not shut down: it
+     * is the responsibility of the caller.
+     *
+     * @param executor The new executor. Null to restore the default executor
+     * (created lazily)
+     * @return The previous executor (may be null)
+     */
+    public static ExecutorService setDefault(ExecutorService executor) {
+        synchronized (LOCK) {
+            ExecutorService old = def_;
+            def_ = executor;
+            return old;
+        }
+    }
+
+    /**
+     * Replaces the shared executor by a new executor of the given type. The
+     * previous executor is shut down gracefully: the tasks already submitted
+     * are completed, and the parallel steps that still reference it are
+     * executed inline.
+     *
+     * @param type The type of the executor
+     * @param parallelism The maximum number of concurrent tasks (not used for
+     * virtual threads). Non positive values correspond to the number of
+     * available processors
+     */
+    public static void setDefault(ExecutorType type, int parallelism) {
+        ExecutorService nexec = create(type, parallelism);
+        ExecutorService old;
+        synchronized (LOCK) {
+            old = def_;
+            def_ = nexec;
+        }
+        if (old != null) {
+            old.shutdown();
+        }
+    }
+
+    /**
+     * Creates a new executor
+     *
+     * @param type The type of the executor
+     * @param parallelism The maximum number of concurrent tasks (not used for
+     * virtual threads). Non positive values correspond to the number of
+     * available processors
+     * @return A new executor
+     */
+    public static ExecutorService create(ExecutorType type, int parallelism) {
+        int n = parallelism <= 0 ? NBR_EXECUTORS : parallelism;
+        switch (type) {
+            case VirtualThreads:
+                ThreadFactory vfactory = newVirtualThreadFactory();
+                if (vfactory != null) {
+                    CustomThreadFactory factory = new CustomThreadFactory(vfactory);
+                    ExecutorService vexec = newThreadPerTaskExecutor(factory);
+                    if (vexec != null) {
+                        factory.owner = vexec;
+                        return vexec;
+                    }
+                }
+            // fall through: virtual threads not available
+            case WorkStealing:
+                // the workers are identified by their pool
+                return new ForkJoinPool(n);
+            default:
+                CustomThreadFactory factory = new CustomThreadFactory(null);
+                ThreadPoolExecutor exec = new ThreadPoolExecutor(n, n, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(), factory);
+                exec.allowCoreThreadTimeOut(true);
+                factory.owner = exec;
+                return exec;
+        }
+    }
+
+    /**
+     * Checks that virtual threads are supported by the current JVM
+     *
+     * @return
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return newVirtualThreadFactory() != null && perTaskFactory() != null;
+    }
+
+    /**
+     * Checks that the current thread is executing a parallel task
+     *
+     * @return
+     */
+    public static boolean isInParallelTask() {
+        return DEPTH.get()[0] > 0;
+    }
+
+    /**
+     * Executes the given tasks in parallel on the shared executor and waits
+     * for their completion. The tasks are executed inline (sequentially, in
+     * the current thread) when the current thread is already executing a
+     * parallel task or when there is only one task.
+     *
+     * @param <T>
+     * @param tasks The tasks
+     * @return The futures of the tasks, in the same order
+     * @throws InterruptedException
+     */
+    public static <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        return invokeAll(getDefault(), tasks);
+    }
+
+    /**
+     * Executes the given tasks in parallel on the given executor and waits for
+     * their completion. See {@link #invokeAll(java.util.Collection)}. The
+     * tasks rejected by an executor that has been shut down are executed
+     * inline.
+     *
+     * @param <T>
+     * @param executor The executor. If null, the tasks are executed inline
+     * @param tasks The tasks
+     * @return The futures of the tasks, in the same order
+     * @throws InterruptedException
+     */
+    public static <T> List<Future<T>> invokeAll(ExecutorService executor, Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        if (executor == null || tasks.size() <= 1 || isInParallelTask() || isWorkerOf(executor)) {
+            return invokeInline(tasks);
+        }
+        List<Future<T>> futures = submitAll(executor, tasks);
+        try {
+            for (Future<T> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException | CancellationException err) {
+                    // reported by the future
+                }
+            }
+        } catch (InterruptedException err) {
+            cancelAll(futures);
+            throw err;
+        }
+        return futures;
+    }
+
+    /**
+     * Submits the given tasks to the given executor, without waiting for their
+     * completion. The futures that are not completed can be cancelled (for
+     * instance when one of the tasks failed). In the cases where invokeAll
+     * would execute the tasks inline, a task is executed in the current thread
+     * when its result is requested (and never executed if it is cancelled
+     * before). The same holds for the tasks rejected by an executor that has
+     * been shut down.
+     *
+     * @param <T>
+     * @param executor The executor. If null, the tasks are executed inline
+     * @param tasks The tasks
+     * @return The futures of the tasks, in the same order
+     */
+    public static <T> List<Future<T>> submitAll(ExecutorService executor, Collection<? extends Callable<T>> tasks) {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        if (executor == null || tasks.size() <= 1 || isInParallelTask() || isWorkerOf(executor)) {
+            for (Callable<T> task : tasks) {
+                futures.add(new InlineTask<>(task));
+            }
+        } else {
+            try {
+                for (Callable<T> task : tasks) {
+                    futures.add(submit(executor, task));
+                }
+            } catch (RuntimeException err) {
+                cancelAll(futures);
+                throw err;
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * Cancels (with interruption) the futures that are not completed
+     *
+     * @param futures The futures
+     */
+    public static void cancelAll(Collection<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static <T> Future<T> submit(ExecutorService executor, Callable<T> task) {
+        try {
+            return executor.submit(asParallelTask(task));
+        } catch (RejectedExecutionException err) {
+            if (executor.isShutdown()) {
+                return new InlineTask<>(task);
+            }
+            throw err;
+        }
+    }
+
+    /**
+     * Marks a task as a parallel task: the parallel steps started by the task
+     * will be executed inline.
+     *
+     * @param <T>
+     * @param task The task
+     * @return A new callable
+     */
+    public static <T> Callable<T> asParallelTask(final Callable<T> task) {
+        return () -> {
+            int[] depth = DEPTH.get();
+            ++depth[0];
+            try {
+                return task.call();
+            } finally {
+                --depth[0];
+            }
+        };
+    }
+
+    private static <T> List<Future<T>> invokeInline(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            CompletableFuture<T> future = new CompletableFuture<>();
+            try {
+                future.complete(task.call());
+            } catch (Exception err) {
+                future.completeExceptionally(err);
+            }
+            futures.add(future);
+        }
+        return futures;
+    }
+
+    /**
+     * Task executed in the thread that requests its result
+     */
+    private static final class InlineTask<T> extends FutureTask<T> {
+
+        InlineTask(Callable<T> task) {
+            super(task);
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            run();
+            return super.get();
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            run();
+            return super.get(timeout, unit);
+        }
+    }
+
+    private static boolean isWorkerOf(ExecutorService executor) {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof ForkJoinWorkerThread) {
+            return ((ForkJoinWorkerThread) thread).getPool() == executor;
+        }
+        return OWNER.get() == executor;
+    }
+
+    private static Method perTaskFactory() {
+        try {
+            return Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (NoSuchMethodException | SecurityException ex) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory newVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory factory) {
+        Method method = perTaskFactory();
+        if (method == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) method.invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Thread factory of a given executor. The threads are tagged with their
+     * executor, so that the nested parallel steps started directly in the
+     * workers are executed inline.
+     */
+    private static final class CustomThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_NUMBER = new AtomicInteger(1);
+        private static final String NAME_PREFIX = "pool-" + ProcessingExecutors.class.getSimpleName() + "-thread-";
+        //
+        private final ThreadFactory delegate;
+        volatile ExecutorService owner;
+
+        CustomThreadFactory(ThreadFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            ExecutorService executor = owner;
+            Runnable tagged = () -> {
+                OWNER.set(executor);
+                r.run();
+            };
+            if (delegate != null) {
+                return delegate.newThread(tagged);
+            }
+            Thread t = new Thread(tagged, NAME_PREFIX + THREAD_NUMBER.getAndIncrement());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        }
+    }
+}
@@ -19,6 +19,8 @@ public class ProcessingHookProvider<S, I> implements IProcessingHookProvider<S,
 
     private final ArrayList<IProcessingHook<S, I>> hooks = new ArrayList<>();
     private volatile String message = IProcessingHook.EMPTY;
+    // allows to skip the synchronized dispatch when no hook is registered
+    private volatile boolean empty = true;
 
     @Override
     public void setHookMessage(String msg) {
@@ -31,13 +33,14 @@ public class ProcessingHookProvider<S, I> implements IProcessingHookProvider<S,
     }
 
     @Override
-    public synchronized boolean hasHooks() {
-        return !hooks.isEmpty();
+    public boolean hasHooks() {
+        return !empty;
     }
 
     @Override
     public synchronized void register(IProcessingHook<S, I> hook) {
         hooks.add(hook);
+        empty = false;
     }
 
     @Override
@@ -45,19 +48,25 @@ public class ProcessingHookProvider<S, I> implements IProcessingHookProvider<S,
         for (IProcessingHook<S, I> cur : hooks) {
             if (hook == cur) {
                 hooks.remove(cur);
+                empty = hooks.isEmpty();
                 return;
             }
         }
     }
 
     @Override
-    public synchronized void processHooks(HookInformation<S, I> info, boolean cancancel) {
+    public void processHooks(HookInformation<S, I> info, boolean cancancel) {
         info.message = InformationSet.item(message, info.message);
-        for (IProcessingHook<S, I> cur : hooks) {
-            cur.process(info, cancancel);
-            if (cancancel && info.cancel) {
-                return;
-           }
+        if (empty) {
+            return;
+        }
+        synchronized (this) {
+            for (IProcessingHook<S, I> cur : hooks) {
+                cur.process(info, cancancel);
+                if (cancancel && info.cancel) {
+                    return;
+                }
+            }
         }
     }
  
@@ -65,6 +74,7 @@ public class ProcessingHookProvider<S, I> implements IProcessingHookProvider<S,
         synchronized (ph.hooks) {
             hooks.addAll(ph.hooks);
             message = ph.message;
+            empty = hooks.isEmpty();
         }
     }
 
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.algorithm;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in instrumentation of the processing stages (pre-processing modules,
+ * decomposition steps...).
+ * <br>
+ * The instrumented code surrounds each stage by a stopwatch:
+ * <pre>
+ * ProcessingInstrumentation.Stopwatch sw = ProcessingInstrumentation.start("tramo.outliers");
+ * ...
+ * sw.stop();
+ * </pre> or, more simply:
+ * <pre>
+ * ProcessingResult rslt = ProcessingInstrumentation.time("tramo.outliers", () -&gt; outliers.process(context));
+ * </pre> When the stopwatch is stopped, the wall time, the cpu time and the
+ * bytes allocated by the current thread during the stage are sent to the
+ * registered hooks (the source of the hook information is the name of the
+ * stage). When no hook is registered, the stopwatches do nothing.
+ * <br>
+ * The hooks are called without synchronization by the threads that execute
+ * the stages, so they must be thread-safe.
+ *
+ * @author Jean Palate
+ * @see ProcessingStatistics
+ */
+public final class ProcessingInstrumentation {
+
+    /**
+     * Resources used by a stage
+     */
+    public static final class Measure {
+
+        /**
+         * Wall time, in nanoseconds
+         */
+        public final long wallTime;
+        /**
+         * Cpu time of the current thread, in nanoseconds (-1 if it is not
+         * available)
+         */
+        public final long cpuTime;
+        /**
+         * Bytes allocated by the current thread (-1 if it is not available)
+         */
+        public final long allocatedBytes;
+
+        public Measure(long wallTime, long cpuTime, long allocatedBytes) {
+            this.wallTime = wallTime;
+            this.cpuTime = cpuTime;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+
+    /**
+     * Measure of a stage. Stopwatches are used by a single thread.
+     */
+    public static final class Stopwatch {
+
+        private final String stage;
+        private final long t0, c0, a0;
+
+        private Stopwatch(String stage) {
+            this.stage = stage;
+            if (stage != null) {
+                t0 = System.nanoTime();
+                c0 = cpuTime();
+                a0 = allocatedBytes();
+            } else {
+                t0 = c0 = a0 = 0;
+            }
+        }
+
+        /**
+         * Stops the stopwatch and sends the measure to the hooks. Should be
+         * called only once.
+         */
+        public void stop() {
+            if (stage == null) {
+                return;
+            }
+            long t1 = System.nanoTime(), c1 = cpuTime(), a1 = allocatedBytes();
+            Measure m = new Measure(t1 - t0, c0 < 0 || c1 < 0 ? -1 : c1 - c0,
+                    a0 < 0 || a1 < 0 ? -1 : a1 - a0);
+            IProcessingHook.HookInformation<String, Measure> info = new IProcessingHook.HookInformation<>(stage, m);
+            for (IProcessingHook<String, Measure> hook : HOOKS) {
+                hook.process(info, false);
+            }
+        }
+    }
+
+    private static final Stopwatch DISABLED = new Stopwatch(null);
+    private static final CopyOnWriteArrayList<IProcessingHook<String, Measure>> HOOKS = new CopyOnWriteArrayList<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU = THREADS.isCurrentThreadCpuTimeSupported();
+    private static final boolean ALLOC = isAllocationSupported();
+    private static volatile boolean enabled_;
+
+    private ProcessingInstrumentation() {
+    }
+
+    /**
+     * Registers a new hook. The instrumentation is enabled as long as some
+     * hooks are registered
+     *
+     * @param hook
+     */
+    public static synchronized void register(IProcessingHook<String, Measure> hook) {
+        HOOKS.add(hook);
+        enabled_ = true;
+    }
+
+    /**
+     *
+     * @param hook
+     */
+    public static synchronized void unregister(IProcessingHook<String, Measure> hook) {
+        for (IProcessingHook<String, Measure> cur : HOOKS) {
+            if (cur == hook) {
+                HOOKS.remove(cur);
+                break;
+            }
+        }
+        enabled_ = !HOOKS.isEmpty();
+    }
+
+    /**
+     *
+     * @return True if some hooks are registered
+     */
+    public static boolean isEnabled() {
+        return enabled_;
+    }
+
+    /**
+     * Starts the measure of a stage
+     *
+     * @param stage The name of the stage
+     * @return A stopwatch, which must be stopped at the end of the stage. The
+     * stopwatch does nothing if the instrumentation is disabled.
+     */
+    public static Stopwatch start(String stage) {
+        return enabled_ ? new Stopwatch(stage) : DISABLED;
+    }
+
+    /**
+     * Executes and measures a stage
+     *
+     * @param <T>
+     * @param stage The name of the stage
+     * @param fn The stage
+     * @return The result of the stage
+     */
+    public static <T> T time(String stage, Supplier<T> fn) {
+        Stopwatch sw = start(stage);
+        try {
+            return fn.get();
+        } finally {
+            sw.stop();
+        }
+    }
+
+    /**
+     * Executes and measures a stage without result
+     *
+     * @param stage The name of the stage
+     * @param fn The stage
+     */
+    public static void time(String stage, Runnable fn) {
+        Stopwatch sw = start(stage);
+        try {
+            fn.run();
+        } finally {
+            sw.stop();
+        }
+    }
+
+    private static long cpuTime() {
+        if (!CPU) {
+            return -1;
+        }
+        try {
+            return THREADS.getCurrentThreadCpuTime();
+        } catch (UnsupportedOperationException err) {
+            return -1;
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ALLOC ? Allocations.currentThread() : -1;
+    }
+
+    private static boolean isAllocationSupported() {
+        try {
+            return Allocations.isSupported();
+        } catch (LinkageError err) {
+            // com.sun.management is not available on this VM
+            return false;
+        }
+    }
+
+    /**
+     * Access to the HotSpot extension of ThreadMXBean. The class is only
+     * loaded when the allocations are requested, so that the instrumentation
+     * works on VMs without com.sun.management.
+     */
+    private static final class Allocations {
+
+        static boolean isSupported() {
+            return THREADS instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported();
+        }
+
+        static long currentThread() {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (!threads.isThreadAllocatedMemoryEnabled()) {
+                return -1;
+            }
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
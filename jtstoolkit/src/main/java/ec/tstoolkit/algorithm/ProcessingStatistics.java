@@ -0,0 +1,246 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.algorithm;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Aggregation of the measures of the processing stages (see
+ * ProcessingInstrumentation), typically for a batch of series.
+ * <pre>
+ * ProcessingStatistics stats = new ProcessingStatistics();
+ * stats.enable();
+ * ... (processing of the batch)
+ * stats.disable();
+ * stats.writeCsv(writer);
+ * </pre> The statistics can also be exported via JMX (see registerMBean).
+ *
+ * @author Jean Palate
+ */
+public class ProcessingStatistics implements IProcessingHook<String, ProcessingInstrumentation.Measure>, ProcessingStatisticsMXBean {
+
+    public static final String DOMAIN = "ec.tstoolkit";
+
+    /**
+     * Aggregated measures of a stage
+     */
+    public static final class Stage {
+
+        private final LongAdder count = new LongAdder(), wall = new LongAdder(), cpu = new LongAdder(), alloc = new LongAdder();
+        private final LongAccumulator maxWall = new LongAccumulator(Math::max, 0);
+
+        private void add(ProcessingInstrumentation.Measure m) {
+            count.increment();
+            wall.add(m.wallTime);
+            maxWall.accumulate(m.wallTime);
+            if (m.cpuTime > 0) {
+                cpu.add(m.cpuTime);
+            }
+            if (m.allocatedBytes > 0) {
+                alloc.add(m.allocatedBytes);
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         *
+         * @return Total wall time, in nanoseconds
+         */
+        public long getWallTime() {
+            return wall.sum();
+        }
+
+        /**
+         *
+         * @return Maximum wall time of an execution, in nanoseconds
+         */
+        public long getMaxWallTime() {
+            return maxWall.get();
+        }
+
+        /**
+         *
+         * @return Total cpu time, in nanoseconds
+         */
+        public long getCpuTime() {
+            return cpu.sum();
+        }
+
+        /**
+         *
+         * @return Total number of allocated bytes
+         */
+        public long getAllocatedBytes() {
+            return alloc.sum();
+        }
+    }
+
+    private final ConcurrentHashMap<String, Stage> stages_ = new ConcurrentHashMap<>();
+    private ObjectName name_;
+
+    @Override
+    public void process(HookInformation<String, ProcessingInstrumentation.Measure> info, boolean cancancel) {
+        if (info.source == null || info.information == null) {
+            return;
+        }
+        stages_.computeIfAbsent(info.source, s -> new Stage()).add(info.information);
+    }
+
+    /**
+     * Starts the collection of the measures
+     */
+    public void enable() {
+        ProcessingInstrumentation.register(this);
+    }
+
+    /**
+     * Stops the collection of the measures. The current statistics are kept
+     */
+    public void disable() {
+        ProcessingInstrumentation.unregister(this);
+    }
+
+    /**
+     *
+     * @param stage
+     * @return The aggregated measures of the given stage or null if the stage
+     * has not been measured
+     */
+    public Stage getStage(String stage) {
+        return stages_.get(stage);
+    }
+
+    /**
+     *
+     * @return A copy of the aggregated measures, sorted by stages
+     */
+    public Map<String, Stage> getStatistics() {
+        return new TreeMap<>(stages_);
+    }
+
+    @Override
+    public String[] getStages() {
+        return getStatistics().keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public long getCount(String stage) {
+        Stage s = stages_.get(stage);
+        return s == null ? 0 : s.getCount();
+    }
+
+    @Override
+    public double getWallTime(String stage) {
+        Stage s = stages_.get(stage);
+        return s == null ? 0 : s.getWallTime() * 1e-6;
+    }
+
+    @Override
+    public double getCpuTime(String stage) {
+        Stage s = stages_.get(stage);
+        return s == null ? 0 : s.getCpuTime() * 1e-6;
+    }
+
+    @Override
+    public long getAllocatedBytes(String stage) {
+        Stage s = stages_.get(stage);
+        return s == null ? 0 : s.getAllocatedBytes();
+    }
+
+    @Override
+    public void reset() {
+        stages_.clear();
+    }
+
+    @Override
+    public String getReport() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeCsv(writer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes the statistics in csv format (one line by stage). The times are
+     * expressed in milliseconds
+     *
+     * @param writer
+     * @throws IOException
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("stage,count,wall,cpu,allocated,meanwall,maxwall");
+        writer.write(System.lineSeparator());
+        for (Map.Entry<String, Stage> entry : getStatistics().entrySet()) {
+            Stage s = entry.getValue();
+            long n = s.getCount();
+            writer.write(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f,%d,%.3f,%.3f",
+                    entry.getKey(), n, s.getWallTime() * 1e-6, s.getCpuTime() * 1e-6, s.getAllocatedBytes(),
+                    n == 0 ? 0.0 : s.getWallTime() * 1e-6 / n, s.getMaxWallTime() * 1e-6));
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Registers the statistics in the platform MBean server, with the object
+     * name "ec.tstoolkit:type=ProcessingStatistics,name=[name]"
+     *
+     * @param name
+     * @throws JMException
+     */
+    public synchronized void registerMBean(String name) throws JMException {
+        if (name_ != null) {
+            unregisterMBean();
+        }
+        ObjectName oname = ObjectName.getInstance(DOMAIN + ":type=ProcessingStatistics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, oname);
+        name_ = oname;
+    }
+
+    /**
+     * Removes the statistics from the platform MBean server
+     *
+     * @throws JMException
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (name_ != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name_)) {
+                server.unregisterMBean(name_);
+            }
+            name_ = null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.algorithm;
+
+/**
+ * Management interface of the processing statistics
+ *
+ * @author Jean Palate
+ */
+public interface ProcessingStatisticsMXBean {
+
+    /**
+     *
+     * @return The names of the measured stages (sorted)
+     */
+    String[] getStages();
+
+    /**
+     *
+     * @param stage
+     * @return The number of executions of the stage
+     */
+    long getCount(String stage);
+
+    /**
+     *
+     * @param stage
+     * @return Total wall time of the stage, in milliseconds
+     */
+    double getWallTime(String stage);
+
+    /**
+     *
+     * @param stage
+     * @return Total cpu time of the stage, in milliseconds
+     */
+    double getCpuTime(String stage);
+
+    /**
+     *
+     * @param stage
+     * @return Total number of bytes allocated by the stage
+     */
+    long getAllocatedBytes(String stage);
+
+    /**
+     *
+     * @return The statistics of all the stages, in csv format
+     */
+    String getReport();
+
+    /**
+     * Clears the statistics
+     */
+    void reset();
+}
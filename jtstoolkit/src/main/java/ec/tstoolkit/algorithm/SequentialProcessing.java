@@ -62,6 +62,7 @@ public class SequentialProcessing<I> implements IProcessing<I, CompositeResults>
                 results.put(name, null, null);
 //                results.addInformation(ProcessingInformation.error(name, "unprocessed"));
             } else {
+                ProcessingInstrumentation.Stopwatch sw = ProcessingInstrumentation.start(name);
                 try {
                     Status st = cur.process(input, map);
                     if (st == Status.Valid) {
@@ -82,6 +83,8 @@ public class SequentialProcessing<I> implements IProcessing<I, CompositeResults>
                     ok = false;
                     results.put(name, null, null);
                     results.addInformation(ProcessingInformation.error(name, err));
+                } finally {
+                    sw.stop();
                 }
             }
         }
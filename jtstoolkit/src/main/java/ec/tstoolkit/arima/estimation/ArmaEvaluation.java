@@ -44,8 +44,7 @@ public class ArmaEvaluation<S extends IArimaModel> implements ISsqFunctionInstan
     }
 
     private void calc() {
-	ConcentratedLikelihoodEstimation cll = new ConcentratedLikelihoodEstimation(
-		fn.filter);
+	ConcentratedLikelihoodEstimation cll = fn.likelihoodEstimation();
 	if (cll.estimate(fn.dmodel, fn.d, fn.missings, arma)) {
 	    m_ll = new DefaultLikelihoodEvaluation<>(cll
 		    .getLikelihood());
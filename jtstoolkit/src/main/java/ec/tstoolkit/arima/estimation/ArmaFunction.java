@@ -46,6 +46,10 @@ public class ArmaFunction<S extends IArimaModel> implements ISsqFunction, IFunct
     public boolean ml = true, llog=false;
     public boolean mt=false;
 
+    // likelihood estimation (and its filter exemplar) re-used by the successive evaluations
+    private ConcentratedLikelihoodEstimation estimation;
+    private IArmaFilter estimationFilter;
+
     public ArmaFunction(RegModel dmodel, int d, int[] missings, IParametricMapping<S> mapper) {
 	this.d=d;
         this.dmodel = dmodel;
@@ -54,6 +58,26 @@ public class ArmaFunction<S extends IArimaModel> implements ISsqFunction, IFunct
         this.filter = new KalmanFilter(dmodel.getVarsCount()>0);
     }
 
+    /**
+     * Gets the likelihood estimation used by the evaluations. The optimizer is
+     * single-threaded, so that the same estimation (and thus the working
+     * buffers of its filter) is re-used by the successive evaluations. When the
+     * derivatives are computed in parallel (mt), each evaluation uses its own
+     * estimation.
+     *
+     * @return
+     */
+    ConcentratedLikelihoodEstimation likelihoodEstimation() {
+        if (mt) {
+            return new ConcentratedLikelihoodEstimation(filter);
+        }
+        if (estimation == null || estimationFilter != filter) {
+            estimation = new ConcentratedLikelihoodEstimation(filter);
+            estimationFilter = filter;
+        }
+        return estimation;
+    }
+
     @Override
     public ArmaEvaluation<S> evaluate(IReadDataBlock parameters) {
 	S tmp = mapper.map(parameters);
@@ -23,8 +23,17 @@ import ec.tstoolkit.data.IReadDataBlock;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.eco.Determinant;
 import ec.tstoolkit.maths.polynomials.Polynomial;
+import java.util.Arrays;
 
 /**
+ * Kalman filter for Arma models.
+ * <br>
+ * The working buffers are kept between successive calls and are only
+ * re-allocated when the dimension of the model or the length of the series
+ * increase, so that repeated evaluations of the likelihood (typically during
+ * the optimization of the parameters) don't allocate memory. A filter should
+ * not be shared between threads (each thread should use its own exemplar).
+ *
  * @author Jean Palate
  */
 @Development(status = Development.Status.Alpha)
@@ -50,6 +59,11 @@ public class KalmanFilter implements IArmaFilter {
 
     private double[] m_C0;
 
+    // workspaces
+    private double[] m_wC, m_wL, m_wa;
+
+    private final Determinant m_det = new Determinant();
+
     private static final double m_eps = -12;
 
     /**
@@ -70,15 +84,32 @@ public class KalmanFilter implements IArmaFilter {
         return new KalmanFilter(m_multiuse);
     }
 
+    private void prepareWorkspace() {
+	if (m_wL == null || m_wL.length < m_dim) {
+	    m_wC = new double[m_dim];
+	    m_wL = new double[m_dim];
+	    m_wa = new double[m_dim];
+	}
+	if (m_multiuse) {
+	    int nc = m_dim * m_n;
+	    if (m_C == null || m_C.length < nc) {
+		m_C = new double[nc];
+	    }
+	    if (m_s == null || m_s.length < m_n) {
+		m_s = new double[m_n];
+	    }
+	}
+    }
+
     private void calcC() {
 
-	Determinant det = new Determinant();
-	double[] L = m_C0.clone();
-	m_C = new double[m_dim * m_n];
+	Determinant det = m_det;
+	det.clear();
+	double[] L = m_wL;
+	System.arraycopy(m_C0, 0, L, 0, m_dim);
 	for (int i = 0; i < m_dim; ++i) {
 	    m_C[i] = L[i];
 	}
-	m_s = new double[m_n];
 	double h = m_h0;
 
 	det.add(h);
@@ -126,14 +157,20 @@ public class KalmanFilter implements IArmaFilter {
 	    det.add(h);
 	    m_s[pos] = Math.sqrt(h);
 	}
+	if (bfast) {
+	    // C is no longer updated; clean the values of a previous use
+	    Arrays.fill(m_C, cpos + m_dim, m_dim * m_n, 0);
+	}
 
 	m_ldet = det.getLogDeterminant();
     }
 
     private void calcdet() {
-	Determinant det = new Determinant();
-	double[] C = m_C0.clone();
-	double[] L = C.clone();
+	Determinant det = m_det;
+	det.clear();
+	double[] C = m_wC, L = m_wL;
+	System.arraycopy(m_C0, 0, C, 0, m_dim);
+	System.arraycopy(m_C0, 0, L, 0, m_dim);
 	double h = m_h0;
 
 	// iteration
@@ -214,6 +251,7 @@ public class KalmanFilter implements IArmaFilter {
 	m_h0 = m_C0[0];
 	m_n = length;
 	tx(m_C0);
+	prepareWorkspace();
 
 	if (m_multiuse) {
 	    calcC();
@@ -223,7 +261,8 @@ public class KalmanFilter implements IArmaFilter {
 
     private void mfilter(IReadDataBlock y, DataBlock yf) {
 
-	double[] a = new double[m_dim];
+	double[] a = m_wa;
+	Arrays.fill(a, 0, m_dim, 0);
 	// iteration
 
 	int pos = 0, cpos = 0, ilast = m_dim - 1;
@@ -246,13 +285,14 @@ public class KalmanFilter implements IArmaFilter {
     }
 
     private void sfilter(IReadDataBlock y, DataBlock outrc) {
-	Determinant det = new Determinant();
-	double[] C = m_C0.clone();
-	double[] L = C.clone();
+	Determinant det = m_det;
+	det.clear();
+	double[] C = m_wC, L = m_wL, a = m_wa;
+	System.arraycopy(m_C0, 0, C, 0, m_dim);
+	System.arraycopy(m_C0, 0, L, 0, m_dim);
+	Arrays.fill(a, 0, m_dim, 0);
 	double h = m_h0;
 
-	double[] a = new double[m_dim];
-	double[] yf = new double[m_n];
 	// iteration
 	int pos = 0, ilast = m_dim - 1;
 	boolean bfast = false;
@@ -292,7 +332,7 @@ public class KalmanFilter implements IArmaFilter {
 	    // filter y
 	    double s = Math.sqrt(h);
 	    double e = (y.get(pos) - a[0]) / s;
-	    yf[pos] = e;
+	    outrc.set(pos, e);
 	    double la = tlast(a);
 	    double v = e / s;
 	    for (int i = 0; i < ilast; ++i) {
@@ -304,8 +344,6 @@ public class KalmanFilter implements IArmaFilter {
 	} while (++pos < m_n);
 
 	m_ldet = det.getLogDeterminant();
-	outrc.copy(new DataBlock(yf));
-
     }
 
     private double tlast(final double[] x) {
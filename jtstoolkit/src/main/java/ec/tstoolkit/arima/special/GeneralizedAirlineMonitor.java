@@ -17,6 +17,7 @@
 
 package ec.tstoolkit.arima.special;
 
+import ec.tstoolkit.algorithm.ProcessingExecutors;
 import ec.tstoolkit.arima.estimation.GlsArimaMonitor;
 import ec.tstoolkit.arima.estimation.RegArimaEstimation;
 import ec.tstoolkit.arima.estimation.RegArimaModel;
@@ -36,26 +37,62 @@ import ec.tstoolkit.sarima.estimation.HannanRissanen;
 import ec.tstoolkit.sarima.estimation.SarimaMapping;
 import ec.tstoolkit.timeseries.regression.TsVariableList;
 import ec.tstoolkit.timeseries.simplets.TsData;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
 
 /**
  * The GeneralizedAirlineMonitor monitors the estimation and the decomposition
  * of the generalized airline model for given series and specifications.
+ * <br>
+ * The candidate models are independent. They can be estimated in parallel, on
+ * the executor given by setExecutor (sequential estimation by default). The
+ * results don't depend on the executor. The estimation time of each model is
+ * available through getEstimationTime.
  * @author Jean Palate
  */
 @Development(status = Development.Status.Exploratory)
 public class GeneralizedAirlineMonitor {
 
+    private static volatile ExecutorService defaultExecutor;
+
+    /**
+     * Gets the executor used by default by the new monitors
+     *
+     * @return The default executor. Null for a sequential estimation (default)
+     */
+    public static ExecutorService getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    /**
+     * Sets the executor used by default by the new monitors (for instance
+     * ProcessingExecutors.getDefault())
+     *
+     * @param executor The executor. Null for a sequential estimation
+     */
+    public static void setDefaultExecutor(ExecutorService executor) {
+        defaultExecutor = executor;
+    }
+
     private GaSpecification m_spec = new GaSpecification();
     private RegArimaEstimation<GeneralizedAirlineModel>[] m_rslts;
+    private long[] m_times;
+    private boolean[] m_pruned;
     private TsData m_series;
     private TsVariableList m_regs;
     private DataBlock m_starthr, m_startairline;
     private static final double m_urbound = .98;
     private boolean m_bfreeestimation = true;
     private boolean m_mean;
-    private final HashMap<Long, RegArimaEstimation<GeneralizedAirlineModel>> m_smodel = new HashMap<>();
+    private double m_pruning = -1;
+    private ExecutorService m_executor = defaultExecutor;
+    private final ConcurrentHashMap<Long, RegArimaEstimation<GeneralizedAirlineModel>> m_smodel = new ConcurrentHashMap<>();
     private static final int m_nsel = 5;
 
     /**
@@ -70,6 +107,8 @@ public class GeneralizedAirlineMonitor {
             return false;
         m_smodel.clear();
         m_rslts = null;
+        m_times = null;
+        m_pruned = null;
         m_series = series;
         m_regs = saregs;
         int freq = m_series.getFrequency().intValue();
@@ -87,7 +126,7 @@ public class GeneralizedAirlineMonitor {
 
     private boolean selectiveEstimation(final int freq,
             final RegArimaModel<GeneralizedAirlineModel> regs) {
-        m_rslts = new RegArimaEstimation[1];
+        allocate(1);
         if (!calcInitialValues(freq, regs)) {
             return false;
         }
@@ -157,24 +196,19 @@ public class GeneralizedAirlineMonitor {
         double threshold = Math.max(tmp[tmp.length - nsel],
                 tmp[tmp.length - 1] / 3);
 
-        java.util.ArrayList<RegArimaEstimation<GeneralizedAirlineModel>> rtmp = new java.util.ArrayList<>();
-
+        List<SubArrayOfInt> sel = new ArrayList<>();
         for (int i = 0; i < C.getRowsCount(); ++i) {
-            try {
-                if (Math.abs(drank[i]) >= threshold) {
-                    rtmp.add(estimate(freq, regs, C.row(i)));
-                }
-            } catch (Exception e) {
+            if (Math.abs(drank[i]) >= threshold) {
+                sel.add(C.row(i));
             }
         }
 
-        RegArimaEstimation<GeneralizedAirlineModel>[] rslts = new RegArimaEstimation[rtmp.size() + 1];
-        rslts[0] = m_rslts[0];
-        int ir = 1;
-        for (RegArimaEstimation<GeneralizedAirlineModel> r : rtmp) {
-            rslts[ir++] = r;
-        }
-        m_rslts = rslts;
+        RegArimaEstimation<GeneralizedAirlineModel> airline = m_rslts[0];
+        long tairline = m_times[0];
+        allocate(sel.size() + 1);
+        m_rslts[0] = airline;
+        m_times[0] = tairline;
+        estimate(freq, regs, sel.toArray(new SubArrayOfInt[sel.size()]), 1);
         return true;
     }
 
@@ -187,7 +221,7 @@ public class GeneralizedAirlineMonitor {
                 nm += j;
             }
         }
-        m_rslts = new RegArimaEstimation[nm + 1];
+        allocate(nm + 1);
         if (!calcInitialValues(freq, regs)) {
             return false;
         }
@@ -208,24 +242,37 @@ public class GeneralizedAirlineMonitor {
             final RegArimaModel<GeneralizedAirlineModel> regs,
             final SubArrayOfInt C) {
         int q = m_spec.isFreeZeroFrequencyParameter() ? 3 : 2;
-        int jbest = -1;
-        double ll = Double.MIN_VALUE;
+        int[] pos = new int[C.getLength()];
+        int n = 0;
         for (int j = 0; j < C.getLength(); ++j) {
             if (C.get(j) != q) {
-                C.set(j, q);
-                RegArimaEstimation<GeneralizedAirlineModel> est = estimate(
-                        freq, regs, C);
-                if (save) {
-                    m_rslts[++ridx] = est;
-                }
-                if (est != null) {
-                    double curll = est.likelihood.getLogLikelihood();
-                    if (jbest < 0 || curll >= ll) {
-                        jbest = j;
-                        ll = curll;
-                    }
+                pos[n++] = j;
+            }
+        }
+        SubArrayOfInt[] c = new SubArrayOfInt[n];
+        for (int k = 0; k < n; ++k) {
+            c[k] = SubArrayOfInt.create(new int[C.getLength()]);
+            c[k].copy(C);
+            c[k].set(pos[k], q);
+        }
+        long[] times = new long[n];
+        boolean[] pruned = new boolean[n];
+        RegArimaEstimation<GeneralizedAirlineModel>[] rslts = estimate(freq, regs, c, times, pruned);
+        int jbest = -1;
+        double ll = Double.MIN_VALUE;
+        for (int k = 0; k < n; ++k) {
+            RegArimaEstimation<GeneralizedAirlineModel> est = rslts[k];
+            if (save) {
+                m_rslts[++ridx] = est;
+                m_times[ridx] = times[k];
+                m_pruned[ridx] = pruned[k];
+            }
+            if (est != null) {
+                double curll = est.likelihood.getLogLikelihood();
+                if (jbest < 0 || curll >= ll) {
+                    jbest = pos[k];
+                    ll = curll;
                 }
-                C.set(j, q - 1);
             }
         }
         if (jbest >= 0) {
@@ -238,20 +285,160 @@ public class GeneralizedAirlineMonitor {
             final RegArimaModel<GeneralizedAirlineModel> regs) {
         TableOfInt C = m_spec.generateParameters(freq);
         int n = C.getRowsCount() + 1;
-        // FIXME: problem with generics
-        m_rslts = new RegArimaEstimation[n];
+        allocate(n);
 
         if (!calcInitialValues(freq, regs)) {
             return false;
         }
 
-        for (int i = 1; i < m_rslts.length; ++i) {
+        SubArrayOfInt[] c = new SubArrayOfInt[n - 1];
+        for (int i = 0; i < c.length; ++i) {
+            c[i] = C.row(i);
+        }
+        estimate(freq, regs, c, 1);
+        return true;
+    }
+
+    private void allocate(final int n) {
+        // FIXME: problem with generics
+        m_rslts = new RegArimaEstimation[n];
+        m_times = new long[n];
+        m_pruned = new boolean[n];
+    }
+
+    private void estimate(final int freq,
+            final RegArimaModel<GeneralizedAirlineModel> regs,
+            final SubArrayOfInt[] c, final int start) {
+        long[] times = new long[c.length];
+        boolean[] pruned = new boolean[c.length];
+        RegArimaEstimation<GeneralizedAirlineModel>[] rslts = estimate(freq, regs, c, times, pruned);
+        System.arraycopy(rslts, 0, m_rslts, start, c.length);
+        System.arraycopy(times, 0, m_times, start, c.length);
+        System.arraycopy(pruned, 0, m_pruned, start, c.length);
+    }
+
+    /**
+     * Estimates a set of candidate models. The free models are estimated
+     * first. The constrained models are then estimated for the candidates
+     * whose free estimation doesn't improve the airline model, except for the
+     * pruned candidates.
+     * <br>
+     * With 4 parameters, the constrained estimation of a candidate starts from
+     * the estimation of 3 parameters models, which are shared by several
+     * candidates through a cache. That first step is done sequentially, in the
+     * order of the candidates, so that the results don't depend on the
+     * executor; only the final estimations are done in parallel. With 3
+     * parameters, the cached estimations are specific to each candidate.
+     */
+    private RegArimaEstimation<GeneralizedAirlineModel>[] estimate(
+            final int freq, final RegArimaModel<GeneralizedAirlineModel> regs,
+            final SubArrayOfInt[] c, final long[] times, final boolean[] pruned) {
+        final RegArimaEstimation<GeneralizedAirlineModel>[] rslts = new RegArimaEstimation[c.length];
+        if (m_bfreeestimation) {
+            execute(c.length, i -> {
+                long t0 = System.nanoTime();
+                try {
+                    rslts[i] = estimateFree(freq, regs.clone(), c[i]);
+                } catch (RuntimeException e) {
+                }
+                times[i] += System.nanoTime() - t0;
+            });
+        }
+        double best = criterion(m_rslts[0]);
+        if (m_pruning >= 0) {
+            for (RegArimaEstimation<GeneralizedAirlineModel> rslt : rslts) {
+                double cur = criterion(rslt);
+                if (cur < best) {
+                    best = cur;
+                }
+            }
+        }
+        final double bound = best + m_pruning;
+        final boolean[] constrained = new boolean[c.length];
+        for (int i = 0; i < c.length; ++i) {
+            if (!isAccepted(rslts[i])) {
+                if (m_pruning >= 0 && criterion(rslts[i]) > bound) {
+                    pruned[i] = true;
+                } else {
+                    constrained[i] = true;
+                }
+            }
+        }
+        if (!m_spec.isFreeZeroFrequencyParameter()) {
+            execute(c.length, i -> {
+                if (!constrained[i]) {
+                    return;
+                }
+                long t0 = System.nanoTime();
+                try {
+                    rslts[i] = estimate3(freq, regs.clone(), c[i]);
+                } catch (RuntimeException e) {
+                    rslts[i] = null;
+                }
+                times[i] += System.nanoTime() - t0;
+            });
+        } else {
+            final DataBlock[] pinit = new DataBlock[c.length];
+            RegArimaModel<GeneralizedAirlineModel> regs3 = regs.clone();
+            for (int i = 0; i < c.length; ++i) {
+                if (constrained[i]) {
+                    long t0 = System.nanoTime();
+                    try {
+                        pinit[i] = initialValues4(freq, regs3, c[i]);
+                    } catch (RuntimeException e) {
+                        constrained[i] = false;
+                        rslts[i] = null;
+                    }
+                    times[i] += System.nanoTime() - t0;
+                }
+            }
+            execute(c.length, i -> {
+                if (!constrained[i]) {
+                    return;
+                }
+                long t0 = System.nanoTime();
+                try {
+                    rslts[i] = estimate4(freq, regs.clone(), pinit[i], c[i]);
+                } catch (RuntimeException e) {
+                    rslts[i] = null;
+                }
+                times[i] += System.nanoTime() - t0;
+            });
+        }
+        return rslts;
+    }
+
+    private void execute(final int n, final IntConsumer task) {
+        if (m_executor != null && n > 1) {
+            List<Callable<Void>> tasks = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i) {
+                final int k = i;
+                tasks.add(() -> {
+                    task.accept(k);
+                    return null;
+                });
+            }
             try {
-                m_rslts[i] = estimate(freq, regs, C.row(i - 1));
-            } catch (Exception e) {
+                for (Future<Void> f : ProcessingExecutors.invokeAll(m_executor, tasks)) {
+                    f.get();
+                }
+                return;
+            } catch (ExecutionException err) {
+                Throwable cause = err.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            } catch (InterruptedException ex) {
+                // sequential computation
+                Thread.currentThread().interrupt();
             }
         }
-        return true;
+        for (int i = 0; i < n; ++i) {
+            task.accept(i);
+        }
     }
 
     // build the regarima model
@@ -273,28 +460,19 @@ public class GeneralizedAirlineMonitor {
         return regModel;
     }
 
-    private RegArimaEstimation<GeneralizedAirlineModel> estimate(
+    private RegArimaEstimation<GeneralizedAirlineModel> estimateFree(
             final int freq, final RegArimaModel<GeneralizedAirlineModel> regs,
             final SubArrayOfInt c) {
         int nparams = m_spec.isFreeZeroFrequencyParameter() ? 4 : 3;
-        // Estimate first the free model...
-        if (m_bfreeestimation) {
-            GeneralizedAirlineModel gairline = new GeneralizedAirlineModel(
-                    freq, nparams, c);
-            RegArimaEstimation<GeneralizedAirlineModel> e = estimate(regs,
-                    gairline);
-            if (e != null
-                    && e.likelihood != null
-                    && (m_rslts[0] == null || e.likelihood.getLogLikelihood() >= m_rslts[0].likelihood.getLogLikelihood())) {
-                return e;
-            }
-        }
+        GeneralizedAirlineModel gairline = new GeneralizedAirlineModel(
+                freq, nparams, c);
+        return estimate(regs, gairline);
+    }
 
-        if (nparams == 3) {
-            return estimate3(freq, regs, c);
-        } else {
-            return estimate4(freq, regs, c);
-        }
+    private boolean isAccepted(final RegArimaEstimation<GeneralizedAirlineModel> e) {
+        return e != null
+                && e.likelihood != null
+                && (m_rslts[0] == null || e.likelihood.getLogLikelihood() >= m_rslts[0].likelihood.getLogLikelihood());
     }
 
     private RegArimaEstimation<GeneralizedAirlineModel> estimate3(
@@ -316,7 +494,7 @@ public class GeneralizedAirlineMonitor {
             final DataBlock p, final SubArrayOfInt c, boolean checkur) {
         RegArimaEstimation<GeneralizedAirlineModel> rslt;
         long ckey = GeneralizedAirlineModel.CKey(c);
-        if (!checkur && m_smodel.containsKey(ckey)) {
+        if (!checkur) {
             m_smodel.remove(ckey);
         }
 
@@ -329,14 +507,18 @@ public class GeneralizedAirlineMonitor {
             }
             regs.setArima(gairline);
             rslt = estimate(regs, gairline);
-            if (!checkur) {
+            if (!checkur && rslt != null) {
                 m_smodel.put(ckey, rslt);
             }
         }
         return rslt;
     }
 
-    private RegArimaEstimation<GeneralizedAirlineModel> estimate4(
+    /**
+     * Computes the initial values of the 4 parameters model by means of the
+     * corresponding 3 parameters models (which use the shared cache)
+     */
+    private DataBlock initialValues4(
             final int freq, final RegArimaModel<GeneralizedAirlineModel> regs,
             final SubArrayOfInt c) {
         // estimates first the 3 parameters model.
@@ -387,7 +569,12 @@ public class GeneralizedAirlineMonitor {
                 pinit = new DataBlock(g3.model.getArima().getCoefficients());
             }
         }
+        return pinit;
+    }
 
+    private RegArimaEstimation<GeneralizedAirlineModel> estimate4(
+            final int freq, final RegArimaModel<GeneralizedAirlineModel> regs,
+            final DataBlock pinit, final SubArrayOfInt c) {
         RegArimaEstimation<GeneralizedAirlineModel> est = estimate4(freq, regs,
                 pinit, c, true);
         if (est == null
@@ -554,7 +741,9 @@ public class GeneralizedAirlineMonitor {
         m_starthr.set(1, Math.pow(sq, 1.0 / freq));
         GeneralizedAirlineModel gairline = new GeneralizedAirlineModel(freq, 2,
                 m_starthr.get(0), m_starthr.get(1), null);
+        long t0 = System.nanoTime();
         m_rslts[0] = estimate(regs, gairline);
+        m_times[0] = System.nanoTime() - t0;
 
         if (m_rslts[0] == null) {
             return false;
@@ -570,27 +759,37 @@ public class GeneralizedAirlineMonitor {
         double c = Double.MAX_VALUE;
         int imax = -1;
         for (int i = 0; i < m_rslts.length; ++i) {
-            if (m_rslts[i] != null) {
-                GeneralizedAirlineModel ga = m_rslts[i].model.getArima();
-                ConcentratedLikelihood ll = m_rslts[i].likelihood;
-                if (ga != null && ll != null) {
-                    int np = ga.getType() + ll.getNx();
-                    double cur = 0;
-                    if (m_spec.getCriterion() == GaSpecification.Criterion.AIC) {
-                        cur = ll.AIC(np);
-                    } else {
-                        cur = ll.BIC(np);
-                    }
-                    if (cur < c) {
-                        imax = i;
-                        c = cur;
-                    }
-                }
+            double cur = criterion(m_rslts[i]);
+            if (cur < c) {
+                imax = i;
+                c = cur;
             }
         }
         return imax;
     }
 
+    /**
+     * Criterion (AIC or BIC, following the specification) of an estimation
+     *
+     * @return The criterion or NaN if the estimation is invalid
+     */
+    private double criterion(final RegArimaEstimation<GeneralizedAirlineModel> rslt) {
+        if (rslt == null) {
+            return Double.NaN;
+        }
+        GeneralizedAirlineModel ga = rslt.model.getArima();
+        ConcentratedLikelihood ll = rslt.likelihood;
+        if (ga == null || ll == null) {
+            return Double.NaN;
+        }
+        int np = ga.getType() + ll.getNx();
+        if (m_spec.getCriterion() == GaSpecification.Criterion.AIC) {
+            return ll.AIC(np);
+        } else {
+            return ll.BIC(np);
+        }
+    }
+
     public RegArimaEstimation<GeneralizedAirlineModel> result(final int idx) {
         if (m_rslts == null) {
             return null;
@@ -610,6 +809,31 @@ public class GeneralizedAirlineMonitor {
         }
     }
 
+    /**
+     * Gets the estimation time of a model. For the candidate models, it
+     * includes the estimation of the free model and of the constrained models.
+     *
+     * @param idx The position of the model
+     * @return The wall time of the estimation, in nanoseconds
+     */
+    public long getEstimationTime(final int idx) {
+        return m_times == null ? 0 : m_times[idx];
+    }
+
+    /**
+     * Checks that the estimation of the constrained models has been skipped
+     * for a given candidate (see setPruningMargin). The result of the free
+     * estimation is then kept, though it doesn't improve the likelihood of
+     * the airline model (without pruning, it would have been replaced by the
+     * constrained estimation).
+     *
+     * @param idx The position of the model
+     * @return
+     */
+    public boolean isPruned(final int idx) {
+        return m_pruned != null && m_pruned[idx];
+    }
+
     public int getResultsCount() {
         return (m_rslts == null) ? 0 : m_rslts.length;
     }
@@ -670,6 +894,49 @@ public class GeneralizedAirlineMonitor {
         m_bfreeestimation = value;
     }
 
+    public double getPruningMargin() {
+        return m_pruning;
+    }
+
+    /**
+     * Sets the margin used for the pruning of the candidate models. When the
+     * free estimation of a candidate doesn't improve the likelihood of the
+     * airline model, the constrained models are estimated (several
+     * optimizations). That step is skipped when the criterion of the free
+     * estimation exceeds the best criterion of the airline model and of the
+     * free estimations by more than the margin. The pruning is only possible
+     * when the free estimation is used.
+     * <br>
+     * The pruning is a heuristic, not a bound: the criterion of the free
+     * estimation is usually close to the criterion of the constrained ones,
+     * but a pruned candidate could have been selected after the constrained
+     * estimation. The pruned candidates keep their (rejected) free estimation;
+     * see isPruned.
+     *
+     * @param value The margin, in units of the criterion (AIC or BIC).
+     * Negative values (default) disable the pruning.
+     */
+    public void setPruningMargin(final double value) {
+        m_pruning = value;
+    }
+
+    /**
+     * @return The executor used for the estimation of the candidate models
+     * (null for a sequential estimation)
+     */
+    public ExecutorService getExecutor() {
+        return m_executor;
+    }
+
+    /**
+     * Sets the executor used for the estimation of the candidate models.
+     *
+     * @param executor The executor. Null for a sequential estimation
+     */
+    public void setExecutor(ExecutorService executor) {
+        m_executor = executor;
+    }
+
     public boolean isMeanCorrection() {
         return m_mean;
     }
@@ -17,6 +17,7 @@
 
 package ec.tstoolkit.arima.special;
 
+import ec.tstoolkit.algorithm.ProcessingExecutors;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.eco.DiffuseConcentratedLikelihood;
 import ec.tstoolkit.maths.realfunctions.IFunctionMinimizer;
@@ -33,19 +34,54 @@ import ec.tstoolkit.ssf.SsfModel;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import ec.tstoolkit.utilities.Arrays2;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
+ * Estimation of the mixed airline model. When the noisy periods are not
+ * specified, they are selected by a stepwise search.
+ * <br>
+ * The models which can be considered by the next steps of the search are
+ * estimated in advance, in parallel, on the executor given by setExecutor
+ * (sequential estimation by default). The results don't depend on the
+ * executor.
  *
  * @author Jean Palate
  */
 @Development(status = Development.Status.Exploratory)
 public class MixedAirlineMonitor {
 
+    private static volatile ExecutorService defaultExecutor;
+
+    /**
+     * Gets the executor used by default by the new monitors
+     *
+     * @return The default executor. Null for a sequential estimation (default)
+     */
+    public static ExecutorService getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    /**
+     * Sets the executor used by default by the new monitors (for instance
+     * ProcessingExecutors.getDefault())
+     *
+     * @param executor The executor. Null for a sequential estimation
+     */
+    public static void setDefaultExecutor(ExecutorService executor) {
+        defaultExecutor = executor;
+    }
+
     private TsData m_series;
     private int m_best = -1;
     private HashSet<String> m_computed = new HashSet<>();
+    private ExecutorService m_executor = defaultExecutor;
 
     public boolean process(final TsData series, final MaSpecification spec) {
         if (series == null) {
@@ -105,6 +141,7 @@ public class MixedAirlineMonitor {
 
             int iter = 0;
             boolean[] noisy = new boolean[freq];
+            HashMap<String, MixedEstimation> pending = new HashMap<>();
             do {
                 switched = false;
                 for (int i = 0; i < freq; ++i) {
@@ -118,7 +155,10 @@ public class MixedAirlineMonitor {
                         String name = m.toString();
                         if (!m_computed.contains(name)) {
                             m_computed.add(name);
-                            rslt = estimate(m);
+                            if (m_executor != null && !pending.containsKey(name)) {
+                                speculate(airline, noisy, i, pending);
+                            }
+                            rslt = pending.containsKey(name) ? pending.remove(name) : estimate(m);
                             if (rslt != null) {
                                 m_models.add(rslt);
                                 double ll = rslt.ll.getLogLikelihood();
@@ -184,7 +224,82 @@ public class MixedAirlineMonitor {
         return m_best;
     }
 
+    /**
+     * @return The executor used for the estimation of the candidate models
+     * (null for a sequential estimation)
+     */
+    public ExecutorService getExecutor() {
+        return m_executor;
+    }
+
+    /**
+     * Sets the executor used for the estimation of the candidate models.
+     *
+     * @param executor The executor. Null for a sequential estimation
+     */
+    public void setExecutor(ExecutorService executor) {
+        m_executor = executor;
+    }
+
+    /**
+     * Estimates in parallel the current model and the models that will be
+     * considered by the next steps of the current iteration, if the current
+     * model is rejected. The estimations are identified by the names of the
+     * models.
+     *
+     * @param airline The airline model
+     * @param noisy The current noisy periods
+     * @param pos The period being switched
+     * @param pending The estimations computed in advance
+     */
+    private void speculate(final SarimaModel airline, final boolean[] noisy, final int pos,
+            final Map<String, MixedEstimation> pending) {
+        List<MixedAirlineModel> models = new ArrayList<>();
+        for (int j = pos; j < noisy.length; ++j) {
+            boolean[] cur = noisy.clone();
+            if (j != pos) {
+                cur[pos] = !cur[pos];
+                cur[j] = !cur[j];
+            }
+            int[] noisyPeriods = buildNoisyPeriods(cur);
+            if (noisyPeriods != null) {
+                MixedAirlineModel m = new MixedAirlineModel();
+                m.setAirline(airline.clone());
+                m.setNoisyPeriods(noisyPeriods);
+                String name = m.toString();
+                if (j == pos || (!m_computed.contains(name) && !pending.containsKey(name))) {
+                    models.add(m);
+                }
+            }
+        }
+        if (models.size() < 2) {
+            return;
+        }
+        List<Callable<MixedEstimation>> tasks = new ArrayList<>(models.size());
+        for (final MixedAirlineModel m : models) {
+            tasks.add(() -> estimate(m));
+        }
+        try {
+            List<Future<MixedEstimation>> futures = ProcessingExecutors.invokeAll(m_executor, tasks);
+            for (int i = 0; i < futures.size(); ++i) {
+                pending.put(models.get(i).toString(), futures.get(i).get());
+            }
+        } catch (ExecutionException err) {
+            Throwable cause = err.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException ex) {
+            // sequential computation
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private MixedEstimation estimate(MixedAirlineModel model) {
+        long t0 = System.nanoTime();
         try {
             if (model.getNoisyPeriods().length > 0) {
                 model.setNoisyPeriodsVariance(1);
@@ -202,6 +317,7 @@ public class MixedAirlineMonitor {
             SsfComposite c = (SsfComposite) rfn.ssf;
             rslt.model = ((MixedAirlineCompositeModel) c.getCompositeModel()).toModel();
             rslt.model.stabilize();
+            rslt.time = System.nanoTime() - t0;
             return rslt;
         } catch (RuntimeException e) {
             return null;
@@ -242,6 +358,10 @@ public class MixedAirlineMonitor {
 
         public DiffuseConcentratedLikelihood ll;
         public MixedAirlineModel model;
+        /**
+         * Wall time of the estimation, in nanoseconds
+         */
+        public long time;
     }
 
     public List<MixedEstimation> getAllResults() {
@@ -19,6 +19,7 @@ package ec.tstoolkit.data;
 import ec.tstoolkit.design.NewObject;
 import ec.tstoolkit.dstats.Normal;
 import ec.tstoolkit.dstats.TestType;
+import ec.tstoolkit.maths.RealFft;
 import ec.tstoolkit.stats.StatisticalTest;
 
 /**
@@ -158,11 +159,15 @@ public class BlackmanTukeySpectrum {
         for (int i = 0; i < winLen_; i++) {
             cwnd[i] *= cov_[i];
         }
+        // s(i) = cwnd(0) + 2 * sum(cwnd(j)*cos(2*pi*i*j/winLen)) is the real
+        // part of the Fourier transform of (cwnd(0), 2*cwnd(1), ...)
+        for (int j = 1; j < winLen_; j++) {
+            cwnd[j] *= 2;
+        }
+        double[] re = new double[nspect_], im = new double[nspect_];
+        RealFft.transform(cwnd, re, im);
         for (int i = 0; i < nspect_; i++) {
-            double s = cwnd[0];
-            for (int j = 1; j < winLen_; j++) {
-                s += 2 * cwnd[j] * Math.cos(Math.PI * 2.0 * i * j / winLen_);
-            }
+            double s = re[i];
             if (s < 0) {
                 s = 0;
             }
@@ -18,6 +18,7 @@ package ec.tstoolkit.data;
 
 import ec.tstoolkit.BaseException;
 import ec.tstoolkit.design.Development;
+import ec.tstoolkit.maths.RealFft;
 import ec.tstoolkit.utilities.IntList;
 
 /**
@@ -137,11 +138,10 @@ public class Periodogram {
         // p(l(j)) = a(j)*a(j) + b(j)*b(j)
         // l(j) = 2*pi*j / T, where T = m_data.Length
         // a(j) = (1/sqrt(T))
+        // The Fourier sums are computed by means of a FFT (missing values are
+        // set to 0)
         int T = m_data.length, T1 = (1 + T) / 2, T2 = 1 + T / 2;
         m_p = new double[T2];
-        double l = 2 * Math.PI / T;
-        double cosl = Math.cos(l), sinl = Math.sin(l);
-        double cos = 1, sin = 0; // current cos and sin...
 
         // the mean has been removed
         if (m_mean) {
@@ -149,43 +149,24 @@ public class Periodogram {
         } else {
             m_p[0] = m_sy * m_sy / m_sy2;
         }
-        double a = 0, b = 0;
-        for (int i = 1; i < T1; ++i) {
-            // compute next cos, sin
-            double ctmp = cos, stmp = sin;
-            sin = cosl * stmp + sinl * ctmp;
-            cos = -sinl * stmp + cosl * ctmp;
-
-            a = 0;
-            b = 0;
-            double c = 1, s = 0;
-            for (int j = 0; j < T; ++j) {
-                // compute next c, s ...
-                ctmp = c;
-                stmp = s;
-                s = cos * stmp + sin * ctmp;
-                c = -sin * stmp + cos * ctmp;
-                if (!Double.isNaN(m_data[j])) {
-                    a += c * m_data[j];
-                    b += s * m_data[j];
-                }
+        if (T2 == 1) {
+            return;
+        }
+        double[] x = m_data.clone();
+        for (int j = 0; j < T; ++j) {
+            if (Double.isNaN(x[j])) {
+                x[j] = 0;
             }
-            m_p[i] = 2 * (a * a + b * b) / m_sy2;
+        }
+        double[] a = new double[T2], b = new double[T2];
+        RealFft.transform(x, a, b);
+        for (int i = 1; i < T1; ++i) {
+            m_p[i] = 2 * (a[i] * a[i] + b[i] * b[i]) / m_sy2;
         }
 
         if (T1 != T2) // T even
         {
-            a = 0;
-            for (int i = 0; i < T; ++i) {
-                if (!Double.isNaN(m_data[i])) {
-                    if (i % 2 == 0) {
-                        a += m_data[i];
-                    } else {
-                        a -= m_data[i];
-                    }
-                }
-            }
-            m_p[T2 - 1] = a * a / m_sy2;
+            m_p[T2 - 1] = a[T2 - 1] * a[T2 - 1] / m_sy2;
         }
     }
 
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.maths;
+
+import ec.tstoolkit.design.Development;
+
+/**
+ * Fast Fourier transformation of real or complex data stored in arrays of
+ * doubles. The forward transformation is defined by
+ * X(k) = sum(x(j)*e(-2*pi*i*j*k/n)), j, k in [0, n[.
+ * The lengths that are powers of 2 are handled by a radix-2 algorithm; the
+ * other lengths are handled by the chirp-z (Bluestein) algorithm, which uses
+ * radix-2 transformations of larger size. Real data of even length are
+ * transformed through a complex transformation of half length.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+public final class RealFft {
+
+    private RealFft() {
+    }
+
+    /**
+     * Discrete Fourier transformation of real data. As the data are
+     * real-valued, only the frequencies k in [0, n/2] are computed.
+     *
+     * @param data The data. Should not contain missing values
+     * @param re The real parts of the transformation (length &ge; n/2+1)
+     * @param im The imaginary parts of the transformation (length &ge; n/2+1)
+     */
+    public static void transform(final double[] data, final double[] re, final double[] im) {
+        final int n = data.length;
+        if (n == 0) {
+            return;
+        }
+        if (n % 2 != 0) {
+            double[] cre = data.clone(), cim = new double[n];
+            transform(cre, cim);
+            int nc = n / 2 + 1;
+            System.arraycopy(cre, 0, re, 0, nc);
+            System.arraycopy(cim, 0, im, 0, nc);
+            return;
+        }
+        // the even and odd data are put in a complex array of length h = n/2
+        final int h = n / 2;
+        double[] zre = new double[h], zim = new double[h];
+        for (int j = 0, l = 0; j < h; ++j, l += 2) {
+            zre[j] = data[l];
+            zim[j] = data[l + 1];
+        }
+        transform(zre, zim);
+        re[0] = zre[0] + zim[0];
+        im[0] = 0;
+        re[h] = zre[0] - zim[0];
+        im[h] = 0;
+        final double theta = 2 * Math.PI / n;
+        for (int k = 1; k < h; ++k) {
+            double a = zre[k], b = zim[k], c = zre[h - k], d = zim[h - k];
+            // E(k)=(Z(k)+conj(Z(h-k)))/2, O(k)=(Z(k)-conj(Z(h-k)))/(2i)
+            double er = .5 * (a + c), ei = .5 * (b - d);
+            double or = .5 * (b + d), oi = -.5 * (a - c);
+            double cos = Math.cos(theta * k), sin = Math.sin(theta * k);
+            // X(k)=E(k)+e(-2*pi*i*k/n)*O(k)
+            re[k] = er + cos * or + sin * oi;
+            im[k] = ei + cos * oi - sin * or;
+        }
+    }
+
+    /**
+     * In-place discrete Fourier transformation of complex data
+     *
+     * @param re The real parts of the data
+     * @param im The imaginary parts of the data
+     */
+    public static void transform(final double[] re, final double[] im) {
+        final int n = re.length;
+        if (n <= 1) {
+            return;
+        }
+        if (isPowerOf2(n)) {
+            radix2(re, im, false);
+        } else {
+            bluestein(re, im);
+        }
+    }
+
+    /**
+     *
+     * @param n
+     * @return
+     */
+    public static boolean isPowerOf2(int n) {
+        return n > 0 && (n & (n - 1)) == 0;
+    }
+
+    private static void radix2(final double[] re, final double[] im, final boolean back) {
+        final int n = re.length;
+        for (int i = 0, j = 0; i < n; ++i) {
+            if (j > i) {
+                double tmp = re[i];
+                re[i] = re[j];
+                re[j] = tmp;
+                tmp = im[i];
+                im[i] = im[j];
+                im[j] = tmp;
+            }
+            int q = n >> 1;
+            while (q >= 1 && j >= q) {
+                j -= q;
+                q >>= 1;
+            }
+            j += q;
+        }
+        // twiddle factors e(-2*pi*i*j/n), j in [0, n/2[
+        final int h = n >> 1;
+        double[] cos = new double[h], sin = new double[h];
+        final double theta = 2 * Math.PI / n;
+        for (int j = 0; j < h; ++j) {
+            cos[j] = Math.cos(theta * j);
+            sin[j] = back ? Math.sin(theta * j) : -Math.sin(theta * j);
+        }
+        // Danielson-Lanczos routine
+        for (int m = 1, step = h; m < n; m <<= 1, step >>= 1) {
+            int tm = m << 1;
+            for (int j = 0, w = 0; j < m; ++j, w += step) {
+                double wr = cos[w], wi = sin[w];
+                for (int k = j; k < n; k += tm) {
+                    int l = k + m;
+                    double tr = wr * re[l] - wi * im[l], ti = wr * im[l] + wi * re[l];
+                    re[l] = re[k] - tr;
+                    im[l] = im[k] - ti;
+                    re[k] += tr;
+                    im[k] += ti;
+                }
+            }
+        }
+        if (back) {
+            final double v = 1.0 / n;
+            for (int i = 0; i < n; ++i) {
+                re[i] *= v;
+                im[i] *= v;
+            }
+        }
+    }
+
+    private static void bluestein(final double[] re, final double[] im) {
+        final int n = re.length;
+        int m = 1;
+        while (m < 2 * n - 1) {
+            m <<= 1;
+        }
+        // chirp w(j)=e(-pi*i*j*j/n). j*j is computed modulo 2n
+        double[] wr = new double[n], wi = new double[n];
+        final long n2 = 2L * n;
+        for (int j = 0; j < n; ++j) {
+            double angle = Math.PI * (((long) j * j) % n2) / n;
+            wr[j] = Math.cos(angle);
+            wi[j] = -Math.sin(angle);
+        }
+        // a(j)=x(j)*w(j)
+        double[] are = new double[m], aim = new double[m];
+        for (int j = 0; j < n; ++j) {
+            are[j] = re[j] * wr[j] - im[j] * wi[j];
+            aim[j] = re[j] * wi[j] + im[j] * wr[j];
+        }
+        // b(j)=b(-j)=conj(w(j))
+        double[] bre = new double[m], bim = new double[m];
+        bre[0] = wr[0];
+        bim[0] = -wi[0];
+        for (int j = 1; j < n; ++j) {
+            bre[j] = bre[m - j] = wr[j];
+            bim[j] = bim[m - j] = -wi[j];
+        }
+        radix2(are, aim, false);
+        radix2(bre, bim, false);
+        for (int j = 0; j < m; ++j) {
+            double r = are[j] * bre[j] - aim[j] * bim[j];
+            aim[j] = are[j] * bim[j] + aim[j] * bre[j];
+            are[j] = r;
+        }
+        radix2(are, aim, true);
+        // X(k)=w(k)*(a*b)(k)
+        for (int k = 0; k < n; ++k) {
+            re[k] = wr[k] * are[k] - wi[k] * aim[k];
+            im[k] = wr[k] * aim[k] + wi[k] * are[k];
+        }
+    }
+}
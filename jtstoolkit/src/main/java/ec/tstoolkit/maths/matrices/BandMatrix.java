@@ -0,0 +1,221 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.maths.matrices;
+
+import ec.tstoolkit.design.Development;
+
+/**
+ * Square band matrix, with kl sub-diagonals and ku super-diagonals. The
+ * matrix can be decomposed in place by means of a LU decomposition with
+ * partial pivoting (see LAPACK dgbtrf), which allows the resolution of
+ * (possibly indefinite) banded systems in O(n * kl * (kl + ku)) operations.
+ *
+ * The elements are stored by rows. Each row contains kl + ku + 1 elements
+ * and kl additional elements for the fill-in generated by the row
+ * interchanges.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+public class BandMatrix {
+
+    private final int n, kl, ku, w;
+    private final double[] data;
+    private int[] piv;
+
+    /**
+     *
+     * @param n The dimension of the matrix
+     * @param kl The number of sub-diagonals
+     * @param ku The number of super-diagonals
+     */
+    public BandMatrix(int n, int kl, int ku) {
+        if (n < 0 || kl < 0 || ku < 0) {
+            throw new MatrixException(MatrixException.IncompatibleDimensions);
+        }
+        this.n = n;
+        this.kl = kl;
+        this.ku = ku;
+        w = 2 * kl + ku + 1;
+        data = new double[n * w];
+    }
+
+    public int getDim() {
+        return n;
+    }
+
+    public int getLowerBandwidth() {
+        return kl;
+    }
+
+    public int getUpperBandwidth() {
+        return ku;
+    }
+
+    public boolean isDecomposed() {
+        return piv != null;
+    }
+
+    private int index(int i, int j) {
+        return i * w + j - i + kl;
+    }
+
+    private void checkState() {
+        if (piv != null) {
+            throw new IllegalStateException("Decomposed matrix");
+        }
+    }
+
+    private boolean isInBand(int i, int j) {
+        int del = j - i;
+        return del >= -kl && del <= ku;
+    }
+
+    public double get(int i, int j) {
+        checkState();
+        return isInBand(i, j) ? data[index(i, j)] : 0;
+    }
+
+    public void set(int i, int j, double value) {
+        checkState();
+        if (!isInBand(i, j)) {
+            throw new IllegalArgumentException("Element outside the band");
+        }
+        data[index(i, j)] = value;
+    }
+
+    public void add(int i, int j, double value) {
+        checkState();
+        if (!isInBand(i, j)) {
+            throw new IllegalArgumentException("Element outside the band");
+        }
+        data[index(i, j)] += value;
+    }
+
+    /**
+     * Computes the product of this matrix by a vector
+     *
+     * @param x The vector
+     * @return this * x
+     */
+    public double[] times(double[] x) {
+        checkState();
+        double[] y = new double[n];
+        for (int i = 0; i < n; ++i) {
+            int j0 = Math.max(0, i - kl), j1 = Math.min(n - 1, i + ku);
+            double s = 0;
+            for (int j = j0, k = index(i, j0); j <= j1; ++j, ++k) {
+                s += data[k] * x[j];
+            }
+            y[i] = s;
+        }
+        return y;
+    }
+
+    /**
+     * LU decomposition (in place) with partial pivoting. The matrix can't be
+     * modified after this call.
+     *
+     * @throws MatrixException if the matrix is singular
+     */
+    public void decompose() {
+        if (piv != null) {
+            return;
+        }
+        int[] p = new int[n];
+        int kw = kl + ku;
+        for (int k = 0; k < n; ++k) {
+            int imax = Math.min(n - 1, k + kl), jmax = Math.min(n - 1, k + kw);
+            // pivot
+            int ip = k;
+            double amax = Math.abs(data[index(k, k)]);
+            for (int i = k + 1; i <= imax; ++i) {
+                double cur = Math.abs(data[index(i, k)]);
+                if (cur > amax) {
+                    amax = cur;
+                    ip = i;
+                }
+            }
+            if (amax == 0) {
+                throw new MatrixException(MatrixException.Singular);
+            }
+            p[k] = ip;
+            if (ip != k) {
+                for (int j = k, a = index(k, k), b = index(ip, k); j <= jmax; ++j, ++a, ++b) {
+                    double tmp = data[a];
+                    data[a] = data[b];
+                    data[b] = tmp;
+                }
+            }
+            int kk = index(k, k);
+            double pivot = data[kk];
+            for (int i = k + 1; i <= imax; ++i) {
+                int ik = index(i, k);
+                double l = data[ik] / pivot;
+                data[ik] = l;
+                if (l != 0) {
+                    for (int j = k + 1, a = ik + 1, b = kk + 1; j <= jmax; ++j, ++a, ++b) {
+                        data[a] -= l * data[b];
+                    }
+                }
+            }
+        }
+        piv = p;
+    }
+
+    /**
+     * Solves in place the system this * x = b. The matrix is decomposed if
+     * need be.
+     *
+     * @param b On entry, the right-hand side of the system. On exit, the
+     * solution.
+     * @throws MatrixException if the matrix is singular
+     */
+    public void solve(double[] b) {
+        if (b.length != n) {
+            throw new MatrixException(MatrixException.IncompatibleDimensions);
+        }
+        decompose();
+        // L
+        for (int k = 0; k < n; ++k) {
+            int ip = piv[k];
+            if (ip != k) {
+                double tmp = b[k];
+                b[k] = b[ip];
+                b[ip] = tmp;
+            }
+            double bk = b[k];
+            if (bk != 0) {
+                int imax = Math.min(n - 1, k + kl);
+                for (int i = k + 1; i <= imax; ++i) {
+                    b[i] -= data[index(i, k)] * bk;
+                }
+            }
+        }
+        // U
+        int kw = kl + ku;
+        for (int i = n - 1; i >= 0; --i) {
+            int jmax = Math.min(n - 1, i + kw);
+            int ii = index(i, i);
+            double s = b[i];
+            for (int j = i + 1, a = ii + 1; j <= jmax; ++j, ++a) {
+                s -= data[a] * b[j];
+            }
+            b[i] = s / data[ii];
+        }
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.maths.matrices;
+
+import ec.tstoolkit.design.Development;
+
+/**
+ * Cache-blocked, loop-unrolled kernels for the products of matrices stored in
+ * column-major order (same conventions as the BLAS: start position and leading
+ * dimension of each operand). The products of Matrix, SubMatrix and
+ * SymmetricMatrix (times, product, XtX, XXt) are routed through these kernels
+ * when the blocked implementation is selected and when the problem is large
+ * enough.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+public final class MatrixKernels {
+
+    /**
+     * Implementation of the products
+     */
+    public static enum Implementation {
+
+        /**
+         * Straightforward loops (historical implementation)
+         */
+        Reference,
+        /**
+         * Cache-blocked and unrolled kernels
+         */
+        Blocked
+    }
+
+    // rows of the panels of A (gemm) and depth of the panels
+    private static final int MB = 128, KB = 128;
+    // depth of the blocks of the dot products
+    private static final int LB = 256;
+    // number of multiplications under which the reference loops are used
+    private static final long MIN_WORK = 512;
+    private static final int FULL = 0, LOWER = 1, UPPER = 2;
+
+    private static volatile Implementation implementation_ = Implementation.Blocked;
+
+    private MatrixKernels() {
+    }
+
+    /**
+     * Gets the implementation of the products
+     *
+     * @return Blocked by default
+     */
+    public static Implementation getImplementation() {
+        return implementation_;
+    }
+
+    /**
+     * Sets the implementation of the products. The choice can be changed at
+     * any time (it is considered for each product).
+     *
+     * @param implementation The new implementation
+     */
+    public static void setImplementation(Implementation implementation) {
+        implementation_ = implementation == null ? Implementation.Blocked : implementation;
+    }
+
+    /**
+     * Checks that the blocked kernels should be used for a product of
+     * dimensions m x k and k x n.
+     *
+     * @param m
+     * @param n
+     * @param k
+     * @return
+     */
+    public static boolean isUsed(int m, int n, int k) {
+        return implementation_ == Implementation.Blocked && (long) m * n * k >= MIN_WORK;
+    }
+
+    /**
+     * C := alpha*op(A)*op(B) + beta*C, where op(X) is X or X'. op(A) is m x k,
+     * op(B) is k x n and C is m x n. When beta is 0, C need not be set on
+     * entry.
+     *
+     * @param transa
+     * @param transb
+     * @param m
+     * @param n
+     * @param k
+     * @param alpha
+     * @param a
+     * @param ia
+     * @param lda
+     * @param b
+     * @param ib
+     * @param ldb
+     * @param beta
+     * @param c
+     * @param ic
+     * @param ldc
+     */
+    public static void gemm(boolean transa, boolean transb, int m, int n, int k,
+            double alpha, double[] a, int ia, int lda, double[] b, int ib, int ldb,
+            double beta, double[] c, int ic, int ldc) {
+        if (m == 0 || n == 0) {
+            return;
+        }
+        scale(FULL, m, n, beta, c, ic, ldc);
+        if (alpha == 0 || k == 0) {
+            return;
+        }
+        if (!transa) {
+            if (transb) {
+                // B(l, j) = b[ib + j + l * ldb]
+                columns(FULL, m, n, k, alpha, a, ia, lda, b, ib, ldb, 1, c, ic, ldc);
+            } else {
+                columns(FULL, m, n, k, alpha, a, ia, lda, b, ib, 1, ldb, c, ic, ldc);
+            }
+        } else if (!transb) {
+            dots(FULL, m, n, k, alpha, a, ia, lda, b, ib, ldb, c, ic, ldc);
+        } else {
+            for (int j = 0, cj = ic; j < n; ++j, cj += ldc) {
+                for (int i = 0, ai = ia; i < m; ++i, ai += lda) {
+                    double s = 0;
+                    for (int l = 0, bl = ib + j; l < k; ++l, bl += ldb) {
+                        s += a[ai + l] * b[bl];
+                    }
+                    c[cj + i] += alpha * s;
+                }
+            }
+        }
+    }
+
+    /**
+     * C := alpha*A*A' + beta*C (trans = false) or C := alpha*A'*A + beta*C
+     * (trans = true). C is n x n; only its lower (or upper) triangular part is
+     * referenced.
+     *
+     * @param lower
+     * @param trans
+     * @param n
+     * @param k
+     * @param alpha
+     * @param a
+     * @param ia
+     * @param lda
+     * @param beta
+     * @param c
+     * @param ic
+     * @param ldc
+     */
+    public static void syrk(boolean lower, boolean trans, int n, int k, double alpha,
+            double[] a, int ia, int lda, double beta, double[] c, int ic, int ldc) {
+        if (n == 0) {
+            return;
+        }
+        int tri = lower ? LOWER : UPPER;
+        scale(tri, n, n, beta, c, ic, ldc);
+        if (alpha == 0 || k == 0) {
+            return;
+        }
+        if (trans) {
+            dots(tri, n, n, k, alpha, a, ia, lda, a, ia, lda, c, ic, ldc);
+        } else {
+            columns(tri, n, n, k, alpha, a, ia, lda, a, ia, lda, 1, c, ic, ldc);
+        }
+    }
+
+    /**
+     * y := alpha*op(A)*x + beta*y, where op(A) is A (m x n) or A' (n x m).
+     *
+     * @param trans
+     * @param m
+     * @param n
+     * @param alpha
+     * @param a
+     * @param ia
+     * @param lda
+     * @param x
+     * @param ix
+     * @param incx
+     * @param beta
+     * @param y
+     * @param iy
+     * @param incy
+     */
+    public static void gemv(boolean trans, int m, int n, double alpha, double[] a,
+            int ia, int lda, double[] x, int ix, int incx, double beta,
+            double[] y, int iy, int incy) {
+        if (m == 0 || n == 0) {
+            return;
+        }
+        int leny = trans ? n : m;
+        if (beta == 0) {
+            for (int i = 0, j = iy; i < leny; ++i, j += incy) {
+                y[j] = 0;
+            }
+        } else if (beta != 1) {
+            for (int i = 0, j = iy; i < leny; ++i, j += incy) {
+                y[j] *= beta;
+            }
+        }
+        if (alpha == 0) {
+            return;
+        }
+        if (trans) {
+            int j = 0, jy = iy;
+            for (; j + 3 < n; j += 4) {
+                int a0 = ia + j * lda, a1 = a0 + lda, a2 = a1 + lda, a3 = a2 + lda;
+                double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+                for (int i = 0, px = ix; i < m; ++i, px += incx) {
+                    double xi = x[px];
+                    s0 += a[a0 + i] * xi;
+                    s1 += a[a1 + i] * xi;
+                    s2 += a[a2 + i] * xi;
+                    s3 += a[a3 + i] * xi;
+                }
+                y[jy] += alpha * s0;
+                jy += incy;
+                y[jy] += alpha * s1;
+                jy += incy;
+                y[jy] += alpha * s2;
+                jy += incy;
+                y[jy] += alpha * s3;
+                jy += incy;
+            }
+            for (; j < n; ++j, jy += incy) {
+                int a0 = ia + j * lda;
+                double s = 0;
+                for (int i = 0, px = ix; i < m; ++i, px += incx) {
+                    s += a[a0 + i] * x[px];
+                }
+                y[jy] += alpha * s;
+            }
+        } else {
+            int j = 0, jx = ix;
+            for (; j + 3 < n; j += 4, jx += 4 * incx) {
+                double x0 = alpha * x[jx], x1 = alpha * x[jx + incx],
+                        x2 = alpha * x[jx + 2 * incx], x3 = alpha * x[jx + 3 * incx];
+                int a0 = ia + j * lda, a1 = a0 + lda, a2 = a1 + lda, a3 = a2 + lda;
+                for (int i = 0, py = iy; i < m; ++i, py += incy) {
+                    y[py] += x0 * a[a0 + i] + x1 * a[a1 + i] + x2 * a[a2 + i] + x3 * a[a3 + i];
+                }
+            }
+            for (; j < n; ++j, jx += incx) {
+                double x0 = alpha * x[jx];
+                if (x0 != 0) {
+                    int a0 = ia + j * lda;
+                    for (int i = 0, py = iy; i < m; ++i, py += incy) {
+                        y[py] += x0 * a[a0 + i];
+                    }
+                }
+            }
+        }
+    }
+
+    private static int first(int tri, int j) {
+        return tri == LOWER ? j : 0;
+    }
+
+    private static int last(int tri, int m, int j) {
+        return tri == UPPER ? Math.min(m, j + 1) : m;
+    }
+
+    private static void scale(int tri, int m, int n, double beta, double[] c, int ic, int ldc) {
+        if (beta == 1) {
+            return;
+        }
+        for (int j = 0, cj = ic; j < n; ++j, cj += ldc) {
+            int i0 = first(tri, j), i1 = last(tri, m, j);
+            if (beta == 0) {
+                for (int i = i0; i < i1; ++i) {
+                    c[cj + i] = 0;
+                }
+            } else {
+                for (int i = i0; i < i1; ++i) {
+                    c[cj + i] *= beta;
+                }
+            }
+        }
+    }
+
+    /**
+     * C(i, j) += alpha * sum(A(i, l) * B(l, j)), computed by (unrolled) linear
+     * combinations of the columns of A. B(l, j) = b[ib + l * bl + j * bj].
+     * Panels of A of at most MB x KB elements are reused for all the columns of
+     * C.
+     */
+    private static void columns(int tri, int m, int n, int k, double alpha,
+            double[] a, int ia, int lda, double[] b, int ib, int bl, int bj,
+            double[] c, int ic, int ldc) {
+        for (int r0 = 0; r0 < m; r0 += MB) {
+            int r1 = Math.min(m, r0 + MB);
+            for (int l0 = 0; l0 < k; l0 += KB) {
+                int l1 = Math.min(k, l0 + KB);
+                for (int j = 0, cj = ic, bcur = ib; j < n; ++j, cj += ldc, bcur += bj) {
+                    int i0 = Math.max(r0, first(tri, j)), i1 = Math.min(r1, last(tri, m, j));
+                    if (i0 >= i1) {
+                        continue;
+                    }
+                    int l = l0;
+                    for (; l + 3 < l1; l += 4) {
+                        int pb = bcur + l * bl;
+                        double b0 = b[pb], b1 = b[pb + bl], b2 = b[pb + 2 * bl], b3 = b[pb + 3 * bl];
+                        b0 *= alpha;
+                        b1 *= alpha;
+                        b2 *= alpha;
+                        b3 *= alpha;
+                        int a0 = ia + l * lda, a1 = a0 + lda, a2 = a1 + lda, a3 = a2 + lda;
+                        for (int i = i0; i < i1; ++i) {
+                            c[cj + i] += b0 * a[a0 + i] + b1 * a[a1 + i] + b2 * a[a2 + i] + b3 * a[a3 + i];
+                        }
+                    }
+                    for (; l < l1; ++l) {
+                        double b0 = b[bcur + l * bl];
+                        if (b0 != 0) {
+                            b0 *= alpha;
+                            int a0 = ia + l * lda;
+                            for (int i = i0; i < i1; ++i) {
+                                c[cj + i] += b0 * a[a0 + i];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * C(i, j) += alpha * sum(A(l, i) * B(l, j)), computed by blocks of 2 x 2
+     * dot products on slices of at most LB elements of the columns of A and B.
+     */
+    private static void dots(int tri, int m, int n, int k, double alpha,
+            double[] a, int ia, int lda, double[] b, int ib, int ldb,
+            double[] c, int ic, int ldc) {
+        for (int l0 = 0; l0 < k; l0 += LB) {
+            int nl = Math.min(LB, k - l0);
+            for (int j = 0; j < n; j += 2) {
+                boolean j2 = j + 1 < n;
+                int b0 = ib + l0 + j * ldb, b1 = b0 + ldb;
+                int c0 = ic + j * ldc, c1 = c0 + ldc;
+                int i0 = first(tri, j), i1 = tri == UPPER ? Math.min(m, j + 2) : m;
+                for (int i = i0; i < i1; i += 2) {
+                    int a0 = ia + l0 + i * lda, a1 = a0 + lda;
+                    if (j2 && i + 1 < i1) {
+                        double s00 = 0, s01 = 0, s10 = 0, s11 = 0;
+                        for (int l = 0; l < nl; ++l) {
+                            double x0 = a[a0 + l], x1 = a[a1 + l], y0 = b[b0 + l], y1 = b[b1 + l];
+                            s00 += x0 * y0;
+                            s10 += x1 * y0;
+                            s01 += x0 * y1;
+                            s11 += x1 * y1;
+                        }
+                        if (accept(tri, i, j)) {
+                            c[c0 + i] += alpha * s00;
+                        }
+                        if (accept(tri, i + 1, j)) {
+                            c[c0 + i + 1] += alpha * s10;
+                        }
+                        if (accept(tri, i, j + 1)) {
+                            c[c1 + i] += alpha * s01;
+                        }
+                        if (accept(tri, i + 1, j + 1)) {
+                            c[c1 + i + 1] += alpha * s11;
+                        }
+                    } else {
+                        for (int ii = i, ai = a0; ii < Math.min(i + 2, i1); ++ii, ai += lda) {
+                            if (accept(tri, ii, j)) {
+                                c[c0 + ii] += alpha * dot(a, ai, b, b0, nl);
+                            }
+                            if (j2 && accept(tri, ii, j + 1)) {
+                                c[c1 + ii] += alpha * dot(a, ai, b, b1, nl);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean accept(int tri, int i, int j) {
+        switch (tri) {
+            case LOWER:
+                return i >= j;
+            case UPPER:
+                return i <= j;
+            default:
+                return true;
+        }
+    }
+
+    private static double dot(double[] a, int pa, double[] b, int pb, int n) {
+        double s = 0;
+        for (int l = 0; l < n; ++l) {
+            s += a[pa + l] * b[pb + l];
+        }
+        return s;
+    }
+}
@@ -738,6 +738,9 @@ public class SubMatrix implements Cloneable {
      * @param n
      */
     public void product(final SubMatrix m, final SubMatrix n) {
+        if (MatrixKernels.isUsed(m_nrows, m_ncols, m.m_ncols) && gemm(m, n)) {
+            return;
+        }
         if (m.getColumnsCount() < PROD_THRESHOLD * (m.getRowsCount())) {
             DataBlockIterator cols = columns();
             DataBlockIterator rcols = n.columns();
@@ -766,6 +769,54 @@ public class SubMatrix implements Cloneable {
         }
     }
 
+    /**
+     * Checks that the elements of the sub-matrix are stored by columns (the
+     * rows are contiguous) or by rows (the columns are contiguous), so that
+     * the sub-matrix can be handled by the kernels of MatrixKernels.
+     *
+     * @return
+     */
+    boolean isBlasCompatible() {
+        return (m_row_inc == 1 && m_col_inc > 0) || (m_col_inc == 1 && m_row_inc > 0);
+    }
+
+    /**
+     * True if the sub-matrix is stored by columns (not transposed for the
+     * kernels)
+     *
+     * @return
+     */
+    boolean isColumnMajor() {
+        return m_row_inc == 1 && m_col_inc > 0;
+    }
+
+    /**
+     * Leading dimension of the sub-matrix, considered as stored by columns
+     * (isColumnMajor) or by rows.
+     *
+     * @return
+     */
+    int leadingDimension() {
+        return isColumnMajor() ? m_col_inc : m_row_inc;
+    }
+
+    private boolean gemm(final SubMatrix m, final SubMatrix n) {
+        if (!isBlasCompatible() || !m.isBlasCompatible() || !n.isBlasCompatible()) {
+            return false;
+        }
+        if (isColumnMajor()) {
+            MatrixKernels.gemm(!m.isColumnMajor(), !n.isColumnMajor(), m_nrows, m_ncols, m.m_ncols,
+                    1, m.m_data, m.m_start, m.leadingDimension(), n.m_data, n.m_start, n.leadingDimension(),
+                    0, m_data, m_start, m_col_inc);
+        } else {
+            // this' = n' * m'
+            MatrixKernels.gemm(n.isColumnMajor(), m.isColumnMajor(), m_ncols, m_nrows, m.m_ncols,
+                    1, n.m_data, n.m_start, n.leadingDimension(), m.m_data, m.m_start, m.leadingDimension(),
+                    0, m_data, m_start, m_row_inc);
+        }
+        return true;
+    }
+
     /**
      * Computes the kronecker product of two matrix. This object will contain
      * the results. The dimensions of this object must be equal to the product
@@ -878,8 +878,14 @@ public final class SymmetricMatrix {
      */
     public static Matrix XtX(final Matrix x) throws MatrixException {
         int n = x.getColumnsCount();
-        DataBlockIterator rows = x.columns(), cols = x.columns();
         Matrix o = new Matrix(n, n);
+        int k = x.getRowsCount();
+        if (MatrixKernels.isUsed(n, n, k)) {
+            MatrixKernels.syrk(true, true, n, k, 1, x.data_, 0, k, 0, o.data_, 0, n);
+            fromLower(o);
+            return o;
+        }
+        DataBlockIterator rows = x.columns(), cols = x.columns();
         int idx = 0, c = 0;
         DataBlock col = cols.getData();
         DataBlock row = rows.getData();
@@ -902,6 +908,13 @@ public final class SymmetricMatrix {
      * @param m c x c sub-matrix.
      */
     public static void XtX(final SubMatrix x, final SubMatrix m) {
+        int n = x.m_ncols, k = x.m_nrows;
+        if (MatrixKernels.isUsed(n, n, k) && x.isBlasCompatible() && m.isColumnMajor()) {
+            MatrixKernels.syrk(true, x.isColumnMajor(), n, k, 1, x.m_data, x.m_start, x.leadingDimension(),
+                    0, m.m_data, m.m_start, m.m_col_inc);
+            fromLower(m);
+            return;
+        }
         DataBlockIterator rows = x.columns(), cols = x.columns(), rcols = m
                 .columns();
         int c = 0;
@@ -926,8 +939,14 @@ public final class SymmetricMatrix {
      */
     public static Matrix XXt(final Matrix x) throws MatrixException {
         int n = x.getRowsCount();
-        DataBlockIterator rows = x.rows(), cols = x.rows();
         Matrix o = new Matrix(n, n);
+        int k = x.getColumnsCount();
+        if (MatrixKernels.isUsed(n, n, k)) {
+            MatrixKernels.syrk(true, false, n, k, 1, x.data_, 0, n, 0, o.data_, 0, n);
+            fromLower(o);
+            return o;
+        }
+        DataBlockIterator rows = x.rows(), cols = x.rows();
         int idx = 0, c = 0;
         DataBlock col = cols.getData(), row = rows.getData();
         do {
@@ -949,6 +968,13 @@ public final class SymmetricMatrix {
      * @param m r x r sub-matrix.
      */
     public static void XXt(final SubMatrix x, final SubMatrix m) {
+        int n = x.m_nrows, k = x.m_ncols;
+        if (MatrixKernels.isUsed(n, n, k) && x.isBlasCompatible() && m.isColumnMajor()) {
+            MatrixKernels.syrk(true, !x.isColumnMajor(), n, k, 1, x.m_data, x.m_start, x.leadingDimension(),
+                    0, m.m_data, m.m_start, m.m_col_inc);
+            fromLower(m);
+            return;
+        }
         DataBlockIterator rows = x.rows(), cols = x.rows(), rcols = m
                 .columns();
         int c = 0;
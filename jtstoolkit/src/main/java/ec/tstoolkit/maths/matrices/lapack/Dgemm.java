@@ -18,6 +18,8 @@
 
 package ec.tstoolkit.maths.matrices.lapack;
 
+import ec.tstoolkit.maths.matrices.MatrixKernels;
+
 /**
  * 
  * @author Jean Palate
@@ -211,7 +213,8 @@ public class Dgemm {
 	    info = 13;
 	if (info != 0)
 	    throw new Xerbla("Dgemm", info);
-
+	MatrixKernels.gemm(transa != OP.None, transb != OP.None, m, n, k,
+		alpha, a, ia, lda, b, ib, ldb, beta, c, ic, ldc);
     }
     /*
      * // Test the input parameters.
@@ -17,6 +17,8 @@
 
 package ec.tstoolkit.maths.matrices.lapack;
 
+import ec.tstoolkit.maths.matrices.MatrixKernels;
+
 /**
  * 
  * @author Jean Palate
@@ -132,6 +134,11 @@ public class Dgemv {
 	// Quick return if possible.
 	if (m == 0 || n == 0 || (alpha == ZERO && beta == ONE))
 	    return;
+	if (MatrixKernels.getImplementation() == MatrixKernels.Implementation.Blocked) {
+	    MatrixKernels.gemv(trans != OP.None, m, n, alpha, a, ia, lda, x, ix,
+		    incx, beta, y, iy, incy);
+	    return;
+	}
 	int leny;// , kx, ky;
 
 	if (trans == OP.None)
@@ -17,6 +17,8 @@
 
 package ec.tstoolkit.maths.matrices.lapack;
 
+import ec.tstoolkit.maths.matrices.MatrixKernels;
+
 /**
  * 
  * @author Jean Palate
@@ -167,7 +169,10 @@ public class Dsyrk {
 	// Quick return if possible.
 	if (n == 0 || ((alpha == ZERO || k == 0) && (beta == ONE)))
 	    return;
-	if (alpha == ZERO)
+	if (MatrixKernels.getImplementation() == MatrixKernels.Implementation.Blocked)
+	    MatrixKernels.syrk(uplo == UPLO.Lower, trans != OP.None, n, k, alpha,
+		    a, ia, lda, beta, c, ic, ldc);
+	else if (alpha == ZERO)
 	    fn_zeroalpha(uplo, n, beta, c, ic, ldc);
 	else
 	// Form C := alpha*A*A' + beta*C.
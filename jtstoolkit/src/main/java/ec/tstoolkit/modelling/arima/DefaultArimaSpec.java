@@ -210,6 +210,30 @@ public class DefaultArimaSpec implements Cloneable, InformationSetSerializable {
         return Parameter.hasFixedParameters(phi_) || Parameter.hasFixedParameters(theta_)
                 || Parameter.hasFixedParameters(bphi_) || Parameter.hasFixedParameters(btheta_);
     }
+
+    /**
+     * Checks that the parameters of this specification (typically previous
+     * estimates) can be used as starting values for the estimation of the model
+     * defined by a reference specification: the orders of the models are the
+     * same and the reference doesn't contain fixed parameters
+     *
+     * @param reference The reference specification. Null if the model is
+     * automatically identified (the orders of this specification are used)
+     * @return
+     */
+    public boolean isWarmStartable(DefaultArimaSpec reference) {
+        if (!hasParameters()) {
+            return false;
+        }
+        if (reference == null) {
+            return true;
+        }
+        if (reference.hasFixedParameters() || (reference.isMean() && reference.getMu().isFixed())) {
+            return false;
+        }
+        return getP() == reference.getP() && d_ == reference.d_ && getQ() == reference.getQ()
+                && getBP() == reference.getBP() && bd_ == reference.bd_ && getBQ() == reference.getBQ();
+    }
     
     public void setArimaComponent(SarimaComponent aspec) {
         Parameter m = aspec.getMu();
@@ -27,9 +27,12 @@ import ec.tstoolkit.eco.RegModel;
 import ec.tstoolkit.maths.matrices.Householder;
 import ec.tstoolkit.maths.matrices.LowerTriangularMatrix;
 import ec.tstoolkit.maths.matrices.Matrix;
+import ec.tstoolkit.maths.matrices.MatrixException;
 import ec.tstoolkit.modelling.IRobustStandardDeviationComputer;
 import ec.tstoolkit.timeseries.regression.IOutlierVariable;
+import ec.tstoolkit.timeseries.simplets.TsDomain;
 import ec.tstoolkit.timeseries.simplets.TsPeriod;
+import java.util.Arrays;
 
 /**
  *
@@ -38,11 +41,24 @@ import ec.tstoolkit.timeseries.simplets.TsPeriod;
 @Development(status = Development.Status.Preliminary)
 public class ExactSingleOutlierDetector<T extends IArimaModel> extends AbstractSingleOutlierDetector<T> {
 
+    /**
+     * Default maximum number of values (filtered candidates) kept in memory by
+     * the incremental mode (8 MB). Larger problems are always completely
+     * re-computed.
+     */
+    public static final int DEFAULT_MAX_CACHE = 1 << 20;
+
+    private static final double EPS = 1e-9;
+
     private IArmaFilter m_filter;
     private final IResidualsComputer resComputer;
     private Matrix m_L, m_X;
     private double[] m_yl, m_b, m_w;
+    private int[] m_unused;
     private int m_n;
+    private boolean m_incremental;
+    private int m_maxCache = DEFAULT_MAX_CACHE;
+    private Workspace m_ws;
 
     public ExactSingleOutlierDetector() {
         this(IRobustStandardDeviationComputer.mad());
@@ -77,6 +93,46 @@ public class ExactSingleOutlierDetector<T extends IArimaModel> extends AbstractS
         this.resComputer = resComputer;
     }
 
+    /**
+     * Incremental mode. When the ARMA model and the observations are unchanged
+     * and when the new model only contains an additional regression variable
+     * (typically a new outlier), the filtered candidates of the previous call
+     * are re-used and the Cholesky factor of the regression variables is
+     * updated by a rank-one modification. In the other cases, the statistics
+     * are completely re-computed.
+     *
+     * @param incremental
+     */
+    public void setIncremental(boolean incremental) {
+        m_incremental = incremental;
+        if (!incremental) {
+            m_ws = null;
+        }
+    }
+
+    public boolean isIncremental() {
+        return m_incremental;
+    }
+
+    /**
+     * Sets the maximum number of values (filtered candidates) kept in memory
+     * by the incremental mode. The problems that need more values are
+     * completely re-computed at each call.
+     *
+     * @param value A positive number (0 disables the incremental mode)
+     */
+    public void setMaxCacheSize(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative cache size");
+        }
+        m_maxCache = value;
+        m_ws = null;
+    }
+
+    public int getMaxCacheSize() {
+        return m_maxCache;
+    }
+
     /**
      *
      * @return
@@ -85,15 +141,29 @@ public class ExactSingleOutlierDetector<T extends IArimaModel> extends AbstractS
     protected boolean calc() {
         try {
             RegModel dmodel = getModel().getDModel();
+            if (m_ws != null) {
+                try {
+                    if (m_ws.update(dmodel)) {
+                        return true;
+                    }
+                } catch (MatrixException err) {
+                    // the filter failed on the new variable: complete computation
+                }
+                m_ws = null;
+            }
             m_n = m_filter.initialize(getModel().getArma(), dmodel.getObsCount());
             if (!initialize(dmodel)) {
                 return false;
             }
+            if (m_incremental) {
+                m_ws = Workspace.create(this, dmodel);
+            }
             for (int i = 0; i < getOutlierFactoriesCount(); ++i) {
                 processOutlier(i);
             }
             return true;
         } catch (Exception err) {
+            m_ws = null;
             return false;
         }
     }
@@ -125,6 +195,7 @@ public class ExactSingleOutlierDetector<T extends IArimaModel> extends AbstractS
             Householder qr = new Householder(true);
             qr.decompose(m_X);
             int[] unused = qr.getUnused();
+            m_unused = unused;
             int nx = m_X.getColumnsCount();
             if (unused != null) {
                 nx -= unused.length;
@@ -226,6 +297,9 @@ public class ExactSingleOutlierDetector<T extends IArimaModel> extends AbstractS
                     // lA * lA' * K = L
                     // l'AA^-1l = |l' * lA'^-1|
                     LowerTriangularMatrix.rsolve(m_L, l);
+                    if (m_ws != null) {
+                        m_ws.store(idx, i, u, xx, xy, l.clone());
+                    }
                     // q = l'A^-1l
                     double q = L.dot(L);
                     //
@@ -240,6 +314,9 @@ public class ExactSingleOutlierDetector<T extends IArimaModel> extends AbstractS
                 } else if (xx <= 0) {
                     exclude(i, idx);
                 } else {
+                    if (m_ws != null) {
+                        m_ws.store(idx, i, u, xx, xy, new double[0]);
+                    }
                     setT(i, idx, (xy / (Math.sqrt(xx)) / getMAD()));
                 }
             }
@@ -258,5 +335,219 @@ public class ExactSingleOutlierDetector<T extends IArimaModel> extends AbstractS
         m_X = null;
         m_b = null;
         m_w = null;
+        m_unused = null;
+        if (all) {
+            m_ws = null;
+        }
+    }
+
+    private static double dot(double[] x, double[] y) {
+        double s = 0;
+        for (int i = 0; i < x.length; ++i) {
+            s += x[i] * y[i];
+        }
+        return s;
+    }
+
+    private static double[] toArray(DataBlock x) {
+        double[] a = new double[x.getLength()];
+        x.copyTo(a, 0);
+        return a;
+    }
+
+    private static double[] append(double[] x, double v) {
+        double[] nx = Arrays.copyOf(x, x.length + 1);
+        nx[x.length] = v;
+        return nx;
+    }
+
+    /**
+     * State kept between successive calls in the incremental mode. L is the
+     * lower Cholesky factor of X'X (X = filtered regression variables, stored
+     * by rows) and the statistics of a candidate u are computed by means of
+     * z = L^-1 X'u and zy = L^-1 X'y:
+     * t = (u'y - zy'z) / sqrt(u'u - z'z) / mad
+     */
+    private static class Workspace {
+
+        private final ExactSingleOutlierDetector<?> sod;
+        private final double[] ar, ma, y;
+        private final double var;
+        private final int[] unused;
+        private final TsDomain domain;
+        private final int n;
+        private Matrix x;
+        private double[][] xl, L;
+        private double[] zy;
+        private final double[][][] u, z;
+        private final double[][] xx, xy;
+
+        static Workspace create(ExactSingleOutlierDetector<?> sod, RegModel dmodel) {
+            int n = sod.getModel().getY().getLength();
+            long size = (long) n * sod.m_n * sod.getOutlierFactoriesCount();
+            if (size > sod.m_maxCache) {
+                return null;
+            }
+            return new Workspace(sod, dmodel, n);
+        }
+
+        private Workspace(ExactSingleOutlierDetector<?> sod, RegModel dmodel, int n) {
+            this.sod = sod;
+            this.n = n;
+            domain = sod.getDomain();
+            IArimaModel arma = sod.getModel().getArma();
+            ar = arma.getAR().getWeights();
+            ma = arma.getMA().getWeights();
+            var = arma.getInnovationVariance();
+            y = toArray(dmodel.getY());
+            x = dmodel.variables();
+            int nx = sod.m_L == null ? 0 : sod.m_L.getColumnsCount();
+            unused = sod.m_unused == null ? new int[0] : sod.m_unused.clone();
+            Arrays.sort(unused);
+            xl = new double[nx][];
+            L = new double[nx][];
+            zy = new double[nx];
+            for (int i = 0; i < nx; ++i) {
+                xl[i] = toArray(sod.m_X.column(i));
+                L[i] = new double[i + 1];
+                sod.m_L.row(i).range(0, i + 1).copyTo(L[i], 0);
+                zy[i] = sod.m_w[i];
+            }
+            rsolve(zy);
+            int nf = sod.getOutlierFactoriesCount();
+            u = new double[nf][n][];
+            z = new double[nf][n][];
+            xx = new double[nf][n];
+            xy = new double[nf][n];
+        }
+
+        void store(int idx, int pos, double[] ucur, double uu, double uy, double[] zcur) {
+            u[idx][pos] = ucur;
+            xx[idx][pos] = uu;
+            xy[idx][pos] = uy;
+            z[idx][pos] = zcur;
+        }
+
+        /**
+         * Updates the statistics for a model which only differs from the
+         * previous one by an additional regression variable (last column).
+         *
+         * @param dmodel The new (differenced) model
+         * @return false if the update is not possible
+         */
+        boolean update(RegModel dmodel) {
+            IArimaModel arma = sod.getModel().getArma();
+            if (var != arma.getInnovationVariance()
+                    || !Arrays.equals(ar, arma.getAR().getWeights())
+                    || !Arrays.equals(ma, arma.getMA().getWeights())) {
+                return false;
+            }
+            if (!domain.equals(sod.getDomain()) || sod.getModel().getY().getLength() != n
+                    || !Arrays.equals(y, toArray(dmodel.getY()))) {
+                return false;
+            }
+            Matrix nx = dmodel.variables();
+            int nx0 = x == null ? 0 : x.getColumnsCount();
+            if (nx == null || nx.getColumnsCount() != nx0 + 1) {
+                return false;
+            }
+            if (nx0 > 0) {
+                double[] cur = nx.internalStorage(), prev = x.internalStorage();
+                for (int i = 0; i < prev.length; ++i) {
+                    if (cur[i] != prev[i]) {
+                        return false;
+                    }
+                }
+            }
+            int nf = sod.getOutlierFactoriesCount();
+            if (nf != u.length) {
+                return false;
+            }
+            for (int idx = 0; idx < nf; ++idx) {
+                for (int i = 0; i < n; ++i) {
+                    if (sod.isDefined(i, idx) && u[idx][i] == null) {
+                        return false;
+                    }
+                }
+            }
+            // filtered new variable
+            double[] xf = new double[sod.m_n];
+            sod.m_filter.filter(nx.column(nx0), new DataBlock(xf));
+            double[] zx = new double[L.length];
+            for (int i = 0; i < zx.length; ++i) {
+                zx[i] = dot(xl[i], xf);
+            }
+            rsolve(zx);
+            double xf2 = dot(xf, xf);
+            double rho2 = xf2 - dot(zx, zx);
+            if (rho2 <= EPS * xf2) {
+                return false;
+            }
+            double rho = Math.sqrt(rho2);
+            // new row of the Cholesky factor
+            int m = L.length;
+            L = Arrays.copyOf(L, m + 1);
+            L[m] = append(zx, rho);
+            xl = Arrays.copyOf(xl, m + 1);
+            xl[m] = xf;
+            zy = append(zy, (dot(xf, sod.m_yl) - dot(zx, zy)) / rho);
+            x = nx;
+
+            // mad
+            double[] b = zy.clone();
+            lsolve(b);
+            double[] c = new double[b.length + unused.length];
+            for (int i = 0, j = 0, k = 0; i < c.length; ++i) {
+                if (k < unused.length && unused[k] == i) {
+                    ++k;
+                } else {
+                    c[i] = b[j++];
+                }
+            }
+            DataBlock e = dmodel.calcRes(new DataBlock(c));
+            sod.getStandardDeviationComputer().compute(sod.filter(e));
+            double mad = sod.getMAD();
+
+            for (int idx = 0; idx < nf; ++idx) {
+                for (int i = 0; i < n; ++i) {
+                    if (sod.isDefined(i, idx)) {
+                        double[] zcur = z[idx][i];
+                        double zn = (dot(xf, u[idx][i]) - dot(zx, zcur)) / rho;
+                        zcur = append(zcur, zn);
+                        z[idx][i] = zcur;
+                        double q = xx[idx][i] - dot(zcur, zcur);
+                        if (q <= 0) {
+                            sod.exclude(i, idx);
+                        } else {
+                            sod.setT(i, idx, (xy[idx][i] - dot(zy, zcur)) / Math.sqrt(q) / mad);
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        // L^-1 * b
+        private void rsolve(double[] b) {
+            for (int i = 0; i < b.length; ++i) {
+                double[] row = L[i];
+                double s = b[i];
+                for (int j = 0; j < i; ++j) {
+                    s -= row[j] * b[j];
+                }
+                b[i] = s / row[i];
+            }
+        }
+
+        // L'^-1 * b
+        private void lsolve(double[] b) {
+            for (int i = b.length - 1; i >= 0; --i) {
+                double s = b[i];
+                for (int j = i + 1; j < b.length; ++j) {
+                    s -= L[j][i] * b[j];
+                }
+                b[i] = s / L[i][i];
+            }
+        }
     }
 }
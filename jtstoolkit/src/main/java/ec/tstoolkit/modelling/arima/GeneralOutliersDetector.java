@@ -86,6 +86,8 @@ public class GeneralOutliersDetector
 
     private boolean m_mvx = true;
 
+    private boolean m_incremental;
+
     private int m_n;
 
     /**
@@ -171,7 +173,7 @@ public class GeneralOutliersDetector
     }
 
     private boolean execute() {
-	boolean changed = false;
+	boolean changed = false, pending = false;
 	double max = 0;
 	m_round = 0;
 
@@ -183,16 +185,26 @@ public class GeneralOutliersDetector
 		m_round++;
 		IOutlierVariable o = m_sod.getMaxOutlier();
 		addOutlier(o);
-		reestimatemodel();
+		if (m_incremental) {
+		    // the arima model is re-estimated at the end of the forward pass
+		    m_sod.process(m_model);
+		    pending = true;
+		} else
+		    reestimatemodel();
 		changed = true;
 		/*
 		 * int v = verifymodel(m_cv); if (v == -1) break; else if (v ==
 		 * 0) reestimatemodel();
 		 */
 		// updatesod();
+	    } else if (pending) {
+		reestimatemodel();
+		pending = false;
 	    } else
 		break;// no outliers to remove...
 	} while (m_round < m_maxiter);
+	if (pending)
+	    reestimatemodel();
 	// if (m_round == m_maxiter)
 	// throw new Nbb.Utilities.NbbException();
 
@@ -454,6 +466,34 @@ public class GeneralOutliersDetector
 	m_mvx = value;
     }
 
+    /**
+     * Forward pass with a fixed arima model: the outliers are added one by
+     * one without re-estimation of the arima model, which is only re-estimated
+     * when no more outlier is found (the search is then resumed with the new
+     * model). The statistics of the candidates are then updated incrementally
+     * by exact detectors.
+     * The outliers are selected with a model that is not re-estimated after
+     * each new outlier, so that the detected outliers may differ from the
+     * ones of the default procedure. That's why the option is disabled by
+     * default.
+     * @param value
+     */
+    public void useIncrementalDetection(boolean value)
+    {
+	m_incremental = value;
+	if (m_sod instanceof ExactSingleOutlierDetector)
+	    ((ExactSingleOutlierDetector) m_sod).setIncremental(value);
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public boolean isIncrementalDetection()
+    {
+	return m_incremental;
+    }
+
     private int verifymodel(double cv) {
 	if (m_model == null)
 	    return 1;
@@ -53,7 +53,11 @@ public class RegArimaEstimator implements IRegArimaProcessor<SarimaModel> {
         Zero,
         Default,
         HannanRissanen,
-        Multiple
+        Multiple,
+        /**
+         * Current parameters of the model (typically previous estimates)
+         */
+        Current
     }
     public static final double DEF_EPS = 1e-7, DEF_INTERNAL_EPS = 1e-4;
     protected double eps_ = DEF_EPS, feps_;
@@ -111,6 +115,9 @@ public class RegArimaEstimator implements IRegArimaProcessor<SarimaModel> {
         if (mapping_.getDim() == 0 ) {
             return new RegArimaEstimation<>(regs, regs.computeLikelihood());
         }
+        if (start_ == StartingPoint.Current) {
+            return optimize(regs);
+        }
         SarimaModel start;
         if (start_ == StartingPoint.HannanRissanen || start_ == StartingPoint.Multiple) {
             SarimaInitializer initializer = new SarimaInitializer();
@@ -16,6 +16,7 @@
  */
 package ec.tstoolkit.modelling.arima.tramo;
 
+import ec.tstoolkit.algorithm.ProcessingExecutors;
 import ec.tstoolkit.arima.estimation.ArmaKF;
 import ec.tstoolkit.data.DataBlock;
 import ec.tstoolkit.data.IReadDataBlock;
@@ -27,15 +28,49 @@ import ec.tstoolkit.sarima.SarimaModel;
 import ec.tstoolkit.sarima.SarimaSpecification;
 import ec.tstoolkit.sarima.SarmaSpecification;
 import ec.tstoolkit.sarima.estimation.HannanRissanen;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
+ * Automatic identification of the ARMA orders (TRAMO).
+ * <br>
+ * The Hannan-Rissanen estimations of the candidate models of each step are
+ * independent. They can be computed in parallel, on the executor given by
+ * setExecutor (sequential computation by default). The results don't depend on
+ * the executor: models with the same BIC are ranked in the order of the grid of
+ * candidates.
  *
  * @author Jean Palate
  */
 @Development(status = Development.Status.Preliminary)
 public class ArmaModule implements IPreprocessingModule {
 
+    private static volatile ExecutorService defaultExecutor;
+
+    /**
+     * Gets the executor used by default by the new modules
+     *
+     * @return The default executor. Null for a sequential estimation (default)
+     */
+    public static ExecutorService getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    /**
+     * Sets the executor used by default by the new modules (for instance
+     * ProcessingExecutors.getDefault())
+     *
+     * @param executor The executor. Null for a sequential estimation
+     */
+    public static void setDefaultExecutor(ExecutorService executor) {
+        defaultExecutor = executor;
+    }
+
     // returns the first inic value that can be estimated
     static int comespa(final int freq, final int n, final int inic, final int d, final int bd, final boolean seas) {
         for (int i = inic; i > 0; --i) {
@@ -160,6 +195,7 @@ public class ArmaModule implements IPreprocessingModule {
     private final int m_nmod;
     private static final int NMOD = 5;
     private boolean acceptwn = false;
+    private ExecutorService m_executor = defaultExecutor;
 
     @Override
     public ProcessingResult process(ModellingContext context) {
@@ -276,6 +312,30 @@ public class ArmaModule implements IPreprocessingModule {
         return this.acceptwn;
     }
 
+    /**
+     *
+     * @return The executor used for the estimation of the candidate models
+     * (null for a sequential estimation)
+     */
+    public ExecutorService getExecutor() {
+        return m_executor;
+    }
+
+    /**
+     * Sets the executor used for the estimation of the candidate models.
+     *
+     * @param executor The executor. Null for a sequential estimation
+     */
+    public void setExecutor(ExecutorService executor) {
+        m_executor = executor;
+    }
+
+    private ArmaModule newStep() {
+        ArmaModule step = new ArmaModule();
+        step.m_executor = m_executor;
+        return step;
+    }
+
     /**
      *
      * @return
@@ -428,6 +488,16 @@ public class ArmaModule implements IPreprocessingModule {
      * @return
      */
     public int sort(final IReadDataBlock data, final SarmaSpecification maxspec) {
+        return sort(new HannanRissanen.SharedData(data), maxspec);
+    }
+
+    /**
+     *
+     * @param data
+     * @param maxspec
+     * @return
+     */
+    public int sort(final HannanRissanen.SharedData data, final SarmaSpecification maxspec) {
         int nspecs = (maxspec.getP() + 1) * (maxspec.getQ() + 1)
                 * (maxspec.getBP() + 1) * (maxspec.getBQ() + 1);
         SarmaSpecification[] specs = new SarmaSpecification[nspecs];
@@ -457,17 +527,23 @@ public class ArmaModule implements IPreprocessingModule {
      * @return
      */
     public int sort(final IReadDataBlock data, final SarmaSpecification[] specs) {
+        return sort(new HannanRissanen.SharedData(data), specs);
+    }
+
+    /**
+     *
+     * @param data
+     * @param specs
+     * @return
+     */
+    public int sort(final HannanRissanen.SharedData data, final SarmaSpecification[] specs) {
         m_hrs = null;
+        HRBic[] all = compute(data, specs);
         HRBic[] hrs = new HRBic[specs.length];
         int n = 0;
-        for (int i = 0; i < specs.length; ++i) {
-            HannanRissanen hr = new HannanRissanen();
-            if (hr.process(data, specs[i])) {
-                SarimaModel m = hr.getModel();
-                if (!m.adjustSpecification() && m.isStable(true)) {
-                    HRBic hrbic = new HRBic(hr);
-                    hrs[n++] = hrbic;
-                }
+        for (int i = 0; i < all.length; ++i) {
+            if (all[i] != null) {
+                hrs[n++] = all[i];
             }
         }
         if (n == 0) {
@@ -478,10 +554,54 @@ public class ArmaModule implements IPreprocessingModule {
         for (int i = 0; i < n; ++i) {
             m_hrs[i] = hrs[i];
         }
+        // stable sort: the order of the candidates is kept for equal BIC
         Arrays.sort(m_hrs);
         return n;
     }
 
+    private static HRBic compute(final HannanRissanen.SharedData data, final SarmaSpecification spec) {
+        HannanRissanen hr = new HannanRissanen();
+        if (hr.process(data, spec)) {
+            SarimaModel m = hr.getModel();
+            if (!m.adjustSpecification() && m.isStable(true)) {
+                return new HRBic(hr);
+            }
+        }
+        return null;
+    }
+
+    private HRBic[] compute(final HannanRissanen.SharedData data, final SarmaSpecification[] specs) {
+        HRBic[] hrs = new HRBic[specs.length];
+        if (m_executor != null && specs.length > 1) {
+            List<Callable<HRBic>> tasks = new ArrayList<>(specs.length);
+            for (final SarmaSpecification spec : specs) {
+                tasks.add(() -> compute(data, spec));
+            }
+            try {
+                List<Future<HRBic>> futures = ProcessingExecutors.invokeAll(m_executor, tasks);
+                for (int i = 0; i < hrs.length; ++i) {
+                    hrs[i] = futures.get(i).get();
+                }
+                return hrs;
+            } catch (ExecutionException err) {
+                Throwable cause = err.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            } catch (InterruptedException ex) {
+                // sequential computation
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (int i = 0; i < specs.length; ++i) {
+            hrs[i] = compute(data, specs[i]);
+        }
+        return hrs;
+    }
+
     private SarmaSpecification getPreferredSpecification() {
         if (m_hrs.length == 1) {
             return m_hrs[0].m_hr.getSpec().clone();
@@ -504,6 +624,20 @@ public class ArmaModule implements IPreprocessingModule {
      */
     public HannanRissanen tramo(final IReadDataBlock data,
             final SarmaSpecification maxspec, final int d, final int bd, final boolean seas) {
+        return tramo(new HannanRissanen.SharedData(data), maxspec, d, bd, seas);
+    }
+
+    /**
+     *
+     * @param data
+     * @param maxspec
+     * @param d
+     * @param bd
+     * @param seas
+     * @return
+     */
+    public HannanRissanen tramo(final HannanRissanen.SharedData data,
+            final SarmaSpecification maxspec, final int d, final int bd, final boolean seas) {
         clear();
         // step I
         int gpr = maxspec.getP(), gqr = maxspec.getQ(), gps = maxspec.getBP(), gqs = maxspec.getBQ();
@@ -530,7 +664,7 @@ public class ArmaModule implements IPreprocessingModule {
                 }
             }
 
-            ArmaModule step0 = new ArmaModule();
+            ArmaModule step0 = newStep();
             nmax = step0.sort(data, specs);
             if (0 == nmax) {
                 for (int i = 0; i < specs.length; ++i) {
@@ -559,7 +693,7 @@ public class ArmaModule implements IPreprocessingModule {
             }
         }
 
-        ArmaModule step1 = new ArmaModule();
+        ArmaModule step1 = newStep();
         nmax = step1.sort(data, specs);
         if (0 == nmax) {
             return null;
@@ -580,7 +714,7 @@ public class ArmaModule implements IPreprocessingModule {
                 }
             }
 
-            step2 = new ArmaModule();
+            step2 = newStep();
             if (0 == step2.sort(data, specs)) {
                 return null;
             }
@@ -593,7 +727,7 @@ public class ArmaModule implements IPreprocessingModule {
                 return m_hrs[0].getHR();
             }
         } else {
-            return select(data, d, bd);
+            return select(data.getData(), d, bd);
         }
     }
 
@@ -17,6 +17,7 @@
 package ec.tstoolkit.modelling.arima.tramo;
 
 import ec.tstoolkit.Parameter;
+import ec.tstoolkit.algorithm.ProcessingInstrumentation;
 import ec.tstoolkit.arima.estimation.RegArimaEstimation;
 import ec.tstoolkit.arima.estimation.RegArimaModel;
 import ec.tstoolkit.data.IReadDataBlock;
@@ -54,6 +55,13 @@ import java.util.List;
 @Development(status = Development.Status.Preliminary)
 public class TramoProcessor extends AbstractTramoModule implements IPreprocessor {
 
+    /**
+     * Names of the instrumented stages (see ProcessingInstrumentation)
+     */
+    public static final String TRANSFORMATION = "tramo.transformation", CALENDAR = "tramo.calendar",
+            DIFFERENCING = "tramo.differencing", ARIMA = "tramo.arima", OUTLIERS = "tramo.outliers",
+            REGRESSION = "tramo.regression", CONTROLLERS = "tramo.controllers", ESTIMATION = "tramo.estimation";
+
     public TsPeriodSelector estimationSpan;
     public SeasonalityDetector seas;
     public IModelBuilder builder;
@@ -80,11 +88,30 @@ public class TramoProcessor extends AbstractTramoModule implements IPreprocessor
     private ModelStatistics refstats_;
     private boolean needOutliers_;
     private boolean needAutoModelling_;
+    private boolean warmStart_;
     //private int refsens_;
 
     public TramoProcessor() {
     }
 
+    public boolean isWarmStart() {
+        return warmStart_;
+    }
+
+    /**
+     * Enables the warm start of the estimation of fully specified models:
+     * when the ARIMA parameters are provided as initial values (typically
+     * previous estimates), the model is estimated starting from them. By
+     * default (disabled), such parameters are kept as they are when the
+     * model doesn't contain any outliers detection. In the other cases, the
+     * estimation always starts from the provided parameters.
+     *
+     * @param warmStart
+     */
+    public void setWarmStart(boolean warmStart) {
+        warmStart_ = warmStart;
+    }
+
     private PreprocessingModel calc(ModellingContext context) {
         // Step 1.
         // Initial adjustments:
@@ -122,8 +149,16 @@ public class TramoProcessor extends AbstractTramoModule implements IPreprocessor
                 ModelDescription model = context.description;
                 RegArimaModel<SarimaModel> regarima = model.buildRegArima();
                 TramoModelEstimator monitor = new TramoModelEstimator(mapping);
-                monitor.getMinimizer().setMaxIter(1);
-                monitor.optimize(regarima);
+                if (warmStart_) {
+                    // the provided parameters are only the starting point
+                    RegArimaEstimation<SarimaModel> rslt = monitor.optimize(regarima);
+                    if (rslt != null) {
+                        regarima = rslt.model;
+                    }
+                } else {
+                    monitor.getMinimizer().setMaxIter(1);
+                    monitor.optimize(regarima);
+                }
                 ModelEstimation estimation = new ModelEstimation(regarima, model.getLikelihoodCorrection());
                 estimation.computeLikelihood(mapping.getDim());
                 estimation.updateParametersCovariance(monitor.getParametersCovariance());
@@ -134,12 +169,12 @@ public class TramoProcessor extends AbstractTramoModule implements IPreprocessor
             checkSeasonality(context);
             // log/level...
             if (loglevelTest != null) {
-                loglevelTest.process(context);
+                ProcessingInstrumentation.time(TRANSFORMATION, () -> loglevelTest.process(context));
 //                addLogLevelHistory(context);
             }
             // regression effects
             if (regressionTest != null) {
-                regressionTest.process(context);
+                ProcessingInstrumentation.time(CALENDAR, () -> regressionTest.process(context));
 //                addRegressionHistory(context);
             }
 
@@ -250,7 +285,7 @@ public class TramoProcessor extends AbstractTramoModule implements IPreprocessor
 //                addRegressionHistory(context);
 //                return false;
 //            }
-            if (regressionTest3.process(context) != ProcessingResult.Unchanged) {
+            if (ProcessingInstrumentation.time(REGRESSION, () -> regressionTest3.process(context)) != ProcessingResult.Unchanged) {
 //                addRegressionHistory(context);
                 pass_ = 4;
                 needAutoModelling_ = false;
@@ -275,9 +310,9 @@ public class TramoProcessor extends AbstractTramoModule implements IPreprocessor
                     }
                 }
             }
-            control(context, estimator);
+            ProcessingInstrumentation.time(CONTROLLERS, () -> control(context, estimator));
             return true;
-        } else if (finalizer.estimate(context)) {
+        } else if (estimate(context)) {
             return true;
         } else {
             context.information.addError("Tramo final estimation failed");
@@ -339,7 +374,7 @@ public class TramoProcessor extends AbstractTramoModule implements IPreprocessor
             context.description.setSpecification(
                     new SarimaSpecification(context.description.getFrequency()));
         }
-        ProcessingResult drslt = differencing.process(context);
+        ProcessingResult drslt = ProcessingInstrumentation.time(DIFFERENCING, () -> differencing.process(context));
         SarimaSpecification curspec = context.description.getSpecification();
 
         boolean changed = drslt == ProcessingResult.Changed;
@@ -367,7 +402,7 @@ public class TramoProcessor extends AbstractTramoModule implements IPreprocessor
 
     private boolean execAutoModelling(ModellingContext context) {
         SarimaSpecification prevspec = context.description.getSpecification();
-        ProcessingResult autorslt = autoModelling.process(context);
+        ProcessingResult autorslt = ProcessingInstrumentation.time(ARIMA, () -> autoModelling.process(context));
         SarimaSpecification curspec = context.description.getSpecification();
         if (curspec.getParametersCount() == 0) {
             if (pass_ >= 3) {
@@ -396,7 +431,7 @@ public class TramoProcessor extends AbstractTramoModule implements IPreprocessor
         context.estimation = null;
         //}
 
-        ProcessingResult autoout = outliers.process(context);
+        ProcessingResult autoout = ProcessingInstrumentation.time(OUTLIERS, () -> outliers.process(context));
 //        addOutliersHistory(context);
         return autoout == ProcessingResult.Changed;
     }
@@ -772,7 +807,7 @@ public class TramoProcessor extends AbstractTramoModule implements IPreprocessor
         finalizer.setPass(pass_);
         int niter = 0;
         do {
-            if (!finalizer.estimate(context)) {
+            if (!estimate(context)) {
                 if (pass_ == 1 && context.automodelling && context.outliers) {
                     outliers.reduceSelectivity();
                 }
@@ -785,6 +820,10 @@ public class TramoProcessor extends AbstractTramoModule implements IPreprocessor
         return true;
     }
 
+    private boolean estimate(ModellingContext context) {
+        return ProcessingInstrumentation.time(ESTIMATION, () -> finalizer.estimate(context));
+    }
+
     private boolean update(ModellingContext context) {
         try {
             if (context.estimation != null) {
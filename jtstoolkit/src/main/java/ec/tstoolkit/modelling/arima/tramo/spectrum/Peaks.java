@@ -102,12 +102,13 @@ public class Peaks {
         DescriptiveStatistics bs = new DescriptiveStatistics(x);
         double an = x.getLength() - bs.getMissingValuesCount();
         double bn = 1.0 / an;
-        double ct0 = 0.0;
+        double[] dx = x.internalStorage(), dy = y.internalStorage();
         for (int i = 0; i < Cxx.length; i++) {
-            double t = ct0;
-            for (int j = 0; j < y.getLength() - i; j++) {
-                if (!x.isMissing(i + j) && !y.isMissing(j)) {
-                    t += x.get(i + j) * y.get(j);
+            double t = 0;
+            for (int j = 0; j < dy.length - i; j++) {
+                double xcur = dx[i + j], ycur = dy[j];
+                if (Double.isFinite(xcur) && Double.isFinite(ycur)) {
+                    t += xcur * ycur;
                 }
             }
             Cxx[i] = t * bn;
@@ -17,6 +17,7 @@
 
 package ec.tstoolkit.modelling.arima.tramo.spectrum;
 
+import ec.tstoolkit.maths.RealFft;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import ec.tstoolkit.timeseries.simplets.TsFrequency;
 import java.util.Arrays;
@@ -108,12 +109,18 @@ public class TPeaks {
         for (int i = 0; i < Win_Size; i++) {
             spect[0] += Cxx[i] * window[i];
         }
+        // real part of the Fourier transform of (Cxx(0)*w(0), 2*Cxx(j)*w(j), ...)
+        double[] g = new double[Win_Size];
+        g[0] = Cxx[0] * window[0];
+        for (int j = 1; j < Win_Size; j++) {
+            g[j] = 2.0 * Cxx[j] * window[j];
+        }
+        int nc = Win_Size / 2 + 1;
+        double[] re = new double[nc], im = new double[nc];
+        RealFft.transform(g, re, im);
         for (int i = 1; i <= Win_Size / 2 + 1; i++) {
-            spect[i] = Cxx[0] * window[0];
-            for (int j = 1; j < Win_Size; j++) {
-                spect[i] += 2.0 * Cxx[j] * window[j] * Math.cos((Math.PI * 2.0 * j * i / Win_Size));
-            }
-
+            // Re(X(i)) = Re(X(n-i))
+            spect[i] = i < nc ? re[i] : re[Win_Size - i];
         }
     }
 
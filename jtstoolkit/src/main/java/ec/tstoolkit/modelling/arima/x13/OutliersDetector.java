@@ -121,6 +121,49 @@ public class OutliersDetector implements IOutliersDetectionModule {
 
     private static final int MAX_OUTLIERS = 30, MAX_ITER = 30;
     private final GlsSarimaMonitor monitor;
+    private boolean warmStart_;
+    private boolean incremental_ = true;
+
+    /**
+     *
+     * @return True if the successive estimations start from the previous ones
+     * (false by default)
+     */
+    public boolean isWarmStart() {
+        return warmStart_;
+    }
+
+    /**
+     * When the warm start is enabled and the ARIMA parameters are provided,
+     * the successive estimations of the model start from the previous ones
+     *
+     * @param warmStart
+     */
+    public void setWarmStart(boolean warmStart) {
+        warmStart_ = warmStart;
+    }
+
+    /**
+     *
+     * @return True if the statistics of the candidates may be updated
+     * incrementally (true by default)
+     */
+    public boolean isIncremental() {
+        return incremental_;
+    }
+
+    /**
+     * When all the ARIMA parameters are fixed, the model is the same for each
+     * new outlier and the exact detector only updates the statistics of the
+     * candidates (see ExactSingleOutlierDetector.setIncremental). The results
+     * are the same as with the complete computation. When some parameters are
+     * estimated, the statistics are always completely re-computed.
+     *
+     * @param incremental
+     */
+    public void setIncremental(boolean incremental) {
+        incremental_ = incremental;
+    }
 
     public double getEpsilon() {
         return monitor.getPrecision();
@@ -147,6 +190,10 @@ public class OutliersDetector implements IOutliersDetectionModule {
             }
             llcorr_ = context.description.getLikelihoodCorrection();
             mapping_ = X13Preprocessor.createDefaultMapping(context.description);
+            if (sod_ instanceof ExactSingleOutlierDetector) {
+                ((ExactSingleOutlierDetector) sod_).setIncremental(incremental_ && mapping_.getDim() == 0);
+            }
+            monitor.setWarmStart(warmStart_ && context.description.getArimaComponent().isDefined());
             if (context.estimation == null) {
                 regarima_ = context.description.buildRegArima();
                 if (!estimateModel()) {
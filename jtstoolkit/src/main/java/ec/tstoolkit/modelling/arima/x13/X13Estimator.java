@@ -33,11 +33,32 @@ import ec.tstoolkit.sarima.SarimaModel;
 public class X13Estimator implements IModelEstimator {
 
     private double eps_ = 1e-7;
+    private boolean warmStart_;
 
     public X13Estimator(double eps) {
         eps_ = eps;
     }
 
+    /**
+     *
+     * @return True if the estimation starts from the provided parameters
+     * (false by default)
+     */
+    public boolean isWarmStart() {
+        return warmStart_;
+    }
+
+    /**
+     * When the warm start is enabled and the ARIMA parameters are provided
+     * (typically previous estimates), the estimation starts from them instead
+     * of the usual initialization
+     *
+     * @param warmStart
+     */
+    public void setWarmStart(boolean warmStart) {
+        warmStart_ = warmStart;
+    }
+
     @Override
     public boolean estimate(ModellingContext context) {
 
@@ -45,6 +66,9 @@ public class X13Estimator implements IModelEstimator {
         RegArimaEstimator monitor = new RegArimaEstimator(mapping);
         monitor.setMinimizer(new LevenbergMarquardtMethod());
         monitor.setPrecision(eps_);
+        if (warmStart_ && context.description.getArimaComponent().isDefined()) {
+            monitor.setStartingPoint(RegArimaEstimator.StartingPoint.Current);
+        }
 
         ModelEstimation estimation = new ModelEstimation(context.description.buildRegArima(),
                 context.description.getLikelihoodCorrection());
@@ -16,6 +16,7 @@
  */
 package ec.tstoolkit.modelling.arima.x13;
 
+import ec.tstoolkit.algorithm.ProcessingInstrumentation;
 import ec.tstoolkit.arima.estimation.RegArimaModel;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.maths.Complex;
@@ -37,6 +38,30 @@ import ec.tstoolkit.timeseries.simplets.TsData;
 @Development(status = Development.Status.Preliminary)
 public class X13Preprocessor implements IPreprocessor {
 
+    /**
+     * Names of the instrumented stages (see ProcessingInstrumentation)
+     */
+    public static final String TRANSFORMATION = "regarima.transformation", CALENDAR = "regarima.calendar",
+            ARIMA = "regarima.arima", OUTLIERS = "regarima.outliers",
+            REGRESSION = "regarima.regression", ESTIMATION = "regarima.estimation";
+
+    /**
+     * Enables the warm start of the estimation of the model and of the
+     * outliers detection: when the ARIMA parameters are provided (typically
+     * previous estimates), the estimations start from them. Disabled by
+     * default.
+     *
+     * @param warmStart
+     */
+    public void setWarmStart(boolean warmStart) {
+        if (estimator instanceof X13Estimator) {
+            ((X13Estimator) estimator).setWarmStart(warmStart);
+        }
+        if (outliers instanceof OutliersDetector) {
+            ((OutliersDetector) outliers).setWarmStart(warmStart);
+        }
+    }
+
     public static IParametricMapping<SarimaModel> createDefaultMapping(ModelDescription desc) {
         SarimaComponent arima = desc.getArimaComponent();
         if (arima.getFixedParametersCount() == 0) {
@@ -131,23 +156,23 @@ public class X13Preprocessor implements IPreprocessor {
 
             checkMu(context, true);
 
-            estimator.estimate(context);
+            estimate(estimator, context);
 
             if (needOutliers_) {
-                ProcessingResult changed = outliers.process(context);
+                ProcessingResult changed = ProcessingInstrumentation.time(OUTLIERS, () -> outliers.process(context));
                 if (context.estimation == null) {
-                    estimator.estimate(context);
+                    estimate(estimator, context);
                 }
                 // Call pass0
                 // The original code of X13 doesn't call pass0 if automatic modelling is not used
                 // however, it should be done.
                 if (changed == ProcessingResult.Changed) {
-                    regressionTest0.process(context);
+                    ProcessingInstrumentation.time(REGRESSION, () -> regressionTest0.process(context));
                 }
             }
             if (needAutoModelling_) {
                 if (context.estimation == null) {
-                    estimator.estimate(context);
+                    estimate(estimator, context);
                 }
 
                 ModelController controller = new ModelController();
@@ -171,16 +196,16 @@ public class X13Preprocessor implements IPreprocessor {
                                 needOutliers_ = outliers != null;
                             }
                             if (context.estimation == null) {
-                                estimator.estimate(context);
+                                estimate(estimator, context);
                             }
                             if (!defModel || loop_ > 1) {
                                 regAIC(context);
                             }
                         }
                         if (needOutliers_) {
-                            outliers.process(context);
+                            ProcessingInstrumentation.time(OUTLIERS, () -> outliers.process(context));
                             if (context.estimation == null) {
-                                estimator.estimate(context);
+                                estimate(estimator, context);
                             }
                         }
                         if (outliers != null && loop_ <= 2) {
@@ -189,13 +214,13 @@ public class X13Preprocessor implements IPreprocessor {
                             }
                         }
                         if (regressionTest1 != null) {
-                            ProcessingResult changed = regressionTest1.process(context);
+                            ProcessingResult changed = ProcessingInstrumentation.time(REGRESSION, () -> regressionTest1.process(context));
                             if (changed == ProcessingResult.Changed) {
                                 if (loop_ < 3) {
                                     loop_ = 3;
                                 }
                                 if (context.estimation == null) {
-                                    estimator.estimate(context);
+                                    estimate(estimator, context);
                                 }
                             }
                         }
@@ -208,7 +233,7 @@ public class X13Preprocessor implements IPreprocessor {
                             }
                         }
 
-                        if (finalizer.estimate(context)) {
+                        if (estimate(finalizer, context)) {
                             break;
                         }
                         if (loop_ <= 2 && outliers != null) {
@@ -219,7 +244,7 @@ public class X13Preprocessor implements IPreprocessor {
                     } while (round_++ < 5);
                 }
             } else {
-                estimator.estimate(context);
+                estimate(estimator, context);
             }
 
             return context.current(true);
@@ -231,6 +256,10 @@ public class X13Preprocessor implements IPreprocessor {
         }
     }
 
+    private static boolean estimate(IModelEstimator estimator, ModellingContext context) {
+        return ProcessingInstrumentation.time(ESTIMATION, () -> estimator.estimate(context));
+    }
+
     public boolean isCheckMu() {
         return checkMu_;
     }
@@ -261,13 +290,13 @@ public class X13Preprocessor implements IPreprocessor {
     protected boolean runTransformations(ModellingContext context) {
         // log/level...
         if (loglevelTest != null) {
-            loglevelTest.process(context);
+            ProcessingInstrumentation.time(TRANSFORMATION, () -> loglevelTest.process(context));
         }
         return true;
     }
 
     private ProcessingResult execAutoModelling(ModellingContext context) {
-        return autoModelling.process(context);
+        return ProcessingInstrumentation.time(ARIMA, () -> autoModelling.process(context));
     }
 
     @Override
@@ -403,7 +432,7 @@ public class X13Preprocessor implements IPreprocessor {
         }
         context.description.setSpecification(nspec);
         //context.description.setOutliers(null);
-        estimator.estimate(context);
+        estimate(estimator, context);
         needAutoModelling_ = false;
         if (outliers != null) {
             outliers.setSelectivity(0);
@@ -413,13 +442,13 @@ public class X13Preprocessor implements IPreprocessor {
 
     private ProcessingResult regAIC(ModellingContext context) {
         ProcessingResult rslt = ProcessingResult.Unchanged;
-        if (tdTest != null && tdTest.process(context) == ProcessingResult.Changed) {
+        if (tdTest != null && ProcessingInstrumentation.time(CALENDAR, () -> tdTest.process(context)) == ProcessingResult.Changed) {
             rslt = ProcessingResult.Changed;
         }
-        if (easterTest != null && easterTest.process(context) == ProcessingResult.Changed) {
+        if (easterTest != null && ProcessingInstrumentation.time(CALENDAR, () -> easterTest.process(context)) == ProcessingResult.Changed) {
             rslt = ProcessingResult.Changed;
         }
-        if (userTest != null && userTest.process(context) == ProcessingResult.Changed) {
+        if (userTest != null && ProcessingInstrumentation.time(REGRESSION, () -> userTest.process(context)) == ProcessingResult.Changed) {
             rslt = ProcessingResult.Changed;
         }
         return rslt;
@@ -466,7 +495,7 @@ public class X13Preprocessor implements IPreprocessor {
     }
 
     private void redoEstimation(ModellingContext context) {
-        estimator.estimate(context);
+        estimate(estimator, context);
         // check mean
         if (context.description.isEstimatedMean()) {
             checkMu(context, false);
@@ -476,13 +505,13 @@ public class X13Preprocessor implements IPreprocessor {
             context.estimation = null;
         }
         if (context.estimation == null) {
-            estimator.estimate(context);
+            estimate(estimator, context);
         }
         if (outliers != null) {
-            outliers.process(context);
+            ProcessingInstrumentation.time(OUTLIERS, () -> outliers.process(context));
         }
         if (context.estimation == null) {
-            estimator.estimate(context);
+            estimate(estimator, context);
         }
         ModelController controller = new ModelController();
         controller.accept(context);
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.random;
+
+import ec.tstoolkit.design.Development;
+
+/**
+ * A splittable pseudorandom number generator that uses the SplitMix64
+ * algorithm. Independent generators can be obtained by splitting an existing
+ * generator or by deriving streams from a seed and an index. The streams are
+ * the basis of reproducible parallel simulations: the numbers generated for
+ * a given task only depend on the seed and on the index of the task, whatever
+ * the order of execution.
+ *
+ * @see http://dx.doi.org/10.1145/2714064.2660195
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+public final class SplitMixRNG extends AbstractRNG {
+
+    // STATIC FACTORY METHODS >
+    public static SplitMixRNG fromSystemNanoTime() {
+        return new SplitMixRNG(System.nanoTime());
+    }
+
+    /**
+     * Creates the generator of a given stream
+     *
+     * @param seed The seed of the family of streams
+     * @param index The index of the stream
+     * @return A new generator, which only depends on the seed and on the index
+     */
+    public static SplitMixRNG stream(final long seed, final long index) {
+        long s = mix64(seed ^ mix64(index + GOLDEN_GAMMA));
+        return new SplitMixRNG(s, mixGamma(s + GOLDEN_GAMMA));
+    }
+    // < STATIC FACTORY METHODS 
+    //
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double LongToDoubleMultiplier = 0x1.0p-53;
+    private long m_seed;
+    private final long m_gamma;
+
+    /**
+     *
+     * @param seed
+     */
+    public SplitMixRNG(final long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SplitMixRNG(final long seed, final long gamma) {
+        m_seed = seed;
+        m_gamma = gamma;
+    }
+
+    /**
+     * Creates a new generator, which is independent of this one. The state of
+     * this generator is modified.
+     *
+     * @return A new generator
+     */
+    public SplitMixRNG split() {
+        return new SplitMixRNG(nextLong(), mixGamma(nextSeed()));
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (mix64(nextSeed()) >>> 32);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (mix64(nextSeed()) >>> 11) * LongToDoubleMultiplier;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return mix64(nextSeed()) < 0;
+    }
+
+    private long nextSeed() {
+        return m_seed += m_gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        // avoids the gammas with too few bit transitions
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -32,6 +32,7 @@ import ec.tstoolkit.sarima.SarimaModel;
 public class GlsSarimaMonitor extends GlsArimaMonitor<SarimaModel> {
 
     private final IarimaInitializer m_initializer;
+    private boolean m_warmstart;
 
     /**
      *
@@ -49,6 +50,22 @@ public class GlsSarimaMonitor extends GlsArimaMonitor<SarimaModel> {
         m_initializer = initializer;
      }
 
+    /**
+     * When the warm start is used, the optimization starts from the current
+     * parameters of the model (typically previous estimates) instead of the
+     * values provided by the initializer. The current parameters are
+     * stabilized if need be.
+     *
+     * @return
+     */
+    public boolean isWarmStart() {
+        return m_warmstart;
+    }
+
+    public void setWarmStart(boolean warmstart) {
+        m_warmstart = warmstart;
+    }
+
     /**
      *
      * @param regs
@@ -57,7 +74,11 @@ public class GlsSarimaMonitor extends GlsArimaMonitor<SarimaModel> {
     @Override
     public SarimaModel initialize(RegArimaModel<SarimaModel> regs) {
 
-        
+        if (m_warmstart) {
+            SarimaModel start = regs.getArma().clone();
+            SarimaMapping.stabilize(start);
+            return start;
+        }
         if (m_initializer != null) {
             return m_initializer.initialize(regs);
         } else {
@@ -27,6 +27,7 @@ import ec.tstoolkit.maths.matrices.Matrix;
 import ec.tstoolkit.maths.matrices.MatrixException;
 import ec.tstoolkit.sarima.SarimaModel;
 import ec.tstoolkit.sarima.SarmaSpecification;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * The Hannan-Rissanen procedure is performed as in TRAMO.
@@ -36,8 +37,51 @@ import ec.tstoolkit.sarima.SarmaSpecification;
 @Development(status = Development.Status.Alpha)
 public class HannanRissanen {
 
+    /**
+     * Pre-computations shared by the Hannan-Rissanen procedures applied on
+     * the same series (with different specifications): the data and the
+     * initial estimates of the innovations, for each order of the long
+     * autoregression. The innovations are computed on demand.
+     * This class is thread-safe.
+     */
+    public static final class SharedData {
+
+        private final double[] data;
+        private final AtomicReferenceArray<double[]> innovations = new AtomicReferenceArray<>(MAXNPI + 1);
+
+        /**
+         *
+         * @param data
+         */
+        public SharedData(final IReadDataBlock data) {
+            this.data = new double[data.getLength()];
+            data.copyTo(this.data, 0);
+        }
+
+        /**
+         *
+         * @return
+         */
+        public IReadDataBlock getData() {
+            return new ReadDataBlock(data);
+        }
+
+        double[] innovations(int npi) {
+            double[] a = innovations.get(npi);
+            if (a == null) {
+                a = HannanRissanen.innovations(data, npi);
+                if (!innovations.compareAndSet(npi, null, a)) {
+                    a = innovations.get(npi);
+                }
+            }
+            return a;
+        }
+    }
+
     private SarimaModel m_model;
 
+    private SharedData m_shared;
+
     private SarmaSpecification m_spec = new SarmaSpecification();
 
     private boolean m_ok;
@@ -208,7 +252,7 @@ public class HannanRissanen {
     }
 
     // step 0 of the process...
-    private double[] initac() {
+    private int initnpi() {
 	int q = m_spec.getQ() + m_spec.getFrequency() * m_spec.getBQ();
 	int p = m_spec.getP() + m_spec.getFrequency() * m_spec.getBP();
 	int n = m_data.length;
@@ -219,25 +263,30 @@ public class HannanRissanen {
 	    npi = n - n / 4;
 	if (npi > MAXNPI)
 	    npi = MAXNPI;
-
-	return DescriptiveStatistics.ac(npi, m_data);
+	return npi;
     }
 
     // compute estimates of innovations
     private void initialize() {
-	int n = m_data.length;
-	m_a = new double[n];
-	double[] ac = initac();
+	int npi = initnpi();
+	m_a = m_shared != null ? m_shared.innovations(npi) : innovations(m_data, npi);
+    }
+
+    private static double[] innovations(double[] data, int npi) {
+	int n = data.length;
+	double[] a = new double[n];
+	double[] ac = DescriptiveStatistics.ac(npi, data);
 	double[] pc = new double[ac.length];
 	DescriptiveStatistics.pac(ac, pc);
 
 	for (int i = 0; i < n; ++i) {
-	    double e = m_data[i];
+	    double e = data[i];
 	    int jmax = ac.length > i ? i : ac.length;
 	    for (int j = 1; j <= jmax; ++j)
-		e -= pc[j - 1] * m_data[i - j];
-	    m_a[i] = e;
+		e -= pc[j - 1] * data[i - j];
+	    a[i] = e;
 	}
+	return a;
     }
 
     // step 1 of the process ... regression
@@ -292,12 +341,28 @@ public class HannanRissanen {
      */
     public boolean process(final IReadDataBlock value, SarmaSpecification spec) {
 	clear();
+	m_shared = null;
 	m_data = new double[value.getLength()];
 	m_spec = spec.clone();
 	value.copyTo(m_data, 0);
 	return calc();
     }
 
+    /**
+     * Same as {@link #process(IReadDataBlock, SarmaSpecification)}, using
+     * pre-computations shared with other procedures on the same series
+     * @param data
+     * @param spec
+     * @return
+     */
+    public boolean process(final SharedData data, SarmaSpecification spec) {
+	clear();
+	m_shared = data;
+	m_data = data.data;
+	m_spec = spec.clone();
+	return calc();
+    }
+
     private void updatemodel() {
 	int ccur = 0;
 	if (m_spec.getP() != 0)
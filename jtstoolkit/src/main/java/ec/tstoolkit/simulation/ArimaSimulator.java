@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.simulation;
+
+import ec.tstoolkit.arima.ArimaModelBuilder;
+import ec.tstoolkit.arima.IArimaModel;
+import ec.tstoolkit.design.Development;
+import ec.tstoolkit.random.IRandomNumberGenerator;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsPeriod;
+
+/**
+ * Simulation of series generated by an ARIMA model (ArimaModel, SarimaModel...).
+ * The simulator doesn't contain any random number generator; it can be shared
+ * by concurrent replications.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+public class ArimaSimulator {
+
+    private final IArimaModel arima_;
+    private int ndrop_;
+    private double startMean_ = 100, startStdev_ = 10;
+
+    public ArimaSimulator(IArimaModel arima) {
+        arima_ = arima;
+    }
+
+    public IArimaModel getModel() {
+        return arima_;
+    }
+
+    /**
+     * Number of initial observations that are generated and dropped
+     *
+     * @return
+     */
+    public int getDropCount() {
+        return ndrop_;
+    }
+
+    public void setDropCount(int n) {
+        ndrop_ = n;
+    }
+
+    /**
+     * Mean of the starting values of the non stationary part of the model
+     *
+     * @return
+     */
+    public double getStartMean() {
+        return startMean_;
+    }
+
+    public void setStartMean(double mean) {
+        startMean_ = mean;
+    }
+
+    /**
+     * Standard deviation of the starting values of the non stationary part of
+     * the model
+     *
+     * @return
+     */
+    public double getStartStdev() {
+        return startStdev_;
+    }
+
+    public void setStartStdev(double stdev) {
+        startStdev_ = stdev;
+    }
+
+    /**
+     * Generates a new series
+     *
+     * @param rng The random number generator
+     * @param n The length of the series
+     * @return The generated series or null if the model is invalid
+     */
+    public double[] generate(IRandomNumberGenerator rng, int n) {
+        ArimaModelBuilder builder = new ArimaModelBuilder();
+        builder.setRandomNumberGenerator(rng);
+        builder.setDropCount(ndrop_);
+        builder.setStartMean(startMean_);
+        builder.setStartStdev(startStdev_);
+        return builder.generate(arima_, n);
+    }
+
+    /**
+     * Generates a new time series
+     *
+     * @param rng The random number generator
+     * @param start The first period of the series
+     * @param n The length of the series
+     * @return The generated series or null if the model is invalid
+     */
+    public TsData generate(IRandomNumberGenerator rng, TsPeriod start, int n) {
+        double[] data = generate(rng, n);
+        return data == null ? null : new TsData(start, data, false);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.simulation;
+
+import ec.tstoolkit.random.IRandomNumberGenerator;
+
+/**
+ * One replication of a simulation
+ *
+ * @author Jean Palate
+ */
+@FunctionalInterface
+public interface IReplication {
+
+    /**
+     * Generates and processes one replica. The statistics of the replica are
+     * added to the given results; they are discarded if the replica fails
+     * (runtime exception). The replications of a simulation can be
+     * executed concurrently; they should only share immutable objects.
+     *
+     * @param rng The random number generator of the replica
+     * @param results The results of the replica
+     */
+    void replicate(IRandomNumberGenerator rng, SimulationResults results);
+}
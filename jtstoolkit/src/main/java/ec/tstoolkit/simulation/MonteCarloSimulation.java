@@ -0,0 +1,189 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.simulation;
+
+import ec.tstoolkit.algorithm.ProcessingExecutors;
+import ec.tstoolkit.design.Development;
+import ec.tstoolkit.random.SplitMixRNG;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo simulation. The replications are split in blocks, which are
+ * processed in parallel on the executor given by setExecutor (by default the
+ * shared executor, ProcessingExecutors.getDefault(), retrieved when the
+ * simulation is executed). Each block accumulates the statistics of its
+ * replications in its own results; the results of the blocks are merged in
+ * the order of the blocks. The statistics of a replication that fails are
+ * discarded. When a block fails, the blocks that are not completed are
+ * cancelled.
+ * <br>
+ * The replica i uses the random stream SplitMixRNG.stream(seed, i), so that
+ * the results only depend on the seed, on the number of replications and on
+ * the size of the blocks, not on the executor.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+public class MonteCarloSimulation {
+
+    public static final int DEF_BLOCK_SIZE = 50;
+
+    private long seed_;
+    private int n_ = 1000, blockSize_ = DEF_BLOCK_SIZE;
+    private ExecutorService executor_;
+    private boolean parallel_ = true;
+    private final SimulationResults definitions_ = new SimulationResults();
+
+    public MonteCarloSimulation() {
+    }
+
+    public MonteCarloSimulation(long seed, int n) {
+        seed_ = seed;
+        n_ = n;
+    }
+
+    public long getSeed() {
+        return seed_;
+    }
+
+    public void setSeed(long seed) {
+        seed_ = seed;
+    }
+
+    public int getReplicationsCount() {
+        return n_;
+    }
+
+    public void setReplicationsCount(int n) {
+        n_ = n;
+    }
+
+    public int getBlockSize() {
+        return blockSize_;
+    }
+
+    public void setBlockSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid block size");
+        }
+        blockSize_ = size;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor_;
+    }
+
+    /**
+     * Sets the executor used for the blocks of replications
+     *
+     * @param executor The executor. Null for the shared executor
+     */
+    public void setExecutor(ExecutorService executor) {
+        executor_ = executor;
+    }
+
+    public boolean isParallel() {
+        return parallel_;
+    }
+
+    /**
+     *
+     * @param parallel False for a sequential simulation
+     */
+    public void setParallel(boolean parallel) {
+        parallel_ = parallel;
+    }
+
+    /**
+     * Defines the summary of a statistic (histogram, thresholds...)
+     *
+     * @param name The name of the statistic
+     * @param summary An empty summary
+     */
+    public void define(String name, StatisticSummary summary) {
+        definitions_.define(name, summary);
+    }
+
+    /**
+     * Executes the simulation
+     *
+     * @param replication The replication
+     * @return The merged results of all the replications. Null if the
+     * simulation has been interrupted
+     */
+    public SimulationResults process(final IReplication replication) {
+        List<Callable<SimulationResults>> tasks = new ArrayList<>();
+        for (int start = 0; start < n_; start += blockSize_) {
+            final int bstart = start, bend = Math.min(n_, start + blockSize_);
+            tasks.add(() -> block(replication, bstart, bend));
+        }
+        ExecutorService executor = null;
+        if (parallel_) {
+            executor = executor_ != null ? executor_ : ProcessingExecutors.getDefault();
+        }
+        SimulationResults rslts = definitions_.emptyCopy();
+        List<Future<SimulationResults>> futures = ProcessingExecutors.submitAll(executor, tasks);
+        try {
+            for (Future<SimulationResults> future : futures) {
+                rslts.merge(future.get());
+            }
+        } catch (ExecutionException err) {
+            Throwable cause = err.getCause();
+            if (cause instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                return null;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            // no-op when all the blocks are completed
+            ProcessingExecutors.cancelAll(futures);
+        }
+        return rslts;
+    }
+
+    private SimulationResults block(IReplication replication, int start, int end) throws InterruptedException {
+        SimulationResults rslts = definitions_.emptyCopy();
+        SimulationResults replica = SimulationResults.buffer();
+        for (int i = start; i < end; ++i) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            boolean failed = false;
+            try {
+                replication.replicate(SplitMixRNG.stream(seed_, i), replica);
+                replica.commit(rslts);
+            } catch (RuntimeException err) {
+                replica.rollback();
+                failed = true;
+            }
+            rslts.replicated(failed);
+        }
+        return rslts;
+    }
+}
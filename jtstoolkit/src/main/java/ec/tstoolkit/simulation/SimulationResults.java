@@ -0,0 +1,186 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.simulation;
+
+import ec.tstoolkit.design.Development;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of a simulation: streaming summaries of named statistics. The
+ * statistics that are not defined beforehand are summarized by a default
+ * summary (without histogram).
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+public final class SimulationResults {
+
+    private final Map<String, StatisticSummary> summaries_ = new LinkedHashMap<>();
+    private long n_, nfailures_;
+    // pending values of a replica (buffered results only)
+    private ArrayList<String> bnames_;
+    private double[] bvalues_;
+
+    public SimulationResults() {
+    }
+
+    /**
+     * Creates results that only record the added values. The values are
+     * transferred in other results by commit or dropped by rollback
+     *
+     * @return
+     */
+    static SimulationResults buffer() {
+        SimulationResults rslts = new SimulationResults();
+        rslts.bnames_ = new ArrayList<>();
+        rslts.bvalues_ = new double[8];
+        return rslts;
+    }
+
+    /**
+     * Defines a statistic
+     *
+     * @param name The name of the statistic
+     * @param summary The (empty) summary that will be used for the statistic
+     */
+    public void define(String name, StatisticSummary summary) {
+        summaries_.put(name, summary);
+    }
+
+    /**
+     * Adds a value to the summary of a given statistic
+     *
+     * @param name
+     * @param value
+     */
+    public void add(String name, double value) {
+        if (bnames_ != null) {
+            int n = bnames_.size();
+            if (n == bvalues_.length) {
+                bvalues_ = Arrays.copyOf(bvalues_, n << 1);
+            }
+            bnames_.add(name);
+            bvalues_[n] = value;
+            return;
+        }
+        StatisticSummary summary = summaries_.get(name);
+        if (summary == null) {
+            summary = new StatisticSummary();
+            summaries_.put(name, summary);
+        }
+        summary.add(value);
+    }
+
+    public StatisticSummary get(String name) {
+        return summaries_.get(name);
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(new ArrayList<>(summaries_.keySet()));
+    }
+
+    /**
+     * Number of processed replications (including the failures)
+     *
+     * @return
+     */
+    public long getReplicationsCount() {
+        return n_;
+    }
+
+    /**
+     * Number of replications that failed (the statistics added before the
+     * failure are discarded)
+     *
+     * @return
+     */
+    public long getFailuresCount() {
+        return nfailures_;
+    }
+
+    /**
+     * Merges the given results in these results
+     *
+     * @param other
+     */
+    public void merge(SimulationResults other) {
+        n_ += other.n_;
+        nfailures_ += other.nfailures_;
+        for (Map.Entry<String, StatisticSummary> entry : other.summaries_.entrySet()) {
+            StatisticSummary summary = summaries_.get(entry.getKey());
+            if (summary == null) {
+                summary = entry.getValue().emptyCopy();
+                summaries_.put(entry.getKey(), summary);
+            }
+            summary.merge(entry.getValue());
+        }
+    }
+
+    /**
+     * Creates new empty results with the same definitions
+     *
+     * @return
+     */
+    SimulationResults emptyCopy() {
+        SimulationResults rslts = new SimulationResults();
+        for (Map.Entry<String, StatisticSummary> entry : summaries_.entrySet()) {
+            rslts.summaries_.put(entry.getKey(), entry.getValue().emptyCopy());
+        }
+        return rslts;
+    }
+
+    /**
+     * Adds the pending values of buffered results to the given results
+     *
+     * @param target
+     */
+    void commit(SimulationResults target) {
+        for (int i = 0; i < bnames_.size(); ++i) {
+            target.add(bnames_.get(i), bvalues_[i]);
+        }
+        bnames_.clear();
+    }
+
+    /**
+     * Drops the pending values of buffered results
+     */
+    void rollback() {
+        bnames_.clear();
+    }
+
+    void replicated(boolean failed) {
+        ++n_;
+        if (failed) {
+            ++nfailures_;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("replications=").append(n_).append(", failures=").append(nfailures_);
+        for (Map.Entry<String, StatisticSummary> entry : summaries_.entrySet()) {
+            builder.append(System.lineSeparator()).append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.simulation;
+
+import ec.tstoolkit.design.Development;
+import java.util.Arrays;
+
+/**
+ * Streaming summary of a statistic computed in a simulation. The values are
+ * not stored: the summary keeps the moments, the extreme values, the
+ * frequencies of the values below some given thresholds (for instance the
+ * empirical sizes of a test, computed on its p-values) and, optionally, a
+ * histogram on a given range, which is used for the quantiles.
+ * <br>
+ * Summaries computed on different sets of replications can be merged.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+public final class StatisticSummary {
+
+    public static final double[] SIZES = new double[]{.01, .05, .1};
+    public static final int DEF_BINS = 1000;
+
+    /**
+     * Summary of p-values: histogram on [0, 1] and frequencies below 1%, 5%
+     * and 10% (empirical sizes of the test)
+     *
+     * @return A new empty summary
+     */
+    public static StatisticSummary pvalues() {
+        return new StatisticSummary(0, 1, DEF_BINS, SIZES);
+    }
+
+    private final double lower_, upper_;
+    private final long[] bins_;
+    private long under_, over_;
+    private final double[] thresholds_;
+    private final long[] below_;
+    private long n_, nmissing_;
+    private double mean_, m2_, min_ = Double.POSITIVE_INFINITY, max_ = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Summary without histogram and thresholds
+     */
+    public StatisticSummary() {
+        this(0, 0, 0);
+    }
+
+    /**
+     * Summary with an histogram and/or thresholds
+     *
+     * @param lower The lower bound of the histogram
+     * @param upper The upper bound of the histogram
+     * @param nbins The number of bins of the histogram (0 for no histogram)
+     * @param thresholds The thresholds
+     */
+    public StatisticSummary(double lower, double upper, int nbins, double... thresholds) {
+        if (nbins < 0 || (nbins > 0 && !(upper > lower))) {
+            throw new IllegalArgumentException("Invalid histogram");
+        }
+        lower_ = lower;
+        upper_ = upper;
+        bins_ = new long[nbins];
+        thresholds_ = thresholds.clone();
+        Arrays.sort(thresholds_);
+        below_ = new long[thresholds_.length];
+    }
+
+    /**
+     * Creates a new empty summary with the same histogram and thresholds
+     *
+     * @return
+     */
+    public StatisticSummary emptyCopy() {
+        return new StatisticSummary(lower_, upper_, bins_.length, thresholds_);
+    }
+
+    /**
+     * Adds a new value. Non finite values are counted as missing
+     *
+     * @param value
+     */
+    public void add(double value) {
+        if (!Double.isFinite(value)) {
+            ++nmissing_;
+            return;
+        }
+        ++n_;
+        double del = value - mean_;
+        mean_ += del / n_;
+        m2_ += del * (value - mean_);
+        if (value < min_) {
+            min_ = value;
+        }
+        if (value > max_) {
+            max_ = value;
+        }
+        for (int i = thresholds_.length - 1; i >= 0 && value < thresholds_[i]; --i) {
+            ++below_[i];
+        }
+        if (bins_.length > 0) {
+            if (value < lower_) {
+                ++under_;
+            } else if (value >= upper_) {
+                if (value == upper_) {
+                    ++bins_[bins_.length - 1];
+                } else {
+                    ++over_;
+                }
+            } else {
+                int pos = (int) ((value - lower_) / (upper_ - lower_) * bins_.length);
+                ++bins_[Math.min(pos, bins_.length - 1)];
+            }
+        }
+    }
+
+    /**
+     * Merges the given summary in this one. The summaries must have the same
+     * histogram and thresholds
+     *
+     * @param other
+     */
+    public void merge(StatisticSummary other) {
+        if (other.bins_.length != bins_.length || other.lower_ != lower_ || other.upper_ != upper_
+                || !Arrays.equals(other.thresholds_, thresholds_)) {
+            throw new IllegalArgumentException("Incompatible summaries");
+        }
+        nmissing_ += other.nmissing_;
+        if (other.n_ == 0) {
+            return;
+        }
+        long n = n_ + other.n_;
+        double del = other.mean_ - mean_;
+        mean_ += del * other.n_ / n;
+        m2_ += other.m2_ + del * del * ((double) n_ * other.n_ / n);
+        n_ = n;
+        min_ = Math.min(min_, other.min_);
+        max_ = Math.max(max_, other.max_);
+        for (int i = 0; i < below_.length; ++i) {
+            below_[i] += other.below_[i];
+        }
+        for (int i = 0; i < bins_.length; ++i) {
+            bins_[i] += other.bins_[i];
+        }
+        under_ += other.under_;
+        over_ += other.over_;
+    }
+
+    /**
+     * Number of (finite) values
+     *
+     * @return
+     */
+    public long getCount() {
+        return n_;
+    }
+
+    public long getMissingCount() {
+        return nmissing_;
+    }
+
+    public double getMean() {
+        return n_ == 0 ? Double.NaN : mean_;
+    }
+
+    public double getVariance() {
+        return n_ < 2 ? Double.NaN : m2_ / (n_ - 1);
+    }
+
+    public double getStdev() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return n_ == 0 ? Double.NaN : min_;
+    }
+
+    public double getMax() {
+        return n_ == 0 ? Double.NaN : max_;
+    }
+
+    public double[] getThresholds() {
+        return thresholds_.clone();
+    }
+
+    /**
+     * Frequency of the values strictly below a given threshold
+     *
+     * @param threshold The threshold. Should be one of the thresholds of the
+     * summary
+     * @return The frequency or NaN if the threshold has not been defined
+     */
+    public double getFrequencyBelow(double threshold) {
+        int pos = Arrays.binarySearch(thresholds_, threshold);
+        if (pos < 0 || n_ == 0) {
+            return Double.NaN;
+        }
+        return below_[pos] / (double) n_;
+    }
+
+    /**
+     * Quantile estimated by linear interpolation in the histogram
+     *
+     * @param p The probability (in [0, 1])
+     * @return The quantile or NaN if there is no histogram or if the quantile
+     * is outside the range of the histogram
+     */
+    public double getQuantile(double p) {
+        if (bins_.length == 0 || n_ == 0) {
+            return Double.NaN;
+        }
+        double target = p * n_;
+        if (target < under_ || target > n_ - over_) {
+            return Double.NaN;
+        }
+        double cum = under_, w = (upper_ - lower_) / bins_.length;
+        for (int i = 0; i < bins_.length; ++i) {
+            long c = bins_[i];
+            if (c > 0 && cum + c >= target) {
+                return lower_ + w * (i + (target - cum) / c);
+            }
+            cum += c;
+        }
+        return upper_;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("n=").append(n_).append(", mean=").append(getMean())
+                .append(", stdev=").append(getStdev())
+                .append(", min=").append(getMin()).append(", max=").append(getMax());
+        for (int i = 0; i < thresholds_.length; ++i) {
+            builder.append(", <").append(thresholds_[i]).append('=').append(getFrequencyBelow(thresholds_[i]));
+        }
+        return builder.toString();
+    }
+}
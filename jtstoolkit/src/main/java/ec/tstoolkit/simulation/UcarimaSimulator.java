@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.simulation;
+
+import ec.tstoolkit.arima.ArimaModel;
+import ec.tstoolkit.design.Development;
+import ec.tstoolkit.random.IRandomNumberGenerator;
+import ec.tstoolkit.ucarima.UcarimaModel;
+
+/**
+ * Simulation of the components of an UCARIMA model. The components are
+ * generated independently; the series is the sum of the components. The
+ * starting values of the non stationary components are 0; the level is added
+ * to the first component (usually the trend).
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+public class UcarimaSimulator {
+
+    private final UcarimaModel ucm_;
+    private int ndrop_;
+    private double level_ = 100;
+
+    public UcarimaSimulator(UcarimaModel ucm) {
+        ucm_ = ucm;
+    }
+
+    public UcarimaModel getModel() {
+        return ucm_;
+    }
+
+    public int getDropCount() {
+        return ndrop_;
+    }
+
+    public void setDropCount(int n) {
+        ndrop_ = n;
+    }
+
+    public double getLevel() {
+        return level_;
+    }
+
+    public void setLevel(double level) {
+        level_ = level;
+    }
+
+    /**
+     * Generates the components
+     *
+     * @param rng The random number generator
+     * @param n The length of the series
+     * @return The generated components (in the order of the model) or null
+     * if a component can't be generated
+     */
+    public double[][] generate(IRandomNumberGenerator rng, int n) {
+        int ncmps = ucm_.getComponentsCount();
+        double[][] cmps = new double[ncmps][];
+        for (int i = 0; i < ncmps; ++i) {
+            ArimaModel cmp = ucm_.getComponent(i);
+            if (cmp.isNull()) {
+                cmps[i] = new double[n];
+            } else {
+                ArimaSimulator simulator = new ArimaSimulator(cmp);
+                simulator.setDropCount(ndrop_);
+                simulator.setStartMean(0);
+                simulator.setStartStdev(0);
+                cmps[i] = simulator.generate(rng, n);
+                if (cmps[i] == null) {
+                    return null;
+                }
+            }
+            if (i == 0 && level_ != 0) {
+                for (int j = 0; j < n; ++j) {
+                    cmps[i][j] += level_;
+                }
+            }
+        }
+        return cmps;
+    }
+
+    /**
+     * Sum of the components
+     *
+     * @param cmps
+     * @return
+     */
+    public static double[] sum(double[][] cmps) {
+        double[] s = new double[cmps[0].length];
+        for (double[] cmp : cmps) {
+            for (int j = 0; j < s.length; ++j) {
+                s[j] += cmp[j];
+            }
+        }
+        return s;
+    }
+}
@@ -33,7 +33,7 @@ public class DayClustering {
         if (!checkGroups(groups)) {
             return null;
         }
-        return new DayClustering(groups);
+        return new DayClustering(groups.clone());
     }
 
     private static boolean checkGroups(int[] groups) {
@@ -202,4 +202,14 @@ public class DayClustering {
         return groups;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || (obj instanceof DayClustering && Arrays.equals(groups, ((DayClustering) obj).groups));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(groups);
+    }
+
 }
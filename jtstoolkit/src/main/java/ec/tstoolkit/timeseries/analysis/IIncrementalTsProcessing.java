@@ -0,0 +1,46 @@
+/*
+* Copyright 2013 National Bank of Belgium
+*
+* Licensed under the EUPL, Version 1.1 or – as soon they will be approved 
+* by the European Commission - subsequent versions of the EUPL (the "Licence");
+* You may not use this work except in compliance with the Licence.
+* You may obtain a copy of the Licence at:
+*
+* http://ec.europa.eu/idabc/eupl
+*
+* Unless required by applicable law or agreed to in writing, software 
+* distributed under the Licence is distributed on an "AS IS" basis,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the Licence for the specific language governing permissions and 
+* limitations under the Licence.
+*/
+
+package ec.tstoolkit.timeseries.analysis;
+
+import ec.tstoolkit.algorithm.IProcResults;
+import ec.tstoolkit.design.Algorithm;
+import ec.tstoolkit.design.Development;
+import ec.tstoolkit.timeseries.simplets.TsDomain;
+
+/**
+ * A TsProcessing that can use the results obtained on a shorter time span
+ * (typically the previous vintage in a revision analysis) to speed up the
+ * processing of a new time span (for instance by using the previous estimates
+ * of the model as starting values).
+ *
+ * @author Jean Palate
+ * @param <I>
+ */
+@Development(status = Development.Status.Preliminary)
+@Algorithm
+public interface IIncrementalTsProcessing<I extends IProcResults> extends ITsProcessing<I> {
+
+    /**
+     *
+     * @param domain The time span of the processing
+     * @param previous The results of a previous processing (may be null). The
+     * final results should be similar to those of process(domain)
+     * @return
+     */
+    I process(TsDomain domain, I previous);
+}
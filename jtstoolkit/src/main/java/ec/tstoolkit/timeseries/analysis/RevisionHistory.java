@@ -17,17 +17,38 @@
 package ec.tstoolkit.timeseries.analysis;
 
 import ec.tstoolkit.algorithm.IProcResults;
+import ec.tstoolkit.algorithm.ProcessingExecutors;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import ec.tstoolkit.timeseries.simplets.TsDataFunction;
 import ec.tstoolkit.timeseries.simplets.TsDomain;
 import ec.tstoolkit.timeseries.simplets.TsPeriod;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
+ * Revisions of the results of a processing (typically a seasonal adjustment)
+ * computed on successive time spans.
+ * <br>
+ * The results are stored in a bounded cache (the least recently used time
+ * spans are removed first), which can be safely used by several threads. The
+ * size of the results being roughly proportional to the length of the time
+ * spans, the cache is bounded by the total number of periods of the cached
+ * time spans (the capacity of the cache is expressed in time spans of the
+ * length of the reference domain). Each
+ * time span is processed only once, even if it is requested concurrently. The
+ * time spans can be pre-computed in parallel (see
+ * {@link #prepare(java.util.Collection)}). When the processing implements
+ * {@link IIncrementalTsProcessing}, each time span is processed using the
+ * results of the time span that is one period shorter, if they are available.
  *
  * @author Jean Palate
  * @param <T>
@@ -36,12 +57,26 @@ import java.util.List;
 public class RevisionHistory<T extends IProcResults> {
     
 
+    /**
+     * Default capacity of the cache, in time spans of the length of the
+     * reference domain
+     */
+    public static final int DEFAULT_CAPACITY = 120;
+
     private final ITsProcessing<T> m_processing;
 
-    private final HashMap<TsDomain, T> m_cache = new HashMap<>();
+    private final LinkedHashMap<TsDomain, FutureTask<T>> m_cache = new LinkedHashMap<>(16, .75f, true);
+
+    private final int m_capacity;
+
+    // maximum/current total number of periods of the cached time spans
+    private final long m_maxSize;
+    private long m_size;
 
     private final TsDomain m_domainT;
 
+    private final T m_infoT;
+
     /**
      *
      * @param processing
@@ -49,9 +84,36 @@ public class RevisionHistory<T extends IProcResults> {
      */
     public RevisionHistory(ITsProcessing<T> processing,
             TsDomain domain) {
+        this(processing, domain, DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * @param processing
+     * @param domain
+     * @param capacity The capacity of the cache, in time spans of the length
+     * of the reference domain: the total number of periods of the cached time
+     * spans is limited to capacity x length of the reference domain (the
+     * results on the reference domain are not included)
+     */
+    public RevisionHistory(ITsProcessing<T> processing,
+            TsDomain domain, final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
         m_processing = processing;
         m_domainT = domain;
-        m_cache.put(m_domainT, processing.process(m_domainT));
+        m_capacity = capacity;
+        m_maxSize = (long) capacity * Math.max(1, domain.getLength());
+        m_infoT = processing.process(m_domainT);
+    }
+
+    /**
+     *
+     * @return
+     */
+    public int getCapacity() {
+        return m_capacity;
     }
 
     /**
@@ -75,7 +137,96 @@ public class RevisionHistory<T extends IProcResults> {
      * @return
      */
     public T getReferenceInfo() {
-        return tsInfo(m_domainT);
+        return m_infoT;
+    }
+
+    /**
+     * Pre-computes in parallel the results on the time spans starting at the
+     * beginning of the reference domain and ending between the given period
+     * and the end of the reference domain.
+     *
+     * @param start The last period of the shortest time span
+     */
+    public void prepare(TsPeriod start) {
+        TsPeriod p0 = m_domainT.getStart();
+        int len = start.minus(p0) + 1;
+        List<TsDomain> domains = new ArrayList<>();
+        for (; len < m_domainT.getLength(); ++len) {
+            if (len > 0) {
+                domains.add(new TsDomain(p0, len));
+            }
+        }
+        prepare(domains);
+    }
+
+    /**
+     * Pre-computes in parallel the results on the given time spans. The time
+     * spans are split in blocks of successive domains, which are processed
+     * sequentially (so that an incremental processing can re-use the previous
+     * results). Only the last time spans are computed when they don't fit in
+     * the cache. If the pre-computation is interrupted or rejected by the
+     * executor, the time spans that have not been computed are removed from
+     * the cache.
+     *
+     * @param domains The time spans. They should be ordered by increasing end.
+     */
+    public void prepare(Collection<TsDomain> domains) {
+        List<FutureTask<T>> ntasks = new ArrayList<>();
+        List<TsDomain> tdomains = new ArrayList<>();
+        synchronized (m_cache) {
+            List<TsDomain> ndomains = new ArrayList<>();
+            for (TsDomain domain : domains) {
+                if (!domain.equals(m_domainT) && !m_cache.containsKey(domain)) {
+                    ndomains.add(domain);
+                }
+            }
+            int n0 = ndomains.size();
+            long size = 0;
+            while (n0 > 0 && size + ndomains.get(n0 - 1).getLength() <= m_maxSize) {
+                size += ndomains.get(--n0).getLength();
+            }
+            for (TsDomain domain : ndomains.subList(n0, ndomains.size())) {
+                FutureTask<T> task = newTask(domain);
+                put(domain, task);
+                ntasks.add(task);
+                tdomains.add(domain);
+            }
+        }
+        int n = ntasks.size();
+        if (n == 0) {
+            return;
+        }
+        int nblocks = Math.min(n, Runtime.getRuntime().availableProcessors());
+        List<Callable<Void>> blocks = new ArrayList<>(nblocks);
+        for (int i = 0, j0 = 0; i < nblocks; ++i) {
+            final List<FutureTask<T>> block = ntasks.subList(j0, j0 + (n - j0) / (nblocks - i));
+            j0 += block.size();
+            blocks.add(() -> {
+                for (FutureTask<T> task : block) {
+                    task.run();
+                }
+                return null;
+            });
+        }
+        boolean completed = false;
+        try {
+            ProcessingExecutors.invokeAll(blocks);
+            completed = true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!completed) {
+                // the time spans that have not been computed are not kept
+                synchronized (m_cache) {
+                    for (int i = 0; i < n; ++i) {
+                        FutureTask<T> task = ntasks.get(i);
+                        if (!task.isDone()) {
+                            remove(tdomains.get(i), task);
+                        }
+                    }
+                }
+            }
+        }
     }
 
     // / <summary>
@@ -310,12 +461,107 @@ public class RevisionHistory<T extends IProcResults> {
      * @return
      */
     public T tsInfo(TsDomain domain) {
-        T info = m_cache.get(domain);
-        if (info == null) {
-            info = m_processing.process(domain);
-            m_cache.put(domain, info);
+        if (domain.equals(m_domainT)) {
+            return m_infoT;
+        }
+        FutureTask<T> task;
+        synchronized (m_cache) {
+            task = m_cache.get(domain);
+            if (task == null) {
+                task = newTask(domain);
+                put(domain, task);
+            }
+        }
+        // no-op if the task is running or done. A task that has been put in
+        // the cache by an unfinished pre-computation is executed here
+        task.run();
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException ex) {
+            // the failed processing will be retried on the next request
+            synchronized (m_cache) {
+                remove(domain, task);
+            }
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new DiagnosticException(cause.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Puts a task in the cache and removes the least recently used time spans
+     * that don't fit in the cache (should be called in a synchronized block)
+     *
+     * @param domain
+     * @param task
+     */
+    private void put(TsDomain domain, FutureTask<T> task) {
+        if (m_cache.put(domain, task) == null) {
+            m_size += domain.getLength();
+        }
+        Iterator<Map.Entry<TsDomain, FutureTask<T>>> iter = m_cache.entrySet().iterator();
+        // the new entry (the most recently used one) is never removed
+        for (int n = m_cache.size(); m_size > m_maxSize && n > 1; --n) {
+            TsDomain cur = iter.next().getKey();
+            iter.remove();
+            m_size -= cur.getLength();
+        }
+    }
+
+    /**
+     * Removes a task from the cache, if it is still there (should be called in
+     * a synchronized block)
+     *
+     * @param domain
+     * @param task
+     */
+    private void remove(TsDomain domain, FutureTask<T> task) {
+        if (m_cache.remove(domain, task)) {
+            m_size -= domain.getLength();
+        }
+    }
+
+    private FutureTask<T> newTask(final TsDomain domain) {
+        if (m_processing instanceof IIncrementalTsProcessing) {
+            final IIncrementalTsProcessing<T> iprocessing = (IIncrementalTsProcessing<T>) m_processing;
+            return new FutureTask<>(() -> iprocessing.process(domain, previousInfo(domain)));
+        } else {
+            return new FutureTask<>(() -> m_processing.process(domain));
+        }
+    }
+
+    /**
+     * Gets the results on the time span that is one period shorter than the
+     * given domain, if they have already been computed
+     *
+     * @param domain
+     * @return
+     */
+    private T previousInfo(TsDomain domain) {
+        if (domain.getLength() < 2) {
+            return null;
+        }
+        TsDomain pdomain = domain.drop(0, 1);
+        FutureTask<T> task;
+        synchronized (m_cache) {
+            task = m_cache.get(pdomain);
+        }
+        if (task == null || !task.isDone() || task.isCancelled()) {
+            return null;
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException | ExecutionException ex) {
+            return null;
         }
-        return info;
     }
 
     // / <summary>
@@ -18,6 +18,7 @@
 package ec.tstoolkit.timeseries.analysis;
 
 import ec.tstoolkit.algorithm.IProcResults;
+import ec.tstoolkit.algorithm.ProcessingExecutors;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import ec.tstoolkit.timeseries.simplets.TsDomain;
@@ -25,9 +26,21 @@ import ec.tstoolkit.timeseries.simplets.TsPeriod;
 import ec.tstoolkit.utilities.Jdk6;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
+ * Sliding spans analysis.
+ * <br>
+ * The spans are independent; they are estimated in parallel, by means of the
+ * shared executor (see {@link ProcessingExecutors}) or of a specific executor.
+ * The processing used on the spans may differ from the processing used on the
+ * reference domain (for instance, it can re-use the model identified on the
+ * reference domain, which is much faster).
  *
  * @author Jean Palate
  */
@@ -82,6 +95,10 @@ public class SlidingSpans<I extends IProcResults> {
 
     private int m_spanMin = 2;
 
+    private ExecutorService m_executor;
+
+    private boolean m_parallel = true;
+
     /**
      * 
      * @param processing
@@ -94,6 +111,20 @@ public class SlidingSpans<I extends IProcResults> {
 	m_reference = processing.process(m_domainT);
     }
 
+    /**
+     * Creates a sliding spans analysis with known reference results.
+     *
+     * @param processing The processing used on the spans
+     * @param domain The reference domain
+     * @param reference The results on the reference domain
+     */
+    public SlidingSpans(ITsProcessing<I> processing, TsDomain domain, I reference)
+    {
+	m_processing = processing;
+	m_domainT = domain;
+	m_reference = reference;
+    }
+
     private void addDel(int p,
 	    HashMap<TsPeriod, SlidingSpans<I>.MaxMin> buffer, TsData data) {
 	TsPeriod start = data.getStart();
@@ -166,6 +197,41 @@ public class SlidingSpans<I extends IProcResults> {
 	return m_processing;
     }
 
+    /**
+     *
+     * @return The executor used for the estimation of the spans (null for the
+     * shared executor)
+     */
+    public ExecutorService getExecutor() {
+        return m_executor;
+    }
+
+    /**
+     * Sets the executor used for the estimation of the spans. By default, the
+     * shared executor is used; it is retrieved when the spans are estimated.
+     *
+     * @param executor The executor. Null for the shared executor
+     */
+    public void setExecutor(ExecutorService executor) {
+        m_executor = executor;
+    }
+
+    /**
+     *
+     * @return True if the spans are estimated in parallel (default)
+     */
+    public boolean isParallel() {
+        return m_parallel;
+    }
+
+    /**
+     *
+     * @param parallel False for a sequential estimation of the spans
+     */
+    public void setParallel(boolean parallel) {
+        m_parallel = parallel;
+    }
+
     /**
      * 
      * @return
@@ -234,10 +300,10 @@ public class SlidingSpans<I extends IProcResults> {
      * @return
      */
     @SuppressWarnings("unchecked")
-    public boolean process() {
+    public synchronized boolean process() {
 	if (m_estimation != null)
 	    return true;
-	ArrayList<Node<I>> rslts = new ArrayList<>();
+	ArrayList<TsDomain> domains = new ArrayList<>();
 	int freq = m_domainT.getFrequency().intValue();
 	int length = m_spanLength * freq;
 	TsPeriod start = m_domainT.getLast().minus(length - 1);
@@ -245,24 +311,42 @@ public class SlidingSpans<I extends IProcResults> {
 	    length += start.getPosition();
 	    start.move(-start.getPosition());
 	}
-	int idx = 0;
-	while (idx < m_spanCount && start.isNotBefore(m_domainT.getStart()))
+	while (domains.size() < m_spanCount && start.isNotBefore(m_domainT.getStart())) {
+	    domains.add(new TsDomain(start, length));
+	    start.move(-m_spanDistance * freq);
+	}
+	List<Callable<I>> tasks = new ArrayList<>(domains.size());
+	for (final TsDomain cur : domains) {
+	    tasks.add(() -> m_processing.process(cur));
+	}
+	ExecutorService executor = null;
+	if (m_parallel) {
+	    executor = m_executor != null ? m_executor : ProcessingExecutors.getDefault();
+	}
+	List<Future<I>> futures = ProcessingExecutors.submitAll(executor, tasks);
+	// the spans are used up to the first failure (from the end of the series);
+	// the estimations of the next spans are useless and they are cancelled
+	ArrayList<Node<I>> rslts = new ArrayList<>();
+	for (int i = 0; i < futures.size(); ++i) {
+	    I info;
 	    try {
-		++idx;
-		TsDomain cur = new TsDomain(start, length);
-		I info = m_processing.process(cur);
-		if (info == null)
-		    break;
-		else{
-                    Node<I> node=new Node<>();
-                    node.estimation=info;
-                    node.domain=cur;
-		    rslts.add(node);
-                }
-		start.move(-m_spanDistance * freq);
-	    } catch (Exception err) {
+		info = futures.get(i).get();
+	    } catch (InterruptedException err) {
+		Thread.currentThread().interrupt();
+		ProcessingExecutors.cancelAll(futures);
+		return false;
+	    } catch (ExecutionException err) {
+		info = null;
+	    }
+	    if (info == null) {
+		ProcessingExecutors.cancelAll(futures);
 		break;
 	    }
+	    Node<I> node = new Node<>();
+	    node.estimation = info;
+	    node.domain = domains.get(i);
+	    rslts.add(node);
+	}
 
 	if (rslts.size() < m_spanMin)
 	    return false;
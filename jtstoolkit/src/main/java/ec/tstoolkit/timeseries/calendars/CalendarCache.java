@@ -0,0 +1,315 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.timeseries.calendars;
+
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.data.IReadDataBlock;
+import ec.tstoolkit.data.ReadDataBlock;
+import ec.tstoolkit.timeseries.simplets.TsDomain;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of calendar regression variables (trading days, easter effects...).
+ * The variables of a given calendar, of a given kind and on a given domain are
+ * computed once and shared by all the series which use them (typically the
+ * series of a large SA processing with the same calendar specification). The
+ * size of the cache is limited by the total number of cached observations; the
+ * least recently used variables are removed first. The cached data are never
+ * modified, so that they can be shared by different threads.
+ *
+ * The calendar providers (IGregorianCalendarProvider) are identified by
+ * identity: the equality of chained or composite calendars is based on the
+ * names of the calendars they refer to, which can be defined differently in
+ * different calendar managers. The other objects used to identify calendars
+ * should implement equals/hashCode on their content. The cache is cleared when
+ * the calendars of a GregorianCalendarManager or the holidays of a national
+ * calendar are modified (the chained or composite calendars that depend on
+ * them are unknown). Variables that are computed while the cache is cleared
+ * are not stored.
+ *
+ * @author Jean Palate
+ */
+public final class CalendarCache {
+
+    /**
+     * Function used to compute the variables that are not yet in the cache
+     */
+    @FunctionalInterface
+    public static interface Loader {
+
+        /**
+         * Computes the variables on a given domain
+         *
+         * @param domain The domain of the variables
+         * @param buffer The buffers that will contain the variables. They
+         * have the length of the domain
+         */
+        void data(TsDomain domain, List<DataBlock> buffer);
+    }
+
+    /**
+     * Default capacity (number of observations), which corresponds to 32 MB
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 22;
+
+    private static final CalendarCache DEFAULT = new CalendarCache(DEFAULT_CAPACITY);
+
+    /**
+     * Cache shared by the calendar variables
+     *
+     * @return
+     */
+    public static CalendarCache getDefault() {
+        return DEFAULT;
+    }
+
+    private static final class Key {
+
+        private final Object calendar, type;
+        private final TsDomain domain;
+        private final int hash;
+
+        Key(Object calendar, Object type, TsDomain domain) {
+            this.calendar = calendar;
+            this.type = type;
+            this.domain = domain;
+            this.hash = Objects.hash(calendarHash(calendar), type, domain);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && sameCalendar(calendar, other.calendar)
+                    && Objects.equals(type, other.type) && domain.equals(other.domain);
+        }
+    }
+
+    private static boolean sameCalendar(Object c1, Object c2) {
+        if (c1 instanceof IGregorianCalendarProvider) {
+            return c1 == c2;
+        } else {
+            return c1.equals(c2);
+        }
+    }
+
+    private static int calendarHash(Object c) {
+        if (c instanceof IGregorianCalendarProvider) {
+            return System.identityHashCode(c);
+        } else {
+            return c.hashCode();
+        }
+    }
+
+    private final LinkedHashMap<Key, double[][]> m_cache = new LinkedHashMap<>(16, .75f, true);
+    private volatile int m_capacity;
+    private long m_size;
+    // incremented each time the cache is invalidated
+    private long m_generation;
+    private final AtomicLong m_hits = new AtomicLong(), m_misses = new AtomicLong();
+
+    /**
+     *
+     * @param capacity The maximum number of observations kept in the cache.
+     * The cache is disabled when it is 0.
+     */
+    public CalendarCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+        m_capacity = capacity;
+    }
+
+    /**
+     * Fills the buffer with the (possibly cached) variables.
+     *
+     * @param calendar The calendar
+     * @param type The kind of variables (for instance TradingDaysType)
+     * @param domain The domain of the variables
+     * @param buffer The buffers (which must have the length of the domain)
+     * @param loader The function that computes the variables
+     */
+    public void data(Object calendar, Object type, TsDomain domain, List<DataBlock> buffer, Loader loader) {
+        if (m_capacity == 0) {
+            loader.data(domain, buffer);
+            return;
+        }
+        double[][] data = load(calendar, type, domain, buffer.size(), loader);
+        for (int i = 0; i < data.length; ++i) {
+            buffer.get(i).copyFrom(data[i], 0);
+        }
+    }
+
+    /**
+     * Gets read-only views on the (possibly cached) variables.
+     *
+     * @param calendar The calendar
+     * @param type The kind of variables
+     * @param domain The domain of the variables
+     * @param dim The number of variables
+     * @param loader The function that computes the variables
+     * @return
+     */
+    public List<IReadDataBlock> get(Object calendar, Object type, TsDomain domain, int dim, Loader loader) {
+        double[][] data = load(calendar, type, domain, dim, loader);
+        List<IReadDataBlock> rslt = new ArrayList<>(data.length);
+        for (int i = 0; i < data.length; ++i) {
+            rslt.add(new ReadDataBlock(data[i]));
+        }
+        return rslt;
+    }
+
+    private double[][] load(Object calendar, Object type, TsDomain domain, int dim, Loader loader) {
+        Key key = new Key(calendar, type, domain);
+        double[][] data;
+        long generation;
+        synchronized (m_cache) {
+            data = m_cache.get(key);
+            generation = m_generation;
+        }
+        if (data != null && data.length == dim) {
+            m_hits.incrementAndGet();
+            return data;
+        }
+        m_misses.incrementAndGet();
+        // computed outside the lock. Concurrent requests for the same key
+        // may lead to redundant computations (but to identical results)
+        int n = domain.getLength();
+        data = new double[dim][n];
+        List<DataBlock> buffer = new ArrayList<>(dim);
+        for (int i = 0; i < dim; ++i) {
+            buffer.add(new DataBlock(data[i]));
+        }
+        loader.data(domain, buffer);
+        long weight = (long) dim * n;
+        if (weight <= m_capacity) {
+            synchronized (m_cache) {
+                if (generation != m_generation) {
+                    // the variables may have been computed with modified calendars
+                    return data;
+                }
+                double[][] old = m_cache.put(key, data);
+                if (old != null) {
+                    m_size -= weight(old);
+                }
+                m_size += weight;
+                shrink();
+            }
+        }
+        return data;
+    }
+
+    private static long weight(double[][] data) {
+        return data.length == 0 ? 0 : (long) data.length * data[0].length;
+    }
+
+    // should be called in a synchronized block
+    private void shrink() {
+        Iterator<double[][]> iter = m_cache.values().iterator();
+        while (m_size > m_capacity && iter.hasNext()) {
+            m_size -= weight(iter.next());
+            iter.remove();
+        }
+    }
+
+    /**
+     * Removes all the variables of a given calendar
+     *
+     * @param calendar
+     */
+    public void invalidate(Object calendar) {
+        synchronized (m_cache) {
+            ++m_generation;
+            Iterator<Map.Entry<Key, double[][]>> iter = m_cache.entrySet().iterator();
+            while (iter.hasNext()) {
+                Map.Entry<Key, double[][]> cur = iter.next();
+                if (sameCalendar(cur.getKey().calendar, calendar)) {
+                    m_size -= weight(cur.getValue());
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the cached variables
+     */
+    public void clear() {
+        synchronized (m_cache) {
+            ++m_generation;
+            m_cache.clear();
+            m_size = 0;
+        }
+    }
+
+    /**
+     *
+     * @return The maximum number of cached observations
+     */
+    public int getCapacity() {
+        return m_capacity;
+    }
+
+    /**
+     *
+     * @param capacity The maximum number of cached observations. 0 to disable
+     * the cache.
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+        synchronized (m_cache) {
+            m_capacity = capacity;
+            shrink();
+        }
+    }
+
+    /**
+     *
+     * @return The current number of cached observations
+     */
+    public long getSize() {
+        synchronized (m_cache) {
+            return m_size;
+        }
+    }
+
+    public long getHitCount() {
+        return m_hits.get();
+    }
+
+    public long getMissCount() {
+        return m_misses.get();
+    }
+}
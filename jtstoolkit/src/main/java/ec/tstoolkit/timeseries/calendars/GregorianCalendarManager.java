@@ -18,6 +18,7 @@
 package ec.tstoolkit.timeseries.calendars;
 
 import ec.tstoolkit.algorithm.ProcessingContext;
+import ec.tstoolkit.information.InformationSet;
 import ec.tstoolkit.utilities.DefinitionMap;
 import ec.tstoolkit.utilities.NameManager;
 import ec.tstoolkit.utilities.WeightedItem;
@@ -52,6 +53,51 @@ public class GregorianCalendarManager extends NameManager<IGregorianCalendarProv
         return getCount() <= 1;
     }
 
+    // The cached calendar variables are invalidated each time the calendars
+    // are modified (composite or chained calendars refer to other calendars
+    // by name), after the modification.
+    @Override
+    public void set(String name, IGregorianCalendarProvider var) {
+        super.set(name, var);
+        if (!DEF.equals(name)) {
+            CalendarCache.getDefault().clear();
+        }
+    }
+
+    @Override
+    public boolean remove(String name) {
+        boolean rslt = super.remove(name);
+        CalendarCache.getDefault().clear();
+        return rslt;
+    }
+
+    @Override
+    public boolean remove(IGregorianCalendarProvider obj) {
+        boolean rslt = super.remove(obj);
+        CalendarCache.getDefault().clear();
+        return rslt;
+    }
+
+    @Override
+    public boolean rename(String item, String newname) {
+        boolean rslt = super.rename(item, newname);
+        CalendarCache.getDefault().clear();
+        return rslt;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        CalendarCache.getDefault().clear();
+    }
+
+    @Override
+    public boolean read(InformationSet info) {
+        boolean rslt = super.read(info);
+        CalendarCache.getDefault().clear();
+        return rslt;
+    }
+
     public static DefinitionMap defaultDefinitionMap(String code, HashMap<IGregorianCalendarProvider, String> dic) {
         return ProcessingContext.getActiveContext().getGregorianCalendars().buildDefinitionMap(code, dic);
     }
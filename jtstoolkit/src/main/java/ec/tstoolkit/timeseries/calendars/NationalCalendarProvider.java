@@ -314,7 +314,11 @@ public class NationalCalendarProvider extends DefaultGregorianCalendarProvider {
 
     public boolean add(ISpecialDay day) {
         if (!m_locked) {
-            return ncal.add(day);
+            boolean rslt = ncal.add(day);
+            // the chained or composite calendars based on this calendar are
+            // invalidated too
+            CalendarCache.getDefault().clear();
+            return rslt;
         } else {
             return false;
         }
@@ -322,7 +326,9 @@ public class NationalCalendarProvider extends DefaultGregorianCalendarProvider {
 
     public boolean add(SpecialDayEvent evday) {
         if (!m_locked) {
-            return ncal.add(evday);
+            boolean rslt = ncal.add(evday);
+            CalendarCache.getDefault().clear();
+            return rslt;
         } else {
             return false;
         }
@@ -19,10 +19,12 @@ package ec.tstoolkit.timeseries.regression;
 
 import ec.tstoolkit.data.DataBlock;
 import ec.tstoolkit.design.Development;
+import ec.tstoolkit.timeseries.calendars.CalendarCache;
 import ec.tstoolkit.timeseries.calendars.Utilities;
 import ec.tstoolkit.timeseries.simplets.TsDomain;
 import ec.tstoolkit.timeseries.simplets.TsFrequency;
 import ec.tstoolkit.timeseries.simplets.TsPeriod;
+import java.util.Arrays;
 import java.util.GregorianCalendar;
 
 /**
@@ -108,6 +110,12 @@ public class EasterVariable extends AbstractSingleTsVariable implements IEasterV
 
     @Override
     public void data(TsPeriod start, DataBlock data) {
+        CalendarCache.getDefault().data(EasterVariable.class, Arrays.asList(dur_, type_, m_e, m_m),
+                new TsDomain(start, data.getLength()), Arrays.asList(data),
+                (domain, buffer) -> compute(domain.getStart(), buffer.get(0)));
+    }
+
+    private void compute(TsPeriod start, DataBlock data) {
         data.set(0);
         int freq = start.getFrequency().intValue();
         if ((freq != 12 && freq != 4) || dur_ < 1 || dur_ > 25) {
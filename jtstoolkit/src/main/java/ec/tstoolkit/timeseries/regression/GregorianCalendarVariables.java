@@ -19,6 +19,7 @@ package ec.tstoolkit.timeseries.regression;
 
 import ec.tstoolkit.data.DataBlock;
 import ec.tstoolkit.design.Development;
+import ec.tstoolkit.timeseries.calendars.CalendarCache;
 import ec.tstoolkit.timeseries.calendars.DefaultGregorianCalendarProvider;
 import ec.tstoolkit.timeseries.calendars.IGregorianCalendarProvider;
 import ec.tstoolkit.timeseries.calendars.TradingDaysType;
@@ -59,7 +60,12 @@ public class GregorianCalendarVariables implements ITradingDaysVariable, Cloneab
 
     @Override
     public void data(TsDomain domain, List<DataBlock> data) {
-        m_provider.calendarData(m_dkind, domain, data);
+        if (m_dkind == TradingDaysType.None) {
+            return;
+        }
+        final TradingDaysType dkind = m_dkind;
+        CalendarCache.getDefault().data(m_provider, dkind, domain, data,
+                (d, buffer) -> m_provider.calendarData(dkind, d, buffer));
     }
 
     @Override
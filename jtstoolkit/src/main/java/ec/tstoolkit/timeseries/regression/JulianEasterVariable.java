@@ -19,10 +19,12 @@ package ec.tstoolkit.timeseries.regression;
 import ec.tstoolkit.data.DataBlock;
 import ec.tstoolkit.design.Development;
 import ec.tstoolkit.timeseries.Day;
+import ec.tstoolkit.timeseries.calendars.CalendarCache;
 import ec.tstoolkit.timeseries.calendars.Utilities;
 import ec.tstoolkit.timeseries.simplets.TsDomain;
 import ec.tstoolkit.timeseries.simplets.TsFrequency;
 import ec.tstoolkit.timeseries.simplets.TsPeriod;
+import java.util.Arrays;
 import java.util.GregorianCalendar;
 
 /**
@@ -104,6 +106,12 @@ public class JulianEasterVariable extends AbstractSingleTsVariable implements IE
 
     @Override
     public void data(TsPeriod start, DataBlock data) {
+        CalendarCache.getDefault().data(JulianEasterVariable.class, Arrays.asList(dur_, m_gc),
+                new TsDomain(start, data.getLength()), Arrays.asList(data),
+                (domain, buffer) -> compute(domain.getStart(), buffer.get(0)));
+    }
+
+    private void compute(TsPeriod start, DataBlock data) {
         // very inefficient code.Should be improved
         data.set(0);
         int freq = start.getFrequency().intValue();
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.timeseries.simplets;
+
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.data.IReadDataBlock;
+import ec.tstoolkit.design.Development;
+import ec.tstoolkit.design.NewObject;
+import ec.tstoolkit.design.Unsafe;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Columnar storage of a (large) set of raw time series. The observations of
+ * all the series are stored in a single contiguous buffer; each series is
+ * identified by its offset in that buffer, its frequency and its starting
+ * period. Compared to a list of TsData, the batch only needs a few primitive
+ * arrays, whatever the number of series.
+ * <br>
+ * The data blocks returned by the batch are views on the common buffer (no
+ * copy). TsData objects own their data, so that the series returned by
+ * {@link #series(int)} are copies.
+ * <br>
+ * Missing series (null TsData) are allowed; they are stored as empty series
+ * without frequency.
+ *
+ * @author Jean Palate
+ */
+@Development(status = Development.Status.Alpha)
+public final class TsDataBatch implements Iterable<TsData> {
+
+    /**
+     * Creates a batch from a list of series
+     *
+     * @param series The series. Some of them can be null
+     * @return A new batch. The data are copied
+     */
+    public static TsDataBatch of(Iterable<TsData> series) {
+        Builder builder = new Builder();
+        for (TsData s : series) {
+            builder.add(s);
+        }
+        return builder.build();
+    }
+
+    public static TsDataBatch of(TsData... series) {
+        Builder builder = new Builder(series.length, 0);
+        for (TsData s : series) {
+            builder.add(s);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a batch from the series of a table. The selector of the table is
+     * not taken into account: the batch contains the complete series
+     *
+     * @param table The table
+     * @return A new batch. The data are copied
+     */
+    public static TsDataBatch of(TsDataTable table) {
+        int n = table.getSeriesCount();
+        int size = 0;
+        for (int i = 0; i < n; ++i) {
+            TsData s = table.series(i);
+            if (s != null) {
+                size += s.getLength();
+            }
+        }
+        Builder builder = new Builder(n, size);
+        for (int i = 0; i < n; ++i) {
+            builder.add(table.series(i));
+        }
+        return builder.build();
+    }
+
+    private final double[] data_;
+    private final int[] offsets_, freqs_, ids_;
+    private final int n_;
+
+    private TsDataBatch(double[] data, int[] offsets, int[] freqs, int[] ids, int n) {
+        data_ = data;
+        offsets_ = offsets;
+        freqs_ = freqs;
+        ids_ = ids;
+        n_ = n;
+    }
+
+    /**
+     * Number of series in the batch (including the missing series)
+     *
+     * @return
+     */
+    public int getCount() {
+        return n_;
+    }
+
+    /**
+     * Total number of observations in the batch
+     *
+     * @return
+     */
+    public int getTotalLength() {
+        return offsets_[n_];
+    }
+
+    public boolean isMissing(int idx) {
+        check(idx);
+        return freqs_[idx] == 0;
+    }
+
+    public int getLength(int idx) {
+        check(idx);
+        return offsets_[idx + 1] - offsets_[idx];
+    }
+
+    /**
+     * Gets the frequency of a series
+     *
+     * @param idx The position of the series
+     * @return The frequency or null if the series is missing
+     */
+    public TsFrequency getFrequency(int idx) {
+        check(idx);
+        return freqs_[idx] == 0 ? null : TsFrequency.valueOf(freqs_[idx]);
+    }
+
+    /**
+     * Gets the starting period of a series
+     *
+     * @param idx The position of the series
+     * @return A new period or null if the series is missing
+     */
+    @NewObject
+    public TsPeriod getStart(int idx) {
+        check(idx);
+        return freqs_[idx] == 0 ? null : new TsPeriod(TsFrequency.valueOf(freqs_[idx]), ids_[idx]);
+    }
+
+    /**
+     * Gets the domain of a series
+     *
+     * @param idx The position of the series
+     * @return The domain or null if the series is missing
+     */
+    public TsDomain getDomain(int idx) {
+        TsPeriod start = getStart(idx);
+        return start == null ? null : new TsDomain(start, getLength(idx));
+    }
+
+    public double get(int idx, int pos) {
+        return data_[position(idx, pos)];
+    }
+
+    public void set(int idx, int pos, double value) {
+        data_[position(idx, pos)] = value;
+    }
+
+    /**
+     * Gets the data of a series, without copy. Modifications of the block are
+     * reflected in the batch.
+     *
+     * @param idx The position of the series
+     * @return A view on the data of the series (empty for a missing series)
+     */
+    public DataBlock block(int idx) {
+        check(idx);
+        return new DataBlock(data_, offsets_[idx], offsets_[idx + 1], 1);
+    }
+
+    /**
+     * Gets the data of a series, with its starting period, without copy.
+     *
+     * @param idx The position of the series
+     * @return A view on the series or null if the series is missing
+     */
+    public TsDataBlock tsBlock(int idx) {
+        TsPeriod start = getStart(idx);
+        return start == null ? null : new TsDataBlock(start, block(idx));
+    }
+
+    /**
+     * Gets a series of the batch. The data are copied.
+     *
+     * @param idx The position of the series
+     * @return A new series or null if the series is missing
+     */
+    @NewObject
+    public TsData series(int idx) {
+        TsPeriod start = getStart(idx);
+        if (start == null) {
+            return null;
+        }
+        return new TsData(start, Arrays.copyOfRange(data_, offsets_[idx], offsets_[idx + 1]), false);
+    }
+
+    /**
+     * Applies a processing on each series of the batch and stores the results
+     * in a new batch. Only one series (and its result) is materialized at a
+     * time.
+     *
+     * @param fn The processing. It is not called for missing series. It may
+     * return null
+     * @return A new batch, with the same number of series
+     */
+    public TsDataBatch map(Function<TsData, TsData> fn) {
+        Builder builder = new Builder(n_, data_.length);
+        for (int i = 0; i < n_; ++i) {
+            TsData s = series(i);
+            builder.add(s == null ? null : fn.apply(s));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Read-only view on the common buffer (the observations of all the
+     * series, one after the other). Can be used to copy the batch in an
+     * off-heap (direct) buffer.
+     *
+     * @return
+     */
+    public DoubleBuffer asBuffer() {
+        return DoubleBuffer.wrap(data_, 0, offsets_[n_]).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Position of the first observation of a series in the common buffer
+     *
+     * @param idx The position of the series
+     * @return
+     */
+    public int getOffset(int idx) {
+        check(idx);
+        return offsets_[idx];
+    }
+
+    @Unsafe
+    public double[] internalStorage() {
+        return data_;
+    }
+
+    @Override
+    public Iterator<TsData> iterator() {
+        return new Iterator<TsData>() {
+            private int cur_;
+
+            @Override
+            public boolean hasNext() {
+                return cur_ < n_;
+            }
+
+            @Override
+            public TsData next() {
+                if (cur_ >= n_) {
+                    throw new NoSuchElementException();
+                }
+                return series(cur_++);
+            }
+        };
+    }
+
+    private void check(int idx) {
+        if (idx < 0 || idx >= n_) {
+            throw new IndexOutOfBoundsException(Integer.toString(idx));
+        }
+    }
+
+    private int position(int idx, int pos) {
+        check(idx);
+        int p = offsets_[idx] + pos;
+        if (pos < 0 || p >= offsets_[idx + 1]) {
+            throw new IndexOutOfBoundsException(Integer.toString(pos));
+        }
+        return p;
+    }
+
+    /**
+     * Incremental creation of a batch. The buffers grow as needed
+     */
+    public static final class Builder {
+
+        private double[] data_;
+        private int[] offsets_, freqs_, ids_;
+        private int n_, size_;
+
+        public Builder() {
+            this(16, 256);
+        }
+
+        /**
+         * Creates a new builder
+         *
+         * @param nseries The expected number of series
+         * @param nobs The expected total number of observations
+         */
+        public Builder(int nseries, int nobs) {
+            int n = Math.max(nseries, 1);
+            data_ = new double[Math.max(nobs, 1)];
+            offsets_ = new int[n + 1];
+            freqs_ = new int[n];
+            ids_ = new int[n];
+        }
+
+        /**
+         * Adds a series (copied in the batch)
+         *
+         * @param s The series. May be null
+         * @return This builder
+         */
+        public Builder add(TsData s) {
+            if (s == null) {
+                return addMissing();
+            } else {
+                return add(s.getStart(), s);
+            }
+        }
+
+        /**
+         * Adds a series (copied in the batch)
+         *
+         * @param start The starting period
+         * @param data The observations
+         * @return This builder
+         */
+        public Builder add(TsPeriod start, IReadDataBlock data) {
+            int len = data.getLength();
+            ensureSeriesCapacity();
+            ensureDataCapacity(len);
+            data.copyTo(data_, size_);
+            freqs_[n_] = start.getFrequency().intValue();
+            ids_[n_] = start.id();
+            size_ += len;
+            offsets_[++n_] = size_;
+            return this;
+        }
+
+        public Builder addMissing() {
+            ensureSeriesCapacity();
+            freqs_[n_] = 0;
+            ids_[n_] = 0;
+            offsets_[++n_] = size_;
+            return this;
+        }
+
+        public int getCount() {
+            return n_;
+        }
+
+        /**
+         * Creates the batch. The builder should not be used anymore.
+         *
+         * @return
+         */
+        public TsDataBatch build() {
+            double[] data = size_ == data_.length ? data_ : Arrays.copyOf(data_, size_);
+            int[] offsets = n_ + 1 == offsets_.length ? offsets_ : Arrays.copyOf(offsets_, n_ + 1);
+            int[] freqs = n_ == freqs_.length ? freqs_ : Arrays.copyOf(freqs_, n_);
+            int[] ids = n_ == ids_.length ? ids_ : Arrays.copyOf(ids_, n_);
+            return new TsDataBatch(data, offsets, freqs, ids, n_);
+        }
+
+        private void ensureSeriesCapacity() {
+            if (n_ == freqs_.length) {
+                int nn = freqs_.length << 1;
+                offsets_ = Arrays.copyOf(offsets_, nn + 1);
+                freqs_ = Arrays.copyOf(freqs_, nn);
+                ids_ = Arrays.copyOf(ids_, nn);
+            }
+        }
+
+        private void ensureDataCapacity(int len) {
+            if (size_ + len > data_.length) {
+                data_ = Arrays.copyOf(data_, Math.max(size_ + len, data_.length << 1));
+            }
+        }
+    }
+}
@@ -17,127 +17,408 @@
 
 package ec.tstoolkit.timeseries.simplets;
 
-import java.util.Map.Entry;
+import ec.tstoolkit.maths.matrices.Matrix;
 import java.util.*;
 
 /**
+ * Real-time database of a time series: the observations of the series are
+ * stored for the different vintages in which they have been published.
+ * <br>
+ * The vintages are kept in a sorted index. For each period, the revisions of
+ * the observation are stored in a row of primitive arrays, which starts at the
+ * first vintage that contains the period (the rows form a triangular revision
+ * matrix when the vintages are added in chronological order). The periods that
+ * are not defined in a vintage are considered as missing.
  *
  * @author Jean Palate
+ * @param <T> The type of the vintages
  */
-public class TsDataVintages<T extends Comparable> {
+public class TsDataVintages<T extends Comparable<? super T>> {
 
-    private SortedMap< TsPeriod, SortedMap<T, Double>> data_ = new TreeMap< >();
+    private final ArrayList<T> vintages_ = new ArrayList<>();
+    private TsPeriod start_;
+    private Revisions[] rows_ = new Revisions[0];
+    private int nrows_;
 
     public void add(TsPeriod period, double value, T vintage) {
-        SortedMap<T, Double> cur = data_.get(period);
-        if (cur == null) {
-            cur = new TreeMap<>();
-            data_.put(period, cur);
-        }
-        cur.put(vintage, value);
+        int col = vintage(vintage);
+        row(period).set(col, value);
     }
 
     public void add(TsData data, T vintage) {
-        for (int i = 0; i < data.getLength(); ++i) {
-            add(data.getDomain().get(i), data.get(i), vintage);
+        int n = data.getLength();
+        if (n == 0) {
+            return;
+        }
+        int col = vintage(vintage);
+        TsPeriod start = data.getStart();
+        row(start);
+        row(data.getLastPeriod());
+        int pos = start.minus(start_);
+        for (int i = 0; i < n; ++i) {
+            row(pos + i).set(col, data.get(i));
         }
     }
 
     public T lastVintage(TsPeriod p) {
-        SortedMap<T, Double> cur = data_.get(p);
-        if (cur == null) {
+        Revisions row = find(p);
+        if (row == null) {
             return null;
+        } else {
+            return vintages_.get(row.last());
         }
-        else {
-            return cur.lastKey();
-        }
+    }
+
+    /**
+     * The domain of all the periods that have been defined in at least one
+     * vintage
+     *
+     * @return The domain or null if the database is empty
+     */
+    public TsDomain getDomain() {
+        return start_ == null ? null : new TsDomain(start_, nrows_);
+    }
+
+    public int getVintagesCount() {
+        return vintages_.size();
     }
 
     public TsData current() {
-        TsPeriod start = data_.firstKey(), end = data_.lastKey();
-        TsData rslt = new TsData(start, end.minus(start) + 1);
-        Iterator<Entry<TsPeriod, SortedMap<T, Double>>> iterator = data_.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Entry<TsPeriod, SortedMap<T, Double>> cur = iterator.next();
-            int pos = cur.getKey().minus(start);
-            SortedMap<T, Double> map = cur.getValue();
-            double val = map.get(map.lastKey());
-            rslt.set(pos, val);
+        if (start_ == null) {
+            return null;
+        }
+        TsData rslt = new TsData(getDomain());
+        for (int i = 0; i < nrows_; ++i) {
+            Revisions row = rows_[i];
+            if (row != null) {
+                rslt.set(i, row.get(row.last()));
+            }
         }
         return rslt;
     }
 
     public TsData initial() {
-        TsPeriod start = data_.firstKey(), end = data_.lastKey();
-        TsData rslt = new TsData(start, end.minus(start) + 1);
-        Iterator<Entry<TsPeriod, SortedMap<T, Double>>> iterator = data_.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Entry<TsPeriod, SortedMap<T, Double>> cur = iterator.next();
-            int pos = cur.getKey().minus(start);
-            SortedMap<T, Double> map = cur.getValue();
-            double val = map.get(map.firstKey());
-            rslt.set(pos, val);
+        if (start_ == null) {
+            return null;
+        }
+        TsData rslt = new TsData(getDomain());
+        for (int i = 0; i < nrows_; ++i) {
+            Revisions row = rows_[i];
+            if (row != null) {
+                rslt.set(i, row.get(row.first()));
+            }
         }
         return rslt;
     }
 
     public TsData data(T vintage, boolean exactVintage) {
-        TsPeriod start = data_.firstKey(), end = data_.lastKey();
-        TsData rslt = new TsData(start, end.minus(start) + 1);
-        Iterator<Entry<TsPeriod, SortedMap<T, Double>>> iterator = data_.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Entry<TsPeriod, SortedMap<T, Double>> cur = iterator.next();
-            int pos = cur.getKey().minus(start);
-            SortedMap<T, Double> map = cur.getValue();
-            Double val = map.get(vintage);
-            if (val == null && ! exactVintage){
-                SortedMap<T, Double> head= map.headMap(vintage);
-                if (! head.isEmpty())
-                    val=map.get(head.lastKey());
-            }
-            if (val != null) {
-                rslt.set(pos, val);
-            }
+        if (start_ == null) {
+            return null;
         }
+        TsData rslt = new TsData(getDomain());
+        fill(vintage, exactVintage, rslt.internalStorage(), 0);
         return rslt;
     }
-    
+
+    /**
+     * Gets all the vintages of a given period
+     *
+     * @param p The period
+     * @return A new sorted map (vintage, value) or null if the period is not
+     * defined
+     */
     public SortedMap<T, Double> vintages(TsPeriod p) {
-        return data_.get(p);
+        Revisions row = find(p);
+        if (row == null) {
+            return null;
+        }
+        SortedMap<T, Double> map = new TreeMap<>();
+        for (int col = row.first(); col <= row.last(); ++col) {
+            if (row.isDefined(col)) {
+                map.put(vintages_.get(col), row.get(col));
+            }
+        }
+        return map;
     }
 
     public SortedSet<T> allVintages() {
-        TreeSet<T> set = new TreeSet<>();
-        Iterator<Entry<TsPeriod, SortedMap<T, Double>>> iterator = data_.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Entry<TsPeriod, SortedMap<T, Double>> cur = iterator.next();
-            for (T t : cur.getValue().keySet()) {
-                if (!set.contains(t)) {
-                    set.add(t);
+        return new TreeSet<>(vintages_);
+    }
+
+    public double[] dataVintages(TsPeriod p) {
+        Revisions row = find(p);
+        if (row == null) {
+            return null;
+        }
+        return row.values();
+    }
+
+    public TsMatrix toMatrix(Collection<T> vintages, boolean exactVintages) {
+        if (start_ == null) {
+            return null;
+        }
+        Matrix m = new Matrix(nrows_, vintages.size());
+        double[] storage = m.internalStorage();
+        int j = 0;
+        for (T t : vintages) {
+            fill(t, exactVintages, storage, j++ * nrows_);
+        }
+        return new TsMatrix(start_, m, false);
+    }
+
+    /**
+     * Releases the unused capacity of the revision rows
+     */
+    public void trim() {
+        for (int i = 0; i < nrows_; ++i) {
+            if (rows_[i] != null) {
+                rows_[i].trim();
+            }
+        }
+        if (rows_.length > nrows_) {
+            rows_ = Arrays.copyOf(rows_, nrows_);
+        }
+    }
+
+    private void fill(T vintage, boolean exactVintage, double[] buffer, int start) {
+        int col = search(vintage);
+        if (col < 0) {
+            col = exactVintage ? -1 : -col - 2;
+        }
+        for (int i = 0, j = start; i < nrows_; ++i, ++j) {
+            Revisions row = rows_[i];
+            double val = Double.NaN;
+            if (row != null && col >= 0) {
+                if (exactVintage) {
+                    if (row.isDefined(col)) {
+                        val = row.get(col);
+                    }
+                } else {
+                    int pcol = row.previous(col);
+                    if (pcol >= 0) {
+                        val = row.get(pcol);
+                    }
                 }
             }
+            buffer[j] = val;
         }
-        return set;
     }
 
-    public double[] dataVintages(TsPeriod p) {
-        SortedMap<T, Double> v = vintages(p);
-        if (v == null) {
+    private int search(T vintage) {
+        int low = 0, high = vintages_.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = vintages_.get(mid).compareTo(vintage);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Gets the position of a vintage in the index. The vintage is inserted if
+     * need be
+     *
+     * @param vintage
+     * @return
+     */
+    private int vintage(T vintage) {
+        int pos = search(vintage);
+        if (pos >= 0) {
+            return pos;
+        }
+        pos = -pos - 1;
+        vintages_.add(pos, vintage);
+        if (pos < vintages_.size() - 1) {
+            // shifts the next vintages
+            for (int i = 0; i < nrows_; ++i) {
+                if (rows_[i] != null) {
+                    rows_[i].insert(pos);
+                }
+            }
+        }
+        return pos;
+    }
+
+    private Revisions find(TsPeriod period) {
+        if (start_ == null) {
+            return null;
+        }
+        int pos = period.minus(start_);
+        if (pos < 0 || pos >= nrows_) {
             return null;
         }
-        double[] vals = new double[v.size()];
-        int i = 0;
-        for (Double x : v.values()) {
-            vals[i++] = x;
+        return rows_[pos];
+    }
+
+    private Revisions row(TsPeriod period) {
+        if (start_ == null) {
+            start_ = period.clone();
         }
-        return vals;
+        int pos = period.minus(start_);
+        if (pos < 0) {
+            Revisions[] nrows = new Revisions[Math.max(nrows_ - pos, rows_.length)];
+            System.arraycopy(rows_, 0, nrows, -pos, nrows_);
+            rows_ = nrows;
+            nrows_ -= pos;
+            start_ = period.clone();
+            pos = 0;
+        }
+        return row(pos);
     }
-    
-    public TsMatrix toMatrix(Collection<T> vintages, boolean exactVintages){
-        TsData[] s=new TsData[vintages.size()];
-        int i=0;
-        for (T t: vintages)
-            s[i++]=data(t, exactVintages);
-        return new TsMatrix(s);
+
+    private Revisions row(int pos) {
+        if (pos >= rows_.length) {
+            rows_ = Arrays.copyOf(rows_, Math.max(pos + 1, 2 * rows_.length));
+        }
+        if (pos >= nrows_) {
+            nrows_ = pos + 1;
+        }
+        Revisions row = rows_[pos];
+        if (row == null) {
+            row = new Revisions();
+            rows_[pos] = row;
+        }
+        return row;
+    }
+
+    /**
+     * Revisions of a given period. The values are stored from the first
+     * vintage in which the period is defined up to the last one.
+     */
+    private static final class Revisions {
+
+        private static final double[] EMPTY = new double[0];
+        private int first_ = -1, n_;
+        private double[] vals_ = EMPTY;
+        // defined values (one bit by vintage)
+        private long[] defined_ = new long[1];
+
+        int first() {
+            return first_;
+        }
+
+        int last() {
+            return first_ + n_ - 1;
+        }
+
+        boolean isDefined(int col) {
+            int j = col - first_;
+            return j >= 0 && j < n_ && (defined_[j >> 6] & (1L << j)) != 0;
+        }
+
+        double get(int col) {
+            return vals_[col - first_];
+        }
+
+        /**
+         * Searches the last defined vintage before or at a given vintage
+         *
+         * @param col
+         * @return The position of the vintage or -1
+         */
+        int previous(int col) {
+            for (int j = Math.min(col - first_, n_ - 1); j >= 0; --j) {
+                if ((defined_[j >> 6] & (1L << j)) != 0) {
+                    return first_ + j;
+                }
+            }
+            return -1;
+        }
+
+        double[] values() {
+            double[] v = new double[n_];
+            int k = 0;
+            for (int j = 0; j < n_; ++j) {
+                if ((defined_[j >> 6] & (1L << j)) != 0) {
+                    v[k++] = vals_[j];
+                }
+            }
+            return k == n_ ? v : Arrays.copyOf(v, k);
+        }
+
+        void set(int col, double val) {
+            if (n_ == 0) {
+                first_ = col;
+            } else if (col < first_) {
+                shift(first_ - col);
+            }
+            int j = col - first_;
+            if (j >= vals_.length) {
+                ensureCapacity(Math.max(j + 1, Math.max(4, 2 * vals_.length)));
+            }
+            vals_[j] = val;
+            defined_[j >> 6] |= 1L << j;
+            if (j >= n_) {
+                n_ = j + 1;
+            }
+        }
+
+        /**
+         * Inserts a new (undefined) vintage
+         *
+         * @param col The position of the new vintage
+         */
+        void insert(int col) {
+            if (col <= first_) {
+                ++first_;
+            } else if (col <= last()) {
+                int j = col - first_;
+                ensureCapacity(n_ + 1);
+                System.arraycopy(vals_, j, vals_, j + 1, n_ - j);
+                for (int k = n_; k > j; --k) {
+                    setDefined(k, isDefinedAt(k - 1));
+                }
+                setDefined(j, false);
+                ++n_;
+            }
+        }
+
+        void trim() {
+            if (vals_.length > n_) {
+                vals_ = Arrays.copyOf(vals_, n_);
+                defined_ = Arrays.copyOf(defined_, 1 + (n_ >> 6));
+            }
+        }
+
+        private void shift(int del) {
+            ensureCapacity(n_ + del);
+            System.arraycopy(vals_, 0, vals_, del, n_);
+            for (int k = n_ - 1; k >= 0; --k) {
+                setDefined(k + del, isDefinedAt(k));
+            }
+            for (int k = 0; k < del; ++k) {
+                setDefined(k, false);
+            }
+            first_ -= del;
+            n_ += del;
+        }
+
+        private boolean isDefinedAt(int j) {
+            return (defined_[j >> 6] & (1L << j)) != 0;
+        }
+
+        private void setDefined(int j, boolean def) {
+            if (def) {
+                defined_[j >> 6] |= 1L << j;
+            } else {
+                defined_[j >> 6] &= ~(1L << j);
+            }
+        }
+
+        private void ensureCapacity(int n) {
+            if (n > vals_.length) {
+                vals_ = Arrays.copyOf(vals_, n);
+            }
+            int nbits = 1 + ((n - 1) >> 6);
+            if (nbits > defined_.length) {
+                defined_ = Arrays.copyOf(defined_, nbits);
+            }
+        }
     }
 }
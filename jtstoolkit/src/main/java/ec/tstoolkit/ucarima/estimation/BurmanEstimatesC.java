@@ -55,8 +55,10 @@ public class BurmanEstimatesC {
     private double m_ser = 1, m_mean;
     private int m_nparams;
     // private int m_p, m_q;, m_r;
-    private double[][] m_e, m_f;
+    private double[][] m_e, m_f, m_se, m_sf;
     private double[] m_xb, m_xf;
+    // extended series and working buffers, shared by the components
+    private double[] m_z, m_w1, m_w2, m_x1, m_x2;
     private boolean m_bmean;
 
     /**
@@ -96,33 +98,18 @@ public class BurmanEstimatesC {
             ++qstar;
         }
 
-        // //////////////////////////////////
-        // Complete z, the original series
-        // z is the extended series with forecasts and backcasts
-        double[] z = new double[n + 2 * nf];
-        for (int i = 0; i < n; ++i) {
-            z[i + nf] = m_data[i];
-        }
-
-        int ntmp = nf + n;
-        for (int i = 0; i < nf; ++i) {
-            z[ntmp + i] = m_xf[i];
-        }
-        ntmp = nf - 1;
-        for (int i = 0; i < nf; ++i) {
-            z[ntmp - i] = m_xb[i];
-        }
-        if (useMean()) {
-            double m = correctedMean();
-            for (int i = 0; i < z.length; ++i) {
-                z[i] -= m;
-            }
+        double[] z = extendedSeries();
+        if (m_w1 == null) {
+            m_w1 = new double[n + qstar];
+            m_w2 = new double[n + nf + qstar];
+            m_x1 = new double[n + Math.max(2 * qstar, nf)];
+            m_x2 = new double[n + 2 * qstar + Math.max(nf, 2 * qstar)];
         }
         // //////////////////////////////////
         // Compute w1(t) = g(F) z(t)
         Polynomial g = m_g[cmp];
         int gstar = g.getDegree();
-        double[] w1 = new double[n + qstar];
+        double[] w1 = m_w1;
         for (int i = 0; i < n + qstar; ++i) {
             double s = g.get(0) * z[nf + i];
             for (int j = 1; j <= gstar; ++j) {
@@ -134,7 +121,7 @@ public class BurmanEstimatesC {
 
         // calculation of w2=g*data, for -q<=t<n+nf , elements -q to n+nf of
         // data w1: elt t=0 at place q
-        double[] w2 = new double[n + nf + qstar];
+        double[] w2 = m_w2;
         for (int i = 0; i < n + nf + qstar; ++i) {
             double s = g.get(0) * z[nf - qstar + i];
             for (int j = 1; j <= gstar; ++j) {
@@ -144,14 +131,14 @@ public class BurmanEstimatesC {
         }
 
         double[] ww = new double[pstar + qstar];
-        ntmp = n + qstar - pstar;
+        int ntmp = n + qstar - pstar;
         for (int i = 0; i < pstar; ++i) {
             ww[i] = w1[ntmp + i];
         }
 
         double[] mx = ww.length == 0 ? new double[0] : m_solver.solve(ww);
-        int nx1 = n + Math.max(2 * qstar, nf);
-        double[] x1 = new double[nx1];
+        double[] x1 = m_x1;
+        int nx1 = x1.length;
         for (int i = 0; i < pstar + qstar; ++i) {
             x1[ntmp + i] = mx[i];
             // backward iteration
@@ -177,8 +164,8 @@ public class BurmanEstimatesC {
             ww[i] = w2[pstar - i - 1];
         }
         mx = ww.length == 0 ? new double[0] : m_solver.solve(ww);
-        int nx2 = n + 2 * qstar + Math.max(nf, 2 * qstar);
-        double[] x2 = new double[nx2];
+        double[] x2 = m_x2;
+        int nx2 = x2.length;
         for (int i = 0; i < pstar + qstar; ++i) {
             x2[pstar + qstar - 1 - i] = mx[i];
 
@@ -220,6 +207,116 @@ public class BurmanEstimatesC {
         }
     }
 
+    /**
+     * Computes the extended series (backcasts, data, forecasts), corrected
+     * for the mean if need be
+     *
+     * @return
+     */
+    private double[] extendedSeries() {
+        if (m_z != null) {
+            return m_z;
+        }
+        int n = m_data.length, nf = m_xf.length;
+        double[] z = new double[n + 2 * nf];
+        for (int i = 0; i < n; ++i) {
+            z[i + nf] = m_data[i];
+        }
+
+        int ntmp = nf + n;
+        for (int i = 0; i < nf; ++i) {
+            z[ntmp + i] = m_xf[i];
+        }
+        ntmp = nf - 1;
+        for (int i = 0; i < nf; ++i) {
+            z[ntmp - i] = m_xb[i];
+        }
+        if (useMean()) {
+            double m = correctedMean();
+            for (int i = 0; i < z.length; ++i) {
+                z[i] -= m;
+            }
+        }
+        m_z = z;
+        return z;
+    }
+
+    /**
+     * Computes the standard deviations of the estimates and of the forecasts
+     * of a component. The variances of the total errors are computed in one
+     * call, for the forecasts and the estimates (the final error and the
+     * concurrent revision are only computed once)
+     *
+     * @param cmp
+     */
+    private void calcStdev(final int cmp) {
+        if (m_se[cmp] != null || m_data == null) {
+            return;
+        }
+        int n = m_data.length;
+        if (m_wk.getUcarimaModel().getComponent(cmp).isNull()) {
+            m_se[cmp] = new double[n];
+            m_sf[cmp] = new double[m_nf];
+            return;
+        }
+        try {
+            int m = (n + 1) / 2;
+            double[] err = m_wk.totalErrorVariance(cmp, true, -m_nf, m_nf + m);
+            double[] e = new double[n];
+            for (int i = 0; i < m; ++i) {
+                double x = m_ser * Math.sqrt(err[m_nf + i]);
+                e[i] = x;
+                e[n - i - 1] = x;
+            }
+            double[] f = new double[m_nf];
+            for (int i = 0; i < m_nf; ++i) {
+                f[i] = m_ser * Math.sqrt(err[m_nf - 1 - i]);
+            }
+            m_sf[cmp] = f;
+            m_se[cmp] = e;
+        } catch (ArimaException | MatrixException err) {
+            m_sf[cmp] = null;
+            m_se[cmp] = new double[n];
+        }
+    }
+
+    /**
+     * Computes in one pass the estimates and the forecasts of all the
+     * components and, if requested, their standard deviations. The results are
+     * then retrieved by the usual methods (estimates, forecasts,
+     * stdevEstimates...)
+     *
+     * @param stdev True if the standard deviations must be computed
+     */
+    public void computeAll(final boolean stdev) {
+        if (m_data == null) {
+            return;
+        }
+        for (int i = 0; i < m_e.length; ++i) {
+            calc(i);
+            if (stdev) {
+                calcStdev(i);
+            }
+        }
+    }
+
+    private void clearBuffers() {
+        m_z = null;
+        m_w1 = null;
+        m_w2 = null;
+        m_x1 = null;
+        m_x2 = null;
+    }
+
+    private void clearStdev() {
+        if (m_se != null) {
+            for (int i = 0; i < m_se.length; ++i) {
+                m_se[i] = null;
+                m_sf[i] = null;
+            }
+        }
+    }
+
     protected void clearForecasts() {
         m_xb = null;
         m_xf = null;
@@ -228,6 +325,8 @@ public class BurmanEstimatesC {
                 m_f[i] = null;
             }
         }
+        clearBuffers();
+        clearStdev();
     }
 
     /**
@@ -241,6 +340,8 @@ public class BurmanEstimatesC {
                 m_e[i] = null;
             }
         }
+        clearBuffers();
+        clearStdev();
     }
 
     /**
@@ -423,6 +524,7 @@ public class BurmanEstimatesC {
 
     public void setSer(double ser) {
         m_ser = ser;
+        clearStdev();
     }
 
     /**
@@ -461,6 +563,8 @@ public class BurmanEstimatesC {
         int ncmps = ucm.getComponentsCount();
         m_e = new double[ncmps][];
         m_f = new double[ncmps][];
+        m_se = new double[ncmps][];
+        m_sf = new double[ncmps][];
         m_g = new Polynomial[ncmps];
 
         m_ma = model.getMA().getPolynomial();
@@ -628,23 +732,8 @@ public class BurmanEstimatesC {
      */
     public double[] stdevEstimates(final int cmp) {
         calc(cmp);
-        if (m_wk.getUcarimaModel().getComponent(cmp).isNull()) {
-            return new double[m_data.length];
-        } else {
-            try {
-                int n = (m_data.length + 1) / 2;
-                double[] err = m_wk.totalErrorVariance(cmp, true, 0, n);
-                double[] e = new double[m_data.length];
-                for (int i = 0; i < err.length; ++i) {
-                    double x = m_ser * Math.sqrt(err[i]);
-                    e[i] = x;
-                    e[e.length - i - 1] = x;
-                }
-                return e;
-            } catch (ArimaException | MatrixException err) {
-                return new double[m_data.length];
-            }
-        }
+        calcStdev(cmp);
+        return m_se[cmp];
     }
 
     /**
@@ -654,6 +743,11 @@ public class BurmanEstimatesC {
      * @return
      */
     public double[] stdevForecasts(final int cmp, final boolean signal) {
+        if (signal) {
+            calc(cmp);
+            calcStdev(cmp);
+            return m_sf[cmp];
+        }
         try {
             calc(cmp);
             if (m_wk.getUcarimaModel().getComponent(cmp).isNull()) {
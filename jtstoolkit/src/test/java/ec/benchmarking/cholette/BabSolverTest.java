@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.benchmarking.cholette;
+
+import ec.tstoolkit.maths.matrices.Matrix;
+import ec.tstoolkit.maths.matrices.SymmetricMatrix;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class BabSolverTest {
+
+    public BabSolverTest() {
+    }
+
+    private static void testSolve(int n, int conv, double ro) {
+        Summation sum = new Summation(n, conv);
+        IVariance var = new Ar1Variance(ro);
+        int m = sum.sdim();
+        Random rnd = new Random(0);
+        double[] r = new double[m];
+        for (int i = 0; i < m; ++i) {
+            r[i] = rnd.nextGaussian();
+        }
+        Matrix svs = SymmetricMatrix.inverse(sum.BAB(var));
+        double[] u = r.clone();
+        BabSolver.of(sum, var).solve(u);
+        for (int i = 0; i < m; ++i) {
+            assertEquals(svs.row(i).dot(r), u[i], 1e-9);
+        }
+    }
+
+    @Test
+    public void testAr1() {
+        testSolve(1, 1, .9);
+        testSolve(40, 4, .9);
+        testSolve(43, 4, -.7);
+        testSolve(120, 12, 0);
+        testSolve(520, 52, .99);
+        testSolve(10, 5, .5);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.benchmarking.cholette;
+
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class IVarianceTest {
+
+    public IVarianceTest() {
+    }
+
+    private static void testProduct(IVariance var) {
+        int n = 100;
+        Random rnd = new Random(0);
+        double[] x = new double[n];
+        for (int i = 0; i < n; ++i) {
+            x[i] = rnd.nextGaussian();
+        }
+        double[] vx = new double[n];
+        var.product(x, vx);
+        for (int i = 0; i < n; ++i) {
+            double s = 0;
+            for (int j = 0; j < n; ++j) {
+                s += var.var(i, j) * x[j];
+            }
+            assertEquals(s, vx[i], 1e-9);
+        }
+    }
+
+    @Test
+    public void testAr1() {
+        testProduct(new Ar1Variance(.8));
+        testProduct(new Ar1Variance(-.5));
+    }
+
+    @Test
+    public void testRw() {
+        testProduct(new RwVariance());
+    }
+}
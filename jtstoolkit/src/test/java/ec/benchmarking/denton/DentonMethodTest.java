@@ -17,10 +17,12 @@
 package ec.benchmarking.denton;
 
 import ec.benchmarking.simplets.TsDenton;
+import ec.tstoolkit.data.DataBlock;
 import ec.tstoolkit.timeseries.TsAggregationType;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import ec.tstoolkit.timeseries.simplets.TsDataTable;
 import ec.tstoolkit.timeseries.simplets.TsFrequency;
+import java.util.Random;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -78,4 +80,22 @@ public class DentonMethodTest {
 //        System.out.println(table);
     }
 
+    @Test
+    public void testLongSeries() {
+        // weekly series benchmarked to annual totals
+        int ny = 100, c = 52, n = ny * c;
+        Random rnd = new Random(0);
+        double[] x = new double[n], y = new double[ny];
+        for (int i = 0; i < n; ++i) {
+            x[i] = 100 + 10 * Math.sin(i * 2 * Math.PI / c) + rnd.nextGaussian();
+            y[i / c] += x[i] * (1 + 0.001 * (i / c));
+        }
+        DentonMethod denton = new DentonMethod();
+        denton.setConversionFactor(c);
+        double[] rslt = denton.process(new DataBlock(x), new DataBlock(y));
+        for (int k = 0; k < ny; ++k) {
+            assertEquals(y[k], new DataBlock(rslt, k * c, (k + 1) * c, 1).sum(), 1e-6);
+        }
+    }
+
 }
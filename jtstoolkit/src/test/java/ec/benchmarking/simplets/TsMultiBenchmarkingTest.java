@@ -18,9 +18,13 @@ package ec.benchmarking.simplets;
 
 import ec.benchmarking.simplets.TsMultiBenchmarking.ContemporaneousConstraintDescriptor;
 import ec.benchmarking.simplets.TsMultiBenchmarking.TemporalConstraintDescriptor;
+import ec.tstoolkit.algorithm.ProcessingExecutors;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import ec.tstoolkit.timeseries.simplets.TsDataTable;
 import ec.tstoolkit.timeseries.simplets.TsFrequency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -80,5 +84,75 @@ public class TsMultiBenchmarkingTest {
 //        table.add(mb.getResult("s22"));
 //        System.out.println(table);
     }
-    
+
+    private static Map<String, TsData> tables(int ntables) {
+        Map<String, TsData> data = new LinkedHashMap<>();
+        for (int k = 0; k < ntables; ++k) {
+            for (String name : new String[]{"s11", "s12", "s21", "s22", "s_1", "s_2", "s2_"}) {
+                TsData s = new TsData(TsFrequency.Monthly, 1980, 0, 120);
+                s.randomAirline();
+                data.put(name + k, s);
+            }
+            final int c = k;
+            TsData S22 = new TsData(TsFrequency.Yearly, 1980, 0, 10);
+            S22.set(i -> 100 + 10 * i + c);
+            data.put("S22" + k, S22);
+        }
+        TsData q = new TsData(TsFrequency.Monthly, 1980, 0, 120);
+        q.randomAirline();
+        data.put("q", q);
+        TsData Q = new TsData(TsFrequency.Yearly, 1980, 0, 10);
+        Q.set(i -> 50 + i);
+        data.put("Q", Q);
+        return data;
+    }
+
+    private static TsMultiBenchmarking create(Map<String, TsData> data, int ntables, boolean temporal) {
+        TsMultiBenchmarking mb = new TsMultiBenchmarking();
+        for (Map.Entry<String, TsData> cur : data.entrySet()) {
+            mb.addInput(cur.getKey(), cur.getValue());
+        }
+        for (int k = 0; k < ntables; ++k) {
+            mb.addContemporaneousConstraint(ContemporaneousConstraintDescriptor.parse("s_1" + k + "=s11" + k + "+s21" + k));
+            mb.addContemporaneousConstraint(ContemporaneousConstraintDescriptor.parse("s_2" + k + "=s12" + k + "+s22" + k));
+            mb.addContemporaneousConstraint(ContemporaneousConstraintDescriptor.parse("s2_" + k + "=s21" + k + "+s22" + k));
+            if (temporal) {
+                mb.addTemporalConstraint(TemporalConstraintDescriptor.parse("S22" + k + "=sum(s22" + k + ")"));
+            }
+        }
+        if (temporal) {
+            // independent temporal constraint
+            mb.addTemporalConstraint(TemporalConstraintDescriptor.parse("Q=sum(q)"));
+        }
+        return mb;
+    }
+
+    private static void testSplitting(boolean temporal) {
+        Map<String, TsData> data = tables(3);
+        TsMultiBenchmarking mb = create(data, 3, temporal);
+        TsMultiBenchmarking smb = create(data, 3, temporal);
+        smb.setSplitting(true);
+        smb.setExecutor(ProcessingExecutors.getDefault());
+        assertTrue(mb.process());
+        assertTrue(smb.process());
+        assertEquals(mb.endogenous(), smb.endogenous());
+        for (String s : mb.endogenous()) {
+            TsData b = mb.getResult(s), sb = smb.getResult(s);
+            assertEquals(b.getDomain(), sb.getDomain());
+            assertTrue(b.distance(sb) < 1e-6);
+        }
+        // a second processing gives the same results
+        List<String> endo = smb.endogenous();
+        assertTrue(smb.process());
+        assertEquals(endo, smb.endogenous());
+        for (String s : mb.endogenous()) {
+            assertTrue(mb.getResult(s).distance(smb.getResult(s)) < 1e-6);
+        }
+    }
+
+    @Test
+    public void testSplitting() {
+        testSplitting(true);
+        testSplitting(false);
+    }
 }
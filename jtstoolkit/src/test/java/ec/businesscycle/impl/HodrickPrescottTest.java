@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.businesscycle.impl;
+
+import data.Data;
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.maths.matrices.Matrix;
+import ec.tstoolkit.maths.matrices.SymmetricMatrix;
+import java.util.Arrays;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class HodrickPrescottTest {
+
+    public HodrickPrescottTest() {
+    }
+
+    private static double[] trend(double[] x, double lambda) {
+        int n = x.length;
+        Matrix D = new Matrix(n - 2, n);
+        for (int i = 0; i < n - 2; ++i) {
+            D.set(i, i, 1);
+            D.set(i, i + 1, -2);
+            D.set(i, i + 2, 1);
+        }
+        Matrix A = SymmetricMatrix.XtX(D);
+        A.mul(lambda);
+        A.diagonal().add(1);
+        DataBlock s = new DataBlock(x.clone());
+        SymmetricMatrix.solve(A, s, false);
+        return s.getData();
+    }
+
+    @Test
+    public void testFastPath() {
+        double[] x = Data.P.internalStorage();
+        for (double lambda : new double[]{14400, 1600, 100}) {
+            HodrickPrescott hp = new HodrickPrescott();
+            hp.setLambda(lambda);
+            assertTrue(hp.process(x));
+            double[] s = hp.getSignal(), n = hp.getNoise();
+            double[] t = trend(x, lambda);
+            for (int i = 0; i < x.length; ++i) {
+                assertEquals(t[i], s[i], 1e-6);
+                assertEquals(x[i], s[i] + n[i], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testSignals() {
+        double[][] x = new double[][]{Arrays.copyOf(Data.X.internalStorage(), 100), Arrays.copyOf(Data.M1.internalStorage(), 100),
+            Arrays.copyOf(Data.M2.internalStorage(), 100), Arrays.copyOf(Data.P.internalStorage(), 100)};
+        HodrickPrescott hp = new HodrickPrescott();
+        double[][] s = hp.signals(x);
+        for (int i = 0; i < x.length; ++i) {
+            assertTrue(hp.process(x[i]));
+            assertArrayEquals(hp.getSignal(), s[i], 1e-12);
+        }
+        assertNull(hp.signals(new double[][]{x[0], Data.P.internalStorage()}));
+    }
+
+    @Test
+    public void testMissing() {
+        double[] x = Data.P.internalStorage().clone();
+        HodrickPrescott hp = new HodrickPrescott();
+        assertTrue(hp.process(x));
+        double[] s = hp.getSignal();
+        x[100] = Double.NaN;
+        assertTrue(hp.process(x));
+        double[] sm = hp.getSignal();
+        // the missing value doesn't change much the trend far from it
+        assertEquals(s[0], sm[0], 1e-3 * Math.abs(s[0]));
+        assertTrue(Double.isFinite(sm[100]));
+    }
+}
@@ -104,4 +104,21 @@ public class WienerKolmogorovEstimatorTest {
             }
         }
     }
+
+    @Test
+    public void testNoStdev() {
+        DefaultModelDecomposer decomposer = new DefaultModelDecomposer(false);
+        SarimaModel arima = new SarimaModelBuilder().createAirlineModel(12, -.6, -.8);
+        SeatsModel seats = new SeatsModel(Data.X, arima, false);
+        UcarimaModel ucm = decomposer.decompose(seats, null, null);
+        DefaultSeriesDecomposition sa1 = new WienerKolmogorovEstimator(-1).decompose(seats, ucm, null, null);
+        DefaultSeriesDecomposition sa2 = new WienerKolmogorovEstimator(-1, false).decompose(seats, ucm, null, null);
+        assertNotNull(sa1.getSeries(ComponentType.Trend, ComponentInformation.Stdev));
+        assertNull(sa2.getSeries(ComponentType.Trend, ComponentInformation.Stdev));
+        assertNull(sa2.getSeries(ComponentType.SeasonallyAdjusted, ComponentInformation.StdevForecast));
+        assertEquals(sa1.getSeries(ComponentType.SeasonallyAdjusted, ComponentInformation.Value),
+                sa2.getSeries(ComponentType.SeasonallyAdjusted, ComponentInformation.Value));
+        assertEquals(sa1.getSeries(ComponentType.Trend, ComponentInformation.Forecast),
+                sa2.getSeries(ComponentType.Trend, ComponentInformation.Forecast));
+    }
 }
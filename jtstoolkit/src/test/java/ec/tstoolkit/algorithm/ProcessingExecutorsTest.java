@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.algorithm;
+
+import ec.tstoolkit.algorithm.ProcessingExecutors.ExecutorType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class ProcessingExecutorsTest {
+
+    public ProcessingExecutorsTest() {
+    }
+
+    @Test
+    public void testOrder() throws InterruptedException, ExecutionException {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            final int k = i;
+            tasks.add(() -> k * k);
+        }
+        List<Future<Integer>> rslts = ProcessingExecutors.invokeAll(tasks);
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(i * i, (int) rslts.get(i).get());
+        }
+    }
+
+    @Test
+    public void testNested() throws InterruptedException, ExecutionException {
+        assertFalse(ProcessingExecutors.isInParallelTask());
+        final Thread main = Thread.currentThread();
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            tasks.add(() -> {
+                final Thread outer = Thread.currentThread();
+                if (outer == main || !ProcessingExecutors.isInParallelTask()) {
+                    return false;
+                }
+                List<Callable<Boolean>> inner = new ArrayList<>();
+                for (int j = 0; j < 5; ++j) {
+                    inner.add(() -> Thread.currentThread() == outer);
+                }
+                for (Future<Boolean> f : ProcessingExecutors.invokeAll(inner)) {
+                    if (!f.get()) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+        }
+        for (Future<Boolean> f : ProcessingExecutors.invokeAll(tasks)) {
+            assertTrue(f.get());
+        }
+        assertFalse(ProcessingExecutors.isInParallelTask());
+    }
+
+    @Test
+    public void testWorkStealing() throws InterruptedException, ExecutionException {
+        ExecutorService exec = ProcessingExecutors.create(ExecutorType.WorkStealing, 2);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 20; ++i) {
+                final int k = i;
+                tasks.add(() -> k);
+            }
+            List<Future<Integer>> rslts = ProcessingExecutors.invokeAll(exec, tasks);
+            for (int i = 0; i < 20; ++i) {
+                assertEquals(i, (int) rslts.get(i).get());
+            }
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    public void testSetDefault() throws InterruptedException, ExecutionException {
+        ExecutorService old = ProcessingExecutors.getDefault();
+        ProcessingExecutors.setDefault(ExecutorType.FixedThreadPool, 2);
+        try {
+            assertTrue(old.isShutdown());
+            assertTrue(ProcessingExecutors.getDefault() != old);
+            // computations that still reference the previous executor
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 10; ++i) {
+                final int k = i;
+                tasks.add(() -> k);
+            }
+            List<Future<Integer>> rslts = ProcessingExecutors.invokeAll(old, tasks);
+            for (int i = 0; i < 10; ++i) {
+                assertEquals(i, (int) rslts.get(i).get());
+            }
+            rslts = ProcessingExecutors.submitAll(old, tasks);
+            for (int i = 0; i < 10; ++i) {
+                assertEquals(i, (int) rslts.get(i).get());
+            }
+        } finally {
+            ProcessingExecutors.setDefault(null).shutdown();
+        }
+    }
+
+    @Test
+    public void testWorker() throws InterruptedException, ExecutionException, TimeoutException {
+        // a single worker: a nested parallel step on the same executor must
+        // be executed inline
+        ExecutorService exec = ProcessingExecutors.create(ExecutorType.FixedThreadPool, 1);
+        try {
+            Future<Integer> rslt = exec.submit(() -> {
+                List<Callable<Integer>> tasks = new ArrayList<>();
+                for (int i = 0; i < 10; ++i) {
+                    final int k = i;
+                    tasks.add(() -> k);
+                }
+                int sum = 0;
+                for (Future<Integer> f : ProcessingExecutors.invokeAll(exec, tasks)) {
+                    sum += f.get();
+                }
+                return sum;
+            });
+            assertEquals(45, (int) rslt.get(10, TimeUnit.SECONDS));
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testInlineException() throws InterruptedException, ExecutionException {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            throw new IllegalStateException();
+        });
+        ProcessingExecutors.invokeAll(tasks).get(0).get();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.algorithm;
+
+import ec.tstoolkit.information.InformationSet;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class ProcessingHookProviderTest {
+
+    public ProcessingHookProviderTest() {
+    }
+
+    @Test
+    public void testMessage() {
+        ProcessingHookProvider<String, String> provider = new ProcessingHookProvider<>();
+        provider.setHookMessage("parent");
+        // the message is updated, even without hooks
+        IProcessingHook.HookInformation<String, String> info = new IProcessingHook.HookInformation<>("source", "info");
+        info.message = "step";
+        provider.processHooks(info, false);
+        assertEquals(InformationSet.item("parent", "step"), info.message);
+
+        IProcessingHook.HookInformation<String, String>[] received = new IProcessingHook.HookInformation[1];
+        provider.register((hinfo, cancancel) -> received[0] = hinfo);
+        info = new IProcessingHook.HookInformation<>("source", "info");
+        info.message = "step";
+        provider.processHooks(info, false);
+        assertSame(info, received[0]);
+        assertEquals(InformationSet.item("parent", "step"), info.message);
+    }
+}
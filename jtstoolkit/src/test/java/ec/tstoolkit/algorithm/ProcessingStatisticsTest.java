@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.algorithm;
+
+import data.Data;
+import ec.satoolkit.algorithm.implementation.TramoSeatsProcessingFactory;
+import ec.satoolkit.algorithm.implementation.X13ProcessingFactory;
+import ec.satoolkit.seats.SeatsKernel;
+import ec.satoolkit.tramoseats.TramoSeatsSpecification;
+import ec.satoolkit.x11.X11Kernel;
+import ec.satoolkit.x13.X13Specification;
+import ec.tstoolkit.modelling.arima.tramo.TramoProcessor;
+import ec.tstoolkit.modelling.arima.x13.X13Preprocessor;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class ProcessingStatisticsTest {
+
+    public ProcessingStatisticsTest() {
+    }
+
+    @Test
+    public void testTramoSeats() throws IOException {
+        ProcessingStatistics stats = new ProcessingStatistics();
+        stats.enable();
+        try {
+            SequentialProcessing<TsData> sa = TramoSeatsProcessingFactory.instance.generateProcessing(TramoSeatsSpecification.RSA5, null);
+            sa.process(Data.P);
+            sa.process(Data.X);
+        } finally {
+            stats.disable();
+        }
+        assertFalse(ProcessingInstrumentation.isEnabled());
+        assertEquals(2, stats.getCount("preprocessing"));
+        assertEquals(2, stats.getCount("decomposition"));
+        assertEquals(2, stats.getCount(TramoProcessor.TRANSFORMATION));
+        assertTrue(stats.getCount(TramoProcessor.OUTLIERS) >= 2);
+        assertTrue(stats.getCount(TramoProcessor.ESTIMATION) >= 2);
+        assertEquals(2, stats.getCount(SeatsKernel.STAGE_COMPONENTS));
+        assertTrue(stats.getWallTime("preprocessing") >= stats.getWallTime(TramoProcessor.OUTLIERS));
+        // no measure when disabled
+        long n = stats.getCount("preprocessing");
+        TramoSeatsProcessingFactory.instance.generateProcessing(TramoSeatsSpecification.RSA5, null).process(Data.P);
+        assertEquals(n, stats.getCount("preprocessing"));
+
+        StringWriter writer = new StringWriter();
+        stats.writeCsv(writer);
+        String[] lines = writer.toString().split("\\R");
+        assertEquals(stats.getStages().length + 1, lines.length);
+        assertTrue(lines[0].startsWith("stage,count"));
+    }
+
+    @Test
+    public void testX13() {
+        ProcessingStatistics stats = new ProcessingStatistics();
+        stats.enable();
+        try {
+            X13ProcessingFactory.instance.generateProcessing(X13Specification.RSA5).process(Data.P);
+        } finally {
+            stats.disable();
+        }
+        assertEquals(1, stats.getCount(X13Preprocessor.TRANSFORMATION));
+        assertTrue(stats.getCount(X13Preprocessor.ESTIMATION) >= 1);
+        assertEquals(1, stats.getCount(X11Kernel.STAGE_A));
+        assertEquals(1, stats.getCount(X11Kernel.STAGE_D));
+        assertEquals(1, stats.getCount(X11Kernel.STAGE_F));
+        stats.reset();
+        assertEquals(0, stats.getStages().length);
+    }
+
+    @Test
+    public void testTime() {
+        ProcessingStatistics stats = new ProcessingStatistics();
+        stats.enable();
+        try {
+            assertEquals("rslt", ProcessingInstrumentation.time("stage", () -> "rslt"));
+            try {
+                ProcessingInstrumentation.time("stage", () -> {
+                    throw new IllegalStateException();
+                });
+                fail();
+            } catch (IllegalStateException err) {
+            }
+        } finally {
+            stats.disable();
+        }
+        // the failed stage is also measured
+        assertEquals(2, stats.getCount("stage"));
+        // no measure when disabled
+        ProcessingInstrumentation.time("stage", () -> "rslt");
+        assertEquals(2, stats.getCount("stage"));
+    }
+
+    @Test
+    public void testMBean() throws JMException {
+        ProcessingStatistics stats = new ProcessingStatistics();
+        stats.registerMBean("test");
+        try {
+            ObjectName name = new ObjectName(ProcessingStatistics.DOMAIN + ":type=ProcessingStatistics,name=\"test\"");
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+            stats.enable();
+            ProcessingInstrumentation.start("stage").stop();
+            stats.disable();
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().invoke(name, "getCount", new Object[]{"stage"}, new String[]{String.class.getName()}));
+        } finally {
+            stats.unregisterMBean();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.arima.estimation;
+
+import data.Data;
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.eco.ConcentratedLikelihood;
+import ec.tstoolkit.sarima.SarimaModel;
+import ec.tstoolkit.sarima.SarimaModelBuilder;
+import ec.tstoolkit.sarima.estimation.SarimaMapping;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import static org.junit.Assert.*;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class ArmaFunctionTest {
+
+    public ArmaFunctionTest() {
+    }
+
+    private static ArmaFunction<SarimaModel> airline() {
+        SarimaModel airline = new SarimaModelBuilder().createAirlineModel(12, -.6, -.4);
+        RegArimaModel<SarimaModel> regarima = new RegArimaModel<>(airline, new DataBlock(Data.P.log().internalStorage()));
+        regarima.setMeanCorrection(true);
+        return new ArmaFunction<>(regarima.getDModel(), airline.getNonStationaryARCount(), null,
+                new SarimaMapping(airline.getSpecification(), false));
+    }
+
+    private static DataBlock point(int i) {
+        return new DataBlock(new double[]{-.6 + 1e-3 * (i % 10), -.4});
+    }
+
+    private static double evaluate(ArmaFunction<SarimaModel> fn, int i) {
+        return fn.ssqEvaluate(point(i)).getSsqE();
+    }
+
+    // the previous behaviour: a new estimation (filter) by evaluation
+    private static double evaluateNew(ArmaFunction<SarimaModel> fn, int i) {
+        ConcentratedLikelihoodEstimation cll = new ConcentratedLikelihoodEstimation(fn.filter);
+        SarimaModel arma = (SarimaModel) fn.mapper.map(point(i)).stationaryTransformation().stationaryModel;
+        cll.estimate(fn.dmodel, fn.d, fn.missings, arma);
+        return cll.getLikelihood().getSsqErr();
+    }
+
+    @Test
+    public void testReuse() {
+        ArmaFunction<SarimaModel> fn = airline();
+        assertSame(fn.likelihoodEstimation(), fn.likelihoodEstimation());
+        for (int i = 0; i < 20; ++i) {
+            ConcentratedLikelihood ll = ((ArmaEvaluation<SarimaModel>) fn.ssqEvaluate(point(i))).getLikelihood();
+            assertEquals(evaluateNew(fn, i), ll.getSsqErr(), 0);
+        }
+        // parallel derivatives: no shared estimation
+        fn.mt = true;
+        assertNotSame(fn.likelihoodEstimation(), fn.likelihoodEstimation());
+    }
+
+    @Test
+    public void testAllocations() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean hthreads = (com.sun.management.ThreadMXBean) threads;
+        long id = Thread.currentThread().getId();
+        ArmaFunction<SarimaModel> fn = airline();
+        int n = 200;
+        for (int i = 0; i < n; ++i) {
+            evaluate(fn, i);
+            evaluateNew(fn, i);
+        }
+        long a0 = hthreads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < n; ++i) {
+            evaluate(fn, i);
+        }
+        long a1 = hthreads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < n; ++i) {
+            evaluateNew(fn, i);
+        }
+        long a2 = hthreads.getThreadAllocatedBytes(id);
+        // the working buffers of the filter (a state vector of dim 14 by
+        // observation) are no longer allocated by evaluation
+        long workspace = 8L * 14 * fn.dmodel.getObsCount();
+        assertTrue((a1 - a0) / n + workspace <= (a2 - a1) / n);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.arima.estimation;
+
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.sarima.SarimaModel;
+import ec.tstoolkit.sarima.SarmaSpecification;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class KalmanFilterTest {
+
+    public KalmanFilterTest() {
+    }
+
+    private static SarimaModel randomModel(Random rnd, int p, int q, int bp, int bq) {
+        SarmaSpecification spec = new SarmaSpecification(12);
+        spec.setP(p);
+        spec.setQ(q);
+        spec.setBP(bp);
+        spec.setBQ(bq);
+        SarimaModel model = new SarimaModel(spec);
+        do {
+            double[] params = new double[model.getParametersCount()];
+            for (int i = 0; i < params.length; ++i) {
+                params[i] = .9 * (2 * rnd.nextDouble() - 1);
+            }
+            model.setParameters(new DataBlock(params));
+        } while (!model.isValid(true));
+        return model;
+    }
+
+    @Test
+    public void testWorkspace() {
+        Random rnd = new Random(0);
+        int[] lengths = {240, 60, 360, 120};
+        for (boolean multiuse : new boolean[]{false, true}) {
+            KalmanFilter kf = new KalmanFilter(multiuse);
+            for (int i = 0; i < 20; ++i) {
+                SarimaModel model = randomModel(rnd, i % 4, (i + 1) % 2, i % 2, 1);
+                DataBlock y = new DataBlock(lengths[i % lengths.length]);
+                y.randomize(i);
+                // the filter is re-used for models of different sizes
+                int n = kf.initialize(model, y.getLength());
+                DataBlock e = new DataBlock(n);
+                kf.filter(y, e);
+                double ldet = kf.getLogDeterminant();
+
+                KalmanFilter nkf = new KalmanFilter(multiuse);
+                nkf.initialize(model, y.getLength());
+                DataBlock ne = new DataBlock(n);
+                nkf.filter(y, ne);
+                assertArrayEquals(ne.getData(), e.getData(), 0);
+                assertEquals(nkf.getLogDeterminant(), ldet, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.arima.special;
+
+import data.Data;
+import ec.tstoolkit.algorithm.ProcessingExecutors;
+import ec.tstoolkit.algorithm.ProcessingExecutors.ExecutorType;
+import ec.tstoolkit.arima.estimation.RegArimaEstimation;
+import java.util.concurrent.ExecutorService;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class GeneralizedAirlineMonitorTest {
+
+    public GeneralizedAirlineMonitorTest() {
+    }
+
+    private static GeneralizedAirlineMonitor process(GaSpecification.EstimationMode mode, ExecutorService executor, double pruning) {
+        GaSpecification spec = new GaSpecification();
+        spec.setEstimationMode(mode);
+        GeneralizedAirlineMonitor monitor = new GeneralizedAirlineMonitor();
+        monitor.setSpecification(spec);
+        monitor.setExecutor(executor);
+        monitor.setPruningMargin(pruning);
+        assertTrue(monitor.process(Data.P.log(), null));
+        return monitor;
+    }
+
+    @Test
+    public void testParallel() {
+        ExecutorService exec = ProcessingExecutors.create(ExecutorType.WorkStealing, 4);
+        try {
+            for (GaSpecification.EstimationMode mode : GaSpecification.EstimationMode.values()) {
+                GeneralizedAirlineMonitor s = process(mode, null, -1);
+                GeneralizedAirlineMonitor p = process(mode, exec, -1);
+                assertEquals(s.getResultsCount(), p.getResultsCount());
+                assertEquals(s.searchBestEstimation(), p.searchBestEstimation());
+                for (int i = 0; i < s.getResultsCount(); ++i) {
+                    RegArimaEstimation<GeneralizedAirlineModel> se = s.result(i), pe = p.result(i);
+                    if (se == null) {
+                        assertNull(pe);
+                    } else {
+                        assertEquals(se.likelihood.getLogLikelihood(), pe.likelihood.getLogLikelihood(), 0);
+                        assertTrue(p.getEstimationTime(i) > 0);
+                    }
+                }
+            }
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    public void testPruning() {
+        GeneralizedAirlineMonitor all = process(GaSpecification.EstimationMode.Exhaustive, null, -1);
+        GeneralizedAirlineMonitor pruned = process(GaSpecification.EstimationMode.Exhaustive, null, 0);
+        int npruned = 0;
+        for (int i = 0; i < all.getResultsCount(); ++i) {
+            assertFalse(all.isPruned(i));
+            if (pruned.isPruned(i)) {
+                ++npruned;
+            }
+        }
+        assertTrue(npruned > 0);
+        int best = all.searchBestEstimation();
+        assertEquals(best, pruned.searchBestEstimation());
+        assertEquals(all.result(best).likelihood.getLogLikelihood(), pruned.result(best).likelihood.getLogLikelihood(), 0);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.maths;
+
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class RealFftTest {
+
+    public RealFftTest() {
+    }
+
+    @Test
+    public void testReal() {
+        Random rnd = new Random(0);
+        for (int n = 1; n <= 130; ++n) {
+            double[] x = new double[n];
+            for (int i = 0; i < n; ++i) {
+                x[i] = rnd.nextGaussian();
+            }
+            double[] re = new double[n / 2 + 1], im = new double[n / 2 + 1];
+            RealFft.transform(x, re, im);
+            for (int k = 0; k <= n / 2; ++k) {
+                double[] dft = dft(x, new double[n], k);
+                assertEquals(dft[0], re[k], 1e-9);
+                assertEquals(dft[1], im[k], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testComplex() {
+        Random rnd = new Random(0);
+        for (int n : new int[]{2, 7, 16, 45, 64, 100, 243}) {
+            double[] x = new double[n], y = new double[n];
+            for (int i = 0; i < n; ++i) {
+                x[i] = rnd.nextGaussian();
+                y[i] = rnd.nextGaussian();
+            }
+            double[] re = x.clone(), im = y.clone();
+            RealFft.transform(re, im);
+            for (int k = 0; k < n; ++k) {
+                double[] dft = dft(x, y, k);
+                assertEquals(dft[0], re[k], 1e-9);
+                assertEquals(dft[1], im[k], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testFft() {
+        Random rnd = new Random(0);
+        int n = 128;
+        Complex[] c = new Complex[n];
+        double[] re = new double[n], im = new double[n];
+        for (int i = 0; i < n; ++i) {
+            re[i] = rnd.nextGaussian();
+            im[i] = rnd.nextGaussian();
+            c[i] = Complex.cart(re[i], im[i]);
+        }
+        // Fft uses the opposite sign convention
+        new Fft().backTransform(c);
+        RealFft.transform(re, im);
+        for (int i = 0; i < n; ++i) {
+            assertEquals(c[i].getRe() * n, re[i], 1e-9);
+            assertEquals(c[i].getIm() * n, im[i], 1e-9);
+        }
+    }
+
+    private static double[] dft(double[] x, double[] y, int k) {
+        int n = x.length;
+        double re = 0, im = 0;
+        for (int j = 0; j < n; ++j) {
+            double a = -2 * Math.PI * ((long) j * k % n) / n;
+            double cos = Math.cos(a), sin = Math.sin(a);
+            re += x[j] * cos - y[j] * sin;
+            im += x[j] * sin + y[j] * cos;
+        }
+        return new double[]{re, im};
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.maths.matrices;
+
+import ec.tstoolkit.data.DataBlock;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class BandMatrixTest {
+
+    public BandMatrixTest() {
+    }
+
+    @Test
+    public void testSolve() {
+        int n = 50, kl = 3, ku = 2;
+        Random rnd = new Random(0);
+        BandMatrix B = new BandMatrix(n, kl, ku);
+        Matrix M = new Matrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = Math.max(0, i - kl); j <= Math.min(n - 1, i + ku); ++j) {
+                // zero diagonal to force the pivoting
+                double v = i == j ? 0 : rnd.nextGaussian();
+                B.set(i, j, v);
+                M.set(i, j, v);
+            }
+        }
+        double[] b = new double[n];
+        for (int i = 0; i < n; ++i) {
+            b[i] = rnd.nextDouble();
+        }
+        double[] p = B.times(b);
+        DataBlock q = new DataBlock(n);
+        q.product(M.rows(), new DataBlock(b));
+        assertArrayEquals(q.getData(), p, 1e-12);
+
+        DataBlock x = new DataBlock(b.clone());
+        Householder qr = new Householder(false);
+        qr.decompose(M);
+        DataBlock xd = new DataBlock(n);
+        qr.solve(x, xd);
+        B.solve(b);
+        assertArrayEquals(xd.getData(), b, 1e-9);
+    }
+
+    @Test(expected = MatrixException.class)
+    public void testSingular() {
+        BandMatrix B = new BandMatrix(3, 1, 1);
+        B.set(0, 0, 1);
+        B.set(0, 1, 1);
+        B.set(1, 0, 1);
+        B.set(1, 1, 1);
+        B.set(2, 2, 1);
+        B.solve(new double[]{1, 1, 1});
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.maths.matrices;
+
+import ec.tstoolkit.maths.matrices.MatrixKernels.Implementation;
+import java.util.function.Supplier;
+import static org.junit.Assert.*;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class MatrixKernelsTest {
+
+    private static final int[][] DIMS = {{1, 1, 1}, {3, 5, 7}, {8, 8, 8}, {17, 3, 130}, {130, 21, 9}, {150, 141, 260}};
+
+    public MatrixKernelsTest() {
+    }
+
+    private static <T> T reference(Supplier<T> fn) {
+        Implementation old = MatrixKernels.getImplementation();
+        try {
+            MatrixKernels.setImplementation(Implementation.Reference);
+            return fn.get();
+        } finally {
+            MatrixKernels.setImplementation(old);
+        }
+    }
+
+    private static Matrix random(int nr, int nc, int seed) {
+        Matrix m = new Matrix(nr, nc);
+        m.randomize(seed);
+        return m;
+    }
+
+    private static void assertClose(Matrix expected, Matrix actual) {
+        assertEquals(expected.getRowsCount(), actual.getRowsCount());
+        assertEquals(expected.getColumnsCount(), actual.getColumnsCount());
+        assertTrue(expected.minus(actual).nrm2() <= 1e-9 * (1 + expected.nrm2()));
+    }
+
+    @Test
+    public void testTimes() {
+        for (int[] d : DIMS) {
+            Matrix a = random(d[0], d[2], 1), b = random(d[2], d[1], 2);
+            // sparse columns (as the regression variables of outliers)
+            for (int i = 0; i < d[0]; i += 3) {
+                a.column(d[2] / 2).set(i, 0);
+            }
+            Matrix c = a.times(b);
+            assertClose(reference(() -> a.times(b)), c);
+        }
+    }
+
+    @Test
+    public void testProduct() {
+        for (int[] d : DIMS) {
+            Matrix a = random(d[2], d[0], 3), b = random(d[1], d[2], 4);
+            // transposed operands and transposed result
+            Matrix c = new Matrix(d[1], d[0]);
+            c.all().transpose().product(a.all().transpose(), b.all().transpose());
+            Matrix r = reference(() -> {
+                Matrix tmp = new Matrix(d[1], d[0]);
+                tmp.all().transpose().product(a.all().transpose(), b.all().transpose());
+                return tmp;
+            });
+            assertClose(r, c);
+            // sub-matrices
+            Matrix big = random(d[0] + 3, d[2] + 2, 5);
+            Matrix e = new Matrix(d[0], d[1]);
+            e.all().product(big.subMatrix(1, d[0] + 1, 2, d[2] + 2), b.all().transpose());
+            Matrix f = reference(() -> {
+                Matrix tmp = new Matrix(d[0], d[1]);
+                tmp.all().product(big.subMatrix(1, d[0] + 1, 2, d[2] + 2), b.all().transpose());
+                return tmp;
+            });
+            assertClose(f, e);
+        }
+    }
+
+    @Test
+    public void testXtX() {
+        for (int[] d : DIMS) {
+            Matrix x = random(d[0], d[1], 6);
+            assertClose(reference(() -> SymmetricMatrix.XtX(x)), SymmetricMatrix.XtX(x));
+            assertClose(reference(() -> SymmetricMatrix.XXt(x)), SymmetricMatrix.XXt(x));
+            Matrix m = new Matrix(d[1], d[1]), n = new Matrix(d[0], d[0]);
+            SymmetricMatrix.XtX(x.all().transpose().transpose(), m.all());
+            SymmetricMatrix.XXt(x.all(), n.all());
+            assertClose(SymmetricMatrix.XtX(x), m);
+            assertClose(SymmetricMatrix.XXt(x), n);
+            // transposed input
+            SymmetricMatrix.XtX(x.all().transpose(), n.all());
+            SymmetricMatrix.XXt(x.all().transpose(), m.all());
+            assertClose(SymmetricMatrix.XXt(x), n);
+            assertClose(SymmetricMatrix.XtX(x), m);
+        }
+    }
+
+    @Test
+    public void testSyrk() {
+        for (int[] d : DIMS) {
+            int n = d[0], k = d[2];
+            Matrix a = random(n, k, 7);
+            Matrix aat = reference(() -> a.times(a.transpose()));
+            Matrix ata = reference(() -> a.transpose().times(a));
+            for (boolean lower : new boolean[]{true, false}) {
+                Matrix c = random(n, n, 8), c0 = c.clone();
+                MatrixKernels.syrk(lower, false, n, k, 2, a.data_, 0, n, -1, c.data_, 0, n);
+                Matrix t = random(k, k, 9), t0 = t.clone();
+                MatrixKernels.syrk(lower, true, k, n, 2, a.data_, 0, n, -1, t.data_, 0, k);
+                for (int i = 0; i < n; ++i) {
+                    for (int j = 0; j < n; ++j) {
+                        double e = (lower ? i >= j : i <= j) ? 2 * aat.get(i, j) - c0.get(i, j) : c0.get(i, j);
+                        assertEquals(e, c.get(i, j), 1e-9);
+                    }
+                }
+                for (int i = 0; i < k; ++i) {
+                    for (int j = 0; j < k; ++j) {
+                        double e = (lower ? i >= j : i <= j) ? 2 * ata.get(i, j) - t0.get(i, j) : t0.get(i, j);
+                        assertEquals(e, t.get(i, j), 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGemv() {
+        for (int[] d : DIMS) {
+            int m = d[0], n = d[1];
+            Matrix a = random(m, n, 10);
+            Matrix x = random(2 * n, 1, 11), z = random(m, 1, 12);
+            double[] y = new double[2 * m];
+            MatrixKernels.gemv(false, m, n, 1, a.data_, 0, m, x.data_, 0, 2, 0, y, 1, 2);
+            for (int i = 0; i < m; ++i) {
+                double s = 0;
+                for (int j = 0; j < n; ++j) {
+                    s += a.get(i, j) * x.get(2 * j, 0);
+                }
+                assertEquals(s, y[2 * i + 1], 1e-9);
+            }
+            double[] w = new double[n];
+            MatrixKernels.gemv(true, m, n, 3, a.data_, 0, m, z.data_, 0, 1, 0, w, 0, 1);
+            for (int j = 0; j < n; ++j) {
+                assertEquals(3 * a.column(j).dot(z.column(0)), w[j], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testNaN() {
+        // 0 * NaN = NaN: zero blocks of an operand can't be skipped
+        int m = 10, n = 9, k = 8;
+        Matrix a = random(m, k, 13), b = new Matrix(k, n);
+        a.set(2, 5, Double.NaN);
+        double[] c = new double[m * n];
+        MatrixKernels.gemm(false, false, m, n, k, 1, a.data_, 0, m, b.data_, 0, k, 0, c, 0, m);
+        for (int j = 0; j < n; ++j) {
+            assertTrue(Double.isNaN(c[j * m + 2]));
+            assertEquals(0, c[j * m + 3], 0);
+        }
+        double[] y = new double[m];
+        MatrixKernels.gemv(false, m, k, 1, a.data_, 0, m, new double[k], 0, 1, 0, y, 0, 1);
+        assertTrue(Double.isNaN(y[2]));
+        assertEquals(0, y[3], 0);
+    }
+
+    @Test
+    @Ignore
+    public void stressTestTimes() {
+        Matrix x = random(600, 80, 1);
+        for (Implementation impl : Implementation.values()) {
+            MatrixKernels.setImplementation(impl);
+            long t0 = System.currentTimeMillis();
+            for (int i = 0; i < 1000; ++i) {
+                SymmetricMatrix.XtX(x);
+                x.transpose().times(x);
+            }
+            long t1 = System.currentTimeMillis();
+            System.out.println(impl + ": " + (t1 - t0));
+        }
+        MatrixKernels.setImplementation(Implementation.Blocked);
+    }
+}
@@ -137,4 +137,30 @@ public class DefaultArimaSpecTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void testWarmStartable() {
+        DefaultArimaSpec reference = new DefaultArimaSpec();
+        reference.airline();
+        DefaultArimaSpec previous = reference.clone();
+        assertFalse(previous.isWarmStartable(reference));
+        previous.setTheta(new Parameter[]{new Parameter(-.6, ParameterType.Estimated)});
+        previous.setBTheta(new Parameter[]{new Parameter(-.4, ParameterType.Estimated)});
+        assertTrue(previous.isWarmStartable(reference));
+        assertTrue(previous.isWarmStartable(null));
+
+        DefaultArimaSpec other = reference.clone();
+        other.setP(1);
+        assertFalse(previous.isWarmStartable(other));
+
+        DefaultArimaSpec fixed = reference.clone();
+        fixed.setTheta(new Parameter[]{new Parameter(-.6, ParameterType.Fixed)});
+        assertFalse(previous.isWarmStartable(fixed));
+
+        DefaultArimaSpec mean = reference.clone();
+        mean.setMean(true);
+        assertTrue(previous.isWarmStartable(mean));
+        mean.fixMu();
+        assertFalse(previous.isWarmStartable(mean));
+    }
+
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.modelling.arima;
+
+import data.Data;
+import ec.tstoolkit.arima.estimation.RegArimaModel;
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.sarima.SarimaModel;
+import ec.tstoolkit.sarima.SarimaSpecification;
+import ec.tstoolkit.sarima.estimation.GlsSarimaMonitor;
+import ec.tstoolkit.timeseries.regression.AdditiveOutlierFactory;
+import ec.tstoolkit.timeseries.regression.IOutlierVariable;
+import ec.tstoolkit.timeseries.regression.LevelShiftFactory;
+import ec.tstoolkit.timeseries.regression.TransitoryChangeFactory;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class ExactSingleOutlierDetectorTest {
+
+    public ExactSingleOutlierDetectorTest() {
+    }
+
+    private static RegArimaModel<SarimaModel> airline(TsData s) {
+        SarimaSpecification spec = new SarimaSpecification(12);
+        spec.airline();
+        RegArimaModel<SarimaModel> model = new RegArimaModel<>(new SarimaModel(spec), new DataBlock(s.internalStorage()));
+        return new GlsSarimaMonitor().optimize(model).model;
+    }
+
+    private static ExactSingleOutlierDetector<SarimaModel> detector(TsData s, boolean incremental) {
+        ExactSingleOutlierDetector<SarimaModel> sod = new ExactSingleOutlierDetector<>();
+        sod.addOutlierFactory(new AdditiveOutlierFactory());
+        sod.addOutlierFactory(new LevelShiftFactory());
+        sod.addOutlierFactory(new TransitoryChangeFactory());
+        sod.prepare(s.getDomain(), null);
+        sod.setIncremental(incremental);
+        return sod;
+    }
+
+    @Test
+    public void testIncremental() {
+        TsData s = Data.P.log();
+        RegArimaModel<SarimaModel> model = airline(s);
+        ExactSingleOutlierDetector<SarimaModel> full = detector(s, false), incr = detector(s, true);
+        assertTrue(full.process(model));
+        assertTrue(incr.process(model));
+        for (int k = 0; k < 4; ++k) {
+            IOutlierVariable o = incr.getMaxOutlier();
+            assertEquals(full.getMaxOutlier().getPosition(), o.getPosition());
+            assertEquals(full.getMaxOutlier().getOutlierType(), o.getOutlierType());
+            DataBlock xo = new DataBlock(s.getLength());
+            o.data(s.getStart(), xo);
+            model.addX(xo);
+            full.exclude(o);
+            incr.exclude(o);
+            assertTrue(full.process(model));
+            assertTrue(incr.process(model));
+            assertEquals(full.getMAD(), incr.getMAD(), 1e-9);
+            for (int i = 0; i < s.getLength(); ++i) {
+                for (int j = 0; j < full.getOutlierFactoriesCount(); ++j) {
+                    assertEquals(full.isDefined(i, j), incr.isDefined(i, j));
+                    assertEquals(full.T(i, j), incr.T(i, j), 1e-6);
+                }
+            }
+        }
+    }
+
+    private static GeneralOutliersDetector generalDetector(TsData s, boolean incremental) {
+        GeneralOutliersDetector god = new GeneralOutliersDetector();
+        god.setDefault();
+        god.setCriticalValue(3);
+        god.useIncrementalDetection(incremental);
+        god.prepare(s.getDomain(), null);
+        return god;
+    }
+
+    @Test
+    public void testIncrementalDetection() {
+        TsData s = Data.P.log();
+        GeneralOutliersDetector god = generalDetector(s, true), sgod = generalDetector(s, false);
+        assertTrue(god.process(airline(s)));
+        assertTrue(sgod.process(airline(s)));
+        List<IOutlierVariable> outliers = god.outliers();
+        assertEquals(sgod.getOutliersCount(), outliers.size());
+        for (IOutlierVariable o : outliers) {
+            boolean found = false;
+            for (IOutlierVariable so : sgod.outliers()) {
+                if (so.getPosition().equals(o.getPosition()) && so.getOutlierType() == o.getOutlierType()) {
+                    found = true;
+                }
+            }
+            assertTrue(found);
+        }
+        double[] t = god.getModel().computeLikelihood().getTStats(true, 2);
+        int nx0 = god.getModel().getVarsCount() - outliers.size();
+        for (int i = 0; i < outliers.size(); ++i) {
+            assertTrue(Math.abs(t[nx0 + i]) >= god.getCriticalValue());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.modelling.arima.tramo;
+
+import data.Data;
+import ec.tstoolkit.algorithm.ProcessingExecutors;
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.sarima.SarmaSpecification;
+import ec.tstoolkit.sarima.estimation.HannanRissanen;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class ArmaModuleTest {
+
+    public ArmaModuleTest() {
+    }
+
+    private static DataBlock stationary(TsData s) {
+        TsData y = s.log().delta(1).delta(12);
+        DataBlock data = new DataBlock(y.internalStorage());
+        data.sub(data.sum() / data.getLength());
+        return data;
+    }
+
+    private static double[] parameters(HannanRissanen hr) {
+        return hr.getModel() == null ? null : new DataBlock(hr.getModel().getParameters()).getData();
+    }
+
+    @Test
+    public void testSharedData() {
+        DataBlock data = stationary(Data.X);
+        HannanRissanen.SharedData shared = new HannanRissanen.SharedData(data);
+        SarmaSpecification spec = new SarmaSpecification(12);
+        for (int p = 0; p <= 3; ++p) {
+            for (int q = 0; q <= 3; ++q) {
+                for (int bq = 0; bq <= 1; ++bq) {
+                    spec.setP(p);
+                    spec.setQ(q);
+                    spec.setBQ(bq);
+                    HannanRissanen hr1 = new HannanRissanen(), hr2 = new HannanRissanen();
+                    assertEquals(hr1.process(data, spec), hr2.process(shared, spec));
+                    assertArrayEquals(parameters(hr1), parameters(hr2), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        for (TsData s : new TsData[]{Data.X, Data.P, Data.M1, Data.M2, Data.M3}) {
+            DataBlock data = stationary(s);
+            SarmaSpecification maxspec = new SarmaSpecification(12);
+            maxspec.setP(3);
+            maxspec.setQ(3);
+            maxspec.setBP(1);
+            maxspec.setBQ(1);
+
+            ArmaModule seq = new ArmaModule();
+            HannanRissanen hseq = seq.tramo(data, maxspec, 1, 1, true);
+            ArmaModule par = new ArmaModule();
+            par.setExecutor(ProcessingExecutors.getDefault());
+            HannanRissanen hpar = par.tramo(data, maxspec, 1, 1, true);
+
+            assertEquals(hseq.getSpec(), hpar.getSpec());
+            assertArrayEquals(parameters(hseq), parameters(hpar), 0);
+            assertEquals(seq.getCount(), par.getCount());
+            for (int i = 0; i < seq.getCount(); ++i) {
+                ArmaModule.HRBic m1 = seq.getPreferedModels()[i], m2 = par.getPreferedModels()[i];
+                if (m1 == null) {
+                    assertNull(m2);
+                } else {
+                    assertEquals(m1.getHR().getSpec(), m2.getHR().getSpec());
+                    assertEquals(m1.getBIC(), m2.getBIC(), 0);
+                }
+            }
+
+            int n = seq.sort(data, maxspec);
+            assertEquals(n, par.sort(data, maxspec));
+            for (int i = 0; i < n; ++i) {
+                assertEquals(seq.HR(i).getSpec(), par.HR(i).getSpec());
+            }
+        }
+    }
+}
@@ -16,13 +16,20 @@
  */
 package ec.tstoolkit.modelling.arima.x13;
 
+import data.Data;
+import ec.tstoolkit.ParameterType;
 import ec.tstoolkit.arima.ArimaModelBuilder;
+import ec.tstoolkit.arima.estimation.AnsleyFilter;
+import ec.tstoolkit.modelling.IRobustStandardDeviationComputer;
+import ec.tstoolkit.modelling.arima.ExactSingleOutlierDetector;
+import ec.tstoolkit.modelling.arima.IResidualsComputer;
 import ec.tstoolkit.modelling.arima.ModelDescription;
 import ec.tstoolkit.modelling.arima.ModelEstimation;
 import ec.tstoolkit.modelling.arima.ModellingContext;
 import ec.tstoolkit.modelling.arima.RegArimaEstimator;
 import ec.tstoolkit.sarima.SarimaModel;
 import ec.tstoolkit.sarima.SarimaModelBuilder;
+import ec.tstoolkit.timeseries.regression.IOutlierVariable;
 import ec.tstoolkit.sarima.estimation.SarimaMapping;
 import ec.tstoolkit.timeseries.simplets.TsData;
 import ec.tstoolkit.timeseries.simplets.TsFrequency;
@@ -63,5 +70,50 @@ public class OutliersDetectorTest {
         context.estimation=est;
         outliers.process(context);
     }
+
+    private static ModellingContext detect(TsData s, boolean fixed, boolean incremental, ExactSingleOutlierDetector<SarimaModel> sod) {
+        SarimaModel air = new SarimaModelBuilder().createAirlineModel(12, -.4, -.6);
+        ModelDescription desc = new ModelDescription(s, null);
+        desc.setAirline(true);
+        if (fixed) {
+            desc.getArimaComponent().setModel(air);
+            desc.getArimaComponent().setParameterType(ParameterType.Fixed);
+        }
+        OutliersDetector outliers = new OutliersDetector(sod);
+        outliers.setDefault();
+        outliers.setCriticalValue(3);
+        outliers.setIncremental(incremental);
+        ModellingContext context = new ModellingContext();
+        context.description = desc;
+        outliers.process(context);
+        return context;
+    }
+
+    private static ExactSingleOutlierDetector<SarimaModel> sod() {
+        return new ExactSingleOutlierDetector<>(IRobustStandardDeviationComputer.mad(false), IResidualsComputer.mlComputer(), new AnsleyFilter());
+    }
+
+    @Test
+    public void testIncremental() {
+        TsData s = Data.P.log();
+        ExactSingleOutlierDetector<SarimaModel> isod = sod(), sod = sod();
+        ModellingContext icontext = detect(s, true, true, isod), context = detect(s, true, false, sod);
+        assertTrue(isod.isIncremental());
+        assertFalse(sod.isIncremental());
+        IOutlierVariable[] io = icontext.description.getOutliers().toArray(new IOutlierVariable[0]);
+        IOutlierVariable[] o = context.description.getOutliers().toArray(new IOutlierVariable[0]);
+        assertTrue(o.length > 0);
+        assertEquals(o.length, io.length);
+        for (int i = 0; i < o.length; ++i) {
+            assertEquals(o[i].getPosition(), io[i].getPosition());
+            assertEquals(o[i].getOutlierType(), io[i].getOutlierType());
+        }
+        assertEquals(context.estimation.getLikelihood().getLogLikelihood(), icontext.estimation.getLikelihood().getLogLikelihood(), 1e-6);
+
+        // estimated parameters: complete computation
+        ExactSingleOutlierDetector<SarimaModel> esod = sod();
+        detect(s, false, true, esod);
+        assertFalse(esod.isIncremental());
+    }
     
 }
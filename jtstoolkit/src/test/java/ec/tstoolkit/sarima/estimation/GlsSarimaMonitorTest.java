@@ -17,6 +17,13 @@
 
 package ec.tstoolkit.sarima.estimation;
 
+import ec.tstoolkit.arima.estimation.RegArimaEstimation;
+import ec.tstoolkit.arima.estimation.RegArimaModel;
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.maths.realfunctions.ProxyMinimizer;
+import ec.tstoolkit.maths.realfunctions.levmar.LevenbergMarquardtMethod;
+import ec.tstoolkit.sarima.SarimaModel;
+import ec.tstoolkit.sarima.SarimaSpecification;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -29,6 +36,41 @@ public class GlsSarimaMonitorTest {
     public GlsSarimaMonitorTest() {
     }
 
+    @Test
+    public void testWarmStart() {
+        SarimaSpecification spec = new SarimaSpecification(12);
+        spec.airline();
+        spec.setP(3);
+        DataBlock all = new DataBlock(data.Data.P.internalStorage()), previous = all.drop(0, 1);
+
+        GlsSarimaMonitor monitor = new GlsSarimaMonitor();
+        monitor.setMinimizer(new SharedMinimizer());
+        RegArimaEstimation<SarimaModel> prslt = monitor.process(new RegArimaModel<>(new SarimaModel(spec), previous));
+        RegArimaEstimation<SarimaModel> cold = monitor.process(new RegArimaModel<>(new SarimaModel(spec), all));
+        int ncold = monitor.getMinimizer().getIterCount();
+
+        GlsSarimaMonitor wmonitor = new GlsSarimaMonitor();
+        wmonitor.setMinimizer(new SharedMinimizer());
+        wmonitor.setWarmStart(true);
+        RegArimaEstimation<SarimaModel> warm = wmonitor.process(new RegArimaModel<>(prslt.model.getArima().clone(), all));
+        int nwarm = wmonitor.getMinimizer().getIterCount();
+        assertEquals(cold.likelihood.getLogLikelihood(), warm.likelihood.getLogLikelihood(), 1e-4);
+        assertTrue(nwarm < ncold);
+    }
+
+    // the monitor uses an exemplar of its minimizer; this one is shared to get the number of iterations
+    private static class SharedMinimizer extends ProxyMinimizer {
+
+        SharedMinimizer() {
+            super(new LevenbergMarquardtMethod());
+        }
+
+        @Override
+        public SharedMinimizer exemplar() {
+            return this;
+        }
+    }
+
  //   @Test
     public void demo311011() {
         process311011(1, data.Data.P.internalStorage());
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.simulation;
+
+import ec.tstoolkit.algorithm.ProcessingExecutors;
+import ec.tstoolkit.algorithm.ProcessingExecutors.ExecutorType;
+import ec.tstoolkit.arima.ArimaModel;
+import ec.tstoolkit.data.DescriptiveStatistics;
+import ec.tstoolkit.random.SplitMixRNG;
+import ec.tstoolkit.sarima.SarimaModel;
+import ec.tstoolkit.sarima.SarimaSpecification;
+import ec.tstoolkit.ucarima.ModelDecomposer;
+import ec.tstoolkit.ucarima.SeasonalSelector;
+import ec.tstoolkit.ucarima.TrendCycleSelector;
+import ec.tstoolkit.ucarima.UcarimaModel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class MonteCarloSimulationTest {
+
+    public MonteCarloSimulationTest() {
+    }
+
+    private static SarimaModel airline() {
+        SarimaSpecification spec = new SarimaSpecification(12);
+        spec.airline();
+        SarimaModel arima = new SarimaModel(spec);
+        arima.setBTheta(1, -.6);
+        arima.setTheta(1, -.4);
+        return arima;
+    }
+
+    private static SimulationResults run(ExecutorService executor) {
+        final ArimaSimulator simulator = new ArimaSimulator(airline());
+        MonteCarloSimulation simulation = new MonteCarloSimulation(12345, 200);
+        simulation.setBlockSize(17);
+        if (executor == null) {
+            simulation.setParallel(false);
+        } else {
+            simulation.setExecutor(executor);
+        }
+        simulation.define("pvalue", StatisticSummary.pvalues());
+        return simulation.process((rng, results) -> {
+            double[] data = simulator.generate(rng, 120);
+            DescriptiveStatistics stats = new DescriptiveStatistics(data);
+            results.add("mean", stats.getAverage());
+            results.add("pvalue", rng.nextDouble());
+        });
+    }
+
+    @Test
+    public void testReproducibility() {
+        SimulationResults s = run(null);
+        ExecutorService exec = ProcessingExecutors.create(ExecutorType.WorkStealing, 4);
+        try {
+            SimulationResults p = run(exec);
+            assertEquals(200, p.getReplicationsCount());
+            assertEquals(0, p.getFailuresCount());
+            assertEquals(s.get("mean").getMean(), p.get("mean").getMean(), 0);
+            assertEquals(s.get("mean").getVariance(), p.get("mean").getVariance(), 0);
+            assertEquals(s.get("pvalue").getFrequencyBelow(.05), p.get("pvalue").getFrequencyBelow(.05), 0);
+        } finally {
+            exec.shutdown();
+        }
+        assertEquals(.05, s.get("pvalue").getFrequencyBelow(.05), .04);
+        assertEquals(.5, s.get("pvalue").getQuantile(.5), .1);
+    }
+
+    @Test
+    public void testFailures() {
+        MonteCarloSimulation simulation = new MonteCarloSimulation(1, 100);
+        simulation.setParallel(false);
+        SimulationResults rslts = simulation.process((rng, results) -> {
+            double u = rng.nextDouble();
+            results.add("u", u);
+            if (u < .5) {
+                throw new IllegalStateException();
+            }
+        });
+        assertEquals(100, rslts.getReplicationsCount());
+        assertTrue(rslts.getFailuresCount() > 20 && rslts.getFailuresCount() < 80);
+        // the statistics of the failed replications are discarded
+        assertEquals(100 - rslts.getFailuresCount(), rslts.get("u").getCount());
+        assertTrue(rslts.get("u").getMin() >= .5);
+    }
+
+    @Test
+    public void testFailedBlock() {
+        MonteCarloSimulation simulation = new MonteCarloSimulation(1, 100);
+        simulation.setParallel(false);
+        final AtomicInteger count = new AtomicInteger();
+        try {
+            simulation.process((rng, results) -> {
+                count.incrementAndGet();
+                throw new InternalError();
+            });
+            fail();
+        } catch (InternalError err) {
+        }
+        // the next blocks are cancelled
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testUcarima() {
+        ModelDecomposer decomposer = new ModelDecomposer();
+        decomposer.add(new TrendCycleSelector(.5));
+        decomposer.add(new SeasonalSelector(12, 3));
+        UcarimaModel ucm = decomposer.decompose(ArimaModel.create(airline()));
+        ucm.setVarianceMax(-1, true);
+        UcarimaSimulator simulator = new UcarimaSimulator(ucm);
+        double[][] cmps = simulator.generate(SplitMixRNG.stream(0, 0), 120);
+        assertEquals(ucm.getComponentsCount(), cmps.length);
+        double[] s = UcarimaSimulator.sum(cmps);
+        assertEquals(120, s.length);
+        assertEquals(100, cmps[0][0], 50);
+        double[][] ncmps = simulator.generate(SplitMixRNG.stream(0, 0), 120);
+        assertArrayEquals(s, UcarimaSimulator.sum(ncmps), 0);
+    }
+
+    @Test
+    public void testSummary() {
+        StatisticSummary all = new StatisticSummary(0, 1, 100, .5);
+        StatisticSummary s1 = all.emptyCopy(), s2 = all.emptyCopy();
+        for (int i = 0; i < 100; ++i) {
+            double x = (i + .5) / 100;
+            all.add(x);
+            if (i % 3 == 0) {
+                s1.add(x);
+            } else {
+                s2.add(x);
+            }
+        }
+        s1.add(Double.NaN);
+        s1.merge(s2);
+        assertEquals(100, s1.getCount());
+        assertEquals(1, s1.getMissingCount());
+        assertEquals(all.getMean(), s1.getMean(), 1e-12);
+        assertEquals(all.getVariance(), s1.getVariance(), 1e-12);
+        assertEquals(.5, s1.getFrequencyBelow(.5), 1e-12);
+        assertEquals(.9, s1.getQuantile(.9), .011);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.timeseries.analysis;
+
+import data.Data;
+import ec.tstoolkit.algorithm.IProcResults;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsDomain;
+import ec.tstoolkit.timeseries.simplets.TsPeriod;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class RevisionHistoryTest {
+
+    public RevisionHistoryTest() {
+    }
+
+    private static class Results implements IProcResults {
+
+        private final TsData s;
+
+        Results(TsData s) {
+            this.s = s;
+        }
+
+        @Override
+        public boolean contains(String id) {
+            return "s".equals(id) || "last".equals(id);
+        }
+
+        @Override
+        public Map<String, Class> getDictionary() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public <T> T getData(String id, Class<T> tclass) {
+            if ("s".equals(id)) {
+                return (T) s;
+            } else if ("last".equals(id)) {
+                return (T) (Double) s.get(s.getLength() - 1);
+            } else {
+                return null;
+            }
+        }
+    }
+
+    private static class CountingProcessing implements IIncrementalTsProcessing<Results> {
+
+        final Map<TsDomain, AtomicInteger> counts = new ConcurrentHashMap<>();
+        final AtomicInteger nincremental = new AtomicInteger();
+
+        @Override
+        public Results process(TsDomain domain) {
+            return process(domain, null);
+        }
+
+        @Override
+        public Results process(TsDomain domain, Results previous) {
+            counts.computeIfAbsent(domain, d -> new AtomicInteger()).incrementAndGet();
+            if (previous != null) {
+                nincremental.incrementAndGet();
+            }
+            return new Results(Data.P.fittoDomain(domain));
+        }
+    }
+
+    @Test
+    public void testSingleComputation() {
+        CountingProcessing processing = new CountingProcessing();
+        TsDomain domain = Data.P.getDomain();
+        RevisionHistory<Results> history = new RevisionHistory<>(processing, domain);
+        TsPeriod start = domain.getLast().minus(24);
+        history.prepare(start);
+        for (AtomicInteger n : processing.counts.values()) {
+            assertEquals(1, n.get());
+        }
+        assertEquals(25, processing.counts.size());
+        TsData rev = history.revision("last", start);
+        history.tsRevision("s", start, start);
+        assertEquals(25, processing.counts.size());
+        for (AtomicInteger n : processing.counts.values()) {
+            assertEquals(1, n.get());
+        }
+        for (int i = 0; i < rev.getLength(); ++i) {
+            assertEquals(Data.P.get(start.minus(domain.getStart()) + i), rev.get(i), 1e-9);
+        }
+        // blocks of successive domains use the previous results
+        assertTrue(processing.nincremental.get() > 0);
+    }
+
+    @Test
+    public void testCapacity() {
+        CountingProcessing processing = new CountingProcessing();
+        TsDomain domain = Data.P.getDomain();
+        RevisionHistory<Results> history = new RevisionHistory<>(processing, domain, 5);
+        TsPeriod start = domain.getLast().minus(24);
+        history.revision("last", start);
+        assertEquals(25, processing.counts.size());
+        // the first domains have been removed from the cache
+        history.series("s", start);
+        assertEquals(2, processing.counts.get(new TsDomain(domain.getStart(), start.minus(domain.getStart()) + 1)).get());
+        // the last ones are still available
+        history.series("s", domain.getLast().minus(1));
+        assertEquals(1, processing.counts.get(domain.drop(0, 1)).get());
+        // the reference is never recomputed
+        history.getReferenceInfo();
+        history.referenceSeries("s");
+        assertEquals(1, processing.counts.get(domain).get());
+    }
+
+    @Test
+    public void testSizeAwareCapacity() {
+        CountingProcessing processing = new CountingProcessing();
+        TsDomain domain = Data.P.getDomain();
+        // room for one time span of the length of the reference domain
+        RevisionHistory<Results> history = new RevisionHistory<>(processing, domain, 1);
+        history.prepare(domain.getLast().minus(24));
+        assertEquals(2, processing.counts.size());
+        assertEquals(1, processing.counts.get(domain.drop(0, 1)).get());
+        // two short spans fit in the cache
+        TsDomain d1 = new TsDomain(domain.getStart(), 10), d2 = new TsDomain(domain.getStart(), 20);
+        history.tsInfo(d1);
+        history.tsInfo(d2);
+        history.tsInfo(d1);
+        assertEquals(1, processing.counts.get(d1).get());
+    }
+
+    @Test
+    public void testInterruptedPreparation() {
+        CountingProcessing processing = new CountingProcessing();
+        TsDomain domain = Data.P.getDomain();
+        RevisionHistory<Results> history = new RevisionHistory<>(processing, domain);
+        TsPeriod start = domain.getLast().minus(24);
+        Thread.currentThread().interrupt();
+        history.prepare(start);
+        assertTrue(Thread.interrupted());
+        // the time spans that have not been computed don't block the requests
+        TsData rev = history.revision("last", start);
+        for (int i = 0; i < rev.getLength(); ++i) {
+            assertEquals(Data.P.get(start.minus(domain.getStart()) + i), rev.get(i), 1e-9);
+        }
+        for (AtomicInteger n : processing.counts.values()) {
+            assertEquals(1, n.get());
+        }
+    }
+}
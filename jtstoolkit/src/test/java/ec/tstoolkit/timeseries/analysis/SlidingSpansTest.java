@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.timeseries.analysis;
+
+import data.Data;
+import ec.satoolkit.algorithm.implementation.TramoSeatsProcessingFactory;
+import ec.satoolkit.tramoseats.TramoSeatsSpecification;
+import ec.tstoolkit.algorithm.CompositeResults;
+import ec.tstoolkit.algorithm.ProcessingExecutors;
+import ec.tstoolkit.algorithm.ProcessingExecutors.ExecutorType;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class SlidingSpansTest {
+
+    public SlidingSpansTest() {
+    }
+
+    @Test
+    public void testParallel() {
+        ITsProcessing<CompositeResults> processing = domain -> TramoSeatsProcessingFactory.process(Data.X.fittoDomain(domain), TramoSeatsSpecification.RSA4);
+        SlidingSpans<CompositeResults> sspans = new SlidingSpans<>(processing, Data.X.getDomain());
+        sspans.setParallel(false);
+        assertTrue(sspans.process());
+        TsData s = sspans.Statistics("sa", DiagnosticInfo.AbsoluteDifference);
+
+        ExecutorService exec = ProcessingExecutors.create(ExecutorType.FixedThreadPool, 4);
+        try {
+            SlidingSpans<CompositeResults> pspans = new SlidingSpans<>(processing, Data.X.getDomain(), sspans.getReferenceInfo());
+            pspans.setExecutor(exec);
+            assertTrue(pspans.process());
+            assertEquals(sspans.getSpanCount(), pspans.getSpanCount());
+            for (int i = 0; i < sspans.getSpanCount(); ++i) {
+                assertEquals(sspans.getDomain(i), pspans.getDomain(i));
+            }
+            assertEquals(s, pspans.Statistics("sa", DiagnosticInfo.AbsoluteDifference));
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        // the third span (from the end) fails: the next ones are not estimated
+        AtomicInteger calls = new AtomicInteger();
+        ITsProcessing<CompositeResults> processing = domain -> calls.incrementAndGet() == 3 ? null : new CompositeResults();
+        SlidingSpans<CompositeResults> sspans = new SlidingSpans<>(processing, Data.X.getDomain(), new CompositeResults());
+        sspans.setParallel(false);
+        assertTrue(sspans.process());
+        assertEquals(2, sspans.getSpanCount());
+        assertEquals(3, calls.get());
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.timeseries.calendars;
+
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.timeseries.Day;
+import ec.tstoolkit.timeseries.DayClustering;
+import ec.tstoolkit.timeseries.Month;
+import ec.tstoolkit.timeseries.regression.EasterVariable;
+import ec.tstoolkit.timeseries.regression.GenericTradingDaysVariables;
+import ec.tstoolkit.timeseries.regression.GregorianCalendarVariables;
+import ec.tstoolkit.timeseries.simplets.TsDomain;
+import ec.tstoolkit.timeseries.simplets.TsFrequency;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class CalendarCacheTest {
+
+    public CalendarCacheTest() {
+    }
+
+    private static List<DataBlock> buffer(int dim, int n) {
+        List<DataBlock> rslt = new ArrayList<>();
+        for (int i = 0; i < dim; ++i) {
+            rslt.add(new DataBlock(n));
+        }
+        return rslt;
+    }
+
+    @Test
+    public void testTradingDays() {
+        NationalCalendarProvider provider = new NationalCalendarProvider();
+        provider.add(new FixedDay(25, Month.December));
+        TsDomain domain = new TsDomain(TsFrequency.Monthly, 1990, 0, 360);
+        GregorianCalendarVariables vars = new GregorianCalendarVariables(provider, TradingDaysType.TradingDays);
+        CalendarCache cache = CalendarCache.getDefault();
+        long hits = cache.getHitCount();
+        List<DataBlock> c1 = buffer(6, 360), c2 = buffer(6, 360), ref = buffer(6, 360);
+        vars.data(domain, c1);
+        vars.data(domain, c2);
+        provider.calendarData(TradingDaysType.TradingDays, domain, ref);
+        assertEquals(hits + 1, cache.getHitCount());
+        for (int i = 0; i < 6; ++i) {
+            assertArrayEquals(ref.get(i).getData(), c1.get(i).getData(), 0);
+            assertArrayEquals(ref.get(i).getData(), c2.get(i).getData(), 0);
+        }
+        // modified calendar
+        provider.add(new FixedDay(1, Month.May));
+        provider.calendarData(TradingDaysType.TradingDays, domain, ref);
+        vars.data(domain, c1);
+        for (int i = 0; i < 6; ++i) {
+            assertArrayEquals(ref.get(i).getData(), c1.get(i).getData(), 0);
+        }
+    }
+
+    @Test
+    public void testEaster() {
+        EasterVariable easter = new EasterVariable();
+        easter.setDuration(8);
+        TsDomain domain = new TsDomain(TsFrequency.Quarterly, 1980, 0, 120);
+        DataBlock e1 = new DataBlock(120), e2 = new DataBlock(120);
+        easter.data(domain.getStart(), e1);
+        easter.setDuration(6);
+        easter.data(domain.getStart(), e2);
+        assertFalse(Arrays.equals(e1.getData(), e2.getData()));
+        easter.setDuration(8);
+        easter.data(domain.getStart(), e2);
+        assertArrayEquals(e1.getData(), e2.getData(), 0);
+    }
+
+    @Test
+    public void testCapacity() {
+        CalendarCache cache = new CalendarCache(1000);
+        CalendarCache.Loader loader = (domain, buffer) -> provider().calendarData(TradingDaysType.TradingDays, domain, buffer);
+        for (int i = 0; i < 10; ++i) {
+            TsDomain domain = new TsDomain(TsFrequency.Monthly, 1990 + i, 0, 120);
+            cache.data("cal", TradingDaysType.TradingDays, domain, buffer(6, 120), loader);
+            assertTrue(cache.getSize() <= 1000);
+        }
+        assertEquals(720, cache.getSize());
+        // the last domain is still in the cache
+        cache.data("cal", TradingDaysType.TradingDays, new TsDomain(TsFrequency.Monthly, 1999, 0, 120), buffer(6, 120), loader);
+        assertEquals(1, cache.getHitCount());
+        cache.invalidate("cal");
+        assertEquals(0, cache.getSize());
+        cache.setCapacity(0);
+        cache.data("cal", TradingDaysType.TradingDays, new TsDomain(TsFrequency.Monthly, 1999, 0, 120), buffer(6, 120), loader);
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testManager() {
+        NationalCalendarProvider provider = new NationalCalendarProvider();
+        GregorianCalendarVariables vars = new GregorianCalendarVariables(provider, TradingDaysType.WorkingDays);
+        vars.data(new TsDomain(TsFrequency.Monthly, 1990, 0, 120), buffer(1, 120));
+        assertTrue(CalendarCache.getDefault().getSize() > 0);
+        GregorianCalendarManager mgr = new GregorianCalendarManager();
+        mgr.set("test", provider);
+        assertEquals(0, CalendarCache.getDefault().getSize());
+    }
+
+    @Test
+    public void testChainedCalendars() {
+        TsDomain domain = new TsDomain(TsFrequency.Monthly, 1990, 0, 240);
+        Day breakDay = new Day(2000, Month.January, 0);
+        // two managers with calendars of the same names
+        GregorianCalendarManager mgr1 = new GregorianCalendarManager(), mgr2 = new GregorianCalendarManager();
+        NationalCalendarProvider n1 = new NationalCalendarProvider(), n2 = new NationalCalendarProvider();
+        n1.add(new FixedDay(25, Month.December));
+        n2.add(new FixedDay(1, Month.May));
+        mgr1.set("national", n1);
+        mgr2.set("national", n2);
+        ChainedGregorianCalendarProvider c1 = new ChainedGregorianCalendarProvider(mgr1, "national", breakDay, "national");
+        ChainedGregorianCalendarProvider c2 = new ChainedGregorianCalendarProvider(mgr2, "national", breakDay, "national");
+        assertEquals(c1, c2);
+        List<DataBlock> d1 = buffer(1, 240), d2 = buffer(1, 240), ref = buffer(1, 240);
+        new GregorianCalendarVariables(c1, TradingDaysType.WorkingDays).data(domain, d1);
+        new GregorianCalendarVariables(c2, TradingDaysType.WorkingDays).data(domain, d2);
+        n2.calendarData(TradingDaysType.WorkingDays, domain, ref);
+        assertArrayEquals(ref.get(0).getData(), d2.get(0).getData(), 0);
+        assertFalse(Arrays.equals(d1.get(0).getData(), d2.get(0).getData()));
+        // a modification of the underlying calendar invalidates the chained calendar
+        n1.add(new FixedDay(1, Month.May));
+        new GregorianCalendarVariables(c1, TradingDaysType.WorkingDays).data(domain, d1);
+        n1.calendarData(TradingDaysType.WorkingDays, domain, ref);
+        assertArrayEquals(ref.get(0).getData(), d1.get(0).getData(), 0);
+    }
+
+    @Test
+    public void testDayClustering() {
+        TsDomain domain = new TsDomain(TsFrequency.Monthly, 1990, 0, 120);
+        CalendarCache cache = CalendarCache.getDefault();
+        int[] groups = new int[]{1, 1, 1, 1, 1, 2, 0};
+        GenericTradingDaysVariables v1 = new GenericTradingDaysVariables(GenericTradingDays.contrasts(DayClustering.create(groups)));
+        GenericTradingDaysVariables v2 = new GenericTradingDaysVariables(GenericTradingDays.contrasts(DayClustering.create(groups)));
+        v1.data(domain, buffer(2, 120));
+        long hits = cache.getHitCount();
+        v2.data(domain, buffer(2, 120));
+        assertEquals(hits + 1, cache.getHitCount());
+    }
+
+    private static IGregorianCalendarProvider provider() {
+        return DefaultGregorianCalendarProvider.instance;
+    }
+}
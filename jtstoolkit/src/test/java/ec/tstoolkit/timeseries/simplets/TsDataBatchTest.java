@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tstoolkit.timeseries.simplets;
+
+import data.Data;
+import ec.tstoolkit.data.DataBlock;
+import ec.tstoolkit.timeseries.TsAggregationType;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class TsDataBatchTest {
+
+    public TsDataBatchTest() {
+    }
+
+    @Test
+    public void testRoundTrip() {
+        List<TsData> all = new ArrayList<>();
+        all.add(Data.P);
+        all.add(null);
+        all.add(Data.X.changeFrequency(TsFrequency.Quarterly, TsAggregationType.Sum, true));
+        all.add(Data.M1);
+        TsDataBatch batch = TsDataBatch.of(all);
+        assertEquals(4, batch.getCount());
+        assertTrue(batch.isMissing(1));
+        assertNull(batch.series(1));
+        assertEquals(0, batch.block(1).getLength());
+        int n = 0;
+        for (int i = 0; i < all.size(); ++i) {
+            TsData s = all.get(i);
+            if (s != null) {
+                assertEquals(s, batch.series(i));
+                assertEquals(s.getDomain(), batch.getDomain(i));
+                assertEquals(s.getStart(), batch.tsBlock(i).start);
+                n += s.getLength();
+            }
+        }
+        assertEquals(n, batch.getTotalLength());
+        assertEquals(n, batch.asBuffer().remaining());
+        int k = 0;
+        for (TsData s : batch) {
+            assertEquals(all.get(k++), s);
+        }
+    }
+
+    @Test
+    public void testViews() {
+        TsDataBatch batch = TsDataBatch.of(Data.P, Data.X);
+        DataBlock block = batch.block(1);
+        block.set(0, -1);
+        assertEquals(-1, batch.get(1, 0), 0);
+        assertEquals(Data.P, batch.series(0));
+        batch.set(1, 0, Data.X.get(0));
+        assertEquals(Data.X, batch.series(1));
+    }
+
+    @Test
+    public void testTable() {
+        TsDataTable table = new TsDataTable();
+        table.add(Data.P, Data.X);
+        TsDataBatch batch = TsDataBatch.of(table);
+        assertEquals(table.getSeriesCount(), batch.getCount());
+        assertEquals(Data.X, batch.series(1));
+        TsDataBatch log = batch.map(s -> s.log());
+        assertEquals(Data.X.log(), log.series(1));
+    }
+}
@@ -22,9 +22,12 @@ import ec.satoolkit.algorithm.implementation.TramoSeatsProcessingFactory;
 import ec.satoolkit.tramoseats.TramoSeatsSpecification;
 import ec.tstoolkit.algorithm.CompositeResults;
 import ec.tstoolkit.data.DescriptiveStatistics;
+import java.util.SortedMap;
 import java.util.SortedSet;
 import org.junit.AfterClass;
+import static org.junit.Assert.*;
 import org.junit.BeforeClass;
+import org.junit.Test;
 
 /**
  *
@@ -43,6 +46,113 @@ public class TsDataVintagesTest {
     public static void tearDownClass() throws Exception {
     }
 
+    @Test
+    public void testRevisions() {
+        TsDataVintages<Integer> vintages = new TsDataVintages<>();
+        TsPeriod start = new TsPeriod(TsFrequency.Monthly, 2000, 0);
+        // vintage v contains 10+2*v observations
+        for (int v = 0; v < 5; v += 2) {
+            vintages.add(vintage(start, v), v);
+        }
+        // insertion of an intermediate vintage
+        vintages.add(vintage(start, 1), 1);
+        vintages.add(start.minus(1), -1, 3);
+
+        assertEquals(5, vintages.getVintagesCount());
+        assertEquals(new TsDomain(start.minus(1), 19), vintages.getDomain());
+        TsData current = vintages.current(), initial = vintages.initial();
+        assertEquals(-1, current.get(0), 0);
+        assertEquals(4, current.get(1), 0);
+        assertEquals(17 * 100 + 4, current.get(18), 0);
+        assertEquals(0, initial.get(1), 0);
+        assertEquals(10 * 100 + 1, initial.get(11), 0);
+        assertEquals(12 * 100 + 2, initial.get(13), 0);
+
+        TsData v1 = vintages.data(1, true), v3 = vintages.data(3, true), v3p = vintages.data(3, false);
+        assertEquals(100 + 1, v1.get(2), 0);
+        assertEquals(11 * 100 + 1, v1.get(12), 0);
+        assertTrue(Double.isNaN(v1.get(13)));
+        assertEquals(1, v3.getObsCount());
+        assertEquals(200 + 2, v3p.get(3), 0);
+        assertEquals(-1, v3p.get(0), 0);
+        assertTrue(Double.isNaN(v3p.get(16)));
+
+        assertArrayEquals(new double[]{500, 501, 502, 504}, vintages.dataVintages(start.plus(5)), 0);
+        assertEquals(Integer.valueOf(3), vintages.lastVintage(start.minus(1)));
+        assertEquals(Integer.valueOf(4), vintages.lastVintage(start.plus(10)));
+        assertNull(vintages.lastVintage(start.plus(20)));
+
+        TsMatrix m = vintages.toMatrix(vintages.allVintages(), false);
+        vintages.trim();
+        assertEquals(v3p, vintages.data(3, false));
+        for (int i = 0; i < 19; ++i) {
+            assertEquals(Double.doubleToLongBits(v3p.get(i)), Double.doubleToLongBits(m.getMatrix().get(i, 3)));
+        }
+    }
+
+    @Test
+    public void testUndefined() {
+        TsDataVintages<Integer> vintages = new TsDataVintages<>();
+        TsPeriod start = new TsPeriod(TsFrequency.Monthly, 2000, 0);
+        // periods 1 and 2 are never defined, period 3 only in the second vintage
+        vintages.add(start, 1, 0);
+        vintages.add(start.plus(4), 5, 0);
+        vintages.add(start.plus(3), 4, 1);
+        assertEquals(new TsDomain(start, 5), vintages.getDomain());
+        TsData current = vintages.current(), initial = vintages.initial();
+        assertTrue(Double.isNaN(current.get(1)));
+        assertTrue(Double.isNaN(current.get(2)));
+        assertTrue(Double.isNaN(initial.get(2)));
+        assertEquals(4, current.get(3), 0);
+        assertTrue(Double.isNaN(vintages.data(0, true).get(3)));
+        assertTrue(Double.isNaN(vintages.data(0, false).get(3)));
+        assertTrue(Double.isNaN(vintages.data(1, true).get(0)));
+        assertEquals(1, vintages.data(1, false).get(0), 0);
+        assertTrue(Double.isNaN(vintages.toMatrix(vintages.allVintages(), false).getMatrix().get(2, 1)));
+        assertNull(vintages.vintages(start.plus(1)));
+        assertNull(vintages.dataVintages(start.plus(1)));
+    }
+
+    @Test
+    public void testVintagesCopy() {
+        TsDataVintages<Integer> vintages = new TsDataVintages<>();
+        TsPeriod start = new TsPeriod(TsFrequency.Monthly, 2000, 0);
+        vintages.add(vintage(start, 0), 0);
+        vintages.add(vintage(start, 1), 1);
+        SortedMap<Integer, Double> map = vintages.vintages(start);
+        assertEquals(2, map.size());
+        map.put(0, -1.0);
+        map.put(5, -1.0);
+        assertEquals(Double.valueOf(0), vintages.vintages(start).get(0));
+        assertEquals(2, vintages.vintages(start).size());
+        assertEquals(2, vintages.getVintagesCount());
+        SortedSet<Integer> all = vintages.allVintages();
+        all.add(5);
+        assertEquals(2, vintages.allVintages().size());
+    }
+
+    @Test
+    public void testEmpty() {
+        TsDataVintages<Integer> vintages = new TsDataVintages<>();
+        assertNull(vintages.current());
+        assertNull(vintages.initial());
+        assertNull(vintages.getDomain());
+        assertNull(vintages.data(0, false));
+        assertEquals(0, vintages.getVintagesCount());
+        // empty series are ignored
+        vintages.add(new TsData(new TsPeriod(TsFrequency.Monthly, 2000, 0), 0), 0);
+        assertNull(vintages.current());
+        assertEquals(0, vintages.getVintagesCount());
+    }
+
+    private static TsData vintage(TsPeriod start, int v) {
+        TsData s = new TsData(start, 10 + 2 * v);
+        for (int i = 0; i < s.getLength(); ++i) {
+            s.set(i, i * 100 + v);
+        }
+        return s;
+    }
+
     //@Test
     public void demo() {
         TsDataVintages<TsPeriod> vintages=new TsDataVintages<>();
@@ -27,5 +27,31 @@ public class BurmanEstimatesCTest {
         burman.setData(data.Data.P);
         System.out.println(burman.estimates(0, true));
     }
+
+    @Test
+    public void testComputeAll() {
+        UcarimaModel ucm = ucmAirline(-.6, -.8);
+        BurmanEstimatesC all = new BurmanEstimatesC(), single = new BurmanEstimatesC();
+        for (BurmanEstimatesC burman : new BurmanEstimatesC[]{all, single}) {
+            burman.setForecastsCount(12);
+            burman.setUcarimaModel(ucm);
+            burman.setData(data.Data.P);
+            burman.setSer(.5);
+        }
+        all.computeAll(true);
+        for (int i = ucm.getComponentsCount() - 1; i >= 0; --i) {
+            if (ucm.getComponent(i).isNull()) {
+                continue;
+            }
+            assertArrayEquals(single.estimates(i, true), all.estimates(i, true), 0);
+            assertArrayEquals(single.forecasts(i, true), all.forecasts(i, true), 0);
+            assertArrayEquals(single.stdevForecasts(i, true), all.stdevForecasts(i, true), 0);
+            assertArrayEquals(single.stdevEstimates(i), all.stdevEstimates(i), 0);
+        }
+        double[] e = all.stdevEstimates(0);
+        all.setSer(1);
+        double[] e1 = all.stdevEstimates(0);
+        assertEquals(.5 * e1[0], e[0], 1e-12);
+    }
     
 }
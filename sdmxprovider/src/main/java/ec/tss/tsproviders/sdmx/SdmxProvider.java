@@ -30,6 +30,7 @@ import ec.tss.tsproviders.*;
 import static ec.tss.tsproviders.sdmx.SdmxBean.X_TITLE_ATTRIBUTE;
 import ec.tss.tsproviders.sdmx.engine.CunningPlanFactory;
 import ec.tss.tsproviders.sdmx.engine.ISdmxSourceFactory;
+import ec.tss.tsproviders.sdmx.engine.StaxSdmxSourceFactory;
 import ec.tss.tsproviders.sdmx.model.SdmxGroup;
 import ec.tss.tsproviders.sdmx.model.SdmxItem;
 import ec.tss.tsproviders.sdmx.model.SdmxSeries;
@@ -73,7 +74,7 @@ public class SdmxProvider extends AbstractFileLoader<SdmxSource, SdmxBean> {
 
     public SdmxProvider() {
         super(LOGGER, SOURCE, TsAsyncMode.Once);
-        this.factories = new ISdmxSourceFactory[]{new CunningPlanFactory()};
+        this.factories = new ISdmxSourceFactory[]{new CunningPlanFactory(), new StaxSdmxSourceFactory()};
         this.legacyDataSourceParser = SdmxLegacy.dataSourceParser();
         this.legacyDataSetParser = SdmxLegacy.dataSetParser();
         this.keyValueSplitter = Splitter.on(',').trimResults().withKeyValueSeparator('=');
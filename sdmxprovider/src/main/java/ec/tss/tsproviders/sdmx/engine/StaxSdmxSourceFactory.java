@@ -0,0 +1,365 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tss.tsproviders.sdmx.engine;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import ec.tss.tsproviders.sdmx.model.SdmxGroup;
+import ec.tss.tsproviders.sdmx.model.SdmxItem;
+import ec.tss.tsproviders.sdmx.model.SdmxSeries;
+import ec.tss.tsproviders.sdmx.model.SdmxSource;
+import ec.tss.tsproviders.utils.DataFormat;
+import ec.tss.tsproviders.utils.IParser;
+import ec.tss.tsproviders.utils.ObsGathering;
+import ec.tss.tsproviders.utils.OptionalTsData;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming (StAX) reader of generic and compact SDMX 2.0 files. It gives the
+ * same results as the DOM factories (GenericDocFactory,
+ * GuessingCompactFactory), without building the DOM of the complete file:
+ * the items are created while the file is read. The resulting source still
+ * contains all the series of the file (it is cached as such by the
+ * provider).
+ * <br>
+ * The kind of file is identified by the presence of a KeyFamilyRef element
+ * at the beginning of the first DataSet (generic) or not (compact). The time
+ * format of a generic series is determined by the concepts that precede its
+ * first observation.
+ * <br>
+ * The provider uses this factory when the "factory" of the bean is
+ * {@link #NAME}. The default factory (CunningPlanFactory) is unchanged.
+ *
+ * @author Jean Palate
+ */
+public class StaxSdmxSourceFactory implements ISdmxSourceFactory {
+
+    public static final String NAME = "Streaming";
+
+    private final XMLInputFactory xmlFactory;
+
+    public StaxSdmxSourceFactory() {
+        xmlFactory = XMLInputFactory.newInstance();
+        xmlFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public SdmxSource create(File file) throws Exception {
+        ImmutableList.Builder<SdmxItem> items = ImmutableList.builder();
+        SdmxSource.Type type = parse(file, items::add);
+        return new SdmxSource(type, items.build());
+    }
+
+    private SdmxSource.Type parse(File file, Consumer<? super SdmxItem> consumer) throws IOException {
+        try (InputStream stream = Files.newInputStream(file.toPath())) {
+            XMLStreamReader reader = xmlFactory.createXMLStreamReader(stream);
+            try {
+                return new Parser(reader, consumer).parse(file);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new IOException("Invalid SDMX file '" + file.getPath() + "'", ex);
+        }
+    }
+
+    private static final class Parser {
+
+        private final XMLStreamReader reader;
+        private final Consumer<? super SdmxItem> consumer;
+        private final Calendar cal = new GregorianCalendar();
+        private final IParser<Number> toValue = DEFAULT_DATA_FORMAT.numberParser();
+        private boolean generic;
+
+        Parser(XMLStreamReader reader, Consumer<? super SdmxItem> consumer) {
+            this.reader = reader;
+            this.consumer = consumer;
+        }
+
+        SdmxSource.Type parse(File file) throws XMLStreamException, IOException {
+            if (!nextChild()) {
+                throw new IOException("Empty SDMX file '" + file.getPath() + "'");
+            }
+            // root element
+            while (nextChild()) {
+                if ("DataSet".equals(reader.getLocalName())) {
+                    parseDataSet();
+                    return generic ? SdmxSource.Type.GENERIC : SdmxSource.Type.COMPACT;
+                }
+                skip();
+            }
+            throw new IOException("Cannot find a suitable SDMX strategy for '" + file.getPath() + "'");
+        }
+
+        private void parseDataSet() throws XMLStreamException {
+            boolean started = false;
+            while (nextChild()) {
+                switch (reader.getLocalName()) {
+                    case "KeyFamilyRef":
+                        if (!started) {
+                            generic = true;
+                        }
+                        skip();
+                        break;
+                    case "Group":
+                        started = true;
+                        if (generic) {
+                            parseGenericGroup();
+                        } else {
+                            skip();
+                        }
+                        break;
+                    case "Series":
+                        started = true;
+                        consumer.accept(generic ? parseGenericSeries(o -> true) : parseCompactSeries());
+                        break;
+                    default:
+                        skip();
+                }
+            }
+        }
+
+        private void parseGenericGroup() throws XMLStreamException {
+            ImmutableList<Map.Entry<String, String>> key = ImmutableList.of(), attributes = ImmutableList.of();
+            ImmutableList.Builder<SdmxSeries> series = ImmutableList.builder();
+            while (nextChild()) {
+                switch (reader.getLocalName()) {
+                    case "GroupKey":
+                        key = readConcepts();
+                        break;
+                    case "Attributes":
+                        attributes = readConcepts();
+                        break;
+                    case "Series":
+                        ImmutableList<Map.Entry<String, String>> gkey = key;
+                        series.add(parseGenericSeries(o -> !gkey.contains(o)));
+                        break;
+                    default:
+                        skip();
+                }
+            }
+            consumer.accept(new SdmxGroup(key, attributes, series.build()));
+        }
+
+        private SdmxSeries parseGenericSeries(Predicate<Map.Entry<String, String>> keyFilter) throws XMLStreamException {
+            ImmutableList<Map.Entry<String, String>> key = ImmutableList.of(), attributes = ImmutableList.of();
+            TimeFormat timeFormat = null;
+            OptionalTsData.Builder2<Date> data = null;
+            IParser<Date> toPeriod = null;
+            while (nextChild()) {
+                switch (reader.getLocalName()) {
+                    case "SeriesKey":
+                        key = readConcepts();
+                        break;
+                    case "Attributes":
+                        attributes = readConcepts();
+                        break;
+                    case "Obs":
+                        if (data == null) {
+                            timeFormat = getTimeFormat(key, attributes);
+                            toPeriod = timeFormat.getParser();
+                            data = newBuilder(timeFormat);
+                        }
+                        readGenericObs(data, toPeriod);
+                        break;
+                    default:
+                        skip();
+                }
+            }
+            if (data == null) {
+                timeFormat = getTimeFormat(key, attributes);
+                data = newBuilder(timeFormat);
+            }
+            return new SdmxSeries(filter(key, keyFilter), filter(attributes, keyFilter), timeFormat, data.build());
+        }
+
+        private void readGenericObs(OptionalTsData.Builder2<Date> data, IParser<Date> toPeriod) throws XMLStreamException {
+            String period = null, value = null;
+            while (nextChild()) {
+                switch (reader.getLocalName()) {
+                    case "Time":
+                        period = reader.getElementText();
+                        break;
+                    case "ObsValue":
+                        value = reader.getAttributeValue(null, VALUE_ATTRIBUTE);
+                        skip();
+                        break;
+                    default:
+                        skip();
+                }
+            }
+            data.add(period != null ? toPeriod.parse(period) : null, value != null ? toValue.parse(value) : null);
+        }
+
+        private SdmxSeries parseCompactSeries() throws XMLStreamException {
+            List<Map.Entry<String, String>> attributes = new ArrayList<>();
+            String timeFormatCode = null, freqCode = null;
+            for (int i = 0; i < reader.getAttributeCount(); ++i) {
+                String name = qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+                String value = reader.getAttributeValue(i);
+                if (TIME_FORMAT_ATTRIBUTE.equals(name)) {
+                    timeFormatCode = value;
+                } else {
+                    if (FREQ_ATTRIBUTE.equals(name)) {
+                        freqCode = value;
+                    }
+                    attributes.add(Maps.immutableEntry(name, value));
+                }
+            }
+            // same order as the attributes of a DOM node
+            attributes.sort(Comparator.comparing(Map.Entry::getKey));
+            ImmutableList<Map.Entry<String, String>> key = ImmutableList.copyOf(attributes);
+            TimeFormat timeFormat = timeFormatCode != null ? TimeFormat.parseByTimeFormat(timeFormatCode)
+                    : freqCode != null ? TimeFormat.parseByFrequencyCodeId(freqCode) : TimeFormat.UNDEFINED;
+            IParser<Date> toPeriod = timeFormat.getParser();
+            OptionalTsData.Builder2<Date> data = newBuilder(timeFormat);
+            while (nextChild()) {
+                if ("Obs".equals(reader.getLocalName())) {
+                    String period = getAttribute(TIME_PERIOD_ATTRIBUTE), value = getAttribute(OBS_VALUE_ATTRIBUTE);
+                    data.add(period != null ? toPeriod.parse(period) : null, value != null ? toValue.parse(value) : null);
+                }
+                skip();
+            }
+            return new SdmxSeries(key, ImmutableList.of(), timeFormat, data.build());
+        }
+
+        private OptionalTsData.Builder2<Date> newBuilder(TimeFormat timeFormat) {
+            ObsGathering gathering = ObsGathering.includingMissingValues(timeFormat.getFrequency(), timeFormat.getAggregationType());
+            return OptionalTsData.builderByDate(cal, gathering);
+        }
+
+        private ImmutableList<Map.Entry<String, String>> readConcepts() throws XMLStreamException {
+            ImmutableList.Builder<Map.Entry<String, String>> result = ImmutableList.builder();
+            while (nextChild()) {
+                if ("Value".equals(reader.getLocalName())) {
+                    result.add(Maps.immutableEntry(reader.getAttributeValue(null, CONCEPT_ATTRIBUTE), reader.getAttributeValue(null, VALUE_ATTRIBUTE)));
+                }
+                skip();
+            }
+            return result.build();
+        }
+
+        private String getAttribute(String name) {
+            for (int i = 0; i < reader.getAttributeCount(); ++i) {
+                if (name.equals(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)))) {
+                    return reader.getAttributeValue(i);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Moves to the next child element of the current element.
+         *
+         * @return false if the end of the current element is reached
+         */
+        private boolean nextChild() throws XMLStreamException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    return true;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Skips the current element (and its content)
+         */
+        private void skip() throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0 && reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    ++depth;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    --depth;
+                }
+            }
+        }
+    }
+
+    private static ImmutableList<Map.Entry<String, String>> filter(ImmutableList<Map.Entry<String, String>> list, Predicate<Map.Entry<String, String>> filter) {
+        ImmutableList.Builder<Map.Entry<String, String>> result = ImmutableList.builder();
+        for (Map.Entry<String, String> o : list) {
+            if (filter.test(o)) {
+                result.add(o);
+            }
+        }
+        return result.build();
+    }
+
+    private static TimeFormat getTimeFormat(List<Map.Entry<String, String>> key, List<Map.Entry<String, String>> attributes) {
+        Map<String, String> concepts = new HashMap<>();
+        for (Map.Entry<String, String> o : key) {
+            concepts.put(o.getKey(), o.getValue());
+        }
+        for (Map.Entry<String, String> o : attributes) {
+            concepts.put(o.getKey(), o.getValue());
+        }
+        String value = concepts.get(TIME_FORMAT_ATTRIBUTE);
+        if (value != null) {
+            return TimeFormat.parseByTimeFormat(value);
+        }
+        value = concepts.get(FREQ_ATTRIBUTE);
+        if (value != null) {
+            return TimeFormat.parseByFrequencyCodeId(value);
+        }
+        return TimeFormat.UNDEFINED;
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Resources">
+    private static final String CONCEPT_ATTRIBUTE = "concept";
+    private static final String VALUE_ATTRIBUTE = "value";
+    private static final String TIME_FORMAT_ATTRIBUTE = "TIME_FORMAT";
+    private static final String FREQ_ATTRIBUTE = "FREQ";
+    private static final String TIME_PERIOD_ATTRIBUTE = "TIME_PERIOD";
+    private static final String OBS_VALUE_ATTRIBUTE = "OBS_VALUE";
+
+    private static final DataFormat DEFAULT_DATA_FORMAT = DataFormat.ROOT;
+    //</editor-fold>
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package ec.tss.tsproviders.sdmx.engine;
+
+import com.google.common.collect.Maps;
+import static ec.tss.tsproviders.sdmx.engine.Utils.load;
+import ec.tss.tsproviders.sdmx.model.SdmxGroup;
+import ec.tss.tsproviders.sdmx.model.SdmxItem;
+import ec.tss.tsproviders.sdmx.model.SdmxSeries;
+import ec.tss.tsproviders.sdmx.model.SdmxSource;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author Jean Palate
+ */
+public class StaxSdmxSourceFactoryTest {
+
+    private static final String[] FILES = {"/sdmx-generic-sample.xml", "/sdmx-compact-sample.xml", "generic-P1Y.xml", "generic-P1M.xml"};
+
+    private static File file(String name) throws Exception {
+        return new File(StaxSdmxSourceFactoryTest.class.getResource(name).toURI());
+    }
+
+    @Test
+    public void testSameAsDom() throws Exception {
+        CunningPlanFactory dom = new CunningPlanFactory();
+        StaxSdmxSourceFactory stax = new StaxSdmxSourceFactory();
+        for (String name : FILES) {
+            AbstractDocumentFactory strategy = dom.find(load(name));
+            SdmxSource expected = strategy.create(load(name));
+            SdmxSource source = stax.create(file(name));
+            assertEquals(expected.type, source.type);
+            assertEquals(expected.items.size(), source.items.size());
+            for (int i = 0; i < expected.items.size(); ++i) {
+                SdmxItem e = expected.items.get(i), o = source.items.get(i);
+                assertEquals(e.getClass(), o.getClass());
+                assertItemEquals(e, o);
+                if (e instanceof SdmxGroup) {
+                    List<SdmxSeries> es = ((SdmxGroup) e).series, os = ((SdmxGroup) o).series;
+                    assertEquals(es.size(), os.size());
+                    for (int j = 0; j < es.size(); ++j) {
+                        assertSeriesEquals(es.get(j), os.get(j));
+                    }
+                } else {
+                    assertSeriesEquals((SdmxSeries) e, (SdmxSeries) o);
+                }
+            }
+        }
+    }
+
+    private static void assertItemEquals(SdmxItem expected, SdmxItem item) {
+        assertEquals(expected.id, item.id);
+        assertEquals(entries(expected.key), entries(item.key));
+        assertEquals(entries(expected.attributes), entries(item.attributes));
+    }
+
+    private static List<Map.Entry<String, String>> entries(List<? extends Map.Entry<String, String>> list) {
+        return list.stream().map(o -> Maps.immutableEntry(o.getKey(), o.getValue())).collect(Collectors.toList());
+    }
+
+    private static void assertSeriesEquals(SdmxSeries expected, SdmxSeries series) {
+        assertItemEquals(expected, series);
+        assertEquals(expected.timeFormat, series.timeFormat);
+        assertEquals(expected.data, series.data);
+    }
+}
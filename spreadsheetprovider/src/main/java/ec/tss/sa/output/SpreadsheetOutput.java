@@ -26,6 +26,7 @@ import ec.tstoolkit.utilities.NamedObject;
 import ec.tstoolkit.utilities.Paths;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -46,6 +47,12 @@ public class SpreadsheetOutput implements IOutput<SaDocument<ISaSpecification>>
     List<DefaultSummary> summaries_;
     File folder_;
     private boolean fullName;
+    // streaming mode
+    private SXSSFWorkbook workbook_;
+    private int nseries_;
+    private HashMap<String, TsCollectionSpool> spools_;
+    private TsCollectionSpool spool_;
+    private List<String> headers0_, headers1_;
 
     public SpreadsheetOutput(SpreadsheetOutputConfiguration config) {
         summaries_ = new ArrayList<>();
@@ -54,18 +61,82 @@ public class SpreadsheetOutput implements IOutput<SaDocument<ISaSpecification>>
     }
 
     @Override
-    public void process(SaDocument<ISaSpecification> document) {
+    public void process(SaDocument<ISaSpecification> document) throws Exception {
         DefaultSummary summary = new DefaultSummary(document.getInput().getRawName(), document.getResults(), config_.getSeries());
         if (config_.isSaveModel()) {
             summary.setModel(document.getSpecification());
         }
-        summaries_.add(summary);
+        if (workbook_ != null) {
+            stream(summary);
+        } else {
+            summaries_.add(summary);
+        }
+    }
+
+    private void stream(DefaultSummary summary) throws IOException {
+        switch (config_.getLayout()) {
+            case ByComponent: {
+                String name = name(summary);
+                for (Entry<String, TsData> keyValue : summary.getAllSeries().entrySet()) {
+                    TsCollectionSpool spool = spools_.get(keyValue.getKey());
+                    if (spool == null) {
+                        spool = new TsCollectionSpool();
+                        spools_.put(keyValue.getKey(), spool);
+                    }
+                    spool.add(name, keyValue.getValue());
+                }
+                break;
+            }
+            case BySeries: {
+                // the sheet is written immediately (the rows are flushed by the workbook)
+                Set<Entry<String, TsData>> tmp = summary.getAllSeries().entrySet();
+                TsDataTable bySeriesTable = new TsDataTable();
+                String[] componentHeaders = new String[tmp.size()];
+                int j = 0;
+                for (Entry<String, TsData> keyValue : tmp) {
+                    componentHeaders[j++] = keyValue.getKey();
+                    bySeriesTable.insert(-1, keyValue.getValue());
+                }
+                XSSFHelper.addSheet(workbook_, "Series" + Integer.toString(nseries_++), new String[]{name(summary)}, componentHeaders, bySeriesTable, config_.isVerticalOrientation());
+                break;
+            }
+            case OneSheet: {
+                headers0_.add(name(summary));
+                Map<String, TsData> data = summary.getAllSeries();
+                for (Entry<String, TsData> keyValue : data.entrySet()) {
+                    headers1_.add(keyValue.getKey());
+                    spool_.add(keyValue.getKey(), keyValue.getValue());
+                }
+                for (int i = 1; i < data.size(); i++) {
+                    headers0_.add("");
+                }
+                break;
+            }
+        }
+    }
+
+    private String name(DefaultSummary summary) {
+        if (fullName) {
+            return MultiLineNameUtil.join(summary.getName(), " * ");
+        } else {
+            return MultiLineNameUtil.last(summary.getName());
+        }
     }
 
     @Override
-    public void start(Object context) {
+    public void start(Object context) throws Exception {
         summaries_.clear();
         folder_ = BasicConfiguration.folderFromContext(config_.getFolder(), context);
+        if (config_.isStreaming()) {
+            workbook_ = new SXSSFWorkbook(null, 100, false, true);
+            nseries_ = 0;
+            spools_ = new HashMap<>();
+            if (config_.getLayout() == SpreadsheetOutputConfiguration.SpreadsheetLayout.OneSheet) {
+                spool_ = new TsCollectionSpool();
+                headers0_ = new ArrayList<>();
+                headers1_ = new ArrayList<>();
+            }
+        }
     }
 
     @Override
@@ -73,6 +144,10 @@ public class SpreadsheetOutput implements IOutput<SaDocument<ISaSpecification>>
         String file = folder_.toPath().resolve(config_.getFileName()).toFile().getAbsolutePath();
         file = Paths.changeExtension(file, "xlsx");
         File ssfile = java.nio.file.Paths.get(file).toFile();
+        if (workbook_ != null) {
+            endStreaming(ssfile);
+            return;
+        }
         //File ssfile = new File("C:\\test.xls");
         SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, false, true);
 
@@ -168,6 +243,42 @@ public class SpreadsheetOutput implements IOutput<SaDocument<ISaSpecification>>
         }
     }
 
+    private void endStreaming(File ssfile) throws Exception {
+        try (OutputStream stream = Files.newOutputStream(ssfile.toPath())) {
+            switch (config_.getLayout()) {
+                case ByComponent: {
+                    for (Entry<String, TsCollectionSpool> keyValue : spools_.entrySet()) {
+                        TsCollectionSpool spool = keyValue.getValue();
+                        String[] headers = new String[spool.getCount()];
+                        spool.forEach((i, name, s) -> headers[i] = name);
+                        //ADD SHEET
+                        XSSFHelper.addSheet(workbook_, keyValue.getKey(), new String[]{keyValue.getKey()}, headers, spool, config_.isVerticalOrientation());
+                    }
+                    break;
+                }
+                case OneSheet: {
+                    //ADD SHEET
+                    XSSFHelper.addSheet(workbook_, "Series", headers0_.stream().toArray(String[]::new), headers1_.stream().toArray(String[]::new), spool_, config_.isVerticalOrientation());
+                    break;
+                }
+            }
+            workbook_.write(stream);
+        } finally {
+            workbook_.dispose();
+            workbook_ = null;
+            for (TsCollectionSpool spool : spools_.values()) {
+                spool.close();
+            }
+            spools_ = null;
+            if (spool_ != null) {
+                spool_.close();
+                spool_ = null;
+            }
+            headers0_ = null;
+            headers1_ = null;
+        }
+    }
+
     @Override
     public String getName() {
         return "Spreadsheet";
@@ -38,6 +38,7 @@ public class SpreadsheetOutputConfiguration extends BasicConfiguration implement
     private String name_=NAME;
     private String[] series_;
     private boolean fullName_;
+    private boolean streaming_;
     
     public enum SpreadsheetLayout {
 
@@ -109,6 +110,22 @@ public class SpreadsheetOutputConfiguration extends BasicConfiguration implement
         this.fullName_ = fullName;
     }
 
+    /**
+     * The streaming mode writes the selected series of each document as soon
+     * as the document is processed (directly in the workbook for the BySeries
+     * layout, in temporary files otherwise), instead of keeping them in memory
+     * till the end of the processing
+     *
+     * @return
+     */
+    public boolean isStreaming() {
+        return streaming_;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming_ = streaming;
+    }
+
    @Override
     public SpreadsheetOutputConfiguration clone() {
         try {
@@ -18,6 +18,8 @@ package ec.tss.sa.output;
 
 import ec.tstoolkit.timeseries.simplets.TsDataTable;
 import ec.tstoolkit.timeseries.simplets.TsDataTableInfo;
+import ec.tstoolkit.timeseries.simplets.TsDomain;
+import java.io.IOException;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
@@ -125,6 +127,108 @@ public class XSSFHelper {
         return sheet;
     }
 
+    /**
+     * Adds a sheet with the series of a spool. The layout is the same as in
+     * addSheet(Workbook, String, String[], String[], TsDataTable, boolean). The
+     * rows are created in increasing order, so that they can be flushed by a
+     * streaming workbook.
+     *
+     * @param curBook
+     * @param sheetName
+     * @param headers0
+     * @param headers1
+     * @param spool
+     * @param verticalOrientation
+     * @return
+     * @throws IOException
+     */
+    public static Sheet addSheet(Workbook curBook, String sheetName, String[] headers0, String[] headers1, TsCollectionSpool spool, boolean verticalOrientation) throws IOException {
+        Sheet sheet = curBook.createSheet(sheetName);
+        TsDomain domain = spool.getDomain();
+        int nperiods = domain == null ? 0 : domain.getLength();
+
+        if (verticalOrientation) {
+            //headers0
+            Row currentRow = sheet.createRow(0);
+            for (int cellNum = 0; cellNum < headers0.length; cellNum++) {
+                Cell currentCell = currentRow.createCell(cellNum + 1, CellType.STRING);
+                currentCell.setCellValue(headers0[cellNum]);
+            }
+            //headers1
+            currentRow = sheet.createRow(1);
+            for (int cellNum = 0; cellNum < headers1.length; cellNum++) {
+                Cell currentCell = currentRow.createCell(1 + cellNum, CellType.STRING);
+                currentCell.setCellValue(headers1[cellNum]);
+            }
+            //columnvalues & data
+            spool.forEachPeriod(TsCollectionSpool.DEFAULT_BUFFER_SIZE, (i, data) -> {
+                Row row = sheet.createRow(i + 2);
+                Cell cell = row.createCell(0);
+                cell.setCellValue(domain.get(i).firstday().toString());
+                for (int j = 0; j < data.length; j++) {
+                    cell = row.createCell(j + 1);
+                    if (Double.isFinite(data[j])) {
+                        cell.setCellValue(data[j]);
+                    } else {
+                        cell.setCellValue("");
+                    }
+                }
+            });
+        } else {
+            int nbSeries = countNbSeries(headers0);
+            if (nbSeries == 0) {
+                return sheet;
+            }
+            int nbComponents = headers1.length / nbSeries;
+            // headers of the blocks, by position of their first series
+            String[] blocks = new String[spool.getCount()];
+            int currentData = 0;
+            for (String h : headers0) {
+                if (!h.isEmpty() && currentData < blocks.length) {
+                    blocks[currentData] = h;
+                }
+                currentData++;
+            }
+            int[] rowNum = new int[]{0};
+            int[] blockEnd = new int[]{0};
+            spool.forEach((i, name, s) -> {
+                if (blocks[i] != null) {
+                    Row row = sheet.createRow(rowNum[0]);
+                    Cell cell = row.createCell(1, CellType.STRING);
+                    cell.setCellValue(blocks[i]);
+
+                    // Periods
+                    rowNum[0]++;
+                    row = sheet.createRow(rowNum[0]);
+                    for (int j = 0; j < nperiods; j++) {
+                        cell = row.createCell(j + 1);
+                        cell.setCellValue(domain.get(j).firstday().toString());
+                    }
+                    blockEnd[0] = i + nbComponents;
+                }
+                if (i < blockEnd[0]) {
+                    // Components + Data
+                    Row row = sheet.createRow(++rowNum[0]);
+                    Cell cell = row.createCell(0, CellType.STRING);
+                    cell.setCellValue(headers1[i]);
+                    double[] data = spool.align(s);
+                    for (int j = 0; j < nperiods; j++) {
+                        cell = row.createCell(j + 1);
+                        if (Double.isFinite(data[j])) {
+                            cell.setCellValue(data[j]);
+                        } else {
+                            cell.setCellValue("");
+                        }
+                    }
+                    if (i == blockEnd[0] - 1) {
+                        rowNum[0] += 2;
+                    }
+                }
+            });
+        }
+        return sheet;
+    }
+
     private static int countNbSeries(String[] headers0) {
         if (headers0 == null || headers0.length == 0) {
             return 0;